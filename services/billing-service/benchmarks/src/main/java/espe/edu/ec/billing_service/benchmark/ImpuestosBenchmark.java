@@ -0,0 +1,96 @@
+package espe.edu.ec.billing_service.benchmark;
+
+import espe.edu.ec.billing_service.service.dinero.CalculadoraImpuestos;
+import espe.edu.ec.billing_service.service.dinero.Centavos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Impuesto y total de un millón de facturas: cálculo anterior con {@link BigDecimal} frente a
+ * {@link CalculadoraImpuestos}, tanto por factura desde {@link BigDecimal} (lo que hace
+ * {@code BillingService.calcularImpuesto}) como con el lote en centavos. Los tiempos son por factura;
+ * ejecutar con {@code -prof gc} para comparar también los bytes asignados.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImpuestosBenchmark {
+
+    private static final int FACTURAS = 1_000_000;
+    private static final BigDecimal TASA = new BigDecimal("0.15");
+    private static final CalculadoraImpuestos CALCULADORA = new CalculadoraImpuestos(TASA);
+
+    private final BigDecimal[] subtotales = new BigDecimal[FACTURAS];
+    private final BigDecimal[] impuestos = new BigDecimal[FACTURAS];
+    private final BigDecimal[] totales = new BigDecimal[FACTURAS];
+
+    private final long[] subtotalesCentavos = new long[FACTURAS];
+    private final long[] impuestosCentavos = new long[FACTURAS];
+    private final long[] totalesCentavos = new long[FACTURAS];
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        for (int i = 0; i < FACTURAS; i++) {
+            long centavos = 250 + random.nextInt(50_000);
+            subtotales[i] = BigDecimal.valueOf(centavos, 2);
+            subtotalesCentavos[i] = centavos;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACTURAS)
+    public BigDecimal[] bigDecimal() {
+        for (int i = 0; i < FACTURAS; i++) {
+            BigDecimal impuesto = subtotales[i].multiply(TASA).setScale(2, RoundingMode.HALF_UP);
+            impuestos[i] = impuesto;
+            totales[i] = subtotales[i].add(impuesto);
+        }
+        return totales;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACTURAS)
+    public BigDecimal[] centavosPorFactura() {
+        for (int i = 0; i < FACTURAS; i++) {
+            BigDecimal impuesto = CALCULADORA.impuesto(subtotales[i]);
+            impuestos[i] = impuesto;
+            totales[i] = subtotales[i].add(impuesto);
+        }
+        return totales;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACTURAS)
+    public long[] centavosLote() {
+        CALCULADORA.calcular(subtotalesCentavos, impuestosCentavos, totalesCentavos);
+        return totalesCentavos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FACTURAS)
+    public long[] centavosLoteDesdeBigDecimal() {
+        for (int i = 0; i < FACTURAS; i++) {
+            subtotalesCentavos[i] = Centavos.de(subtotales[i]);
+        }
+        CALCULADORA.calcular(subtotalesCentavos, impuestosCentavos, totalesCentavos);
+        return totalesCentavos;
+    }
+}
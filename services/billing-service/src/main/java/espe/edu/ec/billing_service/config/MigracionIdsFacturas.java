@@ -0,0 +1,65 @@
+package espe.edu.ec.billing_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migra {@code facturas.pedido_id} y {@code cliente_id} de bigint a uuid y garantiza el índice único
+ * de {@code pedido_id} que necesita el {@code ON CONFLICT (pedido_id)} de la facturación automática.
+ *
+ * {@code ddl-auto: update} nunca cambia el tipo de una columna ni puede crear la restricción única si
+ * ya hay pedidos repetidos. Los ids numéricos antiguos no corresponden a ningún pedido (pedido-service
+ * siempre usó UUID), así que se conservan dentro del uuid: {@code 42} pasa a ser
+ * {@code 00000000-0000-0000-0000-00000000002a}. Con pedidos repetidos no se borra ninguna factura: el
+ * arranque falla hasta resolverlos a mano. Corre antes de que el servidor acepte peticiones y no hace
+ * nada sobre un esquema ya migrado.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class MigracionIdsFacturas implements InitializingBean {
+
+    private static final String[] COLUMNAS_UUID = {"pedido_id", "cliente_id"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MigracionIdsFacturas(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String columna : COLUMNAS_UUID) {
+            String tipo = jdbcTemplate.queryForObject(
+                    "SELECT data_type FROM information_schema.columns "
+                            + "WHERE table_schema = current_schema() AND table_name = 'facturas' AND column_name = ?",
+                    String.class, columna);
+            if ("bigint".equals(tipo) || "integer".equals(tipo)) {
+                jdbcTemplate.execute("ALTER TABLE facturas ALTER COLUMN " + columna
+                        + " TYPE uuid USING lpad(to_hex(" + columna + "), 32, '0')::uuid");
+                log.info("Columna facturas.{} migrada de {} a uuid", columna, tipo);
+            }
+        }
+
+        Integer unicos = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_index i "
+                        + "JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0] "
+                        + "WHERE i.indrelid = 'facturas'::regclass AND i.indisunique AND i.indnatts = 1 "
+                        + "AND a.attname = 'pedido_id'", Integer.class);
+        if (unicos != null && unicos > 0) {
+            return;
+        }
+        Integer repetidos = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT pedido_id FROM facturas GROUP BY pedido_id HAVING COUNT(*) > 1) r",
+                Integer.class);
+        if (repetidos != null && repetidos > 0) {
+            throw new IllegalStateException("facturas tiene " + repetidos + " pedido_id con más de una factura; "
+                    + "deje una sola por pedido antes de arrancar (ON CONFLICT (pedido_id) necesita un índice único)");
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_facturas_pedido_id ON facturas (pedido_id)");
+        log.info("Índice único uk_facturas_pedido_id creado");
+    }
+}
@@ -1,12 +1,19 @@
 package espe.edu.ec.billing_service.controller;
 
 
+import espe.edu.ec.billing_service.dto.CursorPageResponse;
+import espe.edu.ec.billing_service.dto.FacturaFiltro;
+import espe.edu.ec.billing_service.dto.LoteFacturasResponse;
 import espe.edu.ec.billing_service.model.Billing;
+import espe.edu.ec.billing_service.model.EstadoType;
 import espe.edu.ec.billing_service.service.BillingService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/billing")
@@ -23,9 +30,28 @@ public class BillingController {
         return ResponseEntity.ok(billingService.generarFactura(billing));
     }
 
+    @PostMapping("/facturas/lote")
+    public ResponseEntity<LoteFacturasResponse> crearFacturasLote(@RequestBody List<Billing> facturas) {
+        return ResponseEntity.ok(billingService.generarFacturasLote(facturas));
+    }
+
     @GetMapping("/facturas")
-    public ResponseEntity<List<Billing>> listarFacturas() {
-        return ResponseEntity.ok(billingService.listarFacturas());
+    public ResponseEntity<CursorPageResponse<Billing>> listarFacturas(
+            @RequestParam(required = false) UUID clienteId,
+            @RequestParam(required = false) UUID pedidoId,
+            @RequestParam(required = false) EstadoType estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaHasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        FacturaFiltro filtro = FacturaFiltro.builder()
+                .clienteId(clienteId)
+                .pedidoId(pedidoId)
+                .estado(estado)
+                .fechaDesde(fechaDesde)
+                .fechaHasta(fechaHasta)
+                .build();
+        return ResponseEntity.ok(billingService.listarFacturas(filtro, cursor, size));
     }
 
     @GetMapping("/facturas/{id}")
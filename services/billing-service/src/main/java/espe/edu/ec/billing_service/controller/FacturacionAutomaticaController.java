@@ -0,0 +1,22 @@
+package espe.edu.ec.billing_service.controller;
+
+import espe.edu.ec.billing_service.dto.FacturacionAutomaticaMetricasResponse;
+import espe.edu.ec.billing_service.service.facturacion.FacturacionAutomaticaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/billing/facturacion-automatica")
+public class FacturacionAutomaticaController {
+
+    private final FacturacionAutomaticaService facturacionAutomaticaService;
+
+    public FacturacionAutomaticaController(FacturacionAutomaticaService facturacionAutomaticaService) {
+        this.facturacionAutomaticaService = facturacionAutomaticaService;
+    }
+
+    @GetMapping("/metricas")
+    public ResponseEntity<FacturacionAutomaticaMetricasResponse> metricas() {
+        return ResponseEntity.ok(facturacionAutomaticaService.metricas());
+    }
+}
@@ -0,0 +1,36 @@
+package espe.edu.ec.billing_service.controller;
+
+import espe.edu.ec.billing_service.dto.CotizacionLoteResponse;
+import espe.edu.ec.billing_service.dto.CotizacionRequest;
+import espe.edu.ec.billing_service.dto.TarifasResponse;
+import espe.edu.ec.billing_service.service.tarifas.CotizacionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/billing")
+public class TarifasController {
+
+    private final CotizacionService cotizacionService;
+
+    public TarifasController(CotizacionService cotizacionService) {
+        this.cotizacionService = cotizacionService;
+    }
+
+    @PostMapping("/cotizaciones/lote")
+    public ResponseEntity<CotizacionLoteResponse> cotizarLote(@RequestBody List<CotizacionRequest> solicitudes) {
+        return ResponseEntity.ok(cotizacionService.cotizarLote(solicitudes));
+    }
+
+    @GetMapping("/tarifas")
+    public ResponseEntity<TarifasResponse> tarifas() {
+        return ResponseEntity.ok(cotizacionService.tarifas());
+    }
+
+    @PostMapping("/tarifas/recargar")
+    public ResponseEntity<TarifasResponse> recargarTarifas() {
+        return ResponseEntity.ok(cotizacionService.recargar());
+    }
+}
@@ -0,0 +1,23 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CotizacionLoteResponse {
+    private int total;
+    private int cotizados;
+    private int fallidos;
+    /**
+     * Versión del tarifario con el que se cotizó todo el lote.
+     */
+    private long versionTarifas;
+    private List<CotizacionResultado> resultados;
+}
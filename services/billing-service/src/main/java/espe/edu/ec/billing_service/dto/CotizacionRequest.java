@@ -0,0 +1,21 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Pedido candidato a cotizar; el tipo de entrega usa los nombres de pedido-service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CotizacionRequest {
+    private String zonaId;
+    private String tipoEntrega;
+    private BigDecimal distanciaKm;
+}
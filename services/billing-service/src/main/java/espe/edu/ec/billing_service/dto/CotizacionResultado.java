@@ -0,0 +1,33 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Precio de un pedido candidato; {@code index} es su posición en el arreglo recibido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CotizacionResultado {
+    private int index;
+    private boolean success;
+    private BigDecimal subtotal;
+    private BigDecimal impuestos;
+    private BigDecimal total;
+    private String error;
+
+    public static CotizacionResultado ok(int index, BigDecimal subtotal, BigDecimal impuestos, BigDecimal total) {
+        return CotizacionResultado.builder().index(index).success(true)
+                .subtotal(subtotal).impuestos(impuestos).total(total).build();
+    }
+
+    public static CotizacionResultado fallo(int index, String error) {
+        return CotizacionResultado.builder().index(index).success(false).error(error).build();
+    }
+}
@@ -0,0 +1,25 @@
+package espe.edu.ec.billing_service.dto;
+
+import espe.edu.ec.billing_service.model.EstadoType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filtros combinables para la búsqueda de facturas. Los campos nulos no filtran.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacturaFiltro {
+    private UUID clienteId;
+    private UUID pedidoId;
+    private EstadoType estado;
+    private LocalDateTime fechaDesde;
+    private LocalDateTime fechaHasta;
+}
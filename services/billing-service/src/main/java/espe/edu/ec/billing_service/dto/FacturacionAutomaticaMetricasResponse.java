@@ -0,0 +1,30 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacturacionAutomaticaMetricasResponse {
+    private boolean habilitada;
+    private int trabajadores;
+    private long facturasCreadas;
+    private long pedidosDuplicados;
+    private long paginasProcesadas;
+    private long fallos;
+    private String ultimoError;
+    private double facturasPorSegundo;
+    private LocalDateTime ultimaEntregaProcesada;
+    /**
+     * Antigüedad de la última entrega procesada mientras quedan páginas pendientes; 0 si está al día.
+     */
+    private long retrasoSegundos;
+    private boolean alDia;
+    private String cursor;
+}
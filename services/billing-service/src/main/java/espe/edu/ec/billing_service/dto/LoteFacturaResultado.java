@@ -0,0 +1,31 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Resultado de una factura dentro de un lote; {@code index} es su posición en el arreglo recibido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoteFacturaResultado {
+    private int index;
+    private boolean success;
+    private Long id;
+    private UUID pedidoId;
+    private String error;
+
+    public static LoteFacturaResultado ok(int index, Long id, UUID pedidoId) {
+        return LoteFacturaResultado.builder().index(index).success(true).id(id).pedidoId(pedidoId).build();
+    }
+
+    public static LoteFacturaResultado fallo(int index, UUID pedidoId, String error) {
+        return LoteFacturaResultado.builder().index(index).success(false).pedidoId(pedidoId).error(error).build();
+    }
+}
@@ -0,0 +1,19 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoteFacturasResponse {
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<LoteFacturaResultado> resultados;
+}
@@ -0,0 +1,22 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de {@code GET /pedidos/entregados}; {@code data} de la respuesta envuelta de pedido-service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaEntregas {
+    private List<PedidoEntregado> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Campos del pedido de pedido-service que usa la facturación; el resto del JSON se ignora.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PedidoEntregado {
+    private UUID id;
+    private UUID clienteId;
+    private String tipoEntrega;
+    private String zonaId;
+    private BigDecimal distanciaKm;
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,15 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envoltorio {@code ApiResponse} con el que responde pedido-service.
+ */
+@Data
+@NoArgsConstructor
+public class RespuestaPedidos<T> {
+    private boolean success;
+    private String message;
+    private T data;
+}
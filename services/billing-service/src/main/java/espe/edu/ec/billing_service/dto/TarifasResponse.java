@@ -0,0 +1,24 @@
+package espe.edu.ec.billing_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TarifasResponse {
+    private long version;
+    private Instant compiladoEn;
+    private int zonas;
+    private int tramos;
+    private int recargos;
+    /**
+     * Motivo por el que la última recarga se rechazó; nulo si se aplicó.
+     */
+    private String ultimoError;
+}
@@ -0,0 +1,7 @@
+package espe.edu.ec.billing_service.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -9,26 +9,36 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "facturas")
+@Table(name = "facturas", indexes = {
+        @Index(name = "idx_facturas_cliente_fecha_id", columnList = "cliente_id, fecha_emision, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Billing {
 
+    /**
+     * Ids por bloques de 50 para que Hibernate agrupe los INSERT en lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "facturas_seq")
+    @SequenceGenerator(name = "facturas_seq", sequenceName = "facturas_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Id del pedido en pedido-service; cada pedido tiene como máximo una factura.
+     */
     @NotNull(message = "El pedido es obligatorio")
-    @Column(nullable = false)
-    private Long pedidoId;
+    @Column(nullable = false, unique = true)
+    private UUID pedidoId;
 
     @NotNull(message = "El cliente es obligatorio")
     @Column(nullable = false)
-    private Long clienteId;
+    private UUID clienteId;
 
     @NotNull(message = "El subtotal es obligatorio")
     @Column(nullable = false)
@@ -0,0 +1,47 @@
+package espe.edu.ec.billing_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición confirmada de un consumidor del feed de pedidos. Solo avanza después de que las
+ * facturas de la página leída estén guardadas, así que un reinicio continúa desde aquí.
+ */
+@Entity
+@Table(name = "checkpoint_facturacion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CheckpointFacturacion {
+
+    @Id
+    private String consumidor;
+
+    /**
+     * Cursor opaco devuelto por pedido-service; nulo antes de la primera página.
+     */
+    @Column(length = 200)
+    private String cursor;
+
+    /**
+     * Fecha de entrega del último pedido procesado.
+     */
+    private LocalDateTime ultimaEntrega;
+
+    @Column(nullable = false)
+    private long procesados;
+
+    private LocalDateTime fechaActualizacion;
+
+    /**
+     * Evita que dos instancias avancen el mismo checkpoint a la vez.
+     */
+    @Version
+    private Long version;
+}
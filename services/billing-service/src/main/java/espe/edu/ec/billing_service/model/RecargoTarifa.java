@@ -0,0 +1,53 @@
+package espe.edu.ec.billing_service.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Recargo sobre el importe del tramo: {@code porcentaje} se aplica a base más distancia y
+ * {@code montoFijo} se suma después. Zona o tipo nulos significan que aplica a todos.
+ */
+@Entity
+@Table(name = "recargos_tarifa")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecargoTarifa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "El nombre del recargo es obligatorio")
+    @Column(nullable = false, length = 100)
+    private String nombre;
+
+    @Column(length = 50)
+    private String zonaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private TipoEntrega tipoEntrega;
+
+    @Builder.Default
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal montoFijo = BigDecimal.ZERO;
+
+    /**
+     * Porcentaje sobre el importe del tramo (10.00 = 10%).
+     */
+    @Builder.Default
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal porcentaje = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean activo = true;
+}
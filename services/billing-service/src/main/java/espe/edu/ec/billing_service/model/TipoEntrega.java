@@ -0,0 +1,10 @@
+package espe.edu.ec.billing_service.model;
+
+/**
+ * Tipos de entrega de pedido-service; los nombres deben coincidir con los suyos.
+ */
+public enum TipoEntrega {
+    URBANA,
+    INTERMUNICIPAL,
+    NACIONAL
+}
@@ -0,0 +1,63 @@
+package espe.edu.ec.billing_service.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Tramo de distancia de una tarifa: para distancias en [desdeKm, hastaKm) el subtotal es
+ * {@code tarifaBase + distanciaKm * tarifaPorKm}, antes de recargos.
+ */
+@Entity
+@Table(name = "tramos_tarifa", indexes = {
+        @Index(name = "idx_tramos_tarifa_zona_tipo", columnList = "zona_id, tipo_entrega")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TramoTarifa {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Zona de pedido-service; nula para la tarifa general, que se usa cuando la zona no tiene
+     * tramos propios para el tipo de entrega.
+     */
+    @Column(length = 50)
+    private String zonaId;
+
+    @NotNull(message = "El tipo de entrega es obligatorio")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEntrega tipoEntrega;
+
+    @NotNull(message = "El inicio del tramo es obligatorio")
+    @Column(nullable = false, precision = 10, scale = 3)
+    private BigDecimal desdeKm;
+
+    /**
+     * Fin exclusivo del tramo; nulo si no tiene límite.
+     */
+    @Column(precision = 10, scale = 3)
+    private BigDecimal hastaKm;
+
+    @NotNull(message = "La tarifa base es obligatoria")
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal tarifaBase;
+
+    @NotNull(message = "La tarifa por km es obligatoria")
+    @Column(nullable = false, precision = 12, scale = 4)
+    private BigDecimal tarifaPorKm;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean activo = true;
+}
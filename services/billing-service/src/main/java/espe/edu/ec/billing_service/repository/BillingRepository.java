@@ -2,9 +2,20 @@ package espe.edu.ec.billing_service.repository;
 
 import espe.edu.ec.billing_service.model.Billing;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
-public interface BillingRepository extends JpaRepository<Billing,Long > {
+public interface BillingRepository extends JpaRepository<Billing,Long >, JpaSpecificationExecutor<Billing> {
     Optional<Billing> findById(long id);
+
+    boolean existsByPedidoId(UUID pedidoId);
+
+    @Query("SELECT b.pedidoId FROM Billing b WHERE b.pedidoId IN :pedidoIds")
+    List<UUID> findPedidoIdsFacturados(@Param("pedidoIds") Collection<UUID> pedidoIds);
 }
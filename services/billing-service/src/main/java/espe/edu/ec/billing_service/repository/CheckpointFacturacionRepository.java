@@ -0,0 +1,7 @@
+package espe.edu.ec.billing_service.repository;
+
+import espe.edu.ec.billing_service.model.CheckpointFacturacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CheckpointFacturacionRepository extends JpaRepository<CheckpointFacturacion, String> {
+}
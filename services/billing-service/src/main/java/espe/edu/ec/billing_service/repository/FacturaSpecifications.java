@@ -0,0 +1,68 @@
+package espe.edu.ec.billing_service.repository;
+
+import espe.edu.ec.billing_service.dto.FacturaFiltro;
+import espe.edu.ec.billing_service.model.Billing;
+import espe.edu.ec.billing_service.service.FacturaCursor;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Especificaciones JPA para la búsqueda de facturas
+ */
+public final class FacturaSpecifications {
+
+    /**
+     * Orden del keyset; coincide con la cola (fecha_emision, id) del índice por cliente de {@link Billing}
+     */
+    public static final Sort ORDEN_KEYSET = Sort.by(
+            Sort.Order.desc("fechaEmision"),
+            Sort.Order.desc("id")
+    );
+
+    private FacturaSpecifications() {
+    }
+
+    public static Specification<Billing> conFiltro(FacturaFiltro filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filtro.getClienteId() != null) {
+                predicates.add(cb.equal(root.get("clienteId"), filtro.getClienteId()));
+            }
+            if (filtro.getPedidoId() != null) {
+                predicates.add(cb.equal(root.get("pedidoId"), filtro.getPedidoId()));
+            }
+            if (filtro.getEstado() != null) {
+                predicates.add(cb.equal(root.get("estado"), filtro.getEstado()));
+            }
+            if (filtro.getFechaDesde() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("fechaEmision"), filtro.getFechaDesde()));
+            }
+            if (filtro.getFechaHasta() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("fechaEmision"), filtro.getFechaHasta()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Filas estrictamente posteriores al cursor en orden descendente:
+     * {@code fecha <= :f AND (fecha < :f OR id < :id)}. La primera condición acota el
+     * rango del índice; la segunda descarta el empate ya entregado.
+     */
+    public static Specification<Billing> despuesDe(FacturaCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.<LocalDateTime>get("fechaEmision"), cursor.fechaEmision()),
+                cb.or(
+                        cb.lessThan(root.<LocalDateTime>get("fechaEmision"), cursor.fechaEmision()),
+                        cb.lessThan(root.<Long>get("id"), cursor.id())
+                )
+        );
+    }
+}
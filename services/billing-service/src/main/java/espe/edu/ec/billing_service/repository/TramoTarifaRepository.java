@@ -0,0 +1,11 @@
+package espe.edu.ec.billing_service.repository;
+
+import espe.edu.ec.billing_service.model.TramoTarifa;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TramoTarifaRepository extends JpaRepository<TramoTarifa, Long> {
+
+    List<TramoTarifa> findByActivoTrue();
+}
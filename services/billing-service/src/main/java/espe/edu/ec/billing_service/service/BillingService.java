@@ -1,27 +1,67 @@
 package espe.edu.ec.billing_service.service;
 
+import espe.edu.ec.billing_service.dto.CursorPageResponse;
+import espe.edu.ec.billing_service.dto.FacturaFiltro;
+import espe.edu.ec.billing_service.dto.LoteFacturaResultado;
+import espe.edu.ec.billing_service.dto.LoteFacturasResponse;
+import espe.edu.ec.billing_service.exception.BadRequestException;
 import espe.edu.ec.billing_service.model.Billing;
 import espe.edu.ec.billing_service.model.EstadoType;
 import espe.edu.ec.billing_service.repository.BillingRepository;
+import espe.edu.ec.billing_service.repository.FacturaSpecifications;
+import espe.edu.ec.billing_service.service.dinero.CalculadoraImpuestos;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
+@Slf4j
 public class BillingService {
 
+    public static final int MAX_LOTE_SIZE = 20000;
+    public static final int MAX_PAGE_SIZE = 500;
+    static final int DIAS_POR_DEFECTO = 31;
+
     private final BillingRepository billingRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int chunkSize;
     private static final BigDecimal TASA_IMPUESTO = new BigDecimal("0.15");
+    private static final CalculadoraImpuestos CALCULADORA = new CalculadoraImpuestos(TASA_IMPUESTO);
 
-    public BillingService(BillingRepository billingRepository) {
+    public BillingService(
+            BillingRepository billingRepository,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize,
+            @Value("${billing.lote.chunk-size:1000}") int chunkSize
+    ) {
         this.billingRepository = billingRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
     }
 
     @Transactional
     public Billing generarFactura(Billing billing) {
+        if (billingRepository.existsByPedidoId(billing.getPedidoId())) {
+            throw new RuntimeException("Ya existe una factura para el pedido: " + billing.getPedidoId());
+        }
         BigDecimal subtotal = billing.getSubtotal();
         BigDecimal impuestos = calcularImpuesto(subtotal);
         BigDecimal total = subtotal.add(impuestos);
@@ -33,9 +73,106 @@ public class BillingService {
         return billingRepository.save(billing);
     }
 
+    /**
+     * Emite un lote de facturas BORRADOR con resultado por elemento.
+     *
+     * Los elementos inválidos, repetidos en el lote o ya facturados se rechazan antes de escribir.
+     * Los válidos se guardan en bloques de {@code billing.lote.chunk-size}, cada uno en su propia
+     * transacción: los ids salen de la secuencia por bloques, así que Hibernate agrupa los INSERT en
+     * lotes JDBC de {@code hibernate.jdbc.batch_size}. Si un bloque falla (por ejemplo, otro proceso
+     * facturó uno de sus pedidos entretanto), solo se rechazan sus elementos.
+     */
+    public LoteFacturasResponse generarFacturasLote(List<Billing> facturas) {
+        if (facturas == null || facturas.isEmpty()) {
+            throw new RuntimeException("El lote de facturas no puede estar vacío");
+        }
+        if (facturas.size() > MAX_LOTE_SIZE) {
+            throw new RuntimeException("El lote no puede exceder " + MAX_LOTE_SIZE + " facturas");
+        }
+
+        List<LoteFacturaResultado> resultados = new ArrayList<>(facturas.size());
+        Set<UUID> facturados = pedidosFacturados(facturas);
+        Set<UUID> vistos = new HashSet<>();
+        List<Billing> pendientes = new ArrayList<>(chunkSize);
+        List<Integer> indicesPendientes = new ArrayList<>(chunkSize);
+        int exitosos = 0;
+
+        for (int i = 0; i < facturas.size(); i++) {
+            Billing factura = facturas.get(i);
+            String error = validar(factura, facturados, vistos);
+            if (error != null) {
+                resultados.add(LoteFacturaResultado.fallo(i, factura != null ? factura.getPedidoId() : null, error));
+                continue;
+            }
+
+            BigDecimal impuestos = calcularImpuesto(factura.getSubtotal());
+            factura.setId(null);
+            factura.setImpuestos(impuestos);
+            factura.setTotal(factura.getSubtotal().add(impuestos));
+            factura.setEstado(EstadoType.BORRADOR);
+            pendientes.add(factura);
+            indicesPendientes.add(i);
+
+            if (pendientes.size() == chunkSize) {
+                exitosos += guardarBloque(pendientes, indicesPendientes, resultados);
+            }
+        }
+        exitosos += guardarBloque(pendientes, indicesPendientes, resultados);
+
+        resultados.sort(Comparator.comparingInt(LoteFacturaResultado::getIndex));
+        log.info("Lote de facturas procesado: {} recibidas, {} emitidas, {} rechazadas",
+                facturas.size(), exitosos, facturas.size() - exitosos);
+
+        return LoteFacturasResponse.builder()
+                .total(facturas.size())
+                .exitosos(exitosos)
+                .fallidos(facturas.size() - exitosos)
+                .resultados(resultados)
+                .build();
+    }
+
+    /**
+     * Busca facturas con paginación por cursor sobre (fecha_emision, id) descendente.
+     *
+     * Con cliente el índice (cliente_id, fecha_emision, id) entrega las filas ya ordenadas. Sin
+     * cliente ni pedido la búsqueda recorre un rango de fechas con el índice BRIN, así que si no se
+     * indica {@code fechaDesde} se limita a los {@value #DIAS_POR_DEFECTO} días previos a
+     * {@code fechaHasta} (o a ahora).
+     */
     @Transactional(readOnly = true)
-    public List<Billing> listarFacturas() {
-        return billingRepository.findAll();
+    public CursorPageResponse<Billing> listarFacturas(FacturaFiltro filtro, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        if (filtro.getFechaDesde() != null && filtro.getFechaHasta() != null
+                && !filtro.getFechaDesde().isBefore(filtro.getFechaHasta())) {
+            throw new BadRequestException("fechaDesde debe ser anterior a fechaHasta");
+        }
+        if (filtro.getClienteId() == null && filtro.getPedidoId() == null && filtro.getFechaDesde() == null) {
+            LocalDateTime hasta = filtro.getFechaHasta() != null ? filtro.getFechaHasta() : LocalDateTime.now();
+            filtro.setFechaDesde(hasta.minusDays(DIAS_POR_DEFECTO));
+        }
+
+        Specification<Billing> spec = FacturaSpecifications.conFiltro(filtro);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(FacturaSpecifications.despuesDe(FacturaCursor.decode(cursor)));
+        }
+
+        List<Billing> facturas = billingRepository.findBy(spec, q -> q
+                .sortBy(FacturaSpecifications.ORDEN_KEYSET)
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = facturas.size() > size;
+        List<Billing> pagina = hasNext ? facturas.subList(0, size) : facturas;
+        String nextCursor = hasNext ? FacturaCursor.of(pagina.get(size - 1)).encode() : null;
+
+        return CursorPageResponse.<Billing>builder()
+                .items(pagina)
+                .size(pagina.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -49,9 +186,97 @@ public class BillingService {
     /**
      * Calcula el impuesto (IVA 15%) sobre el subtotal.
      * @param subtotal Monto base antes de impuestos
+     * Se calcula en centavos; el redondeo es HALF_UP, igual que con BigDecimal.
      * @return Monto del impuesto calculado con 2 decimales
      */
     public BigDecimal calcularImpuesto(BigDecimal subtotal) {
-        return subtotal.multiply(TASA_IMPUESTO).setScale(2, RoundingMode.HALF_UP);
+        return CALCULADORA.impuesto(subtotal);
+    }
+
+    /**
+     * Impuestos y totales de un lote de subtotales, todo en centavos.
+     * @param subtotales Subtotales en centavos
+     * @param impuestos Arreglo de salida con el impuesto de cada subtotal
+     * @param totales Arreglo de salida con subtotal más impuesto
+     */
+    public void calcularImpuestos(long[] subtotales, long[] impuestos, long[] totales) {
+        CALCULADORA.calcular(subtotales, impuestos, totales);
+    }
+
+    private Set<UUID> pedidosFacturados(List<Billing> facturas) {
+        List<UUID> pedidoIds = facturas.stream()
+                .filter(factura -> factura != null && factura.getPedidoId() != null)
+                .map(Billing::getPedidoId)
+                .distinct()
+                .toList();
+        Set<UUID> facturados = new HashSet<>();
+        for (int desde = 0; desde < pedidoIds.size(); desde += chunkSize) {
+            facturados.addAll(billingRepository.findPedidoIdsFacturados(
+                    pedidoIds.subList(desde, Math.min(desde + chunkSize, pedidoIds.size()))));
+        }
+        return facturados;
+    }
+
+    private static String validar(Billing factura, Set<UUID> facturados, Set<UUID> vistos) {
+        if (factura == null) {
+            return "La factura es obligatoria";
+        }
+        if (factura.getPedidoId() == null) {
+            return "El pedido es obligatorio";
+        }
+        if (factura.getClienteId() == null) {
+            return "El cliente es obligatorio";
+        }
+        if (factura.getSubtotal() == null) {
+            return "El subtotal es obligatorio";
+        }
+        if (factura.getSubtotal().signum() < 0) {
+            return "El subtotal no puede ser negativo";
+        }
+        if (facturados.contains(factura.getPedidoId())) {
+            return "Ya existe una factura para el pedido: " + factura.getPedidoId();
+        }
+        if (!vistos.add(factura.getPedidoId())) {
+            return "Pedido repetido en el lote: " + factura.getPedidoId();
+        }
+        return null;
+    }
+
+    /**
+     * Guarda un bloque en una transacción, vaciando el contexto de persistencia cada
+     * {@code batchSize} facturas para mantener la memoria acotada.
+     */
+    private int guardarBloque(List<Billing> bloque, List<Integer> indices, List<LoteFacturaResultado> resultados) {
+        if (bloque.isEmpty()) {
+            return 0;
+        }
+        int guardadas;
+        try {
+            guardadas = transactionTemplate.execute(status -> {
+                for (int i = 0; i < bloque.size(); i++) {
+                    entityManager.persist(bloque.get(i));
+                    if ((i + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return bloque.size();
+            });
+            for (int i = 0; i < bloque.size(); i++) {
+                resultados.add(LoteFacturaResultado.ok(indices.get(i), bloque.get(i).getId(), bloque.get(i).getPedidoId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar un bloque de {} facturas: {}", bloque.size(), e.getMessage());
+            for (int i = 0; i < bloque.size(); i++) {
+                resultados.add(LoteFacturaResultado.fallo(indices.get(i), bloque.get(i).getPedidoId(),
+                        "No se pudo guardar el bloque: " + e.getMessage()));
+            }
+            guardadas = 0;
+        }
+        bloque.clear();
+        indices.clear();
+        return guardadas;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package espe.edu.ec.billing_service.service;
+
+import espe.edu.ec.billing_service.exception.BadRequestException;
+import espe.edu.ec.billing_service.model.Billing;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición del keyset (fecha_emision, id) codificada como cursor opaco en Base64 URL-safe.
+ */
+public record FacturaCursor(LocalDateTime fechaEmision, long id) {
+
+    private static final char SEPARADOR = '|';
+
+    public static FacturaCursor of(Billing factura) {
+        return new FacturaCursor(factura.getFechaEmision(), factura.getId());
+    }
+
+    public String encode() {
+        String raw = fechaEmision.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FacturaCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARADOR);
+            if (sep < 0) {
+                throw new BadRequestException("Cursor inválido");
+            }
+            return new FacturaCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package espe.edu.ec.billing_service.service.dinero;
+
+import java.math.BigDecimal;
+
+/**
+ * Montos en centavos como {@code long} para los cálculos masivos.
+ *
+ * {@link BigDecimal} queda solo en la frontera con JPA y JSON: aquí se convierte a centavos al entrar
+ * y de vuelta a escala 2 al salir, que es la escala de las columnas de {@code facturas}.
+ */
+public final class Centavos {
+
+    public static final int ESCALA = 2;
+
+    /**
+     * Con escala 2 y a lo sumo 18 dígitos el valor entra en un long sin desbordar.
+     */
+    private static final int MAX_DIGITOS = 18;
+
+    private Centavos() {
+    }
+
+    /**
+     * Indica si el monto se puede pasar a centavos sin redondear ni desbordar.
+     */
+    public static boolean representable(BigDecimal monto) {
+        return monto.scale() <= ESCALA && monto.precision() - monto.scale() + ESCALA <= MAX_DIGITOS;
+    }
+
+    /**
+     * Centavos exactos del monto; lanza {@link ArithmeticException} si tiene más de dos decimales
+     * significativos o no cabe en un long.
+     */
+    public static long de(BigDecimal monto) {
+        return monto.movePointRight(ESCALA).longValueExact();
+    }
+
+    public static BigDecimal aBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+}
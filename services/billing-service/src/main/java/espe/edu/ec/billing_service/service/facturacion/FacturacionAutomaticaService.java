@@ -0,0 +1,270 @@
+package espe.edu.ec.billing_service.service.facturacion;
+
+import espe.edu.ec.billing_service.dto.FacturacionAutomaticaMetricasResponse;
+import espe.edu.ec.billing_service.dto.PaginaEntregas;
+import espe.edu.ec.billing_service.dto.PedidoEntregado;
+import espe.edu.ec.billing_service.model.CheckpointFacturacion;
+import espe.edu.ec.billing_service.repository.CheckpointFacturacionRepository;
+import espe.edu.ec.billing_service.service.BillingService;
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.service.tarifas.MotorTarifas;
+import espe.edu.ec.billing_service.service.tarifas.Tarifario;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Factura automáticamente los pedidos ENTREGADO leyendo el feed ordenado de pedido-service.
+ *
+ * Cada página se reparte entre los trabajadores, que insertan su parte con una sola sentencia
+ * {@code INSERT ... SELECT FROM unnest(...) ON CONFLICT (pedido_id) DO NOTHING}: un pedido ya
+ * facturado se ignora, así que releer una página tras un fallo no duplica facturas. El checkpoint
+ * avanza solo cuando toda la página está guardada, y la página siguiente se pide mientras se
+ * inserta la actual. Los importes viajan en centavos ({@code bigint[]}) y se pasan a escala 2 en la
+ * propia sentencia. Los ids se reservan en bloques de la misma secuencia pooled que usa
+ * {@code Billing}, así que no chocan con las facturas que emite Hibernate.
+ */
+@Service
+@Slf4j
+public class FacturacionAutomaticaService {
+
+    static final String CONSUMIDOR = "pedidos-entregados";
+
+    private static final String INSERTAR = "INSERT INTO facturas "
+            + "(id, pedido_id, cliente_id, subtotal, impuestos, total, fecha_emision, estado) "
+            + "SELECT f.id, f.pedido_id, f.cliente_id, f.subtotal * 0.01, f.impuestos * 0.01, f.total * 0.01, ?, 'BORRADOR' "
+            + "FROM unnest(?::bigint[], ?::uuid[], ?::uuid[], ?::bigint[], ?::bigint[], ?::bigint[]) "
+            + "AS f(id, pedido_id, cliente_id, subtotal, impuestos, total) "
+            + "ON CONFLICT (pedido_id) DO NOTHING";
+
+    /**
+     * Incremento de {@code facturas_seq}; debe coincidir con el {@code allocationSize} de {@code Billing}.
+     */
+    private static final int BLOQUE_IDS = 50;
+
+    private final PedidosClient pedidosClient;
+    private final CheckpointFacturacionRepository checkpointRepository;
+    private final BillingService billingService;
+    private final MotorTarifas motorTarifas;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService ejecutor;
+    private final boolean habilitada;
+    private final int trabajadores;
+    private final int tamanoPagina;
+    private final int maxPaginasPorCiclo;
+
+    private final LongAdder creadas = new LongAdder();
+    private final LongAdder duplicados = new LongAdder();
+    private final LongAdder paginas = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private volatile String ultimoError;
+    private volatile double facturasPorSegundo;
+    private volatile LocalDateTime ultimaEntrega;
+    private volatile boolean alDia;
+    private volatile String cursor;
+
+    public FacturacionAutomaticaService(
+            PedidosClient pedidosClient,
+            CheckpointFacturacionRepository checkpointRepository,
+            BillingService billingService,
+            MotorTarifas motorTarifas,
+            JdbcTemplate jdbcTemplate,
+            @Value("${billing.facturacion-automatica.habilitada:true}") boolean habilitada,
+            @Value("${billing.facturacion-automatica.trabajadores:4}") int trabajadores,
+            @Value("${billing.facturacion-automatica.tamano-pagina:1000}") int tamanoPagina,
+            @Value("${billing.facturacion-automatica.max-paginas-por-ciclo:100}") int maxPaginasPorCiclo
+    ) {
+        this.pedidosClient = pedidosClient;
+        this.checkpointRepository = checkpointRepository;
+        this.billingService = billingService;
+        this.motorTarifas = motorTarifas;
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitada = habilitada;
+        this.trabajadores = trabajadores;
+        this.tamanoPagina = tamanoPagina;
+        this.maxPaginasPorCiclo = maxPaginasPorCiclo;
+        this.ejecutor = Executors.newFixedThreadPool(trabajadores);
+    }
+
+    @Scheduled(fixedDelayString = "${billing.facturacion-automatica.intervalo-ms:2000}")
+    public void consumir() {
+        if (!habilitada || !motorTarifas.cargado()) {
+            return;
+        }
+        try {
+            CheckpointFacturacion checkpoint = checkpointRepository.findById(CONSUMIDOR)
+                    .orElseGet(() -> CheckpointFacturacion.builder().consumidor(CONSUMIDOR).build());
+            cursor = checkpoint.getCursor();
+            ultimaEntrega = checkpoint.getUltimaEntrega();
+
+            PaginaEntregas pagina = pedidosClient.entregados(checkpoint.getCursor(), tamanoPagina);
+            for (int i = 0; ; i++) {
+                if (pagina.getItems() == null || pagina.getItems().isEmpty()) {
+                    alDia = true;
+                    return;
+                }
+                String siguienteCursor = pagina.getNextCursor();
+                CompletableFuture<PaginaEntregas> siguiente = pagina.isHasNext() && i + 1 < maxPaginasPorCiclo
+                        ? CompletableFuture.supplyAsync(() -> pedidosClient.entregados(siguienteCursor, tamanoPagina))
+                        : null;
+
+                long inicio = System.nanoTime();
+                int nuevas = facturar(pagina.getItems());
+                checkpoint = avanzar(checkpoint, pagina);
+                registrar(pagina, nuevas, System.nanoTime() - inicio);
+
+                if (siguiente == null) {
+                    return;
+                }
+                pagina = siguiente.join();
+            }
+        } catch (Exception e) {
+            fallos.increment();
+            ultimoError = e.getMessage();
+            log.warn("Facturación automática interrumpida, se reintenta desde el checkpoint: {}", e.getMessage());
+        }
+    }
+
+    public FacturacionAutomaticaMetricasResponse metricas() {
+        LocalDateTime ultima = ultimaEntrega;
+        long retraso = !alDia && ultima != null
+                ? Math.max(0, Duration.between(ultima, LocalDateTime.now()).toSeconds())
+                : 0;
+        return FacturacionAutomaticaMetricasResponse.builder()
+                .habilitada(habilitada)
+                .trabajadores(trabajadores)
+                .facturasCreadas(creadas.sum())
+                .pedidosDuplicados(duplicados.sum())
+                .paginasProcesadas(paginas.sum())
+                .fallos(fallos.sum())
+                .ultimoError(ultimoError)
+                .facturasPorSegundo(facturasPorSegundo)
+                .ultimaEntregaProcesada(ultima)
+                .retrasoSegundos(retraso)
+                .alDia(alDia)
+                .cursor(cursor)
+                .build();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Subtotal en centavos según la tarifa de la zona y el tipo de entrega. Un pedido sin tarifa
+     * interrumpe el ciclo para no avanzar el checkpoint sin facturarlo; se reintenta tras corregir
+     * las reglas.
+     */
+    private static long subtotal(Tarifario tarifario, PedidoEntregado pedido) {
+        TipoEntrega tipo = Tarifario.tipo(pedido.getTipoEntrega());
+        if (tipo == null || pedido.getDistanciaKm() == null) {
+            throw new IllegalStateException("Pedido " + pedido.getId() + " sin tipo de entrega o distancia");
+        }
+        long subtotal = tarifario.subtotal(pedido.getZonaId(), tipo, Tarifario.metros(pedido.getDistanciaKm()));
+        if (subtotal == Tarifario.SIN_TARIFA) {
+            throw new IllegalStateException("Sin tarifa para el pedido " + pedido.getId() + " (" + tipo + ", "
+                    + pedido.getDistanciaKm() + " km, zona " + pedido.getZonaId() + ")");
+        }
+        return subtotal;
+    }
+
+    private int facturar(List<PedidoEntregado> pedidos) {
+        Tarifario tarifario = motorTarifas.actual();
+        int porTrabajador = (pedidos.size() + trabajadores - 1) / trabajadores;
+        List<CompletableFuture<Integer>> partes = new ArrayList<>(trabajadores);
+        for (int desde = 0; desde < pedidos.size(); desde += porTrabajador) {
+            List<PedidoEntregado> parte = pedidos.subList(desde, Math.min(desde + porTrabajador, pedidos.size()));
+            partes.add(CompletableFuture.supplyAsync(() -> insertar(parte, tarifario), ejecutor));
+        }
+        int nuevas = 0;
+        for (CompletableFuture<Integer> parte : partes) {
+            nuevas += parte.join();
+        }
+        return nuevas;
+    }
+
+    private int insertar(List<PedidoEntregado> pedidos, Tarifario tarifario) {
+        int n = pedidos.size();
+        UUID[] pedidoIds = new UUID[n];
+        UUID[] clienteIds = new UUID[n];
+        long[] subtotales = new long[n];
+        long[] impuestos = new long[n];
+        long[] totales = new long[n];
+        for (int i = 0; i < n; i++) {
+            PedidoEntregado pedido = pedidos.get(i);
+            pedidoIds[i] = pedido.getId();
+            clienteIds[i] = pedido.getClienteId();
+            subtotales[i] = subtotal(tarifario, pedido);
+        }
+        billingService.calcularImpuestos(subtotales, impuestos, totales);
+        long[] ids = reservarIds(n);
+        LocalDateTime emision = LocalDateTime.now();
+        return jdbcTemplate.update(con -> {
+            PGConnection pg = con.unwrap(PGConnection.class);
+            PreparedStatement ps = con.prepareStatement(INSERTAR);
+            ps.setObject(1, emision);
+            ps.setArray(2, pg.createArrayOf("int8", ids));
+            ps.setArray(3, con.createArrayOf("uuid", pedidoIds));
+            ps.setArray(4, con.createArrayOf("uuid", clienteIds));
+            ps.setArray(5, pg.createArrayOf("int8", subtotales));
+            ps.setArray(6, pg.createArrayOf("int8", impuestos));
+            ps.setArray(7, pg.createArrayOf("int8", totales));
+            return ps;
+        });
+    }
+
+    /**
+     * Reserva {@code n} ids con un nextval por bloque, igual que el optimizador pooled de Hibernate:
+     * el valor V es dueño de (V - 50, V], salvo el valor inicial 1, que solo es dueño de sí mismo (de
+     * ahí el bloque extra). Los ids de un duplicado ignorado se pierden, como en cualquier secuencia.
+     */
+    private long[] reservarIds(int n) {
+        List<Long> valores = jdbcTemplate.queryForList(
+                "SELECT nextval('facturas_seq') FROM generate_series(1, ?)",
+                Long.class, (n + BLOQUE_IDS - 1) / BLOQUE_IDS + 1);
+        long[] ids = new long[n];
+        int i = 0;
+        for (Long valor : valores) {
+            for (long id = Math.max(1, valor - BLOQUE_IDS + 1); id <= valor && i < n; id++) {
+                ids[i++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private CheckpointFacturacion avanzar(CheckpointFacturacion checkpoint, PaginaEntregas pagina) {
+        List<PedidoEntregado> items = pagina.getItems();
+        checkpoint.setCursor(pagina.getNextCursor());
+        checkpoint.setUltimaEntrega(items.get(items.size() - 1).getFechaActualizacion());
+        checkpoint.setProcesados(checkpoint.getProcesados() + items.size());
+        checkpoint.setFechaActualizacion(LocalDateTime.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private void registrar(PaginaEntregas pagina, int nuevas, long nanos) {
+        int leidos = pagina.getItems().size();
+        creadas.add(nuevas);
+        duplicados.add(leidos - nuevas);
+        paginas.increment();
+        facturasPorSegundo = nanos > 0 ? leidos * 1_000_000_000d / nanos : 0;
+        cursor = pagina.getNextCursor();
+        ultimaEntrega = pagina.getItems().get(leidos - 1).getFechaActualizacion();
+        alDia = !pagina.isHasNext();
+    }
+}
@@ -0,0 +1,49 @@
+package espe.edu.ec.billing_service.service.facturacion;
+
+import espe.edu.ec.billing_service.dto.PaginaEntregas;
+import espe.edu.ec.billing_service.dto.RespuestaPedidos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+
+/**
+ * Lee el feed de pedidos entregados de pedido-service.
+ */
+@Component
+public class PedidosClient {
+
+    private static final ParameterizedTypeReference<RespuestaPedidos<PaginaEntregas>> PAGINA =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestClient restClient;
+
+    public PedidosClient(
+            RestClient.Builder builder,
+            @Value("${billing.facturacion-automatica.pedidos-url:http://localhost:8082}") String url,
+            @Value("${billing.facturacion-automatica.timeout-ms:10000}") int timeoutMs
+    ) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.restClient = builder.baseUrl(url).requestFactory(requestFactory).build();
+    }
+
+    public PaginaEntregas entregados(String cursor, int size) {
+        RespuestaPedidos<PaginaEntregas> respuesta = restClient.get()
+                .uri(uri -> uri.path("/pedidos/entregados")
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .queryParam("size", size)
+                        .build())
+                .retrieve()
+                .body(PAGINA);
+        if (respuesta == null || respuesta.getData() == null) {
+            throw new IllegalStateException("Respuesta vacía del feed de entregas");
+        }
+        return respuesta.getData();
+    }
+}
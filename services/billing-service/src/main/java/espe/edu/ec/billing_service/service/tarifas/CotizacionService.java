@@ -0,0 +1,122 @@
+package espe.edu.ec.billing_service.service.tarifas;
+
+import espe.edu.ec.billing_service.dto.CotizacionLoteResponse;
+import espe.edu.ec.billing_service.dto.CotizacionRequest;
+import espe.edu.ec.billing_service.dto.CotizacionResultado;
+import espe.edu.ec.billing_service.dto.TarifasResponse;
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.service.BillingService;
+import espe.edu.ec.billing_service.service.dinero.Centavos;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cotiza lotes de pedidos candidatos para checkout y planificación de rutas, sin escribir nada.
+ */
+@Service
+public class CotizacionService {
+
+    public static final int MAX_LOTE_SIZE = 20000;
+
+    private final MotorTarifas motorTarifas;
+    private final BillingService billingService;
+
+    public CotizacionService(MotorTarifas motorTarifas, BillingService billingService) {
+        this.motorTarifas = motorTarifas;
+        this.billingService = billingService;
+    }
+
+    /**
+     * Todo el lote se cotiza con el mismo tarifario aunque haya una recarga en curso. Los subtotales
+     * se calculan en centavos y los impuestos con el cálculo por lotes de {@link BillingService}.
+     */
+    public CotizacionLoteResponse cotizarLote(List<CotizacionRequest> solicitudes) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new RuntimeException("El lote de cotizaciones no puede estar vacío");
+        }
+        if (solicitudes.size() > MAX_LOTE_SIZE) {
+            throw new RuntimeException("El lote no puede exceder " + MAX_LOTE_SIZE + " cotizaciones");
+        }
+
+        Tarifario tarifario = motorTarifas.actual();
+        int n = solicitudes.size();
+        long[] subtotales = new long[n];
+        String[] errores = new String[n];
+        for (int i = 0; i < n; i++) {
+            errores[i] = cotizar(tarifario, solicitudes.get(i), subtotales, i);
+        }
+
+        long[] impuestos = new long[n];
+        long[] totales = new long[n];
+        billingService.calcularImpuestos(subtotales, impuestos, totales);
+
+        List<CotizacionResultado> resultados = new ArrayList<>(n);
+        int cotizados = 0;
+        for (int i = 0; i < n; i++) {
+            if (errores[i] != null) {
+                resultados.add(CotizacionResultado.fallo(i, errores[i]));
+                continue;
+            }
+            resultados.add(CotizacionResultado.ok(i, Centavos.aBigDecimal(subtotales[i]),
+                    Centavos.aBigDecimal(impuestos[i]), Centavos.aBigDecimal(totales[i])));
+            cotizados++;
+        }
+
+        return CotizacionLoteResponse.builder()
+                .total(n)
+                .cotizados(cotizados)
+                .fallidos(n - cotizados)
+                .versionTarifas(tarifario.version())
+                .resultados(resultados)
+                .build();
+    }
+
+    public TarifasResponse tarifas() {
+        return resumen(motorTarifas.actual());
+    }
+
+    public TarifasResponse recargar() {
+        return resumen(motorTarifas.recargar());
+    }
+
+    /**
+     * Deja el subtotal en {@code subtotales[i]} y devuelve el error, o nulo si se pudo cotizar.
+     */
+    private static String cotizar(Tarifario tarifario, CotizacionRequest solicitud, long[] subtotales, int i) {
+        if (solicitud == null) {
+            return "La cotización es obligatoria";
+        }
+        TipoEntrega tipo = Tarifario.tipo(solicitud.getTipoEntrega());
+        if (tipo == null) {
+            return "Tipo de entrega inválido: " + solicitud.getTipoEntrega();
+        }
+        if (solicitud.getDistanciaKm() == null) {
+            return "La distancia es obligatoria";
+        }
+        try {
+            long subtotal = tarifario.subtotal(solicitud.getZonaId(), tipo, Tarifario.metros(solicitud.getDistanciaKm()));
+            if (subtotal == Tarifario.SIN_TARIFA) {
+                return "Sin tarifa para " + tipo + " a " + solicitud.getDistanciaKm() + " km en la zona " + solicitud.getZonaId();
+            }
+            subtotales[i] = subtotal;
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        } catch (ArithmeticException e) {
+            return "Importe fuera de rango";
+        }
+    }
+
+    private TarifasResponse resumen(Tarifario tarifario) {
+        return TarifasResponse.builder()
+                .version(tarifario.version())
+                .compiladoEn(tarifario.compiladoEn())
+                .zonas(tarifario.zonas())
+                .tramos(tarifario.tramos())
+                .recargos(tarifario.recargos())
+                .ultimoError(motorTarifas.ultimoError())
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package espe.edu.ec.billing_service.service.tarifas;
+
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.model.TramoTarifa;
+import espe.edu.ec.billing_service.repository.RecargoTarifaRepository;
+import espe.edu.ec.billing_service.repository.TramoTarifaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Mantiene el {@link Tarifario} vigente.
+ *
+ * Las lecturas solo leen la referencia volátil y trabajan sobre un tarifario inmutable, así que nunca
+ * esperan. La recarga compila las reglas activas aparte y reemplaza la referencia; si no cambió nada
+ * conserva el vigente, y si una regla es inválida lo conserva y registra el error. Se recarga al
+ * arrancar, periódicamente y a pedido tras editar las tablas.
+ */
+@Component
+@Slf4j
+public class MotorTarifas {
+
+    private final TramoTarifaRepository tramoRepository;
+    private final RecargoTarifaRepository recargoRepository;
+    private final BigDecimal tarifaBaseInicial;
+    private final BigDecimal tarifaPorKmInicial;
+
+    private volatile Tarifario tarifario = Tarifario.vacio();
+    private volatile boolean cargado;
+    private volatile String ultimoError;
+
+    public MotorTarifas(
+            TramoTarifaRepository tramoRepository,
+            RecargoTarifaRepository recargoRepository,
+            @Value("${billing.tarifas.inicial.tarifa-base:2.50}") BigDecimal tarifaBaseInicial,
+            @Value("${billing.tarifas.inicial.tarifa-por-km:0.35}") BigDecimal tarifaPorKmInicial
+    ) {
+        this.tramoRepository = tramoRepository;
+        this.recargoRepository = recargoRepository;
+        this.tarifaBaseInicial = tarifaBaseInicial;
+        this.tarifaPorKmInicial = tarifaPorKmInicial;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        sembrar();
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.error("Tarifas inválidas al arrancar, no se podrá cotizar hasta corregirlas: {}", e.getMessage());
+        }
+        cargado = true;
+        log.info("Tarifas: {} tramos y {} recargos activos en {} zonas",
+                tarifario.tramos(), tarifario.recargos(), tarifario.zonas());
+    }
+
+    @Scheduled(
+            initialDelayString = "${billing.tarifas.recarga-ms:30000}",
+            fixedDelayString = "${billing.tarifas.recarga-ms:30000}"
+    )
+    public void recargarPeriodicamente() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron recargar las tarifas, se mantiene la versión {}: {}",
+                    tarifario.version(), e.getMessage());
+        }
+    }
+
+    /**
+     * Compila las reglas activas y las publica si cambiaron. Las recargas se serializan entre sí; las
+     * cotizaciones en curso terminan con el tarifario que ya leyeron.
+     */
+    public synchronized Tarifario recargar() {
+        Tarifario nuevo;
+        try {
+            nuevo = Tarifario.compilar(tramoRepository.findByActivoTrue(), recargoRepository.findByActivoTrue(),
+                    tarifario.version() + 1);
+        } catch (IllegalArgumentException e) {
+            ultimoError = e.getMessage();
+            throw new RuntimeException("Tarifas inválidas: " + e.getMessage(), e);
+        }
+        ultimoError = null;
+        if (!nuevo.mismasReglas(tarifario)) {
+            tarifario = nuevo;
+            log.info("Tarifas recargadas: versión {}", nuevo.version());
+        }
+        return tarifario;
+    }
+
+    public Tarifario actual() {
+        return tarifario;
+    }
+
+    /**
+     * Indica si ya se compilaron las reglas de la base; antes solo está el tarifario vacío.
+     */
+    public boolean cargado() {
+        return cargado;
+    }
+
+    public String ultimoError() {
+        return ultimoError;
+    }
+
+    /**
+     * Sin tramos en la base crea la tarifa general de cada tipo de entrega con la tarifa plana
+     * configurada, que es la que se usaba antes de las reglas por zona.
+     */
+    private void sembrar() {
+        if (tramoRepository.count() > 0) {
+            return;
+        }
+        tramoRepository.saveAll(Arrays.stream(TipoEntrega.values())
+                .map(tipo -> TramoTarifa.builder()
+                        .tipoEntrega(tipo)
+                        .desdeKm(BigDecimal.ZERO)
+                        .tarifaBase(tarifaBaseInicial)
+                        .tarifaPorKm(tarifaPorKmInicial)
+                        .build())
+                .toList());
+        log.info("Tarifa general inicial creada: {} + {} por km", tarifaBaseInicial, tarifaPorKmInicial);
+    }
+}
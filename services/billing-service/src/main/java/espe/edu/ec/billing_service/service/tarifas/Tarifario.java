@@ -0,0 +1,277 @@
+package espe.edu.ec.billing_service.service.tarifas;
+
+import espe.edu.ec.billing_service.model.RecargoTarifa;
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.model.TramoTarifa;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Tramos y recargos activos compilados en arreglos inmutables.
+ *
+ * Cada par (zona, tipo de entrega) es una celda: {@code inicio[celda]..fin[celda]} delimita sus
+ * tramos, ordenados por distancia, y {@code puntosRecargo}/{@code fijoRecargo} acumulan los recargos
+ * que le aplican. Una zona sin tramos propios para un tipo apunta a los de la tarifa general (celda
+ * de zona 0), así que cotizar es una búsqueda en el mapa de zonas, una búsqueda binaria y aritmética
+ * con long, sin crear objetos.
+ *
+ * Los importes se llevan en diezmillonésimas de dólar y las distancias en metros, de modo que
+ * {@code (base + km * porKm) * (1 + porcentaje / 100) + fijo} se calcula sin pérdida y se redondea
+ * una sola vez, HALF_UP, a centavos.
+ */
+public final class Tarifario {
+
+    /**
+     * Resultado de {@link #subtotal} cuando ningún tramo cubre la distancia.
+     */
+    public static final long SIN_TARIFA = -1;
+
+    private static final TipoEntrega[] TIPOS = TipoEntrega.values();
+    private static final int ESCALA_IMPORTE = 7;
+    private static final int ESCALA_POR_METRO = 4;
+    private static final long UNIDADES_POR_CENTAVO = 100_000L;
+    private static final long BASE_PUNTOS = 10_000L;
+    private static final long DIVISOR = UNIDADES_POR_CENTAVO * BASE_PUNTOS;
+    private static final long MAX_METROS = 100_000_000L;
+
+    private final long version;
+    private final Instant compiladoEn;
+    private final int tramosActivos;
+    private final int recargosActivos;
+    private final Map<String, Integer> zonas;
+    private final int[] inicio;
+    private final int[] fin;
+    private final long[] puntosRecargo;
+    private final long[] fijoRecargo;
+    private final long[] desde;
+    private final long[] hasta;
+    private final long[] base;
+    private final long[] porMetro;
+
+    private Tarifario(long version, int tramosActivos, int recargosActivos, Map<String, Integer> zonas,
+                      int[] inicio, int[] fin, long[] puntosRecargo, long[] fijoRecargo,
+                      long[] desde, long[] hasta, long[] base, long[] porMetro) {
+        this.version = version;
+        this.compiladoEn = Instant.now();
+        this.tramosActivos = tramosActivos;
+        this.recargosActivos = recargosActivos;
+        this.zonas = zonas;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.puntosRecargo = puntosRecargo;
+        this.fijoRecargo = fijoRecargo;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.base = base;
+        this.porMetro = porMetro;
+    }
+
+    public static Tarifario vacio() {
+        return compilar(List.of(), List.of(), 0);
+    }
+
+    /**
+     * Compila las reglas activas. Lanza {@link IllegalArgumentException} si un tramo se solapa con
+     * otro de la misma zona y tipo o si un importe tiene más decimales de los que admite su columna.
+     */
+    public static Tarifario compilar(List<TramoTarifa> tramos, List<RecargoTarifa> recargos, long version) {
+        TreeSet<String> nombresZona = new TreeSet<>();
+        tramos.stream().map(TramoTarifa::getZonaId).filter(Objects::nonNull).forEach(nombresZona::add);
+        recargos.stream().map(RecargoTarifa::getZonaId).filter(Objects::nonNull).forEach(nombresZona::add);
+        Map<String, Integer> zonas = new HashMap<>();
+        for (String zonaId : nombresZona) {
+            zonas.put(zonaId, zonas.size() + 1);
+        }
+
+        int celdas = (zonas.size() + 1) * TIPOS.length;
+        List<List<TramoTarifa>> porCelda = new ArrayList<>(celdas);
+        for (int i = 0; i < celdas; i++) {
+            porCelda.add(new ArrayList<>());
+        }
+        for (TramoTarifa tramo : tramos) {
+            int zona = tramo.getZonaId() == null ? 0 : zonas.get(tramo.getZonaId());
+            porCelda.get(zona * TIPOS.length + tramo.getTipoEntrega().ordinal()).add(tramo);
+        }
+
+        int[] inicio = new int[celdas];
+        int[] fin = new int[celdas];
+        long[] desde = new long[tramos.size()];
+        long[] hasta = new long[tramos.size()];
+        long[] base = new long[tramos.size()];
+        long[] porMetro = new long[tramos.size()];
+        int siguiente = 0;
+        for (int celda = 0; celda < celdas; celda++) {
+            List<TramoTarifa> propios = porCelda.get(celda);
+            if (propios.isEmpty() && celda >= TIPOS.length) {
+                inicio[celda] = inicio[celda % TIPOS.length];
+                fin[celda] = fin[celda % TIPOS.length];
+                continue;
+            }
+            propios.sort(Comparator.comparing(TramoTarifa::getDesdeKm));
+            inicio[celda] = siguiente;
+            for (TramoTarifa tramo : propios) {
+                desde[siguiente] = metros(tramo.getDesdeKm(), tramo);
+                hasta[siguiente] = tramo.getHastaKm() == null ? Long.MAX_VALUE : metros(tramo.getHastaKm(), tramo);
+                base[siguiente] = exacto(tramo.getTarifaBase(), ESCALA_IMPORTE, "tarifa base", tramo.getId());
+                porMetro[siguiente] = exacto(tramo.getTarifaPorKm(), ESCALA_POR_METRO, "tarifa por km", tramo.getId());
+                if (hasta[siguiente] <= desde[siguiente]) {
+                    throw new IllegalArgumentException("El tramo " + tramo.getId() + " termina antes de empezar");
+                }
+                if (siguiente > inicio[celda] && hasta[siguiente - 1] > desde[siguiente]) {
+                    throw new IllegalArgumentException("El tramo " + tramo.getId() + " se solapa con otro de la zona "
+                            + (tramo.getZonaId() == null ? "general" : tramo.getZonaId()) + " y tipo " + tramo.getTipoEntrega());
+                }
+                siguiente++;
+            }
+            fin[celda] = siguiente;
+        }
+
+        long[] puntosRecargo = new long[celdas];
+        long[] fijoRecargo = new long[celdas];
+        for (RecargoTarifa recargo : recargos) {
+            long puntos = exacto(recargo.getPorcentaje(), 2, "porcentaje", recargo.getId());
+            long fijo = exacto(recargo.getMontoFijo(), ESCALA_IMPORTE, "monto fijo", recargo.getId());
+            for (int celda = 0; celda < celdas; celda++) {
+                int zona = celda / TIPOS.length;
+                TipoEntrega tipo = TIPOS[celda % TIPOS.length];
+                boolean zonaAplica = recargo.getZonaId() == null || zonas.get(recargo.getZonaId()) == zona;
+                boolean tipoAplica = recargo.getTipoEntrega() == null || recargo.getTipoEntrega() == tipo;
+                if (zonaAplica && tipoAplica) {
+                    puntosRecargo[celda] += puntos;
+                    fijoRecargo[celda] += fijo;
+                }
+            }
+        }
+
+        return new Tarifario(version, tramos.size(), recargos.size(), Map.copyOf(zonas), inicio, fin,
+                puntosRecargo, fijoRecargo, desde, hasta, base, porMetro);
+    }
+
+    /**
+     * Celda de la zona y tipo; una zona sin reglas usa la tarifa general.
+     */
+    public int celda(String zonaId, TipoEntrega tipo) {
+        Integer zona = zonaId == null ? null : zonas.get(zonaId);
+        return (zona == null ? 0 : zona) * TIPOS.length + tipo.ordinal();
+    }
+
+    /**
+     * Subtotal en centavos para una distancia en metros, o {@link #SIN_TARIFA}. Lanza
+     * {@link ArithmeticException} si el importe no cabe en un long.
+     */
+    public long subtotal(int celda, long metros) {
+        int desdeIndice = inicio[celda];
+        int hastaIndice = fin[celda] - 1;
+        int tramo = -1;
+        while (desdeIndice <= hastaIndice) {
+            int medio = (desdeIndice + hastaIndice) >>> 1;
+            if (desde[medio] <= metros) {
+                tramo = medio;
+                desdeIndice = medio + 1;
+            } else {
+                hastaIndice = medio - 1;
+            }
+        }
+        if (tramo < 0 || metros >= hasta[tramo]) {
+            return SIN_TARIFA;
+        }
+        long importe = Math.addExact(base[tramo], Math.multiplyExact(metros, porMetro[tramo]));
+        long conRecargos = Math.addExact(
+                Math.multiplyExact(importe, BASE_PUNTOS + puntosRecargo[celda]),
+                Math.multiplyExact(fijoRecargo[celda], BASE_PUNTOS));
+        return (conRecargos + DIVISOR / 2) / DIVISOR;
+    }
+
+    public long subtotal(String zonaId, TipoEntrega tipo, long metros) {
+        return subtotal(celda(zonaId, tipo), metros);
+    }
+
+    /**
+     * Distancia en metros, redondeada HALF_UP si trae más de tres decimales. Lanza
+     * {@link IllegalArgumentException} si es negativa o supera 100.000 km.
+     */
+    public static long metros(BigDecimal distanciaKm) {
+        if (distanciaKm.signum() < 0) {
+            throw new IllegalArgumentException("La distancia no puede ser negativa");
+        }
+        if (distanciaKm.compareTo(BigDecimal.valueOf(MAX_METROS / 1000)) > 0) {
+            throw new IllegalArgumentException("La distancia supera el máximo de " + MAX_METROS / 1000 + " km");
+        }
+        return distanciaKm.setScale(3, RoundingMode.HALF_UP).movePointRight(3).longValueExact();
+    }
+
+    /**
+     * Tipo de entrega por nombre, o nulo si no existe.
+     */
+    public static TipoEntrega tipo(String nombre) {
+        if (nombre == null) {
+            return null;
+        }
+        for (TipoEntrega tipo : TIPOS) {
+            if (tipo.name().equals(nombre)) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica si ambos tarifarios cotizan igual, para no reemplazar el vigente en una recarga sin cambios.
+     */
+    public boolean mismasReglas(Tarifario otro) {
+        return zonas.equals(otro.zonas)
+                && Arrays.equals(inicio, otro.inicio) && Arrays.equals(fin, otro.fin)
+                && Arrays.equals(puntosRecargo, otro.puntosRecargo) && Arrays.equals(fijoRecargo, otro.fijoRecargo)
+                && Arrays.equals(desde, otro.desde) && Arrays.equals(hasta, otro.hasta)
+                && Arrays.equals(base, otro.base) && Arrays.equals(porMetro, otro.porMetro);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant compiladoEn() {
+        return compiladoEn;
+    }
+
+    public int zonas() {
+        return zonas.size();
+    }
+
+    public int tramos() {
+        return tramosActivos;
+    }
+
+    public int recargos() {
+        return recargosActivos;
+    }
+
+    private static long metros(BigDecimal distanciaKm, TramoTarifa tramo) {
+        long metros = exacto(distanciaKm, 3, "distancia", tramo.getId());
+        if (metros < 0) {
+            throw new IllegalArgumentException("El tramo " + tramo.getId() + " tiene una distancia negativa");
+        }
+        return metros;
+    }
+
+    private static long exacto(BigDecimal valor, int escala, String campo, Long id) {
+        if (valor == null || valor.signum() < 0) {
+            throw new IllegalArgumentException("La regla " + id + " tiene " + campo + " nulo o negativo");
+        }
+        try {
+            return valor.setScale(escala, RoundingMode.UNNECESSARY).movePointRight(escala).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("La regla " + id + " tiene " + campo + " con demasiados decimales: " + valor);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.dto.CursorPageResponse;
+import espe.edu.ec.billing_service.dto.FacturaFiltro;
+import espe.edu.ec.billing_service.dto.LoteFacturaResultado;
+import espe.edu.ec.billing_service.dto.LoteFacturasResponse;
+import espe.edu.ec.billing_service.exception.BadRequestException;
+import espe.edu.ec.billing_service.model.Billing;
+import espe.edu.ec.billing_service.model.EstadoType;
+import espe.edu.ec.billing_service.repository.BillingRepository;
+import espe.edu.ec.billing_service.repository.FacturaSpecifications;
+import espe.edu.ec.billing_service.service.BillingService;
+import espe.edu.ec.billing_service.service.FacturaCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BillingServiceTest {
+
+    private BillingRepository billingRepository;
+    private EntityManager entityManager;
+    private BillingService billingService;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        billingRepository = mock(BillingRepository.class);
+        entityManager = mock(EntityManager.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion ->
+                invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        doAnswer(invocacion -> {
+            invocacion.<Billing>getArgument(0).setId(secuencia.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any());
+        when(billingRepository.findPedidoIdsFacturados(anyCollection())).thenReturn(List.of());
+
+        billingService = new BillingService(billingRepository, entityManager, transactionTemplate, 2, 2);
+    }
+
+    private static Billing factura(String subtotal) {
+        return Billing.builder()
+                .pedidoId(UUID.randomUUID())
+                .clienteId(UUID.randomUUID())
+                .subtotal(subtotal != null ? new BigDecimal(subtotal) : null)
+                .build();
+    }
+
+    @Test
+    public void testLoteRechazaInvalidosYEmiteElResto() {
+        Billing valida = factura("10.00");
+        Billing yaFacturada = factura("5.00");
+        Billing repetida = factura("7.00");
+        repetida.setPedidoId(valida.getPedidoId());
+        Billing sinCliente = factura("1.00");
+        sinCliente.setClienteId(null);
+        when(billingRepository.findPedidoIdsFacturados(anyCollection())).thenReturn(List.of(yaFacturada.getPedidoId()));
+
+        LoteFacturasResponse respuesta = billingService.generarFacturasLote(Arrays.asList(
+                valida, null, factura(null), factura("-1.00"), yaFacturada, repetida, sinCliente, factura("0.10")));
+
+        Assertions.assertEquals(8, respuesta.getTotal());
+        Assertions.assertEquals(2, respuesta.getExitosos());
+        Assertions.assertEquals(6, respuesta.getFallidos());
+        List<Boolean> exitos = respuesta.getResultados().stream().map(LoteFacturaResultado::isSuccess).toList();
+        Assertions.assertEquals(List.of(true, false, false, false, false, false, false, true), exitos);
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertEquals(i, respuesta.getResultados().get(i).getIndex());
+        }
+        Assertions.assertTrue(respuesta.getResultados().get(5).getError().startsWith("Pedido repetido"));
+        Assertions.assertTrue(respuesta.getResultados().get(4).getError().startsWith("Ya existe una factura"));
+
+        Assertions.assertEquals(new BigDecimal("1.50"), valida.getImpuestos());
+        Assertions.assertEquals(new BigDecimal("11.50"), valida.getTotal());
+        Assertions.assertEquals(EstadoType.BORRADOR, valida.getEstado());
+        Assertions.assertEquals(valida.getId(), respuesta.getResultados().get(0).getId());
+    }
+
+    @Test
+    public void testBloqueFallidoSoloRechazaSusElementos() {
+        List<Billing> facturas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            facturas.add(factura("1.00"));
+        }
+        UUID conflictivo = facturas.get(2).getPedidoId();
+        doAnswer(invocacion -> {
+            Billing factura = invocacion.getArgument(0);
+            if (factura.getPedidoId().equals(conflictivo)) {
+                throw new PersistenceException("duplicate key");
+            }
+            factura.setId(secuencia.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any());
+
+        LoteFacturasResponse respuesta = billingService.generarFacturasLote(facturas);
+
+        // Bloques de 2: [0, 1] y [4] se guardan, [2, 3] se rechaza entero
+        List<Boolean> exitos = respuesta.getResultados().stream().map(LoteFacturaResultado::isSuccess).toList();
+        Assertions.assertEquals(List.of(true, true, false, false, true), exitos);
+        Assertions.assertEquals(3, respuesta.getExitosos());
+    }
+
+    @Test
+    public void testVaciaElContextoCadaLoteJdbc() {
+        List<Billing> facturas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            facturas.add(factura("1.00"));
+        }
+
+        billingService.generarFacturasLote(facturas);
+
+        // Dos bloques de 2: flush al completar el lote JDBC y otro al cerrar cada bloque
+        verify(entityManager, times(4)).persist(any());
+        verify(entityManager, times(4)).flush();
+        verify(entityManager, times(4)).clear();
+    }
+
+    @Test
+    public void testLoteVacioOExcesivoSeRechaza() {
+        Assertions.assertThrows(RuntimeException.class, () -> billingService.generarFacturasLote(List.of()));
+        Assertions.assertThrows(RuntimeException.class, () -> billingService.generarFacturasLote(
+                Collections.nCopies(BillingService.MAX_LOTE_SIZE + 1, factura("1.00"))));
+    }
+
+    private static final LocalDateTime EMISION = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private static Billing emitida(long id, LocalDateTime fechaEmision) {
+        return Billing.builder().id(id).fechaEmision(fechaEmision).build();
+    }
+
+    private void devolverFilas(List<Billing> filas) {
+        doReturn(filas).when(billingRepository).findBy(ArgumentMatchers.<Specification<Billing>>any(), any());
+    }
+
+    private static FacturaFiltro porCliente() {
+        return FacturaFiltro.builder().clienteId(UUID.randomUUID()).build();
+    }
+
+    @Test
+    public void testOrdenKeysetDesempataPorId() {
+        Assertions.assertEquals(List.of(Sort.Order.desc("fechaEmision"), Sort.Order.desc("id")),
+                FacturaSpecifications.ORDEN_KEYSET.toList());
+    }
+
+    @Test
+    public void testPaginaConEmpateDeFechaApuntaAlUltimoId() {
+        // size + 1 filas con la misma fecha de emisión, ya en orden descendente por id
+        devolverFilas(List.of(emitida(9, EMISION), emitida(8, EMISION), emitida(7, EMISION)));
+
+        CursorPageResponse<Billing> pagina = billingService.listarFacturas(porCliente(), null, 2);
+
+        Assertions.assertEquals(2, pagina.getSize());
+        Assertions.assertEquals(List.of(9L, 8L), pagina.getItems().stream().map(Billing::getId).toList());
+        Assertions.assertTrue(pagina.isHasNext());
+        Assertions.assertEquals(new FacturaCursor(EMISION, 8), FacturaCursor.decode(pagina.getNextCursor()));
+    }
+
+    @Test
+    public void testUltimaPaginaNoTieneCursor() {
+        devolverFilas(List.of(emitida(9, EMISION), emitida(8, EMISION)));
+
+        CursorPageResponse<Billing> pagina = billingService.listarFacturas(porCliente(), null, 2);
+
+        Assertions.assertEquals(2, pagina.getSize());
+        Assertions.assertFalse(pagina.isHasNext());
+        Assertions.assertNull(pagina.getNextCursor());
+    }
+
+    @Test
+    public void testRecorreEmpatesSinRepetirNiSaltar() {
+        // Muchas facturas comparten fecha de emisión; el id es el único desempate del keyset
+        List<Billing> todas = new ArrayList<>();
+        for (long id = 1; id <= 11; id++) {
+            todas.add(emitida(id, id <= 7 ? EMISION : EMISION.plusNanos(1)));
+        }
+        Comparator<Billing> orden = Comparator.comparing(Billing::getFechaEmision)
+                .thenComparing(Billing::getId).reversed();
+        todas.sort(orden);
+        String[] cursor = {null};
+        int size = 3;
+        // Mismo predicado que FacturaSpecifications.despuesDe: fecha < f OR (fecha = f AND id < id)
+        doAnswer(invocacion -> {
+            FacturaCursor desde = cursor[0] != null ? FacturaCursor.decode(cursor[0]) : null;
+            return todas.stream()
+                    .filter(f -> desde == null || f.getFechaEmision().isBefore(desde.fechaEmision())
+                            || (f.getFechaEmision().equals(desde.fechaEmision()) && f.getId() < desde.id()))
+                    .limit(size + 1)
+                    .toList();
+        }).when(billingRepository).findBy(ArgumentMatchers.<Specification<Billing>>any(), any());
+
+        List<Long> vistas = new ArrayList<>();
+        CursorPageResponse<Billing> pagina;
+        do {
+            pagina = billingService.listarFacturas(porCliente(), cursor[0], size);
+            pagina.getItems().forEach(f -> vistas.add(f.getId()));
+            cursor[0] = pagina.getNextCursor();
+        } while (pagina.isHasNext());
+
+        Assertions.assertEquals(todas.stream().map(Billing::getId).toList(), vistas);
+    }
+
+    @Test
+    public void testParametrosInvalidosSeRechazan() {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> billingService.listarFacturas(porCliente(), null, 0));
+        Assertions.assertThrows(BadRequestException.class,
+                () -> billingService.listarFacturas(porCliente(), null, BillingService.MAX_PAGE_SIZE + 1));
+        FacturaFiltro invertido = FacturaFiltro.builder().fechaDesde(EMISION).fechaHasta(EMISION).build();
+        Assertions.assertThrows(BadRequestException.class,
+                () -> billingService.listarFacturas(invertido, null, 10));
+        Assertions.assertThrows(BadRequestException.class,
+                () -> billingService.listarFacturas(porCliente(), "%%%", 10));
+        verify(billingRepository, never()).findBy(ArgumentMatchers.<Specification<Billing>>any(), any());
+    }
+
+    @Test
+    public void testSinFiltrosAcotaLaVentanaPorDefecto() {
+        devolverFilas(List.of());
+        FacturaFiltro filtro = FacturaFiltro.builder().fechaHasta(EMISION).build();
+
+        billingService.listarFacturas(filtro, null, 10);
+
+        Assertions.assertEquals(EMISION.minusDays(31), filtro.getFechaDesde());
+
+        FacturaFiltro conCliente = porCliente();
+        billingService.listarFacturas(conCliente, null, 10);
+        Assertions.assertNull(conCliente.getFechaDesde());
+    }
+}
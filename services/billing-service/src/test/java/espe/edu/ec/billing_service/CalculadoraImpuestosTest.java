@@ -0,0 +1,158 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.service.dinero.CalculadoraImpuestos;
+import espe.edu.ec.billing_service.service.dinero.Centavos;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Equivalencia con {@link ImpuestosReferencia}: casos fijos en los bordes de medio centavo, cero y
+ * montos grandes, más subtotales generados para varias tasas, por el camino unitario y el masivo.
+ */
+public class CalculadoraImpuestosTest {
+
+    private static final int CASOS = 200_000;
+    private static final List<String> TASAS = List.of("0.15", "0.12", "0.125", "0.005", "0", "1", "7", "1E+1", "0.0001");
+
+    private final Random random = new Random(20240612L);
+
+    /**
+     * subtotal, impuesto esperado con IVA 15%
+     */
+    private static final String[][] CASOS_IVA = {
+            {"0", "0.00"},
+            {"0.00", "0.00"},
+            {"0.01", "0.00"},
+            {"0.03", "0.00"},
+            {"0.04", "0.01"},
+            {"0.10", "0.02"},
+            {"0.30", "0.05"},
+            {"0.50", "0.08"},
+            {"0.90", "0.14"},
+            {"1.00", "0.15"},
+            {"3.30", "0.50"},
+            {"99.90", "14.99"},
+            {"100", "15.00"},
+            {"-0.10", "-0.02"},
+            {"-0.30", "-0.05"},
+            {"-0.03", "0.00"},
+            {"12345678.90", "1851851.84"},
+            {"61489146912365172.67", "9223372036854775.90"},
+            {"99999999999999999.99", "15000000000000000.00"},
+            {"-99999999999999999.99", "-15000000000000000.00"},
+            {"0.001", "0.00"},
+            {"0.034", "0.01"},
+            {"1.005", "0.15"},
+    };
+
+    @Test
+    public void testTablaIvaCoincideConBigDecimal() {
+        BigDecimal tasa = new BigDecimal("0.15");
+        CalculadoraImpuestos calculadora = new CalculadoraImpuestos(tasa);
+        for (String[] caso : CASOS_IVA) {
+            BigDecimal subtotal = new BigDecimal(caso[0]);
+            BigDecimal esperado = new BigDecimal(caso[1]);
+            Assertions.assertEquals(esperado, ImpuestosReferencia.impuesto(subtotal, tasa), () -> "Tabla mal: " + caso[0]);
+            Assertions.assertEquals(esperado, calculadora.impuesto(subtotal), () -> "Difiere para " + caso[0]);
+        }
+    }
+
+    @Test
+    public void testBordesDeMedioCentavo() {
+        // 0.15 * s termina en exactamente medio centavo cuando s es múltiplo impar de 0.10
+        BigDecimal tasa = new BigDecimal("0.15");
+        CalculadoraImpuestos calculadora = new CalculadoraImpuestos(tasa);
+        for (long centavos = -100_000; centavos <= 100_000; centavos += 10) {
+            verificar(calculadora, tasa, Centavos.aBigDecimal(centavos));
+            verificar(calculadora, tasa, Centavos.aBigDecimal(centavos + 1));
+            verificar(calculadora, tasa, Centavos.aBigDecimal(centavos - 1));
+        }
+    }
+
+    @Test
+    public void testAlrededorDelLimiteDeLong() {
+        for (String valor : TASAS) {
+            BigDecimal tasa = new BigDecimal(valor);
+            CalculadoraImpuestos calculadora = new CalculadoraImpuestos(tasa);
+            long limite = calculadora.limite();
+            for (long centavos : new long[]{limite - 1, limite, limite + 1, -limite, -limite - 1}) {
+                BigDecimal subtotal = Centavos.aBigDecimal(centavos);
+                Assertions.assertEquals(ImpuestosReferencia.impuesto(subtotal, tasa), calculadora.impuesto(subtotal),
+                        () -> "Difiere para " + subtotal + " con tasa " + valor);
+            }
+            long centavos = limite;
+            Assertions.assertEquals(ImpuestosReferencia.impuesto(Centavos.aBigDecimal(centavos), tasa),
+                    Centavos.aBigDecimal(calculadora.impuesto(centavos)));
+        }
+    }
+
+    @Test
+    public void testSubtotalesGeneradosParaVariasTasas() {
+        for (String valor : TASAS) {
+            BigDecimal tasa = new BigDecimal(valor);
+            CalculadoraImpuestos calculadora = new CalculadoraImpuestos(tasa);
+            for (int i = 0; i < CASOS / TASAS.size(); i++) {
+                verificar(calculadora, tasa, subtotalAleatorio());
+            }
+        }
+    }
+
+    @Test
+    public void testLoteCoincideConElCalculoUnitario() {
+        BigDecimal tasa = new BigDecimal("0.15");
+        CalculadoraImpuestos calculadora = new CalculadoraImpuestos(tasa);
+        int n = 10_000;
+        long[] subtotales = new long[n];
+        for (int i = 0; i < n; i++) {
+            subtotales[i] = i % 2 == 0 ? random.nextInt(2_000_000) - 1_000_000 : i * 10L + 5;
+        }
+        long[] impuestos = new long[n];
+        long[] totales = new long[n];
+
+        calculadora.calcular(subtotales, impuestos, totales);
+
+        for (int i = 0; i < n; i++) {
+            BigDecimal subtotal = Centavos.aBigDecimal(subtotales[i]);
+            BigDecimal esperado = ImpuestosReferencia.impuesto(subtotal, tasa);
+            Assertions.assertEquals(esperado, Centavos.aBigDecimal(impuestos[i]));
+            Assertions.assertEquals(subtotal.add(esperado), Centavos.aBigDecimal(totales[i]));
+        }
+    }
+
+    @Test
+    public void testLoteFueraDeRangoNoEscribe() {
+        CalculadoraImpuestos calculadora = new CalculadoraImpuestos(new BigDecimal("0.15"));
+        long[] subtotales = {100, calculadora.limite() + 1};
+        long[] impuestos = new long[2];
+        long[] totales = new long[2];
+
+        Assertions.assertThrows(ArithmeticException.class, () -> calculadora.calcular(subtotales, impuestos, totales));
+        Assertions.assertArrayEquals(new long[2], impuestos);
+    }
+
+    @Test
+    public void testTasaNegativaSeRechaza() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CalculadoraImpuestos(new BigDecimal("-0.15")));
+    }
+
+    private static void verificar(CalculadoraImpuestos calculadora, BigDecimal tasa, BigDecimal subtotal) {
+        Assertions.assertEquals(ImpuestosReferencia.impuesto(subtotal, tasa), calculadora.impuesto(subtotal),
+                () -> "Difiere para " + subtotal + " con tasa " + tasa);
+    }
+
+    /**
+     * Escalas -1 a 3 (las de más de dos decimales van por el camino BigDecimal) y magnitudes variadas.
+     */
+    private BigDecimal subtotalAleatorio() {
+        long sinEscala = switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(1_000_000) - 500_000;
+            case 1 -> random.nextLong() % 1_000_000_000_000L;
+            default -> random.nextLong();
+        };
+        return BigDecimal.valueOf(sinEscala, random.nextInt(5) - 1);
+    }
+}
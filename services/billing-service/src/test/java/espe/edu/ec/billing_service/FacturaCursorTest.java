@@ -0,0 +1,75 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.exception.BadRequestException;
+import espe.edu.ec.billing_service.model.Billing;
+import espe.edu.ec.billing_service.service.FacturaCursor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class FacturaCursorTest {
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIdaYVueltaConservaFechaEId() {
+        LocalDateTime[] fechas = {
+                LocalDateTime.of(2024, 5, 1, 10, 0),
+                LocalDateTime.of(2024, 5, 1, 10, 0, 59),
+                LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123_456_789),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_000),
+        };
+        for (LocalDateTime fecha : fechas) {
+            for (long id : new long[]{1, 50, Long.MAX_VALUE}) {
+                FacturaCursor cursor = new FacturaCursor(fecha, id);
+                Assertions.assertEquals(cursor, FacturaCursor.decode(cursor.encode()));
+            }
+        }
+    }
+
+    @Test
+    public void testEmpateDeFechaSeDistinguePorId() {
+        LocalDateTime fecha = LocalDateTime.of(2024, 5, 1, 10, 0, 0, 500_000_000);
+        String primero = new FacturaCursor(fecha, 41).encode();
+        String segundo = new FacturaCursor(fecha, 42).encode();
+
+        Assertions.assertNotEquals(primero, segundo);
+        Assertions.assertEquals(41, FacturaCursor.decode(primero).id());
+        Assertions.assertEquals(42, FacturaCursor.decode(segundo).id());
+        Assertions.assertEquals(fecha, FacturaCursor.decode(segundo).fechaEmision());
+    }
+
+    @Test
+    public void testCursorEsSeguroEnUrl() {
+        String cursor = new FacturaCursor(LocalDateTime.of(2024, 5, 1, 10, 0, 0, 999_999_999), 123_456_789L).encode();
+        Assertions.assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    public void testDesdeFactura() {
+        LocalDateTime fecha = LocalDateTime.of(2024, 5, 1, 10, 0);
+        Billing factura = Billing.builder().id(7L).fechaEmision(fecha).build();
+
+        Assertions.assertEquals(new FacturaCursor(fecha, 7), FacturaCursor.of(factura));
+    }
+
+    @Test
+    public void testCursorInvalidoEsBadRequest() {
+        String[] invalidos = {
+                "%%%",
+                base64("sin-separador"),
+                base64("no-es-fecha|1"),
+                base64("2024-05-01T10:00|abc"),
+                base64("2024-05-01T10:00|"),
+                base64("|1"),
+        };
+        for (String cursor : invalidos) {
+            Assertions.assertThrows(BadRequestException.class, () -> FacturaCursor.decode(cursor), cursor);
+        }
+    }
+}
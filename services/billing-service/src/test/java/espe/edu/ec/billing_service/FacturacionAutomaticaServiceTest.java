@@ -0,0 +1,192 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.dto.FacturacionAutomaticaMetricasResponse;
+import espe.edu.ec.billing_service.dto.PaginaEntregas;
+import espe.edu.ec.billing_service.dto.PedidoEntregado;
+import espe.edu.ec.billing_service.model.CheckpointFacturacion;
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.model.TramoTarifa;
+import espe.edu.ec.billing_service.repository.BillingRepository;
+import espe.edu.ec.billing_service.repository.CheckpointFacturacionRepository;
+import espe.edu.ec.billing_service.repository.RecargoTarifaRepository;
+import espe.edu.ec.billing_service.repository.TramoTarifaRepository;
+import espe.edu.ec.billing_service.service.BillingService;
+import espe.edu.ec.billing_service.service.facturacion.FacturacionAutomaticaService;
+import espe.edu.ec.billing_service.service.facturacion.PedidosClient;
+import espe.edu.ec.billing_service.service.tarifas.MotorTarifas;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FacturacionAutomaticaServiceTest {
+
+    private PedidosClient pedidosClient;
+    private CheckpointFacturacionRepository checkpointRepository;
+    private JdbcTemplate jdbcTemplate;
+    private FacturacionAutomaticaService service;
+    private final List<String> cursoresGuardados = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        pedidosClient = mock(PedidosClient.class);
+        checkpointRepository = mock(CheckpointFacturacionRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        // Tarifa general URBANA: 2.50 + 0.35 por km, así que 10 km son 6.00
+        TramoTarifaRepository tramoRepository = mock(TramoTarifaRepository.class);
+        RecargoTarifaRepository recargoRepository = mock(RecargoTarifaRepository.class);
+        when(tramoRepository.count()).thenReturn(1L);
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(TramoTarifa.builder()
+                .id(1L)
+                .tipoEntrega(TipoEntrega.URBANA)
+                .desdeKm(BigDecimal.ZERO)
+                .tarifaBase(new BigDecimal("2.50"))
+                .tarifaPorKm(new BigDecimal("0.35"))
+                .build()));
+        when(recargoRepository.findByActivoTrue()).thenReturn(List.of());
+        MotorTarifas motorTarifas = new MotorTarifas(tramoRepository, recargoRepository,
+                new BigDecimal("2.50"), new BigDecimal("0.35"));
+        motorTarifas.cargar();
+
+        BillingService billingService = new BillingService(mock(BillingRepository.class), mock(EntityManager.class),
+                mock(TransactionTemplate.class), 500, 1000);
+
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(CheckpointFacturacion.class))).thenAnswer(invocacion -> {
+            CheckpointFacturacion checkpoint = invocacion.getArgument(0);
+            cursoresGuardados.add(checkpoint.getCursor());
+            return checkpoint;
+        });
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenReturn(List.of(1L, 51L));
+
+        service = new FacturacionAutomaticaService(pedidosClient, checkpointRepository, billingService,
+                motorTarifas, jdbcTemplate, true, 1, 100, 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.cerrar();
+    }
+
+    private static PedidoEntregado entregado(String tipoEntrega) {
+        return PedidoEntregado.builder()
+                .id(UUID.randomUUID())
+                .clienteId(UUID.randomUUID())
+                .tipoEntrega(tipoEntrega)
+                .zonaId("ZONA-NORTE")
+                .distanciaKm(BigDecimal.TEN)
+                .fechaActualizacion(LocalDateTime.now())
+                .build();
+    }
+
+    private static PaginaEntregas pagina(List<PedidoEntregado> items, boolean hasNext, String nextCursor) {
+        return PaginaEntregas.builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Test
+    public void testAvanzaElCheckpointPorPaginaGuardada() {
+        when(pedidosClient.entregados(null, 100)).thenReturn(
+                pagina(List.of(entregado("URBANA"), entregado("URBANA")), true, "c1"));
+        when(pedidosClient.entregados("c1", 100)).thenReturn(pagina(List.of(entregado("URBANA")), false, "c2"));
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenReturn(2, 1);
+
+        service.consumir();
+
+        Assertions.assertEquals(List.of("c1", "c2"), cursoresGuardados);
+        FacturacionAutomaticaMetricasResponse metricas = service.metricas();
+        Assertions.assertEquals(3, metricas.getFacturasCreadas());
+        Assertions.assertEquals(0, metricas.getPedidosDuplicados());
+        Assertions.assertEquals(2, metricas.getPaginasProcesadas());
+        Assertions.assertTrue(metricas.isAlDia());
+        Assertions.assertEquals("c2", metricas.getCursor());
+    }
+
+    @Test
+    public void testPedidosYaFacturadosCuentanComoDuplicados() {
+        when(pedidosClient.entregados(null, 100)).thenReturn(
+                pagina(List.of(entregado("URBANA"), entregado("URBANA")), false, "c1"));
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenReturn(1);
+
+        service.consumir();
+
+        Assertions.assertEquals(1, service.metricas().getFacturasCreadas());
+        Assertions.assertEquals(1, service.metricas().getPedidosDuplicados());
+        Assertions.assertEquals(List.of("c1"), cursoresGuardados);
+    }
+
+    @Test
+    public void testFalloAlInsertarNoAvanzaElCheckpoint() {
+        when(pedidosClient.entregados(null, 100)).thenReturn(pagina(List.of(entregado("URBANA")), false, "c1"));
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        service.consumir();
+
+        verify(checkpointRepository, never()).save(any());
+        Assertions.assertEquals(1, service.metricas().getFallos());
+        Assertions.assertNotNull(service.metricas().getUltimoError());
+    }
+
+    @Test
+    public void testPedidoSinTarifaDetieneElCicloSinAvanzar() {
+        when(pedidosClient.entregados(null, 100)).thenReturn(
+                pagina(List.of(entregado("URBANA"), entregado("NACIONAL")), false, "c1"));
+
+        service.consumir();
+
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+        verify(checkpointRepository, never()).save(any());
+        Assertions.assertEquals(1, service.metricas().getFallos());
+    }
+
+    @Test
+    public void testInsertaCentavosEIdsDelBloquePooled() throws Exception {
+        when(pedidosClient.entregados(null, 100)).thenReturn(
+                pagina(List.of(entregado("URBANA"), entregado("URBANA")), false, "c1"));
+        ArgumentCaptor<PreparedStatementCreator> sentencia = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        when(jdbcTemplate.update(sentencia.capture())).thenReturn(2);
+
+        service.consumir();
+
+        Connection conexion = mock(Connection.class);
+        PGConnection pg = mock(PGConnection.class);
+        when(conexion.unwrap(PGConnection.class)).thenReturn(pg);
+        when(conexion.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        sentencia.getValue().createPreparedStatement(conexion);
+
+        // El valor inicial 1 solo es dueño de sí mismo; 51 cubre (1, 51]
+        verify(pg).createArrayOf("int8", new long[]{1, 2});
+        verify(pg).createArrayOf("int8", new long[]{600, 600});
+        verify(pg).createArrayOf("int8", new long[]{90, 90});
+        verify(pg).createArrayOf("int8", new long[]{690, 690});
+    }
+}
@@ -0,0 +1,18 @@
+package espe.edu.ec.billing_service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cálculo previo con {@link BigDecimal} que sirve de oráculo para comprobar que
+ * {@link espe.edu.ec.billing_service.service.dinero.CalculadoraImpuestos} conserva el redondeo HALF_UP.
+ */
+public final class ImpuestosReferencia {
+
+    private ImpuestosReferencia() {
+    }
+
+    public static BigDecimal impuesto(BigDecimal subtotal, BigDecimal tasa) {
+        return subtotal.multiply(tasa).setScale(2, RoundingMode.HALF_UP);
+    }
+}
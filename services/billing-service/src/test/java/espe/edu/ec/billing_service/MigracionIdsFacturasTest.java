@@ -0,0 +1,68 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.config.MigracionIdsFacturas;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MigracionIdsFacturasTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MigracionIdsFacturas migracion;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        migracion = new MigracionIdsFacturas(jdbcTemplate);
+    }
+
+    private void esquema(String tipoPedido, String tipoCliente, int unicos, int repetidos) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), eq("pedido_id"))).thenReturn(tipoPedido);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class), eq("cliente_id"))).thenReturn(tipoCliente);
+        when(jdbcTemplate.queryForObject(contains("pg_index"), eq(Integer.class))).thenReturn(unicos);
+        when(jdbcTemplate.queryForObject(contains("HAVING"), eq(Integer.class))).thenReturn(repetidos);
+    }
+
+    @Test
+    public void testMigraColumnasBigintYCreaElIndiceUnico() {
+        esquema("bigint", "bigint", 0, 0);
+
+        migracion.afterPropertiesSet();
+
+        verify(jdbcTemplate).execute("ALTER TABLE facturas ALTER COLUMN pedido_id "
+                + "TYPE uuid USING lpad(to_hex(pedido_id), 32, '0')::uuid");
+        verify(jdbcTemplate).execute("ALTER TABLE facturas ALTER COLUMN cliente_id "
+                + "TYPE uuid USING lpad(to_hex(cliente_id), 32, '0')::uuid");
+        verify(jdbcTemplate).execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_facturas_pedido_id ON facturas (pedido_id)");
+    }
+
+    @Test
+    public void testEsquemaMigradoNoCambiaNada() {
+        esquema("uuid", "uuid", 1, 0);
+
+        migracion.afterPropertiesSet();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(jdbcTemplate, never()).queryForObject(contains("HAVING"), eq(Integer.class));
+    }
+
+    @Test
+    public void testPedidosRepetidosDetienenElArranque() {
+        esquema("uuid", "uuid", 0, 3);
+
+        IllegalStateException error = Assertions.assertThrows(IllegalStateException.class,
+                () -> migracion.afterPropertiesSet());
+
+        Assertions.assertTrue(error.getMessage().contains("3 pedido_id"));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,109 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.model.TramoTarifa;
+import espe.edu.ec.billing_service.repository.RecargoTarifaRepository;
+import espe.edu.ec.billing_service.repository.TramoTarifaRepository;
+import espe.edu.ec.billing_service.service.tarifas.MotorTarifas;
+import espe.edu.ec.billing_service.service.tarifas.Tarifario;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MotorTarifasTest {
+
+    private TramoTarifaRepository tramoRepository;
+    private MotorTarifas motor;
+
+    @BeforeEach
+    public void setUp() {
+        tramoRepository = mock(TramoTarifaRepository.class);
+        RecargoTarifaRepository recargoRepository = mock(RecargoTarifaRepository.class);
+        when(recargoRepository.findByActivoTrue()).thenReturn(List.of());
+        motor = new MotorTarifas(tramoRepository, recargoRepository, new BigDecimal("2.50"), new BigDecimal("0.35"));
+    }
+
+    private static TramoTarifa general(String base) {
+        return TramoTarifa.builder()
+                .id(1L)
+                .tipoEntrega(TipoEntrega.URBANA)
+                .desdeKm(BigDecimal.ZERO)
+                .tarifaBase(new BigDecimal(base))
+                .tarifaPorKm(new BigDecimal("0.35"))
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSiembraLaTarifaGeneralSinTramos() {
+        when(tramoRepository.count()).thenReturn(0L);
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("2.50")));
+
+        motor.cargar();
+
+        ArgumentCaptor<List<TramoTarifa>> sembrados = ArgumentCaptor.forClass(List.class);
+        verify(tramoRepository).saveAll(sembrados.capture());
+        Assertions.assertEquals(TipoEntrega.values().length, sembrados.getValue().size());
+        Assertions.assertTrue(motor.cargado());
+        Assertions.assertEquals(600, motor.actual().subtotal(null, TipoEntrega.URBANA, 10_000));
+    }
+
+    @Test
+    public void testRecargaSinCambiosConservaElTarifario() {
+        when(tramoRepository.count()).thenReturn(1L);
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("2.50")));
+        motor.cargar();
+        Tarifario vigente = motor.actual();
+
+        Assertions.assertSame(vigente, motor.recargar());
+
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("3.00")));
+        Tarifario nuevo = motor.recargar();
+        Assertions.assertNotSame(vigente, nuevo);
+        Assertions.assertEquals(vigente.version() + 1, nuevo.version());
+        Assertions.assertEquals(650, motor.actual().subtotal(null, TipoEntrega.URBANA, 10_000));
+        verify(tramoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testReglasInvalidasMantienenElVigente() {
+        when(tramoRepository.count()).thenReturn(1L);
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("2.50")));
+        motor.cargar();
+        Tarifario vigente = motor.actual();
+
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("2.50"), general("3.00")));
+        Assertions.assertThrows(RuntimeException.class, () -> motor.recargar());
+        Assertions.assertSame(vigente, motor.actual());
+        Assertions.assertNotNull(motor.ultimoError());
+
+        motor.recargarPeriodicamente();
+        Assertions.assertSame(vigente, motor.actual());
+
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("2.50")));
+        motor.recargar();
+        Assertions.assertNull(motor.ultimoError());
+    }
+
+    @Test
+    public void testArrancaAunqueLasReglasSeanInvalidas() {
+        when(tramoRepository.count()).thenReturn(1L);
+        when(tramoRepository.findByActivoTrue()).thenReturn(List.of(general("2.50"), general("3.00")));
+
+        motor.cargar();
+
+        Assertions.assertTrue(motor.cargado());
+        Assertions.assertEquals(Tarifario.SIN_TARIFA, motor.actual().subtotal(null, TipoEntrega.URBANA, 0));
+        Assertions.assertNotNull(motor.ultimoError());
+    }
+}
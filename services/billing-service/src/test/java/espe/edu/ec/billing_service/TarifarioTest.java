@@ -0,0 +1,187 @@
+package espe.edu.ec.billing_service;
+
+import espe.edu.ec.billing_service.model.RecargoTarifa;
+import espe.edu.ec.billing_service.model.TipoEntrega;
+import espe.edu.ec.billing_service.model.TramoTarifa;
+import espe.edu.ec.billing_service.service.tarifas.Tarifario;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TarifarioTest {
+
+    private long ids;
+
+    private TramoTarifa tramo(String zonaId, TipoEntrega tipo, String desdeKm, String hastaKm, String base, String porKm) {
+        return TramoTarifa.builder()
+                .id(++ids)
+                .zonaId(zonaId)
+                .tipoEntrega(tipo)
+                .desdeKm(new BigDecimal(desdeKm))
+                .hastaKm(hastaKm != null ? new BigDecimal(hastaKm) : null)
+                .tarifaBase(new BigDecimal(base))
+                .tarifaPorKm(new BigDecimal(porKm))
+                .build();
+    }
+
+    private RecargoTarifa recargo(String zonaId, TipoEntrega tipo, String porcentaje, String montoFijo) {
+        return RecargoTarifa.builder()
+                .id(++ids)
+                .nombre("recargo " + ids)
+                .zonaId(zonaId)
+                .tipoEntrega(tipo)
+                .porcentaje(new BigDecimal(porcentaje))
+                .montoFijo(new BigDecimal(montoFijo))
+                .build();
+    }
+
+    /**
+     * Tarifa general URBANA en tres tramos: [0, 5), [5, 20) y desde 20 km sin límite.
+     */
+    private List<TramoTarifa> tramosGenerales() {
+        List<TramoTarifa> tramos = new ArrayList<>();
+        tramos.add(tramo(null, TipoEntrega.URBANA, "20", null, "5.00", "0.30"));
+        tramos.add(tramo(null, TipoEntrega.URBANA, "0", "5", "2.00", "0.50"));
+        tramos.add(tramo(null, TipoEntrega.URBANA, "5", "20", "3.00", "0.40"));
+        tramos.add(tramo(null, TipoEntrega.INTERMUNICIPAL, "0", null, "4.00", "0.25"));
+        return tramos;
+    }
+
+    /**
+     * distancia en km, subtotal esperado en centavos con la tarifa general URBANA
+     */
+    private static final Object[][] TRAMOS_URBANA = {
+            {"0", 200L},
+            {"1", 250L},
+            {"4.999", 450L},
+            {"5", 500L},
+            {"5.001", 500L},
+            {"19.999", 1100L},
+            {"20", 1100L},
+            {"1000", 30500L},
+            {"100000", 3000500L},
+    };
+
+    @Test
+    public void testBuscaElTramoYRespetaLosLimites() {
+        Tarifario tarifario = Tarifario.compilar(tramosGenerales(), List.of(), 1);
+        for (Object[] caso : TRAMOS_URBANA) {
+            long metros = Tarifario.metros(new BigDecimal((String) caso[0]));
+            Assertions.assertEquals((long) caso[1], tarifario.subtotal(null, TipoEntrega.URBANA, metros),
+                    () -> "Difiere para " + caso[0] + " km");
+        }
+    }
+
+    @Test
+    public void testHuecosYTiposSinTramoNoTienenTarifa() {
+        List<TramoTarifa> tramos = List.of(
+                tramo(null, TipoEntrega.URBANA, "1", "5", "2.00", "0.50"),
+                tramo(null, TipoEntrega.URBANA, "10", null, "3.00", "0.40"));
+        Tarifario tarifario = Tarifario.compilar(tramos, List.of(), 1);
+
+        Assertions.assertEquals(Tarifario.SIN_TARIFA, tarifario.subtotal(null, TipoEntrega.URBANA, 999));
+        Assertions.assertEquals(Tarifario.SIN_TARIFA, tarifario.subtotal(null, TipoEntrega.URBANA, 5_000));
+        Assertions.assertEquals(Tarifario.SIN_TARIFA, tarifario.subtotal(null, TipoEntrega.URBANA, 9_999));
+        Assertions.assertEquals(700, tarifario.subtotal(null, TipoEntrega.URBANA, 10_000));
+        Assertions.assertEquals(Tarifario.SIN_TARIFA, tarifario.subtotal(null, TipoEntrega.NACIONAL, 0));
+        Assertions.assertEquals(Tarifario.SIN_TARIFA, Tarifario.vacio().subtotal("NORTE", TipoEntrega.URBANA, 0));
+    }
+
+    @Test
+    public void testZonaPropiaYTarifaGeneralComoRespaldo() {
+        List<TramoTarifa> tramos = tramosGenerales();
+        tramos.add(tramo("NORTE", TipoEntrega.URBANA, "0", null, "1.00", "1.00"));
+        Tarifario tarifario = Tarifario.compilar(tramos, List.of(recargo("SUR", null, "0", "0.00")), 1);
+
+        Assertions.assertEquals(1100, tarifario.subtotal("NORTE", TipoEntrega.URBANA, 10_000));
+        Assertions.assertEquals(700, tarifario.subtotal("SUR", TipoEntrega.URBANA, 10_000));
+        Assertions.assertEquals(700, tarifario.subtotal("OTRA", TipoEntrega.URBANA, 10_000));
+        Assertions.assertEquals(700, tarifario.subtotal(null, TipoEntrega.URBANA, 10_000));
+        // NORTE no tiene tramos INTERMUNICIPAL propios
+        Assertions.assertEquals(650, tarifario.subtotal("NORTE", TipoEntrega.INTERMUNICIPAL, 10_000));
+        Assertions.assertEquals(2, tarifario.zonas());
+    }
+
+    @Test
+    public void testRecargosSeAcumulanPorZonaYTipo() {
+        List<RecargoTarifa> recargos = List.of(
+                recargo(null, null, "10.00", "0.00"),
+                recargo("SUR", TipoEntrega.URBANA, "5.00", "1.00"),
+                recargo(null, TipoEntrega.INTERMUNICIPAL, "0.00", "0.50"));
+        Tarifario tarifario = Tarifario.compilar(tramosGenerales(), recargos, 1);
+
+        // 7.00 del tramo; +10% = 7.70; en SUR +15% y 1.00 fijo = 9.05
+        Assertions.assertEquals(770, tarifario.subtotal(null, TipoEntrega.URBANA, 10_000));
+        Assertions.assertEquals(905, tarifario.subtotal("SUR", TipoEntrega.URBANA, 10_000));
+        // 6.50 + 10% + 0.50 = 7.65 en cualquier zona
+        Assertions.assertEquals(765, tarifario.subtotal("SUR", TipoEntrega.INTERMUNICIPAL, 10_000));
+        Assertions.assertEquals(765, tarifario.subtotal(null, TipoEntrega.INTERMUNICIPAL, 10_000));
+    }
+
+    @Test
+    public void testRedondeaUnaSolaVezHalfUp() {
+        List<TramoTarifa> tramos = List.of(tramo(null, TipoEntrega.URBANA, "0", null, "0.00", "0.0005"));
+        Tarifario tarifario = Tarifario.compilar(tramos, List.of(), 1);
+
+        // 0.0005 por km: 10 km son exactamente medio centavo
+        Assertions.assertEquals(1, tarifario.subtotal(null, TipoEntrega.URBANA, 10_000));
+        Assertions.assertEquals(0, tarifario.subtotal(null, TipoEntrega.URBANA, 9_999));
+        Assertions.assertEquals(1, tarifario.subtotal(null, TipoEntrega.URBANA, 29_999));
+        Assertions.assertEquals(2, tarifario.subtotal(null, TipoEntrega.URBANA, 30_000));
+
+        // El recargo se aplica sin redondeos intermedios: 1.00 * 1.3333 se redondea una vez, a 1.33
+        Tarifario conRecargo = Tarifario.compilar(List.of(tramo(null, TipoEntrega.URBANA, "0", null, "1.00", "0")),
+                List.of(recargo(null, null, "33.33", "0.00")), 1);
+        Assertions.assertEquals(133, conRecargo.subtotal(null, TipoEntrega.URBANA, 0));
+    }
+
+    @Test
+    public void testReglasInvalidasSeRechazan() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.compilar(List.of(
+                tramo(null, TipoEntrega.URBANA, "0", "10", "1.00", "0.10"),
+                tramo(null, TipoEntrega.URBANA, "5", null, "1.00", "0.10")), List.of(), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.compilar(List.of(
+                tramo(null, TipoEntrega.URBANA, "5", "5", "1.00", "0.10")), List.of(), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.compilar(List.of(
+                tramo(null, TipoEntrega.URBANA, "0", null, "1.00000001", "0.10")), List.of(), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.compilar(List.of(
+                tramo(null, TipoEntrega.URBANA, "0", null, "-1.00", "0.10")), List.of(), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.compilar(List.of(),
+                List.of(recargo(null, null, "1.005", "0.00")), 1));
+
+        // El mismo rango en otra zona o tipo no se solapa
+        Assertions.assertDoesNotThrow(() -> Tarifario.compilar(List.of(
+                tramo(null, TipoEntrega.URBANA, "0", "10", "1.00", "0.10"),
+                tramo("NORTE", TipoEntrega.URBANA, "0", "10", "1.00", "0.10"),
+                tramo(null, TipoEntrega.NACIONAL, "0", "10", "1.00", "0.10"),
+                tramo(null, TipoEntrega.URBANA, "10", null, "1.00", "0.10")), List.of(), 1));
+    }
+
+    @Test
+    public void testDistanciaEnMetros() {
+        Assertions.assertEquals(1235, Tarifario.metros(new BigDecimal("1.2345")));
+        Assertions.assertEquals(1234, Tarifario.metros(new BigDecimal("1.2344")));
+        Assertions.assertEquals(0, Tarifario.metros(BigDecimal.ZERO));
+        Assertions.assertEquals(100_000_000, Tarifario.metros(new BigDecimal("100000")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.metros(new BigDecimal("-0.001")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Tarifario.metros(new BigDecimal("100000.001")));
+    }
+
+    @Test
+    public void testTipoPorNombreYMismasReglas() {
+        Assertions.assertEquals(TipoEntrega.NACIONAL, Tarifario.tipo("NACIONAL"));
+        Assertions.assertNull(Tarifario.tipo("nacional"));
+        Assertions.assertNull(Tarifario.tipo(null));
+
+        Tarifario uno = Tarifario.compilar(tramosGenerales(), List.of(), 1);
+        Tarifario otro = Tarifario.compilar(tramosGenerales(), List.of(), 2);
+        Assertions.assertTrue(uno.mismasReglas(otro));
+
+        List<TramoTarifa> cambiados = tramosGenerales();
+        cambiados.set(3, tramo(null, TipoEntrega.INTERMUNICIPAL, "0", null, "4.01", "0.25"));
+        Assertions.assertFalse(uno.mismasReglas(Tarifario.compilar(cambiados, List.of(), 3)));
+    }
+}
@@ -0,0 +1,142 @@
+package espe.edu.ec.fleet_service.benchmark;
+
+import espe.edu.ec.fleet_service.ValidacionesReferencia;
+import espe.edu.ec.fleet_service.model.validator.Validaciones;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones anteriores (regex, substring, parseInt) frente a {@link Validaciones} sobre lotes de
+ * entradas con la mezcla típica de una importación: mayoría válidas y algunas con errores.
+ * Ejecutar con {@code -prof gc} para comparar también los bytes asignados por operación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacionesBenchmark {
+
+    private static final int LOTE = 1024;
+
+    private final String[] cedulas = new String[LOTE];
+    private final String[] rucs = new String[LOTE];
+    private final String[] placas = new String[LOTE];
+    private final String[] anios = new String[LOTE];
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        for (int i = 0; i < LOTE; i++) {
+            boolean errada = i % 10 == 0;
+            String cedula = cedula(random);
+            cedulas[i] = errada ? cedula.substring(0, 9) + "X" : cedula;
+            rucs[i] = errada ? cedula + "000" : cedula + "001";
+            placas[i] = errada ? "abc-" + random.nextInt(1000) : "PBA-" + (1000 + random.nextInt(9000));
+            anios[i] = errada ? "18" + random.nextInt(10) + random.nextInt(10) : String.valueOf(1990 + random.nextInt(35));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int cedulaReferencia() {
+        int validas = 0;
+        for (String cedula : cedulas) {
+            validas += ValidacionesReferencia.esCedulaValida(cedula) ? 1 : 0;
+        }
+        return validas;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int cedulaAritmetica() {
+        int validas = 0;
+        for (String cedula : cedulas) {
+            validas += Validaciones.esCedulaValida(cedula) ? 1 : 0;
+        }
+        return validas;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int rucReferencia() {
+        int validos = 0;
+        for (String ruc : rucs) {
+            validos += ValidacionesReferencia.esRucValido(ruc) ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int rucAritmetica() {
+        int validos = 0;
+        for (String ruc : rucs) {
+            validos += Validaciones.esRucValido(ruc) ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int placaPattern() {
+        int validas = 0;
+        for (String placa : placas) {
+            validas += ValidacionesReferencia.esPlacaValida(placa) ? 1 : 0;
+        }
+        return validas;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int placaAritmetica() {
+        int validas = 0;
+        for (String placa : placas) {
+            validas += Validaciones.esPlacaValida(placa) ? 1 : 0;
+        }
+        return validas;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int anioPattern() {
+        int validos = 0;
+        for (String anio : anios) {
+            validos += ValidacionesReferencia.esAnioFabricacionValido(anio) ? 1 : 0;
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int anioAritmetica() {
+        int validos = 0;
+        for (String anio : anios) {
+            validos += Validaciones.esAnioFabricacionValido(anio) ? 1 : 0;
+        }
+        return validos;
+    }
+
+    private static String cedula(Random random) {
+        String base = String.format("%02d%d%06d", 1 + random.nextInt(24), random.nextInt(6), random.nextInt(1_000_000));
+        for (int verificador = 0; verificador < 10; verificador++) {
+            if (Validaciones.esCedulaValida(base + verificador)) {
+                return base + verificador;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
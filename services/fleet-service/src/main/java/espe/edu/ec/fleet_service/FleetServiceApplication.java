@@ -2,8 +2,10 @@ package espe.edu.ec.fleet_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FleetServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,52 @@
+package espe.edu.ec.fleet_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adelanta las secuencias de id por encima del máximo existente.
+ *
+ * Las tablas creadas cuando los ids eran IDENTITY ya tienen filas y la secuencia nueva empieza en 1.
+ * Con el optimizador pooled cada nextval entrega el bloque (valor - incremento, valor], así que el
+ * siguiente valor debe ser al menos max(id) + incremento. Solo se adelanta, nunca se retrocede, y
+ * corre antes de que el servidor acepte peticiones.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class AlineacionSecuencias implements InitializingBean {
+
+    private record Secuencia(String nombre, String tabla, int incremento) {
+    }
+
+    private static final List<Secuencia> SECUENCIAS = List.of(
+            new Secuencia("vehiculo_seq", "vehiculo", 50),
+            new Secuencia("repartidor_seq", "repartidor", 50)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlineacionSecuencias(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (Secuencia secuencia : SECUENCIAS) {
+            List<Long> ajustes = jdbcTemplate.queryForList(
+                    "SELECT setval('" + secuencia.nombre() + "', t.maximo + ?, false) "
+                            + "FROM (SELECT COALESCE(MAX(id), 0) AS maximo FROM " + secuencia.tabla() + ") t, "
+                            + secuencia.nombre() + " s "
+                            + "WHERE (CASE WHEN s.is_called THEN s.last_value + ? ELSE s.last_value END) < t.maximo + ?",
+                    Long.class, secuencia.incremento(), secuencia.incremento(), secuencia.incremento());
+            if (!ajustes.isEmpty()) {
+                log.info("Secuencia {} adelantada a {}", secuencia.nombre(), ajustes.get(0));
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package espe.edu.ec.fleet_service.controller;
+
+import espe.edu.ec.fleet_service.dto.VehiculosCercanosResponse;
+import espe.edu.ec.fleet_service.service.espacial.CercaniaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/fleet/disponible")
+public class CercaniaController {
+    private final CercaniaService cercaniaService;
+
+    public CercaniaController(CercaniaService cercaniaService) { this.cercaniaService = cercaniaService; }
+
+    @GetMapping("/cercanos")
+    public ResponseEntity<VehiculosCercanosResponse> buscarCercanos(
+            @RequestParam String tipo,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(defaultValue = "10") double radioKm) {
+        return ResponseEntity.ok(cercaniaService.buscarCercanos(tipo, lat, lon, k, radioKm));
+    }
+}
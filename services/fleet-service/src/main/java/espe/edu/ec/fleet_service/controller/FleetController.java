@@ -1,5 +1,11 @@
 package espe.edu.ec.fleet_service.controller;
 
+import espe.edu.ec.fleet_service.dto.CursorPageResponse;
+import espe.edu.ec.fleet_service.dto.RepartidorResumenResponse;
+import espe.edu.ec.fleet_service.dto.ReservaVehiculosRequest;
+import espe.edu.ec.fleet_service.dto.ReservaVehiculosResponse;
+import espe.edu.ec.fleet_service.dto.TransicionVehiculoResponse;
+import espe.edu.ec.fleet_service.dto.VehiculoResumenResponse;
 import espe.edu.ec.fleet_service.model.EstadoVehiculo;
 import espe.edu.ec.fleet_service.model.Repartidor;
 import espe.edu.ec.fleet_service.model.Vehiculo;
@@ -9,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/fleet")
@@ -27,6 +34,15 @@ public class FleetController {
         return ResponseEntity.ok(fleetService.listarVehiculos());
     }
 
+    @GetMapping("/vehiculos/resumen")
+    public ResponseEntity<CursorPageResponse<VehiculoResumenResponse>> listarVehiculosResumen(
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) EstadoVehiculo estado,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(fleetService.listarVehiculosResumen(tipo, estado, cursor, size));
+    }
+
     @GetMapping("/vehiculos/{placa}")
     public ResponseEntity<Vehiculo> buscarVehiculo(@PathVariable String placa) {
         return ResponseEntity.ok(fleetService.buscarVehiculoPorPlaca(placa));
@@ -35,8 +51,22 @@ public class FleetController {
     @PatchMapping("/vehiculos/{placa}/estado")
     public ResponseEntity<Vehiculo> actualizarEstado(
             @PathVariable String placa,
-            @RequestParam EstadoVehiculo estado) {
-        return ResponseEntity.ok(fleetService.actualizarEstadoVehiculo(placa, estado));
+            @RequestParam EstadoVehiculo estado,
+            @RequestParam(required = false) EstadoVehiculo desde) {
+        return ResponseEntity.ok(fleetService.actualizarEstadoVehiculo(placa, estado, desde));
+    }
+
+    @PostMapping("/vehiculos/{placa}/transicion")
+    public ResponseEntity<TransicionVehiculoResponse> transicionarEstado(
+            @PathVariable String placa,
+            @RequestParam EstadoVehiculo desde,
+            @RequestParam EstadoVehiculo hacia) {
+        return ResponseEntity.ok(fleetService.transicionarEstado(placa, desde, hacia));
+    }
+
+    @PostMapping("/vehiculos/reservas")
+    public ResponseEntity<ReservaVehiculosResponse> reservarVehiculos(@Valid @RequestBody ReservaVehiculosRequest request) {
+        return ResponseEntity.ok(fleetService.reservarVehiculos(request));
     }
 
     @GetMapping("/disponible")
@@ -56,10 +86,18 @@ public class FleetController {
         return ResponseEntity.ok(fleetService.listarRepartidores());
     }
 
+    @GetMapping("/repartidores/resumen")
+    public ResponseEntity<CursorPageResponse<RepartidorResumenResponse>> listarRepartidoresResumen(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(fleetService.listarRepartidoresResumen(cursor, size));
+    }
+
     @PutMapping("/repartidores/{id}/asignar-vehiculo")
     public ResponseEntity<Repartidor> asignarVehiculo(
             @PathVariable Long id,
-            @RequestParam String placa) {
-        return ResponseEntity.ok(fleetService.asignarVehiculo(id, placa));
+            @RequestParam String placa,
+            @RequestParam(required = false) UUID retencion) {
+        return ResponseEntity.ok(fleetService.asignarVehiculo(id, placa, retencion));
     }
 }
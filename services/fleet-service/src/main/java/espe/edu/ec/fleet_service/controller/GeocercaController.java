@@ -0,0 +1,45 @@
+package espe.edu.ec.fleet_service.controller;
+
+import espe.edu.ec.fleet_service.dto.GeocercaMetricasResponse;
+import espe.edu.ec.fleet_service.event.GeocercaEvent;
+import espe.edu.ec.fleet_service.model.ZonaGeocerca;
+import espe.edu.ec.fleet_service.service.geocerca.GeocercaService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/fleet/geocercas")
+public class GeocercaController {
+    private final GeocercaService geocercaService;
+
+    public GeocercaController(GeocercaService geocercaService) { this.geocercaService = geocercaService; }
+
+    @PostMapping
+    public ResponseEntity<ZonaGeocerca> crearZona(@Valid @RequestBody ZonaGeocerca zona) {
+        return ResponseEntity.ok(geocercaService.crearZona(zona));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ZonaGeocerca>> listarZonas() {
+        return ResponseEntity.ok(geocercaService.listarZonas());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> desactivarZona(@PathVariable Long id) {
+        geocercaService.desactivarZona(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/eventos")
+    public ResponseEntity<List<GeocercaEvent>> eventosRecientes(@RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(geocercaService.eventosRecientes(limite));
+    }
+
+    @GetMapping("/metricas")
+    public ResponseEntity<GeocercaMetricasResponse> metricas() {
+        return ResponseEntity.ok(geocercaService.metricas());
+    }
+}
@@ -0,0 +1,31 @@
+package espe.edu.ec.fleet_service.controller;
+
+import espe.edu.ec.fleet_service.dto.ImportacionFlotaResponse;
+import espe.edu.ec.fleet_service.service.importacion.ImportacionFlotaService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/fleet/importaciones")
+public class ImportacionController {
+    private final ImportacionFlotaService importacionService;
+
+    public ImportacionController(ImportacionFlotaService importacionService) { this.importacionService = importacionService; }
+
+    @PostMapping(value = "/vehiculos", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportacionFlotaResponse> importarVehiculos(
+            @RequestHeader("Content-Type") MediaType tipo,
+            InputStream contenido) {
+        return ResponseEntity.ok(importacionService.importarVehiculos(contenido, tipo));
+    }
+
+    @PostMapping(value = "/repartidores", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportacionFlotaResponse> importarRepartidores(
+            @RequestHeader("Content-Type") MediaType tipo,
+            InputStream contenido) {
+        return ResponseEntity.ok(importacionService.importarRepartidores(contenido, tipo));
+    }
+}
@@ -0,0 +1,44 @@
+package espe.edu.ec.fleet_service.controller;
+
+import espe.edu.ec.fleet_service.dto.RetencionMetricasResponse;
+import espe.edu.ec.fleet_service.dto.RetencionResponse;
+import espe.edu.ec.fleet_service.service.retencion.RetencionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/fleet")
+public class RetencionController {
+    private final RetencionService retencionService;
+
+    public RetencionController(RetencionService retencionService) { this.retencionService = retencionService; }
+
+    @PostMapping("/vehiculos/{placa}/retencion")
+    public ResponseEntity<RetencionResponse> adquirir(
+            @PathVariable String placa,
+            @RequestParam(required = false) String titular,
+            @RequestParam(required = false) Long ttlSegundos) {
+        return ResponseEntity.ok(retencionService.adquirir(placa, titular, ttlSegundos));
+    }
+
+    @PutMapping("/vehiculos/{placa}/retencion/{token}")
+    public ResponseEntity<RetencionResponse> renovar(
+            @PathVariable String placa,
+            @PathVariable UUID token,
+            @RequestParam(required = false) Long ttlSegundos) {
+        return ResponseEntity.ok(retencionService.renovar(placa, token, ttlSegundos));
+    }
+
+    @DeleteMapping("/vehiculos/{placa}/retencion/{token}")
+    public ResponseEntity<Void> liberar(@PathVariable String placa, @PathVariable UUID token) {
+        retencionService.liberar(placa, token);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/retenciones/metricas")
+    public ResponseEntity<RetencionMetricasResponse> metricas() {
+        return ResponseEntity.ok(retencionService.metricas());
+    }
+}
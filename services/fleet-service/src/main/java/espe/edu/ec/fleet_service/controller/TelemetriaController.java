@@ -0,0 +1,35 @@
+package espe.edu.ec.fleet_service.controller;
+
+import espe.edu.ec.fleet_service.dto.PosicionActualResponse;
+import espe.edu.ec.fleet_service.dto.PosicionPing;
+import espe.edu.ec.fleet_service.dto.TelemetriaLoteResponse;
+import espe.edu.ec.fleet_service.dto.TelemetriaMetricasResponse;
+import espe.edu.ec.fleet_service.service.telemetria.TelemetriaService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/fleet/telemetria")
+public class TelemetriaController {
+    private final TelemetriaService telemetriaService;
+
+    public TelemetriaController(TelemetriaService telemetriaService) { this.telemetriaService = telemetriaService; }
+
+    @PostMapping
+    public ResponseEntity<TelemetriaLoteResponse> registrarLote(@RequestBody List<PosicionPing> pings) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(telemetriaService.registrarLote(pings));
+    }
+
+    @GetMapping("/vehiculos/{placa}/posicion")
+    public ResponseEntity<PosicionActualResponse> obtenerPosicion(@PathVariable String placa) {
+        return ResponseEntity.ok(telemetriaService.obtenerPosicion(placa));
+    }
+
+    @GetMapping("/metricas")
+    public ResponseEntity<TelemetriaMetricasResponse> metricas() {
+        return ResponseEntity.ok(telemetriaService.metricas());
+    }
+}
@@ -0,0 +1,40 @@
+package espe.edu.ec.fleet_service.controller;
+
+import espe.edu.ec.fleet_service.dto.CursorPageResponse;
+import espe.edu.ec.fleet_service.dto.UtilizacionDiariaResponse;
+import espe.edu.ec.fleet_service.dto.UtilizacionVehiculoResponse;
+import espe.edu.ec.fleet_service.service.utilizacion.UtilizacionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/fleet")
+public class UtilizacionController {
+    private final UtilizacionService utilizacionService;
+
+    public UtilizacionController(UtilizacionService utilizacionService) {
+        this.utilizacionService = utilizacionService;
+    }
+
+    @GetMapping("/utilizacion")
+    public ResponseEntity<CursorPageResponse<UtilizacionVehiculoResponse>> reporteFlota(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(utilizacionService.reporteFlota(desde, hasta, tipo, cursor, size));
+    }
+
+    @GetMapping("/vehiculos/{placa}/utilizacion")
+    public ResponseEntity<List<UtilizacionDiariaResponse>> reporteVehiculo(
+            @PathVariable String placa,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(utilizacionService.reporteVehiculo(placa, desde, hasta));
+    }
+}
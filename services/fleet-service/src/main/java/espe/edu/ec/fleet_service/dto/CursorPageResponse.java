@@ -0,0 +1,23 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset sobre el id).
+ * {@code nextCursor} es opaco y debe enviarse tal cual para obtener la siguiente página.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
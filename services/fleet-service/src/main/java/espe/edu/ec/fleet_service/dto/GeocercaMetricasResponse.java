@@ -0,0 +1,24 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocercaMetricasResponse {
+    private int zonasActivas;
+    private int celdasIndice;
+    private long evaluaciones;
+    private double evaluacionesPorSegundo;
+    private long poligonosEvaluados;
+    private double nanosPromedioEvaluacion;
+    private long eventosEntrada;
+    private long eventosSalida;
+    private double lagPromedioMs;
+    private long lagMaximoMs;
+    private long vehiculosEnZona;
+}
@@ -0,0 +1,32 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionFlotaResponse {
+    private int recibidos;
+    private int importados;
+    private int rechazados;
+    private List<ErrorFila> errores;
+
+    /**
+     * {@code linea} es el número de línea en el archivo (el encabezado CSV es la línea 1);
+     * {@code clave} es la placa o la identificación, si se pudo leer.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+        private int linea;
+        private String clave;
+        private String motivo;
+    }
+}
@@ -0,0 +1,21 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosicionActualResponse {
+    private Long vehiculoId;
+    private String placa;
+    private double lat;
+    private double lon;
+    private double velocidad;
+    private Instant timestamp;
+}
@@ -0,0 +1,22 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Lectura GPS de un vehículo; se identifica por {@code placa} o por {@code vehiculoId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosicionPing {
+    private String placa;
+    private Long vehiculoId;
+    private Double lat;
+    private Double lon;
+    private Double velocidad;
+    private Instant timestamp;
+}
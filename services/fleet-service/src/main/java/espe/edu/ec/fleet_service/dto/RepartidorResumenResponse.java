@@ -0,0 +1,29 @@
+package espe.edu.ec.fleet_service.dto;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.model.TipoEstado;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Repartidor con los datos básicos de su vehículo (nulos si no tiene uno asignado).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepartidorResumenResponse {
+    private Long id;
+    private String identificacion;
+    private String nombre;
+    private String apellido;
+    private String telefono;
+    private String licencia;
+    private TipoEstado estado;
+    private Long vehiculoId;
+    private String placa;
+    private String tipoVehiculo;
+    private EstadoVehiculo estadoVehiculo;
+}
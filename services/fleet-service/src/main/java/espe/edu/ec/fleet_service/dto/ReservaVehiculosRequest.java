@@ -0,0 +1,28 @@
+package espe.edu.ec.fleet_service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reserva por placas concretas o, si no se indican, de {@code cantidad} vehículos cualesquiera
+ * del tipo pedido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaVehiculosRequest {
+    @Size(max = 1000, message = "Máximo 1000 placas por reserva")
+    private List<String> placas;
+
+    @Min(value = 1, message = "La cantidad mínima es 1")
+    @Max(value = 1000, message = "La cantidad máxima es 1000")
+    private Integer cantidad;
+
+    private String tipoVehiculo;
+}
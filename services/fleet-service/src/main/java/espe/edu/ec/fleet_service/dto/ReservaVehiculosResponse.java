@@ -0,0 +1,18 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaVehiculosResponse {
+    private int solicitados;
+    private List<TransicionVehiculoResponse> reservados;
+    private List<String> noDisponibles;
+}
@@ -0,0 +1,21 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionMetricasResponse {
+    private int activas;
+    private int programadasEnRueda;
+    private long adquiridas;
+    private long renovadas;
+    private long liberadas;
+    private long consumidas;
+    private long expiradas;
+    private long conflictos;
+}
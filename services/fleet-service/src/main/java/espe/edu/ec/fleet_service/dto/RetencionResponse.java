@@ -0,0 +1,21 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionResponse {
+    private Long vehiculoId;
+    private String placa;
+    private UUID token;
+    private String titular;
+    private Instant expiraEn;
+}
@@ -0,0 +1,27 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetriaLoteResponse {
+    private int recibidos;
+    private int aceptados;
+    private int rechazados;
+    private List<ErrorPing> errores;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorPing {
+        private int indice;
+        private String motivo;
+    }
+}
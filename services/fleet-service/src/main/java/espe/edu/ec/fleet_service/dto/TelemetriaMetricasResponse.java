@@ -0,0 +1,22 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetriaMetricasResponse {
+    private long pingsRecibidos;
+    private long pingsAceptados;
+    private long pingsRechazados;
+    private long vehiculosConPosicion;
+    private long historialEncolado;
+    private long historialPersistido;
+    private long historialDescartado;
+    private long historialPendiente;
+    private long lotesEscritos;
+}
@@ -0,0 +1,19 @@
+package espe.edu.ec.fleet_service.dto;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransicionVehiculoResponse {
+    private Long vehiculoId;
+    private String placa;
+    private String tipoVehiculo;
+    private EstadoVehiculo estadoAnterior;
+    private EstadoVehiculo estado;
+}
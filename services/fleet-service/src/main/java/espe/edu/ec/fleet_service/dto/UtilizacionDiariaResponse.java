@@ -0,0 +1,21 @@
+package espe.edu.ec.fleet_service.dto;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizacionDiariaResponse {
+    private LocalDate dia;
+    private long milisegundosRegistrados;
+    private Map<EstadoVehiculo, Long> milisegundosPorEstado;
+    private Map<EstadoVehiculo, Double> fraccionPorEstado;
+}
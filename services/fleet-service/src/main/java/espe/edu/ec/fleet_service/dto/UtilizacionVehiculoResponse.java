@@ -0,0 +1,27 @@
+package espe.edu.ec.fleet_service.dto;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Tiempo de un vehículo en cada estado dentro del rango consultado; las fracciones se calculan sobre
+ * el tiempo registrado, que no incluye lo anterior al inicio del seguimiento.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizacionVehiculoResponse {
+    private Long vehiculoId;
+    private String placa;
+    private String tipoVehiculo;
+    private EstadoVehiculo estado;
+    private long milisegundosRegistrados;
+    private Map<EstadoVehiculo, Long> milisegundosPorEstado;
+    private Map<EstadoVehiculo, Double> fraccionPorEstado;
+}
@@ -0,0 +1,19 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehiculoCercanoResponse {
+    private Long vehiculoId;
+    private String placa;
+    private String tipoVehiculo;
+    private double lat;
+    private double lon;
+    private double distanciaKm;
+}
@@ -0,0 +1,26 @@
+package espe.edu.ec.fleet_service.dto;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columnas de la tabla {@code vehiculo}; se proyectan sin cargar la entidad ni unir las tablas de subtipo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehiculoResumenResponse {
+    private Long id;
+    private String placa;
+    private String tipoVehiculo;
+    private String marca;
+    private String modelo;
+    private String color;
+    private String anioFabricacion;
+    private EstadoVehiculo estado;
+    private boolean activo;
+}
@@ -0,0 +1,22 @@
+package espe.edu.ec.fleet_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehiculosCercanosResponse {
+    private String tipoVehiculo;
+    private double lat;
+    private double lon;
+    private double radioKm;
+    private List<VehiculoCercanoResponse> vehiculos;
+    private int evaluados;
+    private long microsegundos;
+}
@@ -0,0 +1,21 @@
+package espe.edu.ec.fleet_service.event;
+
+import espe.edu.ec.fleet_service.model.TipoEventoGeocerca;
+
+import java.time.Instant;
+
+/**
+ * Entrada o salida de un vehículo de una zona, detectada al evaluar su última posición.
+ * {@code timestamp} es el de la lectura GPS y {@code emitidoEn} el momento de la detección.
+ */
+public record GeocercaEvent(
+        TipoEventoGeocerca tipo,
+        long vehiculoId,
+        long zonaGeocercaId,
+        String zonaId,
+        double lat,
+        double lon,
+        Instant timestamp,
+        Instant emitidoEn
+) {
+}
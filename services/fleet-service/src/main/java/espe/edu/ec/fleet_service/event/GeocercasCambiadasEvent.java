@@ -0,0 +1,7 @@
+package espe.edu.ec.fleet_service.event;
+
+/**
+ * Se publica al crear o desactivar una zona; el motor de geocercas recarga los polígonos tras el commit.
+ */
+public record GeocercasCambiadasEvent() {
+}
@@ -0,0 +1,27 @@
+package espe.edu.ec.fleet_service.event;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.model.Vehiculo;
+import jakarta.persistence.DiscriminatorValue;
+import org.hibernate.Hibernate;
+
+/**
+ * Se publica al crear un vehículo o cambiar su estado; los índices en memoria lo consumen tras el commit.
+ */
+public record VehiculoCambiadoEvent(Long id, String placa, String tipoVehiculo, EstadoVehiculo estado) {
+
+    public static VehiculoCambiadoEvent de(Vehiculo vehiculo) {
+        return new VehiculoCambiadoEvent(vehiculo.getId(), vehiculo.getPlaca(), tipoDe(vehiculo), vehiculo.getEstado());
+    }
+
+    /**
+     * En un vehículo recién guardado la columna discriminadora aún no se ha leído de la base.
+     */
+    private static String tipoDe(Vehiculo vehiculo) {
+        if (vehiculo.getTipoVehiculo() != null) {
+            return vehiculo.getTipoVehiculo();
+        }
+        DiscriminatorValue discriminador = Hibernate.getClass(vehiculo).getAnnotation(DiscriminatorValue.class);
+        return discriminador != null ? discriminador.value() : null;
+    }
+}
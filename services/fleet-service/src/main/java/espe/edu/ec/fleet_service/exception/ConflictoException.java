@@ -0,0 +1,10 @@
+package espe.edu.ec.fleet_service.exception;
+
+/**
+ * El recurso cambió de estado antes de que la operación condicional pudiera aplicarse.
+ */
+public class ConflictoException extends RuntimeException {
+    public ConflictoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Coordenada {
+    @Column(nullable = false)
+    @NotNull(message = "La latitud es obligatoria")
+    @DecimalMin(value = "-90", message = "Latitud fuera de rango")
+    @DecimalMax(value = "90", message = "Latitud fuera de rango")
+    private Double lat;
+
+    @Column(nullable = false)
+    @NotNull(message = "La longitud es obligatoria")
+    @DecimalMin(value = "-180", message = "Longitud fuera de rango")
+    @DecimalMax(value = "180", message = "Longitud fuera de rango")
+    private Double lon;
+}
@@ -0,0 +1,32 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Estado actual de cada vehículo y el instante desde el que lo mantiene: el intervalo abierto que
+ * se contabilizará en {@link UsoDiarioVehiculo} con la próxima transición.
+ */
+@Entity
+@Data
+@Table(name = "estado_vehiculo_vigente")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoVehiculoVigente {
+    @Id
+    @Column(name = "vehiculo_id")
+    private Long vehiculoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoVehiculo estado;
+
+    @Column(nullable = false)
+    private Instant desde;
+}
@@ -0,0 +1,44 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Registro de solo inserción de cada cambio de {@link EstadoVehiculo}. Lo escribe por lotes JDBC
+ * {@code RegistroEstadosVehiculo} en la misma transacción que el cambio; la entidad define el esquema.
+ */
+@Entity
+@Data
+@Table(name = "historial_estado_vehiculo", indexes = {
+        @Index(name = "idx_historial_estado_vehiculo_fecha", columnList = "vehiculo_id, ocurrido_en")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorialEstadoVehiculo {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehiculo_id", nullable = false)
+    private Long vehiculoId;
+
+    /**
+     * Nulo en el alta del vehículo o cuando empieza su seguimiento.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_anterior")
+    private EstadoVehiculo estadoAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_nuevo", nullable = false)
+    private EstadoVehiculo estadoNuevo;
+
+    @Column(name = "ocurrido_en", nullable = false)
+    private Instant ocurridoEn;
+}
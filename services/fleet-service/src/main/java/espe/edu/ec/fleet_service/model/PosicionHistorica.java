@@ -0,0 +1,42 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Historial submuestreado de posiciones GPS. Se inserta por lotes JDBC desde
+ * {@code HistorialPosicionesWriter}; la entidad solo define el esquema y permite consultarlo.
+ */
+@Entity
+@Data
+@Table(name = "posicion_historica", indexes = {
+        @Index(name = "idx_posicion_historica_vehiculo_fecha", columnList = "vehiculo_id, registrado_en")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PosicionHistorica {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehiculo_id", nullable = false)
+    private Long vehiculoId;
+
+    @Column(nullable = false)
+    private double latitud;
+
+    @Column(nullable = false)
+    private double longitud;
+
+    @Column(nullable = false)
+    private double velocidad;
+
+    @Column(name = "registrado_en", nullable = false)
+    private Instant registradoEn;
+}
@@ -14,7 +14,8 @@ import lombok.*;
 @Builder
 public class Repartidor {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repartidor_seq")
+    @SequenceGenerator(name = "repartidor_seq", sequenceName = "repartidor_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
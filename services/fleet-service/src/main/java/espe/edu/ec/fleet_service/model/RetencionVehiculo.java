@@ -0,0 +1,39 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Retención temporal de un vehículo mientras una oferta de asignación está pendiente.
+ * Hay como máximo una por vehículo; una fila vencida equivale a no tener retención.
+ */
+@Entity
+@Data
+@Table(name = "retencion_vehiculo", indexes = {
+        @Index(name = "idx_retencion_vehiculo_expira", columnList = "expira_en")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RetencionVehiculo {
+    @Id
+    @Column(name = "vehiculo_id")
+    private Long vehiculoId;
+
+    @Column(nullable = false)
+    private UUID token;
+
+    private String titular;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+
+    @Column(name = "creada_en", nullable = false)
+    private Instant creadaEn;
+}
@@ -0,0 +1,5 @@
+package espe.edu.ec.fleet_service.model;
+
+public enum TipoEventoGeocerca {
+    ENTRADA, SALIDA
+}
@@ -3,5 +3,13 @@ package espe.edu.ec.fleet_service.model;
 public enum TipoVehiculo {
     MOTO,
     LIVIANO,
-    CAMION
+    CAMION;
+
+    public static TipoVehiculo de(String tipo) {
+        try {
+            return TipoVehiculo.valueOf(tipo.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Tipo de vehículo no válido: " + tipo);
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Milisegundos que un vehículo pasó en un estado durante un día (en la zona horaria de la flota).
+ * Se incrementa con cada transición cerrada, así que un reporte lee vehículos × días filas.
+ */
+@Entity
+@Data
+@Table(name = "uso_diario_vehiculo")
+@IdClass(UsoDiarioVehiculo.Clave.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsoDiarioVehiculo {
+    @Id
+    @Column(name = "vehiculo_id")
+    private Long vehiculoId;
+
+    @Id
+    private LocalDate dia;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private EstadoVehiculo estado;
+
+    @Column(nullable = false)
+    private long milisegundos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Long vehiculoId;
+        private LocalDate dia;
+        private EstadoVehiculo estado;
+    }
+}
@@ -2,6 +2,8 @@ package espe.edu.ec.fleet_service.model;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import espe.edu.ec.fleet_service.model.validator.AnioFabricacion;
+import espe.edu.ec.fleet_service.model.validator.PlacaVehiculo;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -13,7 +15,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "vehiculo")
+@Table(name = "vehiculo", indexes = @Index(name = "idx_vehiculo_tipo_id", columnList = "tipo_vehiculo, id"))
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "tipo_vehiculo", discriminatorType = DiscriminatorType.STRING)
 @NoArgsConstructor
@@ -27,7 +29,8 @@ import java.time.LocalDateTime;
 })
 public abstract class Vehiculo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehiculo_seq")
+    @SequenceGenerator(name = "vehiculo_seq", sequenceName = "vehiculo_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -37,7 +40,7 @@ public abstract class Vehiculo {
 
     @Column(unique = true, nullable = false)
     @NotBlank(message = "La placa es obligatoria")
-    @Pattern(regexp = "^[A-Z]{3}-\\d{3,4}$", message = "La placa debe tener formato AAA-123 o AAA-1234")
+    @PlacaVehiculo
     private String placa;
 
     @Column(nullable = false)
@@ -56,7 +59,7 @@ public abstract class Vehiculo {
 
     @Column(nullable = false)
     @NotBlank(message = "El año de fabricación es obligatorio")
-    @Pattern(regexp = "^(19|20)\\d{2}$", message = "El año debe ser válido (ej: 1999, 2024)")
+    @AnioFabricacion
     private String anioFabricacion;
 
     @Column(nullable = false)
@@ -0,0 +1,61 @@
+package espe.edu.ec.fleet_service.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polígono de una zona de operación. {@code zonaId} es el mismo código libre que usan
+ * los pedidos y los usuarios para referirse a la zona.
+ */
+@Entity
+@Data
+@Table(name = "zona_geocerca")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ZonaGeocerca {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    @NotBlank(message = "El zonaId es obligatorio")
+    @Size(max = 50, message = "El zonaId admite máximo 50 caracteres")
+    private String zonaId;
+
+    @Column(nullable = false)
+    @NotBlank(message = "El nombre es obligatorio")
+    private String nombre;
+
+    @ElementCollection
+    @CollectionTable(name = "zona_geocerca_vertice", joinColumns = @JoinColumn(name = "zona_id"))
+    @OrderColumn(name = "orden")
+    @NotNull(message = "Los vértices son obligatorios")
+    @Size(min = 3, max = 1000, message = "El polígono debe tener entre 3 y 1000 vértices")
+    @Valid
+    @Builder.Default
+    private List<Coordenada> vertices = new ArrayList<>();
+
+    @Column(nullable = false)
+    private boolean activa;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    protected void onCreate() {
+        this.fechaCreacion = LocalDateTime.now();
+        this.activa = true;
+    }
+}
@@ -0,0 +1,19 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Año entre 1900 y 2099 escrito con cuatro dígitos; un valor nulo se considera válido, como en {@code @Pattern}.
+ */
+@Documented
+@Constraint(validatedBy = AnioFabricacionValidator.class)
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AnioFabricacion {
+    String message() default "El año debe ser válido (ej: 1999, 2024)";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
\ No newline at end of file
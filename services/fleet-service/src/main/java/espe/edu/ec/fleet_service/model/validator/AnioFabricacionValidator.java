@@ -0,0 +1,12 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class AnioFabricacionValidator implements ConstraintValidator<AnioFabricacion, String> {
+
+    @Override
+    public boolean isValid(String anio, ConstraintValidatorContext context) {
+        return anio == null || Validaciones.esAnioFabricacionValido(anio);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Placa con formato AAA-123 o AAA-1234; un valor nulo se considera válido, como en {@code @Pattern}.
+ */
+@Documented
+@Constraint(validatedBy = PlacaVehiculoValidator.class)
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PlacaVehiculo {
+    String message() default "La placa debe tener formato AAA-123 o AAA-1234";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PlacaVehiculoValidator implements ConstraintValidator<PlacaVehiculo, String> {
+
+    @Override
+    public boolean isValid(String placa, ConstraintValidatorContext context) {
+        return placa == null || Validaciones.esPlacaValida(placa);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+@Documented
+@Constraint(validatedBy = RucEcuadorValidator.class)
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RucEcuador {
+    String message() default "El RUC ecuatoriano no es válido";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
\ No newline at end of file
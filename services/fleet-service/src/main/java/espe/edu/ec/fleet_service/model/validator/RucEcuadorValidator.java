@@ -0,0 +1,12 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class RucEcuadorValidator implements ConstraintValidator<RucEcuador, String> {
+
+    @Override
+    public boolean isValid(String ruc, ConstraintValidatorContext context) {
+        return Validaciones.esRucValido(ruc);
+    }
+}
\ No newline at end of file
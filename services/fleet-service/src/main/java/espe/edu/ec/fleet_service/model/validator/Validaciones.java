@@ -0,0 +1,135 @@
+package espe.edu.ec.fleet_service.model.validator;
+
+/**
+ * Validaciones de identificaciones y datos de vehículos con aritmética de caracteres.
+ *
+ * No compilan expresiones regulares ni crean subcadenas: las importaciones masivas validan miles de
+ * registros por segundo. Los dígitos son solo ASCII '0'-'9', igual que {@code \d} sin UNICODE_CHARACTER_CLASS.
+ */
+public final class Validaciones {
+
+    private Validaciones() {
+    }
+
+    /**
+     * Cédula de 10 dígitos: provincia 01-24, tercer dígito menor a 6 y verificador módulo 10
+     * con coeficientes 2,1,2,1...
+     */
+    public static boolean esCedulaValida(CharSequence cedula) {
+        if (cedula == null || cedula.length() != 10 || !sonDigitos(cedula, 0, 10)) {
+            return false;
+        }
+        return cedulaValida(cedula);
+    }
+
+    /**
+     * RUC de 13 dígitos según el tercer dígito: 0-5 persona natural (cédula más establecimiento),
+     * 6 entidad pública y 9 sociedad privada (verificador módulo 11). El establecimiento no puede ser cero.
+     */
+    public static boolean esRucValido(CharSequence ruc) {
+        if (ruc == null || ruc.length() != 13 || !sonDigitos(ruc, 0, 13)) {
+            return false;
+        }
+        int provincia = digito(ruc, 0) * 10 + digito(ruc, 1);
+        if (provincia < 1 || provincia > 24) {
+            return false;
+        }
+        int tercerDigito = digito(ruc, 2);
+        if (tercerDigito < 6) {
+            return cedulaValida(ruc) && !ceros(ruc, 10, 13);
+        }
+        if (tercerDigito == 6) {
+            return verificadorModulo11(ruc, 8) == digito(ruc, 8) && !ceros(ruc, 9, 13);
+        }
+        if (tercerDigito == 9) {
+            return verificadorModulo11(ruc, 9) == digito(ruc, 9) && !ceros(ruc, 10, 13);
+        }
+        return false;
+    }
+
+    /**
+     * Placa {@code AAA-123} o {@code AAA-1234}: tres letras mayúsculas A-Z, guion y 3 o 4 dígitos.
+     */
+    public static boolean esPlacaValida(CharSequence placa) {
+        int longitud = placa.length();
+        if (longitud != 7 && longitud != 8) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = placa.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return placa.charAt(3) == '-' && sonDigitos(placa, 4, longitud);
+    }
+
+    /**
+     * Año de cuatro dígitos entre 1900 y 2099.
+     */
+    public static boolean esAnioFabricacionValido(CharSequence anio) {
+        if (anio.length() != 4 || !sonDigitos(anio, 0, 4)) {
+            return false;
+        }
+        char siglo = anio.charAt(1);
+        return (anio.charAt(0) == '1' && siglo == '9') || (anio.charAt(0) == '2' && siglo == '0');
+    }
+
+    /**
+     * Reglas de la cédula sobre los 10 primeros caracteres, ya comprobados como dígitos.
+     */
+    private static boolean cedulaValida(CharSequence valor) {
+        int provincia = digito(valor, 0) * 10 + digito(valor, 1);
+        if (provincia < 1 || provincia > 24 || digito(valor, 2) >= 6) {
+            return false;
+        }
+        int suma = 0;
+        for (int i = 0; i < 9; i++) {
+            int producto = digito(valor, i) << (1 - (i & 1));
+            suma += producto >= 10 ? producto - 9 : producto;
+        }
+        int residuo = suma % 10;
+        return (residuo == 0 ? 0 : 10 - residuo) == digito(valor, 9);
+    }
+
+    /**
+     * Verificador módulo 11 de los {@code cantidad} primeros dígitos, con coeficientes que bajan
+     * de 7 a 2 empezando por la derecha y se repiten; -1 si el resultado sería 10.
+     */
+    private static int verificadorModulo11(CharSequence valor, int cantidad) {
+        int suma = 0;
+        for (int i = 0; i < cantidad; i++) {
+            int posicionDesdeDerecha = cantidad - 1 - i;
+            suma += digito(valor, i) * (2 + posicionDesdeDerecha % 6);
+        }
+        int residuo = suma % 11;
+        if (residuo == 0) {
+            return 0;
+        }
+        int verificador = 11 - residuo;
+        return verificador == 10 ? -1 : verificador;
+    }
+
+    private static boolean sonDigitos(CharSequence valor, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean ceros(CharSequence valor, int desde, int hasta) {
+        for (int i = desde; i < hasta; i++) {
+            if (valor.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digito(CharSequence valor, int indice) {
+        return valor.charAt(indice) - '0';
+    }
+}
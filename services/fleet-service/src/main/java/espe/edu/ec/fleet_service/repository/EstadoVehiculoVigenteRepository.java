@@ -0,0 +1,31 @@
+package espe.edu.ec.fleet_service.repository;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculoVigente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface EstadoVehiculoVigenteRepository extends JpaRepository<EstadoVehiculoVigente, Long> {
+
+    /**
+     * Empieza a seguir desde {@code ahora} los vehículos sin estado vigente o cuyo estado vigente no
+     * coincide con el de la tabla {@code vehiculo}, y deja constancia en el historial. Devuelve las filas afectadas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH sembrados AS ("
+            + "INSERT INTO estado_vehiculo_vigente (vehiculo_id, estado, desde) "
+            + "SELECT v.id, v.estado, :ahora FROM vehiculo v WHERE v.estado IS NOT NULL "
+            + "ON CONFLICT (vehiculo_id) DO UPDATE SET estado = EXCLUDED.estado, desde = EXCLUDED.desde "
+            + "WHERE estado_vehiculo_vigente.estado <> EXCLUDED.estado "
+            + "RETURNING vehiculo_id, estado, desde) "
+            + "INSERT INTO historial_estado_vehiculo (vehiculo_id, estado_anterior, estado_nuevo, ocurrido_en) "
+            + "SELECT vehiculo_id, NULL, estado, desde FROM sembrados", nativeQuery = true)
+    int sembrar(@Param("ahora") Instant ahora);
+}
@@ -1,9 +1,16 @@
 package espe.edu.ec.fleet_service.repository;
 
+import espe.edu.ec.fleet_service.dto.RepartidorResumenResponse;
 import espe.edu.ec.fleet_service.model.Repartidor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +18,29 @@ public interface RepartidorRepository extends JpaRepository<Repartidor, Long> {
     Optional<Repartidor> findByIdentificacion(String identificacion);
 
     boolean existsByIdentificacion(String identificacion);
+
+    @Query("SELECT r.identificacion FROM Repartidor r WHERE r.identificacion IN :identificaciones")
+    List<String> findIdentificacionesExistentes(@Param("identificaciones") Collection<String> identificaciones);
+
+    @Query("SELECT r.vehiculo.id FROM Repartidor r WHERE r.vehiculo.id IN :vehiculoIds")
+    List<Long> findVehiculosAsignados(@Param("vehiculoIds") Collection<Long> vehiculoIds);
+
+    /**
+     * Repartidores con su vehículo en una sola consulta, en lugar de un SELECT por repartidor.
+     */
+    @Query("SELECT new espe.edu.ec.fleet_service.dto.RepartidorResumenResponse("
+            + "r.id, r.identificacion, r.nombre, r.apellido, r.telefono, r.licencia, r.estado, "
+            + "v.id, v.placa, v.tipoVehiculo, v.estado) "
+            + "FROM Repartidor r LEFT JOIN r.vehiculo v WHERE r.id > :despuesDe ORDER BY r.id")
+    List<RepartidorResumenResponse> listarResumen(@Param("despuesDe") long despuesDe, Limit limite);
+
+    /**
+     * Asigna el vehículo solo si ningún otro repartidor lo tiene; la restricción única de
+     * {@code vehiculo_id} resuelve la carrera entre dos asignaciones simultáneas.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE repartidor SET vehiculo_id = :vehiculoId WHERE id = :repartidorId "
+            + "AND NOT EXISTS (SELECT 1 FROM repartidor otro WHERE otro.vehiculo_id = :vehiculoId AND otro.id <> :repartidorId)",
+            nativeQuery = true)
+    int asignarVehiculoSiLibre(@Param("repartidorId") Long repartidorId, @Param("vehiculoId") Long vehiculoId);
 }
@@ -0,0 +1,70 @@
+package espe.edu.ec.fleet_service.repository;
+
+import espe.edu.ec.fleet_service.model.RetencionVehiculo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RetencionVehiculoRepository extends JpaRepository<RetencionVehiculo, Long> {
+
+    /**
+     * Retiene el vehículo si está DISPONIBLE y no tiene una retención vigente; una retención vencida
+     * se reemplaza en la misma sentencia. Devuelve el id del vehículo o nada si no se pudo retener.
+     */
+    @Query(value = "INSERT INTO retencion_vehiculo (vehiculo_id, token, titular, expira_en, creada_en) "
+            + "SELECT v.id, :token, :titular, :expiraEn, :ahora FROM vehiculo v "
+            + "WHERE v.placa = :placa AND v.estado = 'DISPONIBLE' "
+            + "ON CONFLICT (vehiculo_id) DO UPDATE SET token = EXCLUDED.token, titular = EXCLUDED.titular, "
+            + "expira_en = EXCLUDED.expira_en, creada_en = EXCLUDED.creada_en "
+            + "WHERE retencion_vehiculo.expira_en <= EXCLUDED.creada_en "
+            + "RETURNING vehiculo_id", nativeQuery = true)
+    List<Long> adquirir(
+            @Param("placa") String placa,
+            @Param("token") UUID token,
+            @Param("titular") String titular,
+            @Param("expiraEn") Instant expiraEn,
+            @Param("ahora") Instant ahora
+    );
+
+    @Query(value = "UPDATE retencion_vehiculo SET expira_en = :expiraEn "
+            + "WHERE vehiculo_id = :vehiculoId AND token = :token AND expira_en > :ahora "
+            + "RETURNING vehiculo_id", nativeQuery = true)
+    List<Long> renovar(
+            @Param("vehiculoId") Long vehiculoId,
+            @Param("token") UUID token,
+            @Param("expiraEn") Instant expiraEn,
+            @Param("ahora") Instant ahora
+    );
+
+    /**
+     * Elimina la retención si el token coincide y sigue vigente; devuelve las filas eliminadas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM retencion_vehiculo WHERE vehiculo_id = :vehiculoId AND token = :token "
+            + "AND expira_en > :ahora", nativeQuery = true)
+    int liberar(@Param("vehiculoId") Long vehiculoId, @Param("token") UUID token, @Param("ahora") Instant ahora);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM retencion_vehiculo WHERE vehiculo_id = :vehiculoId AND expira_en > :ahora)",
+            nativeQuery = true)
+    boolean existeVigente(@Param("vehiculoId") Long vehiculoId, @Param("ahora") Instant ahora);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM retencion_vehiculo WHERE expira_en <= :ahora", nativeQuery = true)
+    int eliminarVencidas(@Param("ahora") Instant ahora);
+
+    /**
+     * Retenciones vigentes con la placa del vehículo (filas: vehiculo_id, placa, token, titular, expira_en).
+     */
+    @Query(value = "SELECT r.vehiculo_id, v.placa, r.token, r.titular, r.expira_en FROM retencion_vehiculo r "
+            + "JOIN vehiculo v ON v.id = r.vehiculo_id WHERE r.expira_en > :ahora", nativeQuery = true)
+    List<Object[]> findVigentes(@Param("ahora") Instant ahora);
+}
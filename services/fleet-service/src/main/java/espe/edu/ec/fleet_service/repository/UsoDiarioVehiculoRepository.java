@@ -0,0 +1,29 @@
+package espe.edu.ec.fleet_service.repository;
+
+import espe.edu.ec.fleet_service.model.UsoDiarioVehiculo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UsoDiarioVehiculoRepository extends JpaRepository<UsoDiarioVehiculo, UsoDiarioVehiculo.Clave> {
+
+    /**
+     * Filas (vehiculoId, estado, milisegundos) sumadas sobre los días del rango, ambos incluidos.
+     */
+    @Query("SELECT u.vehiculoId, u.estado, SUM(u.milisegundos) FROM UsoDiarioVehiculo u "
+            + "WHERE u.vehiculoId IN :ids AND u.dia BETWEEN :desde AND :hasta "
+            + "GROUP BY u.vehiculoId, u.estado")
+    List<Object[]> sumarPorVehiculoYEstado(
+            @Param("ids") Collection<Long> ids,
+            @Param("desde") LocalDate desde,
+            @Param("hasta") LocalDate hasta
+    );
+
+    List<UsoDiarioVehiculo> findByVehiculoIdAndDiaBetween(Long vehiculoId, LocalDate desde, LocalDate hasta);
+}
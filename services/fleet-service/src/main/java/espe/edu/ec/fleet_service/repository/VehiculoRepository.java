@@ -1,10 +1,15 @@
 package espe.edu.ec.fleet_service.repository;
 
+import espe.edu.ec.fleet_service.dto.VehiculoResumenResponse;
 import espe.edu.ec.fleet_service.model.EstadoVehiculo;
 import espe.edu.ec.fleet_service.model.Vehiculo;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +20,87 @@ public interface VehiculoRepository extends JpaRepository<Vehiculo, Long> {
     boolean existsByPlaca(String placa);
     
     List<Vehiculo> findByEstado(EstadoVehiculo estado);
+
+    /**
+     * Página keyset sobre el id; solo lee la tabla {@code vehiculo} (el tipo es su discriminador),
+     * así que no genera los joins de la herencia JOINED.
+     */
+    @Query("SELECT new espe.edu.ec.fleet_service.dto.VehiculoResumenResponse("
+            + "v.id, v.placa, v.tipoVehiculo, v.marca, v.modelo, v.color, v.anioFabricacion, v.estado, v.activo) "
+            + "FROM Vehiculo v WHERE v.id > :despuesDe "
+            + "AND (:tipo IS NULL OR v.tipoVehiculo = :tipo) AND (:estado IS NULL OR v.estado = :estado) "
+            + "ORDER BY v.id")
+    List<VehiculoResumenResponse> listarResumen(
+            @Param("despuesDe") long despuesDe,
+            @Param("tipo") String tipo,
+            @Param("estado") EstadoVehiculo estado,
+            Limit limite
+    );
+
+    @Query("SELECT v.id, v.placa FROM Vehiculo v")
+    List<Object[]> findIdsYPlacas();
+
+    @Query("SELECT v.id, v.placa, v.tipoVehiculo, v.estado FROM Vehiculo v")
+    List<Object[]> findMetadatosIndice();
+
+    @Query("SELECT v.estado FROM Vehiculo v WHERE v.placa = :placa")
+    Optional<EstadoVehiculo> findEstadoByPlaca(@Param("placa") String placa);
+
+    /**
+     * Cambia el estado solo si sigue siendo {@code desde}, en una única sentencia
+     * (filas: id, placa, tipo_vehiculo, estado).
+     */
+    @Query(value = "UPDATE vehiculo SET estado = :hacia WHERE placa = :placa AND estado = :desde "
+            + "RETURNING id, placa, tipo_vehiculo, estado", nativeQuery = true)
+    List<Object[]> transicionar(
+            @Param("placa") String placa,
+            @Param("desde") String desde,
+            @Param("hacia") String hacia
+    );
+
+    /**
+     * Como {@link #transicionar} para varias placas; los vehículos con una retención vigente se omiten.
+     * Las filas se bloquean en orden de id para que dos reservas con placas en común no se bloqueen
+     * mutuamente.
+     */
+    @Query(value = "UPDATE vehiculo SET estado = :hacia WHERE estado = :desde AND id IN ("
+            + "SELECT id FROM vehiculo WHERE placa IN (:placas) AND estado = :desde "
+            + "AND NOT EXISTS (SELECT 1 FROM retencion_vehiculo r WHERE r.vehiculo_id = vehiculo.id AND r.expira_en > now()) "
+            + "ORDER BY id FOR UPDATE) "
+            + "RETURNING id, placa, tipo_vehiculo, estado", nativeQuery = true)
+    List<Object[]> transicionarPorPlacas(
+            @Param("placas") Collection<String> placas,
+            @Param("desde") String desde,
+            @Param("hacia") String hacia
+    );
+
+    /**
+     * Toma hasta {@code cantidad} vehículos en estado {@code desde}; las filas bloqueadas por otra
+     * transacción se omiten (SKIP LOCKED) para que los despachadores concurrentes no se esperen, igual
+     * que los que tienen una retención vigente.
+     */
+    @Query(value = "UPDATE vehiculo SET estado = :hacia WHERE estado = :desde AND id IN ("
+            + "SELECT id FROM vehiculo WHERE estado = :desde "
+            + "AND (CAST(:tipo AS varchar) IS NULL OR tipo_vehiculo = CAST(:tipo AS varchar)) "
+            + "AND NOT EXISTS (SELECT 1 FROM retencion_vehiculo r WHERE r.vehiculo_id = vehiculo.id AND r.expira_en > now()) "
+            + "ORDER BY id LIMIT :cantidad FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, placa, tipo_vehiculo, estado", nativeQuery = true)
+    List<Object[]> transicionarCualesquiera(
+            @Param("tipo") String tipo,
+            @Param("cantidad") int cantidad,
+            @Param("desde") String desde,
+            @Param("hacia") String hacia
+    );
+
+    /**
+     * Placas ya registradas entre las indicadas (filas: placa, id).
+     */
+    @Query("SELECT v.placa, v.id FROM Vehiculo v WHERE v.placa IN :placas")
+    List<Object[]> findIdsPorPlacas(@Param("placas") Collection<String> placas);
+
+    @Query("SELECT v.id FROM Vehiculo v WHERE v.placa = :placa")
+    Optional<Long> findIdByPlaca(@Param("placa") String placa);
+
+    @Query("SELECT v.placa FROM Vehiculo v WHERE v.id = :id")
+    Optional<String> findPlacaById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package espe.edu.ec.fleet_service.repository;
+
+import espe.edu.ec.fleet_service.model.ZonaGeocerca;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ZonaGeocercaRepository extends JpaRepository<ZonaGeocerca, Long> {
+    boolean existsByZonaId(String zonaId);
+
+    @Query("SELECT DISTINCT z FROM ZonaGeocerca z LEFT JOIN FETCH z.vertices WHERE z.activa = true ORDER BY z.id")
+    List<ZonaGeocerca> findActivasConVertices();
+}
@@ -1,24 +1,57 @@
 package espe.edu.ec.fleet_service.service;
 
+import espe.edu.ec.fleet_service.dto.CursorPageResponse;
+import espe.edu.ec.fleet_service.dto.RepartidorResumenResponse;
+import espe.edu.ec.fleet_service.dto.ReservaVehiculosRequest;
+import espe.edu.ec.fleet_service.dto.ReservaVehiculosResponse;
+import espe.edu.ec.fleet_service.dto.TransicionVehiculoResponse;
+import espe.edu.ec.fleet_service.dto.VehiculoResumenResponse;
+import espe.edu.ec.fleet_service.event.VehiculoCambiadoEvent;
+import espe.edu.ec.fleet_service.exception.ConflictoException;
 import espe.edu.ec.fleet_service.model.EstadoVehiculo;
 import espe.edu.ec.fleet_service.model.Repartidor;
+import espe.edu.ec.fleet_service.model.TipoVehiculo;
 import espe.edu.ec.fleet_service.model.Vehiculo;
 import espe.edu.ec.fleet_service.repository.RepartidorRepository;
 import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import espe.edu.ec.fleet_service.service.geocerca.MotorGeocercas;
+import espe.edu.ec.fleet_service.service.retencion.RetencionService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 public class FleetService implements IVehiculoService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final VehiculoRepository vehiculoRepository;
     private final RepartidorRepository repartidorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RetencionService retencionService;
+    private final IndiceVehiculosDisponibles indiceDisponibles;
+    private final MotorGeocercas motorGeocercas;
 
-    public FleetService(VehiculoRepository vehiculoRepository, RepartidorRepository repartidorRepository) {
+    public FleetService(VehiculoRepository vehiculoRepository, RepartidorRepository repartidorRepository,
+                        ApplicationEventPublisher eventPublisher, RetencionService retencionService,
+                        IndiceVehiculosDisponibles indiceDisponibles, MotorGeocercas motorGeocercas) {
         this.vehiculoRepository = vehiculoRepository;
         this.repartidorRepository = repartidorRepository;
+        this.eventPublisher = eventPublisher;
+        this.retencionService = retencionService;
+        this.indiceDisponibles = indiceDisponibles;
+        this.motorGeocercas = motorGeocercas;
     }
 
     //vehiculos
@@ -30,13 +63,28 @@ public class FleetService implements IVehiculoService {
         if (vehiculo.getEstado() == null) {
             vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
         }
-        return vehiculoRepository.save(vehiculo);
+        Vehiculo guardado = vehiculoRepository.save(vehiculo);
+        eventPublisher.publishEvent(VehiculoCambiadoEvent.de(guardado));
+        return guardado;
     }
 
     public List<Vehiculo> listarVehiculos() {
         return vehiculoRepository.findAll();
     }
 
+    /**
+     * Lista vehículos con paginación por cursor sobre el id, sin cargar las entidades de subtipo.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<VehiculoResumenResponse> listarVehiculosResumen(
+            String tipo, EstadoVehiculo estado, String cursor, int size) {
+        validarTamano(size);
+        String tipoVehiculo = tipo != null && !tipo.isBlank() ? TipoVehiculo.de(tipo).name() : null;
+        List<VehiculoResumenResponse> vehiculos = vehiculoRepository.listarResumen(
+                desdeCursor(cursor), tipoVehiculo, estado, Limit.of(size + 1));
+        return pagina(vehiculos, size, VehiculoResumenResponse::getId);
+    }
+
     public Vehiculo buscarVehiculoPorPlaca(String placa) {
         return vehiculoRepository.findByPlaca(placa)
                 .orElseThrow(() -> new RuntimeException("Vehículo no encontrado"));
@@ -44,9 +92,86 @@ public class FleetService implements IVehiculoService {
 
     @Transactional
     public Vehiculo actualizarEstadoVehiculo(String placa, EstadoVehiculo nuevoEstado) {
-        Vehiculo vehiculo = buscarVehiculoPorPlaca(placa);
-        vehiculo.setEstado(nuevoEstado);
-        return vehiculoRepository.save(vehiculo);
+        return actualizarEstadoVehiculo(placa, nuevoEstado, null);
+    }
+
+    /**
+     * Pasa por la misma sentencia condicional que {@link #transicionarEstado}: sin {@code estadoEsperado}
+     * se toma el estado leído, así que si otro despachador lo cambia entretanto se responde con conflicto
+     * en lugar de pisarlo.
+     */
+    @Transactional
+    public Vehiculo actualizarEstadoVehiculo(String placa, EstadoVehiculo nuevoEstado, EstadoVehiculo estadoEsperado) {
+        EstadoVehiculo desde = estadoEsperado != null ? estadoEsperado : vehiculoRepository.findEstadoByPlaca(placa)
+                .orElseThrow(() -> new RuntimeException("Vehículo no encontrado"));
+        transicionarEstado(placa, desde, nuevoEstado);
+        // Se carga después del UPDATE para que la entidad ya refleje el nuevo estado
+        return buscarVehiculoPorPlaca(placa);
+    }
+
+    /**
+     * Transición atómica: solo se aplica si el vehículo sigue en {@code desde}.
+     */
+    @Transactional
+    public TransicionVehiculoResponse transicionarEstado(String placa, EstadoVehiculo desde, EstadoVehiculo hacia) {
+        List<Object[]> filas = vehiculoRepository.transicionar(placa, desde.name(), hacia.name());
+        if (filas.isEmpty()) {
+            EstadoVehiculo actual = vehiculoRepository.findEstadoByPlaca(placa)
+                    .orElseThrow(() -> new RuntimeException("Vehículo no encontrado"));
+            throw new ConflictoException("El vehículo " + placa + " está en estado " + actual + ", se esperaba " + desde);
+        }
+        return publicarTransicion(filas.get(0), desde);
+    }
+
+    /**
+     * Pasa a EN_RUTA en una sola sentencia las placas indicadas que sigan DISPONIBLE o, sin placas,
+     * hasta {@code cantidad} vehículos disponibles del tipo pedido.
+     */
+    @Transactional
+    public ReservaVehiculosResponse reservarVehiculos(ReservaVehiculosRequest request) {
+        String desde = EstadoVehiculo.DISPONIBLE.name();
+        String hacia = EstadoVehiculo.EN_RUTA.name();
+        List<Object[]> filas;
+        Set<String> placas = new LinkedHashSet<>();
+        int solicitados;
+
+        if (request.getPlacas() != null && !request.getPlacas().isEmpty()) {
+            placas.addAll(request.getPlacas());
+            solicitados = placas.size();
+            filas = vehiculoRepository.transicionarPorPlacas(placas, desde, hacia);
+        } else if (request.getCantidad() != null) {
+            String tipo = request.getTipoVehiculo() != null ? TipoVehiculo.de(request.getTipoVehiculo()).name() : null;
+            solicitados = request.getCantidad();
+            filas = vehiculoRepository.transicionarCualesquiera(tipo, request.getCantidad(), desde, hacia);
+        } else {
+            throw new RuntimeException("Debe indicar las placas o la cantidad a reservar");
+        }
+
+        List<TransicionVehiculoResponse> reservados = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            TransicionVehiculoResponse reservado = publicarTransicion(fila, EstadoVehiculo.DISPONIBLE);
+            reservados.add(reservado);
+            placas.remove(reservado.getPlaca());
+        }
+
+        return ReservaVehiculosResponse.builder()
+                .solicitados(solicitados)
+                .reservados(reservados)
+                .noDisponibles(new ArrayList<>(placas))
+                .build();
+    }
+
+    private TransicionVehiculoResponse publicarTransicion(Object[] fila, EstadoVehiculo estadoAnterior) {
+        TransicionVehiculoResponse transicion = TransicionVehiculoResponse.builder()
+                .vehiculoId(((Number) fila[0]).longValue())
+                .placa((String) fila[1])
+                .tipoVehiculo((String) fila[2])
+                .estadoAnterior(estadoAnterior)
+                .estado(EstadoVehiculo.valueOf((String) fila[3]))
+                .build();
+        eventPublisher.publishEvent(new VehiculoCambiadoEvent(
+                transicion.getVehiculoId(), transicion.getPlaca(), transicion.getTipoVehiculo(), transicion.getEstado()));
+        return transicion;
     }
 
     //repartidores
@@ -62,28 +187,93 @@ public class FleetService implements IVehiculoService {
         return repartidorRepository.findAll();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public CursorPageResponse<RepartidorResumenResponse> listarRepartidoresResumen(String cursor, int size) {
+        validarTamano(size);
+        List<RepartidorResumenResponse> repartidores = repartidorRepository.listarResumen(
+                desdeCursor(cursor), Limit.of(size + 1));
+        return pagina(repartidores, size, RepartidorResumenResponse::getId);
+    }
+
     public Repartidor asignarVehiculo(Long repartidorId, String placaVehiculo) {
+        return asignarVehiculo(repartidorId, placaVehiculo, null);
+    }
+
+    /**
+     * Con {@code tokenRetencion} la retención del vehículo se consume en la misma transacción; sin él,
+     * un vehículo retenido por otra oferta no se asigna.
+     */
+    @Transactional
+    public Repartidor asignarVehiculo(Long repartidorId, String placaVehiculo, UUID tokenRetencion) {
         @SuppressWarnings("null")
         Repartidor repartidor = repartidorRepository.findById(repartidorId)
                 .orElseThrow(() -> new RuntimeException("Repartidor no encontrado"));
 
         Vehiculo vehiculo = buscarVehiculoPorPlaca(placaVehiculo);
+        retencionService.validarAsignacion(vehiculo.getId(), placaVehiculo, tokenRetencion);
+
+        // Una única sentencia condicional: si otro despachador asignó el vehículo antes, no se pisa.
+        try {
+            if (repartidorRepository.asignarVehiculoSiLibre(repartidorId, vehiculo.getId()) == 0) {
+                throw new ConflictoException("El vehículo " + placaVehiculo + " ya está asignado a otro repartidor");
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictoException("El vehículo " + placaVehiculo + " ya está asignado a otro repartidor");
+        }
 
         repartidor.setVehiculo(vehiculo);
-        return repartidorRepository.save(repartidor);
+        return repartidor;
     }
 
+    /**
+     * Vehículos disponibles y no retenidos, tomados del índice en memoria. Con {@code zonaId} solo
+     * quedan los que, según su última posición, están dentro de esa geocerca.
+     */
+    @Transactional(readOnly = true)
     public List<Vehiculo> obtenerVehiculosDisponibles(String zonaId, String fleetType) {
-        List<Vehiculo> vehiculos = vehiculoRepository.findByEstado(EstadoVehiculo.DISPONIBLE);
-        
-        // Filtrar por tipo si se proporciona
-        if (fleetType != null && !fleetType.isEmpty()) {
-            vehiculos = vehiculos.stream()
-                    .filter(v -> v.getTipoVehiculo().equalsIgnoreCase(fleetType))
-                    .toList();
+        String tipo = fleetType != null && !fleetType.isBlank() ? TipoVehiculo.de(fleetType).name() : null;
+        List<Long> ids = indiceDisponibles.ofrecibles(tipo);
+        if (zonaId != null && !zonaId.isBlank()) {
+            ids = ids.stream().filter(id -> motorGeocercas.estaEnZona(id, zonaId)).toList();
         }
-        
-        return vehiculos;
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // El índice se actualiza al confirmar cada cambio; el estado leído ahora descarta lo que cambió entre medio.
+        return vehiculoRepository.findAllById(ids).stream()
+                .filter(v -> v.getEstado() == EstadoVehiculo.DISPONIBLE)
+                .sorted(Comparator.comparing(Vehiculo::getId))
+                .toList();
+    }
+
+    private static void validarTamano(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static long desdeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Arma la página a partir de {@code size + 1} filas; el cursor siguiente es el id de la última incluida.
+     */
+    private static <T> CursorPageResponse<T> pagina(List<T> filas, int size, Function<T, Long> id) {
+        boolean hasNext = filas.size() > size;
+        List<T> items = hasNext ? filas.subList(0, size) : filas;
+        return CursorPageResponse.<T>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? String.valueOf(id.apply(items.get(size - 1))) : null)
+                .build();
     }
 }
@@ -1,5 +1,8 @@
 package espe.edu.ec.fleet_service.service;
 
+import espe.edu.ec.fleet_service.dto.ReservaVehiculosRequest;
+import espe.edu.ec.fleet_service.dto.ReservaVehiculosResponse;
+import espe.edu.ec.fleet_service.dto.TransicionVehiculoResponse;
 import espe.edu.ec.fleet_service.model.EstadoVehiculo;
 import espe.edu.ec.fleet_service.model.Vehiculo;
 
@@ -10,5 +13,8 @@ public interface IVehiculoService {
     List<Vehiculo> listarVehiculos();
     Vehiculo buscarVehiculoPorPlaca(String placa);
     Vehiculo actualizarEstadoVehiculo(String placa, EstadoVehiculo nuevoEstado);
+    Vehiculo actualizarEstadoVehiculo(String placa, EstadoVehiculo nuevoEstado, EstadoVehiculo estadoEsperado);
+    TransicionVehiculoResponse transicionarEstado(String placa, EstadoVehiculo desde, EstadoVehiculo hacia);
+    ReservaVehiculosResponse reservarVehiculos(ReservaVehiculosRequest request);
     List<Vehiculo> obtenerVehiculosDisponibles(String zonaId, String fleetType);
 }
@@ -0,0 +1,59 @@
+package espe.edu.ec.fleet_service.service.espacial;
+
+import espe.edu.ec.fleet_service.dto.VehiculoCercanoResponse;
+import espe.edu.ec.fleet_service.dto.VehiculosCercanosResponse;
+import espe.edu.ec.fleet_service.model.TipoVehiculo;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class CercaniaService {
+
+    private static final int MAX_RESULTADOS = 100;
+    private static final double MAX_RADIO_KM = 500;
+
+    private final IndiceVehiculosDisponibles indice;
+
+    public CercaniaService(IndiceVehiculosDisponibles indice) {
+        this.indice = indice;
+    }
+
+    public VehiculosCercanosResponse buscarCercanos(String tipo, double lat, double lon, int k, double radioKm) {
+        TipoVehiculo tipoVehiculo = TipoVehiculo.de(tipo);
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new RuntimeException("Coordenadas fuera de rango");
+        }
+        if (k < 1 || k > MAX_RESULTADOS) {
+            throw new RuntimeException("k debe estar entre 1 y " + MAX_RESULTADOS);
+        }
+        if (radioKm <= 0 || radioKm > MAX_RADIO_KM) {
+            throw new RuntimeException("El radio debe estar entre 0 y " + MAX_RADIO_KM + " km");
+        }
+
+        long inicio = System.nanoTime();
+        IndiceVehiculosDisponibles.Busqueda busqueda = indice.cercanos(tipoVehiculo.name(), lat, lon, k, radioKm);
+        long microsegundos = (System.nanoTime() - inicio) / 1_000;
+
+        List<VehiculoCercanoResponse> vehiculos = busqueda.resultados().stream()
+                .map(cercano -> VehiculoCercanoResponse.builder()
+                        .vehiculoId(cercano.vehiculoId())
+                        .placa(cercano.placa())
+                        .tipoVehiculo(cercano.tipoVehiculo())
+                        .lat(cercano.lat())
+                        .lon(cercano.lon())
+                        .distanciaKm(cercano.distanciaKm())
+                        .build())
+                .toList();
+
+        return VehiculosCercanosResponse.builder()
+                .tipoVehiculo(tipoVehiculo.name())
+                .lat(lat)
+                .lon(lon)
+                .radioKm(radioKm)
+                .vehiculos(vehiculos)
+                .evaluados(busqueda.evaluados())
+                .microsegundos(microsegundos)
+                .build();
+    }
+}
@@ -0,0 +1,314 @@
+package espe.edu.ec.fleet_service.service.espacial;
+
+import espe.edu.ec.fleet_service.event.VehiculoCambiadoEvent;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de vehículos DISPONIBLE con posición conocida, particionado por tipo de vehículo.
+ *
+ * Cada partición es una grilla de celdas de {@code tamanoCelda} grados. Los vehículos se mueven de celda
+ * de forma incremental cuando llega una posición nueva o cambia su estado; la búsqueda de los k más
+ * cercanos recorre anillos de celdas alrededor del punto y se detiene en cuanto ningún anillo restante
+ * puede mejorar el resultado. Nunca consulta la base después de la siembra inicial.
+ */
+@Component
+@Slf4j
+public class IndiceVehiculosDisponibles {
+
+    private static final double KM_POR_GRADO = 111.32;
+    private static final double RADIO_TIERRA_KM = 6371.0088;
+
+    private final VehiculoRepository vehiculoRepository;
+    private final double tamanoCelda;
+
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Set<Long>>> particiones = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> ofreciblesPorTipo = new ConcurrentHashMap<>();
+
+    public IndiceVehiculosDisponibles(
+            VehiculoRepository vehiculoRepository,
+            @Value("${fleet.indice.tamano-celda-grados:0.01}") double tamanoCelda
+    ) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.tamanoCelda = tamanoCelda;
+    }
+
+    public record Cercano(long vehiculoId, String placa, String tipoVehiculo, double lat, double lon, double distanciaKm) {
+    }
+
+    public record Busqueda(List<Cercano> resultados, int evaluados) {
+    }
+
+    /**
+     * Estado conocido de un vehículo; {@code celda} solo es válida si {@link #indexada()}.
+     * Un vehículo retenido por una oferta en curso no se ofrece a otras búsquedas.
+     */
+    private record Entrada(long id, String placa, String tipo, boolean disponible, boolean retenida,
+                           boolean conPosicion, double lat, double lon, long celda) {
+        boolean ofrecible() {
+            return disponible && !retenida && tipo != null;
+        }
+
+        boolean indexada() {
+            return ofrecible() && conPosicion;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sembrar() {
+        for (Object[] fila : vehiculoRepository.findMetadatosIndice()) {
+            actualizarVehiculo((Long) fila[0], (String) fila[1], (String) fila[2], (EstadoVehiculo) fila[3]);
+        }
+        log.info("Índice espacial: {} vehículos conocidos", entradas.size());
+    }
+
+    @TransactionalEventListener
+    public void onVehiculoCambiado(VehiculoCambiadoEvent event) {
+        actualizarVehiculo(event.id(), event.placa(), event.tipoVehiculo(), event.estado());
+    }
+
+    public void actualizarVehiculo(long id, String placa, String tipo, EstadoVehiculo estado) {
+        entradas.compute(id, (clave, actual) -> mover(actual, actual != null
+                ? new Entrada(id, placa, tipo, estado == EstadoVehiculo.DISPONIBLE, actual.retenida(), actual.conPosicion(), actual.lat(), actual.lon(), actual.celda())
+                : new Entrada(id, placa, tipo, estado == EstadoVehiculo.DISPONIBLE, false, false, 0, 0, 0)));
+    }
+
+    public void actualizarPosicion(long id, double lat, double lon) {
+        long celda = celda(lat, lon);
+        entradas.compute(id, (clave, actual) -> mover(actual, actual != null
+                ? new Entrada(id, actual.placa(), actual.tipo(), actual.disponible(), actual.retenida(), true, lat, lon, celda)
+                : new Entrada(id, null, null, false, false, true, lat, lon, celda)));
+    }
+
+    public void actualizarRetencion(long id, boolean retenida) {
+        entradas.compute(id, (clave, actual) -> mover(actual, actual != null
+                ? new Entrada(id, actual.placa(), actual.tipo(), actual.disponible(), retenida, actual.conPosicion(), actual.lat(), actual.lon(), actual.celda())
+                : new Entrada(id, null, null, false, retenida, false, 0, 0, 0)));
+    }
+
+    /**
+     * Los k vehículos disponibles de {@code tipo} más cercanos al punto dentro de {@code radioKm},
+     * ordenados por distancia.
+     */
+    public Busqueda cercanos(String tipo, double lat, double lon, int k, double radioKm) {
+        Map<Long, Set<Long>> celdas = particiones.get(tipo);
+        if (celdas == null || celdas.isEmpty() || k <= 0) {
+            return new Busqueda(List.of(), 0);
+        }
+
+        PriorityQueue<Cercano> mejores = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Cercano::distanciaKm).reversed());
+        int evaluados = 0;
+
+        // Ancho mínimo de una celda dentro del radio (el grado de longitud se acorta hacia los polos).
+        double latExtrema = Math.min(89, Math.abs(lat) + radioKm / KM_POR_GRADO);
+        double anchoCeldaKm = 0.99 * tamanoCelda * KM_POR_GRADO * Math.cos(Math.toRadians(latExtrema));
+        int maxAnillo = (int) Math.ceil(radioKm / anchoCeldaKm) + 1;
+        int fila = fila(lat);
+        int columna = columna(lon);
+        long celdasProbadas = 0;
+        int anillosRecorridos = -1;
+        boolean completo = false;
+        for (int anillo = 0; anillo <= maxAnillo; anillo++) {
+            double distanciaMinima = (anillo - 1) * anchoCeldaKm;
+            if (distanciaMinima > radioKm
+                    || (mejores.size() == k && distanciaMinima > mejores.peek().distanciaKm())) {
+                completo = true;
+                break;
+            }
+            if (celdasProbadas > celdas.size()) {
+                break;
+            }
+            evaluados += recorrerAnillo(celdas, fila, columna, anillo, tipo, lat, lon, k, radioKm, mejores);
+            celdasProbadas += anillo == 0 ? 1 : 8L * anillo;
+            anillosRecorridos = anillo;
+            completo = anillo == maxAnillo;
+        }
+
+        if (!completo) {
+            // Zona dispersa: los anillos ya costaron más que recorrer las celdas ocupadas, así que se
+            // recorren todas las que quedan fuera de los anillos y se descartan por su distancia mínima.
+            for (Map.Entry<Long, Set<Long>> celda : celdas.entrySet()) {
+                long clave = celda.getKey();
+                int filaCelda = (int) (clave >> 32);
+                int columnaCelda = (int) clave;
+                if (Math.abs(filaCelda - fila) <= anillosRecorridos && Math.abs(columnaCelda - columna) <= anillosRecorridos) {
+                    continue;
+                }
+                double cota = distanciaMinimaACelda(lat, lon, filaCelda, columnaCelda);
+                if (cota > radioKm || (mejores.size() == k && cota > mejores.peek().distanciaKm())) {
+                    continue;
+                }
+                evaluados += evaluar(clave, celda.getValue(), tipo, lat, lon, k, radioKm, mejores);
+            }
+        }
+
+        List<Cercano> resultados = new ArrayList<>(mejores);
+        resultados.sort(Comparator.comparingDouble(Cercano::distanciaKm));
+        return new Busqueda(resultados, evaluados);
+    }
+
+    /**
+     * Ids de los vehículos disponibles y no retenidos de {@code tipo}, tengan o no posición conocida;
+     * con {@code tipo} nulo, los de todos los tipos. Ordenados por id.
+     */
+    public List<Long> ofrecibles(String tipo) {
+        List<Long> ids = new ArrayList<>();
+        if (tipo != null) {
+            ids.addAll(ofreciblesPorTipo.getOrDefault(tipo, Set.of()));
+        } else {
+            ofreciblesPorTipo.values().forEach(ids::addAll);
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    public int vehiculosIndexados(String tipo) {
+        Map<Long, Set<Long>> celdas = particiones.get(tipo);
+        if (celdas == null) {
+            return 0;
+        }
+        int total = 0;
+        for (Set<Long> ids : celdas.values()) {
+            total += ids.size();
+        }
+        return total;
+    }
+
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Se ejecuta dentro del {@code compute} del vehículo, así que los cambios de celda de un mismo
+     * vehículo quedan serializados.
+     */
+    private Entrada mover(Entrada anterior, Entrada nueva) {
+        boolean eraOfrecible = anterior != null && anterior.ofrecible();
+        if (eraOfrecible && (!nueva.ofrecible() || !anterior.tipo().equals(nueva.tipo()))) {
+            Set<Long> ids = ofreciblesPorTipo.get(anterior.tipo());
+            if (ids != null) {
+                ids.remove(anterior.id());
+            }
+        }
+        if (nueva.ofrecible()) {
+            ofreciblesPorTipo.computeIfAbsent(nueva.tipo(), t -> ConcurrentHashMap.newKeySet()).add(nueva.id());
+        }
+
+        boolean estaba = anterior != null && anterior.indexada();
+        boolean queda = nueva.indexada();
+        if (estaba && queda && anterior.celda() == nueva.celda() && anterior.tipo().equals(nueva.tipo())) {
+            return nueva;
+        }
+        if (estaba) {
+            Map<Long, Set<Long>> celdas = particiones.get(anterior.tipo());
+            Set<Long> ids = celdas != null ? celdas.get(anterior.celda()) : null;
+            if (ids != null) {
+                ids.remove(anterior.id());
+            }
+        }
+        if (queda) {
+            particiones.computeIfAbsent(nueva.tipo(), t -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(nueva.celda(), c -> ConcurrentHashMap.newKeySet())
+                    .add(nueva.id());
+        }
+        return nueva;
+    }
+
+    private int recorrerAnillo(Map<Long, Set<Long>> celdas, int fila, int columna, int anillo, String tipo,
+                               double lat, double lon, int k, double radioKm, PriorityQueue<Cercano> mejores) {
+        if (anillo == 0) {
+            return evaluar(clave(fila, columna), celdas.get(clave(fila, columna)), tipo, lat, lon, k, radioKm, mejores);
+        }
+        int evaluados = 0;
+        for (int c = columna - anillo; c <= columna + anillo; c++) {
+            evaluados += evaluar(clave(fila - anillo, c), celdas.get(clave(fila - anillo, c)), tipo, lat, lon, k, radioKm, mejores);
+            evaluados += evaluar(clave(fila + anillo, c), celdas.get(clave(fila + anillo, c)), tipo, lat, lon, k, radioKm, mejores);
+        }
+        for (int f = fila - anillo + 1; f <= fila + anillo - 1; f++) {
+            evaluados += evaluar(clave(f, columna - anillo), celdas.get(clave(f, columna - anillo)), tipo, lat, lon, k, radioKm, mejores);
+            evaluados += evaluar(clave(f, columna + anillo), celdas.get(clave(f, columna + anillo)), tipo, lat, lon, k, radioKm, mejores);
+        }
+        return evaluados;
+    }
+
+    /**
+     * Un vehículo que cambia de celda durante la búsqueda puede aparecer en dos celdas recorridas;
+     * solo cuenta en la celda que coincide con su entrada actual.
+     */
+    private int evaluar(long celda, Collection<Long> ids, String tipo, double lat, double lon, int k,
+                        double radioKm, PriorityQueue<Cercano> mejores) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        int evaluados = 0;
+        for (Long id : ids) {
+            Entrada entrada = entradas.get(id);
+            if (entrada == null || !entrada.indexada() || entrada.celda() != celda || !tipo.equals(entrada.tipo())) {
+                continue;
+            }
+            evaluados++;
+            double distancia = distanciaKm(lat, lon, entrada.lat(), entrada.lon());
+            if (distancia > radioKm) {
+                continue;
+            }
+            if (mejores.size() < k) {
+                mejores.add(new Cercano(entrada.id(), entrada.placa(), entrada.tipo(), entrada.lat(), entrada.lon(), distancia));
+            } else if (distancia < mejores.peek().distanciaKm()) {
+                mejores.poll();
+                mejores.add(new Cercano(entrada.id(), entrada.placa(), entrada.tipo(), entrada.lat(), entrada.lon(), distancia));
+            }
+        }
+        return evaluados;
+    }
+
+    /**
+     * Cota inferior de la distancia entre el punto y cualquier punto de la celda.
+     */
+    private double distanciaMinimaACelda(double lat, double lon, int filaCelda, int columnaCelda) {
+        double latMin = filaCelda * tamanoCelda;
+        double lonMin = columnaCelda * tamanoCelda;
+        double latCercana = Math.max(latMin, Math.min(lat, latMin + tamanoCelda));
+        double lonCercana = Math.max(lonMin, Math.min(lon, lonMin + tamanoCelda));
+        double dLatKm = Math.abs(lat - latCercana) * KM_POR_GRADO;
+        double latExtrema = Math.min(89, Math.max(Math.abs(lat), Math.abs(latCercana)) + tamanoCelda);
+        double dLonKm = Math.abs(lon - lonCercana) * KM_POR_GRADO * Math.cos(Math.toRadians(latExtrema));
+        return Math.max(dLatKm, dLonKm) * 0.99;
+    }
+
+    private long celda(double lat, double lon) {
+        return clave(fila(lat), columna(lon));
+    }
+
+    private int fila(double lat) {
+        return (int) Math.floor(lat / tamanoCelda);
+    }
+
+    private int columna(double lon) {
+        return (int) Math.floor(lon / tamanoCelda);
+    }
+
+    private static long clave(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xffffffffL);
+    }
+}
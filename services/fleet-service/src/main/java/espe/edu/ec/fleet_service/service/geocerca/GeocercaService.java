@@ -0,0 +1,70 @@
+package espe.edu.ec.fleet_service.service.geocerca;
+
+import espe.edu.ec.fleet_service.dto.GeocercaMetricasResponse;
+import espe.edu.ec.fleet_service.event.GeocercaEvent;
+import espe.edu.ec.fleet_service.event.GeocercasCambiadasEvent;
+import espe.edu.ec.fleet_service.model.Coordenada;
+import espe.edu.ec.fleet_service.model.ZonaGeocerca;
+import espe.edu.ec.fleet_service.repository.ZonaGeocercaRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class GeocercaService {
+
+    private static final long MAX_CELDAS_POR_ZONA = 100_000;
+    private static final int MAX_EVENTOS = 1000;
+
+    private final ZonaGeocercaRepository zonaGeocercaRepository;
+    private final MotorGeocercas motorGeocercas;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GeocercaService(ZonaGeocercaRepository zonaGeocercaRepository, MotorGeocercas motorGeocercas,
+                           ApplicationEventPublisher eventPublisher) {
+        this.zonaGeocercaRepository = zonaGeocercaRepository;
+        this.motorGeocercas = motorGeocercas;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public ZonaGeocerca crearZona(ZonaGeocerca zona) {
+        if (zonaGeocercaRepository.existsByZonaId(zona.getZonaId())) {
+            throw new RuntimeException("Ya existe una geocerca para la zona: " + zona.getZonaId());
+        }
+        List<Coordenada> vertices = zona.getVertices();
+        if (vertices.size() > 3 && vertices.get(0).equals(vertices.get(vertices.size() - 1))) {
+            vertices.remove(vertices.size() - 1);
+        }
+        if (IndiceGeocercas.celdasOcupadas(vertices, motorGeocercas.tamanoCelda()) > MAX_CELDAS_POR_ZONA) {
+            throw new RuntimeException("La geocerca es demasiado extensa para el tamaño de celda configurado");
+        }
+        ZonaGeocerca guardada = zonaGeocercaRepository.save(zona);
+        eventPublisher.publishEvent(new GeocercasCambiadasEvent());
+        return guardada;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ZonaGeocerca> listarZonas() {
+        return zonaGeocercaRepository.findActivasConVertices();
+    }
+
+    @Transactional
+    public void desactivarZona(Long id) {
+        ZonaGeocerca zona = zonaGeocercaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Geocerca no encontrada"));
+        zona.setActiva(false);
+        zonaGeocercaRepository.save(zona);
+        eventPublisher.publishEvent(new GeocercasCambiadasEvent());
+    }
+
+    public List<GeocercaEvent> eventosRecientes(int limite) {
+        return motorGeocercas.eventosRecientes(Math.max(1, Math.min(limite, MAX_EVENTOS)));
+    }
+
+    public GeocercaMetricasResponse metricas() {
+        return motorGeocercas.metricas();
+    }
+}
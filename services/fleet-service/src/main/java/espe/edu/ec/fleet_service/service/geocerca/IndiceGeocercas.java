@@ -0,0 +1,193 @@
+package espe.edu.ec.fleet_service.service.geocerca;
+
+import espe.edu.ec.fleet_service.model.Coordenada;
+import espe.edu.ec.fleet_service.model.ZonaGeocerca;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polígonos activos compilados a arreglos primitivos más una grilla de celdas que, para cada celda,
+ * lista los polígonos cuyo rectángulo envolvente la toca.
+ *
+ * Es inmutable: el motor lo reemplaza completo al cambiar las zonas, así que se lee sin candados.
+ * La grilla es una tabla hash de direccionamiento abierto con claves {@code long}, para que la
+ * consulta de una posición no cree objetos.
+ */
+final class IndiceGeocercas {
+
+    static final int[] SIN_CANDIDATOS = new int[0];
+
+    private final Poligono[] poligonos;
+    private final double tamanoCelda;
+    private final long[] claves;
+    private final int[][] valores;
+    private final int mascara;
+
+    private IndiceGeocercas(Poligono[] poligonos, double tamanoCelda, Map<Long, List<Integer>> celdas) {
+        this.poligonos = poligonos;
+        this.tamanoCelda = tamanoCelda;
+        int capacidad = Integer.highestOneBit(Math.max(1, celdas.size()) * 2 - 1) << 1;
+        this.claves = new long[capacidad];
+        this.valores = new int[capacidad][];
+        this.mascara = capacidad - 1;
+        celdas.forEach((clave, indices) -> {
+            int posicion = posicion(clave);
+            while (valores[posicion] != null) {
+                posicion = (posicion + 1) & mascara;
+            }
+            claves[posicion] = clave;
+            valores[posicion] = indices.stream().mapToInt(Integer::intValue).toArray();
+        });
+    }
+
+    static IndiceGeocercas vacio(double tamanoCelda) {
+        return new IndiceGeocercas(new Poligono[0], tamanoCelda, Map.of());
+    }
+
+    /**
+     * {@code zonas} debe venir ordenada por id: los candidatos de cada celda quedan en ese orden.
+     */
+    static IndiceGeocercas compilar(List<ZonaGeocerca> zonas, double tamanoCelda) {
+        Poligono[] poligonos = new Poligono[zonas.size()];
+        Map<Long, List<Integer>> celdas = new HashMap<>();
+        for (int i = 0; i < zonas.size(); i++) {
+            Poligono poligono = Poligono.de(zonas.get(i));
+            poligonos[i] = poligono;
+            for (int fila = fila(poligono.minLat, tamanoCelda); fila <= fila(poligono.maxLat, tamanoCelda); fila++) {
+                for (int columna = columna(poligono.minLon, tamanoCelda); columna <= columna(poligono.maxLon, tamanoCelda); columna++) {
+                    celdas.computeIfAbsent(clave(fila, columna), c -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+        return new IndiceGeocercas(poligonos, tamanoCelda, celdas);
+    }
+
+    /**
+     * Número de celdas de la grilla que ocuparía el rectángulo envolvente de los vértices.
+     */
+    static long celdasOcupadas(List<Coordenada> vertices, double tamanoCelda) {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (Coordenada vertice : vertices) {
+            minLat = Math.min(minLat, vertice.getLat());
+            maxLat = Math.max(maxLat, vertice.getLat());
+            minLon = Math.min(minLon, vertice.getLon());
+            maxLon = Math.max(maxLon, vertice.getLon());
+        }
+        return (long) (fila(maxLat, tamanoCelda) - fila(minLat, tamanoCelda) + 1)
+                * (columna(maxLon, tamanoCelda) - columna(minLon, tamanoCelda) + 1);
+    }
+
+    Poligono poligono(int indice) {
+        return poligonos[indice];
+    }
+
+    int zonas() {
+        return poligonos.length;
+    }
+
+    int celdas() {
+        int total = 0;
+        for (int[] valor : valores) {
+            if (valor != null) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Índices de los polígonos que podrían contener el punto, en orden ascendente de id.
+     */
+    int[] candidatos(double lat, double lon) {
+        long clave = clave(fila(lat, tamanoCelda), columna(lon, tamanoCelda));
+        int posicion = posicion(clave);
+        while (true) {
+            int[] valor = valores[posicion];
+            if (valor == null) {
+                return SIN_CANDIDATOS;
+            }
+            if (claves[posicion] == clave) {
+                return valor;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+    }
+
+    private int posicion(long clave) {
+        long mezcla = clave * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+    }
+
+    private static int fila(double lat, double tamanoCelda) {
+        return (int) Math.floor(lat / tamanoCelda);
+    }
+
+    private static int columna(double lon, double tamanoCelda) {
+        return (int) Math.floor(lon / tamanoCelda);
+    }
+
+    private static long clave(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xffffffffL);
+    }
+
+    static final class Poligono {
+        final long id;
+        final String zonaId;
+        private final double[] lats;
+        private final double[] lons;
+        private final double minLat;
+        private final double maxLat;
+        private final double minLon;
+        private final double maxLon;
+
+        private Poligono(long id, String zonaId, double[] lats, double[] lons) {
+            this.id = id;
+            this.zonaId = zonaId;
+            this.lats = lats;
+            this.lons = lons;
+            double minLatCalc = Double.MAX_VALUE, maxLatCalc = -Double.MAX_VALUE;
+            double minLonCalc = Double.MAX_VALUE, maxLonCalc = -Double.MAX_VALUE;
+            for (int i = 0; i < lats.length; i++) {
+                minLatCalc = Math.min(minLatCalc, lats[i]);
+                maxLatCalc = Math.max(maxLatCalc, lats[i]);
+                minLonCalc = Math.min(minLonCalc, lons[i]);
+                maxLonCalc = Math.max(maxLonCalc, lons[i]);
+            }
+            this.minLat = minLatCalc;
+            this.maxLat = maxLatCalc;
+            this.minLon = minLonCalc;
+            this.maxLon = maxLonCalc;
+        }
+
+        static Poligono de(ZonaGeocerca zona) {
+            List<Coordenada> vertices = zona.getVertices();
+            double[] lats = new double[vertices.size()];
+            double[] lons = new double[vertices.size()];
+            for (int i = 0; i < vertices.size(); i++) {
+                lats[i] = vertices.get(i).getLat();
+                lons[i] = vertices.get(i).getLon();
+            }
+            return new Poligono(zona.getId(), zona.getZonaId(), lats, lons);
+        }
+
+        /**
+         * Ray casting: cuenta los cruces de un rayo horizontal desde el punto con los lados del polígono.
+         */
+        boolean contiene(double lat, double lon) {
+            if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+                return false;
+            }
+            boolean dentro = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lon < (lons[j] - lons[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lons[i]) {
+                    dentro = !dentro;
+                }
+            }
+            return dentro;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package espe.edu.ec.fleet_service.service.geocerca;
+
+import espe.edu.ec.fleet_service.dto.GeocercaMetricasResponse;
+import espe.edu.ec.fleet_service.event.GeocercaEvent;
+import espe.edu.ec.fleet_service.event.GeocercasCambiadasEvent;
+import espe.edu.ec.fleet_service.model.TipoEventoGeocerca;
+import espe.edu.ec.fleet_service.repository.ZonaGeocercaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evalúa cada posición nueva contra las geocercas activas y emite eventos de entrada y salida.
+ *
+ * La evaluación corre en el hilo de ingesta. El camino frecuente (el vehículo sigue en las mismas
+ * zonas) no crea objetos: consulta la grilla del {@link IndiceGeocercas} vigente, prueba solo los
+ * polígonos candidatos sobre un búfer por hilo y lo compara con las zonas guardadas del vehículo.
+ * Solo un cambio de pertenencia reserva memoria y publica eventos.
+ */
+@Component
+@Slf4j
+public class MotorGeocercas {
+
+    private static final long[] SIN_ZONAS = new long[0];
+
+    private final ZonaGeocercaRepository zonaGeocercaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final double tamanoCelda;
+    private final int maxEventosRecientes;
+
+    private volatile IndiceGeocercas indice;
+    private final ConcurrentHashMap<Long, Pertenencia> pertenencias = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> bufer = ThreadLocal.withInitial(() -> new long[16]);
+    private final ArrayDeque<GeocercaEvent> recientes = new ArrayDeque<>();
+
+    private final LongAdder evaluaciones = new LongAdder();
+    private final LongAdder poligonosEvaluados = new LongAdder();
+    private final LongAdder nanosEvaluacion = new LongAdder();
+    private final LongAdder entradas = new LongAdder();
+    private final LongAdder salidas = new LongAdder();
+    private final LongAdder lagTotalMs = new LongAdder();
+    private final LongAccumulator lagMaximoMs = new LongAccumulator(Long::max, 0);
+    private long evaluacionesMuestra;
+    private long nanosMuestra = System.nanoTime();
+    private volatile double evaluacionesPorSegundo;
+
+    public MotorGeocercas(
+            ZonaGeocercaRepository zonaGeocercaRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${fleet.geocercas.tamano-celda-grados:0.05}") double tamanoCelda,
+            @Value("${fleet.geocercas.eventos-recientes:1000}") int maxEventosRecientes
+    ) {
+        this.zonaGeocercaRepository = zonaGeocercaRepository;
+        this.eventPublisher = eventPublisher;
+        this.tamanoCelda = tamanoCelda;
+        this.maxEventosRecientes = maxEventosRecientes;
+        this.indice = IndiceGeocercas.vacio(tamanoCelda);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        recargar();
+        log.info("Geocercas: {} zonas activas en {} celdas", indice.zonas(), indice.celdas());
+    }
+
+    @TransactionalEventListener
+    public void onGeocercasCambiadas(GeocercasCambiadasEvent event) {
+        recargar();
+    }
+
+    public synchronized void recargar() {
+        indice = IndiceGeocercas.compilar(zonaGeocercaRepository.findActivasConVertices(), tamanoCelda);
+    }
+
+    public double tamanoCelda() {
+        return tamanoCelda;
+    }
+
+    /**
+     * Evalúa la última posición de un vehículo. Las posiciones más antiguas que la última evaluada
+     * para el mismo vehículo se ignoran.
+     */
+    public void evaluar(long vehiculoId, double lat, double lon, long timestampMs) {
+        long inicio = System.nanoTime();
+        IndiceGeocercas actual = indice;
+        int[] candidatos = actual.candidatos(lat, lon);
+        Pertenencia pertenencia = pertenencias.get(vehiculoId);
+
+        if (candidatos.length == 0 && pertenencia == null) {
+            registrarEvaluacion(inicio, 0);
+            return;
+        }
+
+        long[] dentro = bufer(candidatos.length);
+        int total = 0;
+        for (int candidato : candidatos) {
+            IndiceGeocercas.Poligono poligono = actual.poligono(candidato);
+            if (poligono.contiene(lat, lon)) {
+                dentro[total++] = poligono.id;
+            }
+        }
+
+        if (pertenencia == null) {
+            if (total == 0) {
+                registrarEvaluacion(inicio, candidatos.length);
+                return;
+            }
+            pertenencia = pertenencias.computeIfAbsent(vehiculoId, id -> new Pertenencia());
+        }
+
+        List<GeocercaEvent> eventos = null;
+        synchronized (pertenencia) {
+            if (timestampMs >= pertenencia.timestampMs) {
+                pertenencia.timestampMs = timestampMs;
+                if (!iguales(pertenencia.zonas, dentro, total)) {
+                    eventos = cambios(vehiculoId, pertenencia, actual, candidatos, dentro, total, lat, lon, timestampMs);
+                }
+            }
+        }
+        registrarEvaluacion(inicio, candidatos.length);
+
+        if (eventos != null) {
+            eventos.forEach(this::emitir);
+        }
+    }
+
+    /**
+     * Si la última posición evaluada del vehículo cae dentro de la zona activa {@code zonaId}.
+     */
+    public boolean estaEnZona(long vehiculoId, String zonaId) {
+        Pertenencia pertenencia = pertenencias.get(vehiculoId);
+        if (pertenencia == null) {
+            return false;
+        }
+        synchronized (pertenencia) {
+            for (String codigo : pertenencia.codigos) {
+                if (zonaId.equals(codigo)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public List<GeocercaEvent> eventosRecientes(int limite) {
+        synchronized (recientes) {
+            List<GeocercaEvent> eventos = new ArrayList<>(Math.min(limite, recientes.size()));
+            var iterador = recientes.descendingIterator();
+            while (iterador.hasNext() && eventos.size() < limite) {
+                eventos.add(iterador.next());
+            }
+            return eventos;
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void muestrearThroughput() {
+        long ahora = System.nanoTime();
+        long total = evaluaciones.sum();
+        evaluacionesPorSegundo = (total - evaluacionesMuestra) * 1e9 / Math.max(1, ahora - nanosMuestra);
+        evaluacionesMuestra = total;
+        nanosMuestra = ahora;
+    }
+
+    public GeocercaMetricasResponse metricas() {
+        IndiceGeocercas actual = indice;
+        long totalEvaluaciones = evaluaciones.sum();
+        long totalEventos = entradas.sum() + salidas.sum();
+        long enZona = pertenencias.values().stream().filter(p -> p.zonas.length > 0).count();
+        return GeocercaMetricasResponse.builder()
+                .zonasActivas(actual.zonas())
+                .celdasIndice(actual.celdas())
+                .evaluaciones(totalEvaluaciones)
+                .evaluacionesPorSegundo(evaluacionesPorSegundo)
+                .poligonosEvaluados(poligonosEvaluados.sum())
+                .nanosPromedioEvaluacion(totalEvaluaciones == 0 ? 0 : (double) nanosEvaluacion.sum() / totalEvaluaciones)
+                .eventosEntrada(entradas.sum())
+                .eventosSalida(salidas.sum())
+                .lagPromedioMs(totalEventos == 0 ? 0 : (double) lagTotalMs.sum() / totalEventos)
+                .lagMaximoMs(lagMaximoMs.get())
+                .vehiculosEnZona(enZona)
+                .build();
+    }
+
+    /**
+     * Compara las zonas guardadas con las nuevas (ambas ordenadas por id) y actualiza la pertenencia.
+     * Las zonas que ya no existen en el índice conservan el código guardado para el evento de salida.
+     */
+    private List<GeocercaEvent> cambios(long vehiculoId, Pertenencia pertenencia, IndiceGeocercas actual,
+                                        int[] candidatos, long[] dentro, int total,
+                                        double lat, double lon, long timestampMs) {
+        Instant timestamp = Instant.ofEpochMilli(timestampMs);
+        Instant emitidoEn = Instant.now();
+        List<GeocercaEvent> eventos = new ArrayList<>();
+        long[] nuevas = Arrays.copyOf(dentro, total);
+        String[] codigos = new String[total];
+
+        int i = 0;
+        int j = 0;
+        while (i < pertenencia.zonas.length || j < total) {
+            long anterior = i < pertenencia.zonas.length ? pertenencia.zonas[i] : Long.MAX_VALUE;
+            long nueva = j < total ? nuevas[j] : Long.MAX_VALUE;
+            if (anterior == nueva) {
+                codigos[j++] = pertenencia.codigos[i++];
+            } else if (anterior < nueva) {
+                eventos.add(new GeocercaEvent(TipoEventoGeocerca.SALIDA, vehiculoId, anterior,
+                        pertenencia.codigos[i], lat, lon, timestamp, emitidoEn));
+                i++;
+            } else {
+                codigos[j] = codigo(actual, candidatos, nueva);
+                eventos.add(new GeocercaEvent(TipoEventoGeocerca.ENTRADA, vehiculoId, nueva,
+                        codigos[j], lat, lon, timestamp, emitidoEn));
+                j++;
+            }
+        }
+
+        pertenencia.zonas = total == 0 ? SIN_ZONAS : nuevas;
+        pertenencia.codigos = codigos;
+        return eventos;
+    }
+
+    private void emitir(GeocercaEvent evento) {
+        if (evento.tipo() == TipoEventoGeocerca.ENTRADA) {
+            entradas.increment();
+        } else {
+            salidas.increment();
+        }
+        long lag = Math.max(0, evento.emitidoEn().toEpochMilli() - evento.timestamp().toEpochMilli());
+        lagTotalMs.add(lag);
+        lagMaximoMs.accumulate(lag);
+
+        synchronized (recientes) {
+            if (recientes.size() >= maxEventosRecientes) {
+                recientes.pollFirst();
+            }
+            recientes.addLast(evento);
+        }
+        eventPublisher.publishEvent(evento);
+        log.debug("Geocerca {}: vehículo {} zona {}", evento.tipo(), evento.vehiculoId(), evento.zonaId());
+    }
+
+    private void registrarEvaluacion(long inicio, int candidatos) {
+        evaluaciones.increment();
+        poligonosEvaluados.add(candidatos);
+        nanosEvaluacion.add(System.nanoTime() - inicio);
+    }
+
+    private long[] bufer(int minimo) {
+        long[] actual = bufer.get();
+        if (actual.length < minimo) {
+            actual = new long[Integer.highestOneBit(minimo) << 1];
+            bufer.set(actual);
+        }
+        return actual;
+    }
+
+    private static boolean iguales(long[] zonas, long[] dentro, int total) {
+        if (zonas.length != total) {
+            return false;
+        }
+        for (int i = 0; i < total; i++) {
+            if (zonas[i] != dentro[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String codigo(IndiceGeocercas actual, int[] candidatos, long zonaId) {
+        for (int candidato : candidatos) {
+            if (actual.poligono(candidato).id == zonaId) {
+                return actual.poligono(candidato).zonaId;
+            }
+        }
+        return null;
+    }
+
+    private static final class Pertenencia {
+        private long[] zonas = SIN_ZONAS;
+        private String[] codigos = new String[0];
+        private long timestampMs = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,329 @@
+package espe.edu.ec.fleet_service.service.importacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import espe.edu.ec.fleet_service.dto.ImportacionFlotaResponse;
+import espe.edu.ec.fleet_service.event.VehiculoCambiadoEvent;
+import espe.edu.ec.fleet_service.exception.ConflictoException;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.model.Repartidor;
+import espe.edu.ec.fleet_service.model.Vehiculo;
+import espe.edu.ec.fleet_service.repository.RepartidorRepository;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Alta masiva de vehículos (los tres subtipos) y repartidores desde CSV o NDJSON.
+ *
+ * Cada línea se convierte y valida en paralelo con las mismas reglas que los endpoints de alta;
+ * después se descartan las claves repetidas en el archivo o ya registradas (una consulta por cada
+ * mil claves) y las filas válidas se insertan en una sola transacción. Los ids salen de secuencias
+ * con asignación por bloques, así que Hibernate agrupa los INSERT de cada tabla en lotes JDBC.
+ */
+@Service
+@Slf4j
+public class ImportacionFlotaService {
+
+    private static final int CLAVES_POR_CONSULTA = 1000;
+
+    private final VehiculoRepository vehiculoRepository;
+    private final RepartidorRepository repartidorRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxFilas;
+    private final int batchSize;
+
+    public ImportacionFlotaService(
+            VehiculoRepository vehiculoRepository,
+            RepartidorRepository repartidorRepository,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${fleet.importacion.max-filas:50000}") int maxFilas,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize
+    ) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.repartidorRepository = repartidorRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxFilas = maxFilas;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Fila del archivo con la entidad convertida o el motivo de su rechazo. {@code referencia} guarda
+     * un dato de la línea que no pertenece a la entidad (la placa a asignar a un repartidor).
+     */
+    private static final class Fila<T> {
+        private final int linea;
+        private String clave;
+        private String referencia;
+        private T entidad;
+        private String error;
+
+        private Fila(int linea) {
+            this.linea = linea;
+        }
+
+        private boolean valida() {
+            return error == null;
+        }
+
+        private void rechazar(String motivo) {
+            this.error = motivo;
+            this.entidad = null;
+        }
+    }
+
+    public ImportacionFlotaResponse importarVehiculos(InputStream contenido, MediaType tipo) {
+        LectorFilas lector = LectorFilas.leer(contenido, tipo, maxFilas);
+        List<Fila<Vehiculo>> filas = convertir(lector, Vehiculo.class, Vehiculo::getPlaca, (nodo, fila) -> {
+            JsonNode tipoVehiculo = nodo.get("tipoVehiculo");
+            if (tipoVehiculo != null && tipoVehiculo.isTextual()) {
+                nodo.put("tipoVehiculo", tipoVehiculo.asText().trim().toUpperCase());
+            }
+            nodo.remove(List.of("id", "activo", "fechaCreacion"));
+        });
+
+        rechazarRepetidas(filas, "La placa está repetida en la línea ");
+        rechazarExistentes(filas, placas -> vehiculoRepository.findIdsPorPlacas(placas).stream()
+                .map(fila -> (String) fila[0])
+                .toList(), "Ya existe un vehículo con la placa: ");
+
+        List<Fila<Vehiculo>> validas = filas.stream().filter(Fila::valida).toList();
+        persistir(validas, fila -> {
+            Vehiculo vehiculo = fila.entidad;
+            if (vehiculo.getEstado() == null) {
+                vehiculo.setEstado(EstadoVehiculo.DISPONIBLE);
+            }
+            entityManager.persist(vehiculo);
+            eventPublisher.publishEvent(VehiculoCambiadoEvent.de(vehiculo));
+        });
+
+        log.info("Importación de vehículos: {} filas, {} importadas", filas.size(), validas.size());
+        return respuesta(filas, validas.size());
+    }
+
+    /**
+     * La columna opcional {@code placa} asigna al repartidor un vehículo ya registrado y libre.
+     */
+    public ImportacionFlotaResponse importarRepartidores(InputStream contenido, MediaType tipo) {
+        LectorFilas lector = LectorFilas.leer(contenido, tipo, maxFilas);
+        List<Fila<Repartidor>> filas = convertir(lector, Repartidor.class, Repartidor::getIdentificacion, (nodo, fila) -> {
+            JsonNode placa = nodo.remove("placa");
+            if (placa != null && !placa.isNull() && !placa.asText().isBlank()) {
+                fila.referencia = placa.asText().trim();
+            }
+            nodo.remove(List.of("id", "vehiculo"));
+        });
+
+        rechazarRepetidas(filas, "La identificación está repetida en la línea ");
+        rechazarExistentes(filas, repartidorRepository::findIdentificacionesExistentes,
+                "El repartidor con esa cedula si existe: ");
+        Map<String, Long> vehiculos = resolverVehiculos(filas);
+
+        List<Fila<Repartidor>> validas = filas.stream().filter(Fila::valida).toList();
+        persistir(validas, fila -> {
+            if (fila.referencia != null) {
+                fila.entidad.setVehiculo(entityManager.getReference(Vehiculo.class, vehiculos.get(fila.referencia)));
+            }
+            entityManager.persist(fila.entidad);
+        });
+
+        log.info("Importación de repartidores: {} filas, {} importados", filas.size(), validas.size());
+        return respuesta(filas, validas.size());
+    }
+
+    /**
+     * Convierte y valida cada línea en paralelo; las filas son independientes entre sí.
+     */
+    private <T> List<Fila<T>> convertir(LectorFilas lector, Class<T> tipo, Function<T, String> clave,
+                                        BiConsumer<ObjectNode, Fila<T>> preparar) {
+        List<LectorFilas.Linea> lineas = lector.lineas();
+        @SuppressWarnings("unchecked")
+        Fila<T>[] filas = new Fila[lineas.size()];
+        IntStream.range(0, lineas.size()).parallel().forEach(i -> {
+            LectorFilas.Linea linea = lineas.get(i);
+            Fila<T> fila = new Fila<>(linea.numero());
+            filas[i] = fila;
+            try {
+                ObjectNode nodo = lector.aNodo(linea, objectMapper);
+                preparar.accept(nodo, fila);
+                T entidad = objectMapper.treeToValue(nodo, tipo);
+                fila.clave = clave.apply(entidad);
+                fila.entidad = entidad;
+                String violaciones = validar(entidad);
+                if (violaciones != null) {
+                    fila.rechazar(violaciones);
+                }
+            } catch (InvalidTypeIdException e) {
+                fila.rechazar("tipoVehiculo debe ser MOTO, LIVIANO o CAMION");
+            } catch (JsonProcessingException e) {
+                fila.rechazar("Valor inválido: " + e.getOriginalMessage());
+            } catch (IOException | IllegalArgumentException e) {
+                fila.rechazar("Línea inválida: " + e.getMessage());
+            }
+        });
+        return List.of(filas);
+    }
+
+    private <T> String validar(T entidad) {
+        Set<ConstraintViolation<T>> violaciones = validator.validate(entidad);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static <T> void rechazarRepetidas(List<Fila<T>> filas, String motivo) {
+        Map<String, Integer> primeras = new HashMap<>();
+        for (Fila<T> fila : filas) {
+            if (fila.valida()) {
+                Integer primera = primeras.putIfAbsent(fila.clave, fila.linea);
+                if (primera != null) {
+                    fila.rechazar(motivo + primera);
+                }
+            }
+        }
+    }
+
+    private static <T> void rechazarExistentes(List<Fila<T>> filas, Function<List<String>, List<String>> existentes,
+                                               String motivo) {
+        List<String> claves = filas.stream().filter(Fila::valida).map(fila -> fila.clave).toList();
+        Set<String> registradas = new HashSet<>();
+        for (int desde = 0; desde < claves.size(); desde += CLAVES_POR_CONSULTA) {
+            registradas.addAll(existentes.apply(claves.subList(desde, Math.min(desde + CLAVES_POR_CONSULTA, claves.size()))));
+        }
+        for (Fila<T> fila : filas) {
+            if (fila.valida() && registradas.contains(fila.clave)) {
+                fila.rechazar(motivo + fila.clave);
+            }
+        }
+    }
+
+    /**
+     * Ids de los vehículos pedidos en la columna {@code placa}; rechaza las filas cuyo vehículo no
+     * existe, ya tiene repartidor o se repite en el archivo.
+     */
+    private Map<String, Long> resolverVehiculos(List<Fila<Repartidor>> filas) {
+        rechazarReferenciasRepetidas(filas);
+        List<String> placas = filas.stream()
+                .filter(fila -> fila.valida() && fila.referencia != null)
+                .map(fila -> fila.referencia)
+                .toList();
+        Map<String, Long> ids = new HashMap<>();
+        Set<Long> asignados = new HashSet<>();
+        for (int desde = 0; desde < placas.size(); desde += CLAVES_POR_CONSULTA) {
+            List<Object[]> encontrados = vehiculoRepository.findIdsPorPlacas(
+                    placas.subList(desde, Math.min(desde + CLAVES_POR_CONSULTA, placas.size())));
+            List<Long> idsBloque = new ArrayList<>(encontrados.size());
+            for (Object[] encontrado : encontrados) {
+                ids.put((String) encontrado[0], (Long) encontrado[1]);
+                idsBloque.add((Long) encontrado[1]);
+            }
+            if (!idsBloque.isEmpty()) {
+                asignados.addAll(repartidorRepository.findVehiculosAsignados(idsBloque));
+            }
+        }
+        for (Fila<Repartidor> fila : filas) {
+            if (!fila.valida() || fila.referencia == null) {
+                continue;
+            }
+            Long id = ids.get(fila.referencia);
+            if (id == null) {
+                fila.rechazar("Vehículo no encontrado: " + fila.referencia);
+            } else if (asignados.contains(id)) {
+                fila.rechazar("El vehículo " + fila.referencia + " ya está asignado a otro repartidor");
+            }
+        }
+        return ids;
+    }
+
+    private static void rechazarReferenciasRepetidas(List<Fila<Repartidor>> filas) {
+        Map<String, Integer> primeras = new HashMap<>();
+        for (Fila<Repartidor> fila : filas) {
+            if (fila.valida() && fila.referencia != null) {
+                Integer primera = primeras.putIfAbsent(fila.referencia, fila.linea);
+                if (primera != null) {
+                    fila.rechazar("El vehículo " + fila.referencia + " ya se asigna en la línea " + primera);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserta en una transacción, vaciando el contexto cada {@code batchSize} filas para que cada
+     * flush envíe un lote por tabla y la memoria no crezca con el archivo.
+     */
+    private <T> void persistir(List<Fila<T>> filas, Consumer<Fila<T>> persistirFila) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < filas.size(); i++) {
+                    persistirFila.accept(filas.get(i));
+                    if ((i + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictoException("Otra operación registró los mismos datos durante la importación; "
+                    + "no se importó ninguna fila");
+        }
+    }
+
+    private static <T> ImportacionFlotaResponse respuesta(List<Fila<T>> filas, int importados) {
+        List<ImportacionFlotaResponse.ErrorFila> errores = filas.stream()
+                .filter(fila -> !fila.valida())
+                .map(fila -> new ImportacionFlotaResponse.ErrorFila(fila.linea, fila.clave, fila.error))
+                .toList();
+        return ImportacionFlotaResponse.builder()
+                .recibidos(filas.size())
+                .importados(importados)
+                .rechazados(errores.size())
+                .errores(errores)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package espe.edu.ec.fleet_service.service.importacion;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee un archivo CSV (con encabezado) o NDJSON y entrega cada línea como un objeto JSON con las
+ * mismas claves que el cuerpo de los endpoints de alta, para convertirlo con Jackson.
+ *
+ * La lectura es secuencial y solo separa líneas; el análisis de cada una ({@link #aNodo}) es
+ * independiente y se hace en paralelo. En CSV los campos vacíos se omiten y las comillas dobles
+ * permiten comas dentro de un campo, pero no saltos de línea.
+ */
+final class LectorFilas {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    record Linea(int numero, String texto) {
+    }
+
+    private final boolean csv;
+    private final List<String> encabezados;
+    private final List<Linea> lineas;
+
+    private LectorFilas(boolean csv, List<String> encabezados, List<Linea> lineas) {
+        this.csv = csv;
+        this.encabezados = encabezados;
+        this.lineas = lineas;
+    }
+
+    static LectorFilas leer(InputStream contenido, MediaType tipo, int maxFilas) {
+        boolean csv = TEXT_CSV.isCompatibleWith(tipo);
+        if (!csv && !APPLICATION_NDJSON.isCompatibleWith(tipo)) {
+            throw new RuntimeException("Formato no soportado: use text/csv o application/x-ndjson");
+        }
+
+        List<String> encabezados = null;
+        List<Linea> lineas = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8), 1 << 16)) {
+            int numero = 0;
+            String texto;
+            while ((texto = reader.readLine()) != null) {
+                numero++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                if (csv && encabezados == null) {
+                    encabezados = dividirCsv(texto.startsWith("\uFEFF") ? texto.substring(1) : texto).stream()
+                            .map(String::trim)
+                            .toList();
+                    continue;
+                }
+                if (lineas.size() == maxFilas) {
+                    throw new RuntimeException("La importación no puede exceder " + maxFilas + " filas");
+                }
+                lineas.add(new Linea(numero, texto));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new LectorFilas(csv, encabezados, lineas);
+    }
+
+    List<Linea> lineas() {
+        return lineas;
+    }
+
+    ObjectNode aNodo(Linea linea, ObjectMapper objectMapper) throws IOException {
+        if (!csv) {
+            JsonNode nodo = objectMapper.readTree(linea.texto());
+            if (!(nodo instanceof ObjectNode objeto)) {
+                throw new IllegalArgumentException("Cada línea debe ser un objeto JSON");
+            }
+            return objeto;
+        }
+
+        List<String> valores = dividirCsv(linea.texto());
+        if (valores.size() > encabezados.size()) {
+            throw new IllegalArgumentException("La fila tiene " + valores.size() + " columnas y el encabezado "
+                    + encabezados.size());
+        }
+        ObjectNode objeto = objectMapper.createObjectNode();
+        for (int i = 0; i < valores.size(); i++) {
+            String valor = valores.get(i).trim();
+            if (!valor.isEmpty()) {
+                objeto.put(encabezados.get(i), valor);
+            }
+        }
+        return objeto;
+    }
+
+    static List<String> dividirCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
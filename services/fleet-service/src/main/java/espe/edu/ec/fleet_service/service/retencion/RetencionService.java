@@ -0,0 +1,256 @@
+package espe.edu.ec.fleet_service.service.retencion;
+
+import espe.edu.ec.fleet_service.dto.RetencionMetricasResponse;
+import espe.edu.ec.fleet_service.dto.RetencionResponse;
+import espe.edu.ec.fleet_service.exception.ConflictoException;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.repository.RetencionVehiculoRepository;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retenciones temporales de vehículos ofrecidos a un repartidor.
+ *
+ * La base decide quién obtiene la retención (una fila por vehículo, reemplazable solo si venció) y
+ * la tabla en memoria responde sin consultas si un vehículo está retenido, para filtrar la
+ * disponibilidad. Los vencimientos se programan en una {@link RuedaExpiracion}: renovar agrega una
+ * entrada nueva y la anterior se descarta al vencer porque ya no es la vigente.
+ *
+ * La tabla en memoria solo conoce las retenciones tomadas en esta instancia y las vigentes al
+ * arrancar; la asignación siempre verifica contra la base.
+ */
+@Service
+@Slf4j
+public class RetencionService {
+
+    private record Retencion(long vehiculoId, String placa, UUID token, String titular, long expiraEnMs) {
+    }
+
+    private final RetencionVehiculoRepository retencionRepository;
+    private final VehiculoRepository vehiculoRepository;
+    private final IndiceVehiculosDisponibles indice;
+    private final long ttlPorDefectoSegundos;
+    private final long ttlMaximoSegundos;
+
+    private final Map<Long, Retencion> vigentes = new ConcurrentHashMap<>();
+    private final RuedaExpiracion<Retencion> rueda;
+
+    private final LongAdder adquiridas = new LongAdder();
+    private final LongAdder renovadas = new LongAdder();
+    private final LongAdder liberadas = new LongAdder();
+    private final LongAdder consumidas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder conflictos = new LongAdder();
+
+    public RetencionService(
+            RetencionVehiculoRepository retencionRepository,
+            VehiculoRepository vehiculoRepository,
+            IndiceVehiculosDisponibles indice,
+            @Value("${fleet.retenciones.ttl-por-defecto-segundos:30}") long ttlPorDefectoSegundos,
+            @Value("${fleet.retenciones.ttl-maximo-segundos:300}") long ttlMaximoSegundos,
+            @Value("${fleet.retenciones.tick-ms:100}") long tickMs,
+            @Value("${fleet.retenciones.ranuras:1024}") int ranuras
+    ) {
+        this.retencionRepository = retencionRepository;
+        this.vehiculoRepository = vehiculoRepository;
+        this.indice = indice;
+        this.ttlPorDefectoSegundos = ttlPorDefectoSegundos;
+        this.ttlMaximoSegundos = ttlMaximoSegundos;
+        this.rueda = new RuedaExpiracion<>(tickMs, ranuras, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        for (Object[] fila : retencionRepository.findVigentes(Instant.now())) {
+            registrar(new Retencion(((Number) fila[0]).longValue(), (String) fila[1], (UUID) fila[2],
+                    (String) fila[3], instante(fila[4]).toEpochMilli()));
+        }
+        log.info("Retenciones vigentes cargadas: {}", vigentes.size());
+    }
+
+    @Transactional
+    public RetencionResponse adquirir(String placa, String titular, Long ttlSegundos) {
+        long ttl = ttl(ttlSegundos);
+        Instant ahora = Instant.now();
+        Instant expiraEn = ahora.plusSeconds(ttl);
+        UUID token = UUID.randomUUID();
+
+        List<Long> filas = retencionRepository.adquirir(placa, token, titular, expiraEn, ahora);
+        if (filas.isEmpty()) {
+            EstadoVehiculo estado = vehiculoRepository.findEstadoByPlaca(placa)
+                    .orElseThrow(() -> new RuntimeException("Vehículo no encontrado"));
+            conflictos.increment();
+            if (estado != EstadoVehiculo.DISPONIBLE) {
+                throw new ConflictoException("El vehículo " + placa + " está en estado " + estado);
+            }
+            throw new ConflictoException("El vehículo " + placa + " ya está retenido por otra oferta");
+        }
+
+        Retencion retencion = new Retencion(filas.get(0), placa, token, titular, expiraEn.toEpochMilli());
+        despuesDelCommit(() -> registrar(retencion));
+        adquiridas.increment();
+        return respuesta(retencion);
+    }
+
+    @Transactional
+    public RetencionResponse renovar(String placa, UUID token, Long ttlSegundos) {
+        long vehiculoId = idVehiculo(placa);
+        Instant ahora = Instant.now();
+        Instant expiraEn = ahora.plusSeconds(ttl(ttlSegundos));
+        if (retencionRepository.renovar(vehiculoId, token, expiraEn, ahora).isEmpty()) {
+            conflictos.increment();
+            throw new ConflictoException("La retención del vehículo " + placa + " no existe o ya venció");
+        }
+
+        Retencion anterior = vigentes.get(vehiculoId);
+        String titular = anterior != null && anterior.token().equals(token) ? anterior.titular() : null;
+        Retencion renovada = new Retencion(vehiculoId, placa, token, titular, expiraEn.toEpochMilli());
+        despuesDelCommit(() -> registrar(renovada));
+        renovadas.increment();
+        return respuesta(renovada);
+    }
+
+    @Transactional
+    public void liberar(String placa, UUID token) {
+        long vehiculoId = idVehiculo(placa);
+        if (retencionRepository.liberar(vehiculoId, token, Instant.now()) > 0) {
+            despuesDelCommit(() -> quitar(vehiculoId, token));
+            liberadas.increment();
+        }
+    }
+
+    /**
+     * Verifica, dentro de la transacción de asignación, que el vehículo pueda asignarse: sin retención
+     * vigente o con el token de la retención, que queda consumida al confirmar.
+     */
+    public void validarAsignacion(long vehiculoId, String placa, UUID token) {
+        Instant ahora = Instant.now();
+        if (token == null) {
+            if (retencionRepository.existeVigente(vehiculoId, ahora)) {
+                conflictos.increment();
+                throw new ConflictoException("El vehículo " + placa + " está retenido por una oferta pendiente");
+            }
+            return;
+        }
+        if (retencionRepository.liberar(vehiculoId, token, ahora) == 0) {
+            conflictos.increment();
+            throw new ConflictoException("La retención del vehículo " + placa + " no existe o ya venció");
+        }
+        despuesDelCommit(() -> quitar(vehiculoId, token));
+        consumidas.increment();
+    }
+
+    /**
+     * Consulta solo memoria; una retención vencida que la rueda aún no procesó ya no cuenta.
+     */
+    public boolean estaRetenido(long vehiculoId) {
+        Retencion retencion = vigentes.get(vehiculoId);
+        return retencion != null && retencion.expiraEnMs() > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedRateString = "${fleet.retenciones.tick-ms:100}")
+    public void vencer() {
+        List<Retencion> vencidas = rueda.avanzar(System.currentTimeMillis());
+        int total = 0;
+        for (Retencion retencion : vencidas) {
+            if (vigentes.remove(retencion.vehiculoId(), retencion)) {
+                indice.actualizarRetencion(retencion.vehiculoId(), false);
+                total++;
+            }
+        }
+        if (total > 0) {
+            expiradas.add(total);
+            retencionRepository.eliminarVencidas(Instant.now());
+        }
+    }
+
+    public RetencionMetricasResponse metricas() {
+        return RetencionMetricasResponse.builder()
+                .activas(vigentes.size())
+                .programadasEnRueda(rueda.pendientes())
+                .adquiridas(adquiridas.sum())
+                .renovadas(renovadas.sum())
+                .liberadas(liberadas.sum())
+                .consumidas(consumidas.sum())
+                .expiradas(expiradas.sum())
+                .conflictos(conflictos.sum())
+                .build();
+    }
+
+    private void registrar(Retencion retencion) {
+        vigentes.put(retencion.vehiculoId(), retencion);
+        indice.actualizarRetencion(retencion.vehiculoId(), true);
+        rueda.programar(retencion, retencion.expiraEnMs());
+    }
+
+    private void quitar(long vehiculoId, UUID token) {
+        Retencion actual = vigentes.get(vehiculoId);
+        if (actual != null && actual.token().equals(token) && vigentes.remove(vehiculoId, actual)) {
+            indice.actualizarRetencion(vehiculoId, false);
+        }
+    }
+
+    private long idVehiculo(String placa) {
+        return vehiculoRepository.findIdByPlaca(placa)
+                .orElseThrow(() -> new RuntimeException("Vehículo no encontrado"));
+    }
+
+    private long ttl(Long ttlSegundos) {
+        long ttl = ttlSegundos != null ? ttlSegundos : ttlPorDefectoSegundos;
+        if (ttl < 1 || ttl > ttlMaximoSegundos) {
+            throw new RuntimeException("El TTL debe estar entre 1 y " + ttlMaximoSegundos + " segundos");
+        }
+        return ttl;
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private static Instant instante(Object valor) {
+        if (valor instanceof Instant instant) {
+            return instant;
+        }
+        if (valor instanceof OffsetDateTime fecha) {
+            return fecha.toInstant();
+        }
+        return ((Timestamp) valor).toInstant();
+    }
+
+    private static RetencionResponse respuesta(Retencion retencion) {
+        return RetencionResponse.builder()
+                .vehiculoId(retencion.vehiculoId())
+                .placa(retencion.placa())
+                .token(retencion.token())
+                .titular(retencion.titular())
+                .expiraEn(Instant.ofEpochMilli(retencion.expiraEnMs()))
+                .build();
+    }
+}
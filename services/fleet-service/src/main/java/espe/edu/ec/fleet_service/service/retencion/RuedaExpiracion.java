@@ -0,0 +1,75 @@
+package espe.edu.ec.fleet_service.service.retencion;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rueda de temporización con ranuras de {@code tickMs}: programar y vencer cuestan O(1) por elemento.
+ *
+ * Cada elemento se coloca en la ranura de su tick de vencimiento; al avanzar, solo se recorre la ranura
+ * del tick actual y se devuelven los elementos cuyo tick ya llegó (los de vueltas posteriores se quedan).
+ * Reprogramar no busca la entrada anterior: el consumidor descarta las que ya no corresponden.
+ */
+final class RuedaExpiracion<T> {
+
+    private record Programado<T>(long tick, T elemento) {
+    }
+
+    private final long tickMs;
+    private final int mascara;
+    private final Queue<Programado<T>>[] ranuras;
+    private volatile long tickActual;
+
+    @SuppressWarnings("unchecked")
+    RuedaExpiracion(long tickMs, int ranuras, long ahoraMs) {
+        int tamano = Integer.highestOneBit(Math.max(2, ranuras) - 1) << 1;
+        this.tickMs = tickMs;
+        this.mascara = tamano - 1;
+        this.ranuras = new Queue[tamano];
+        for (int i = 0; i < tamano; i++) {
+            this.ranuras[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickActual = ahoraMs / tickMs;
+    }
+
+    /**
+     * Programa el elemento para {@code venceEnMs}. Nunca cae en una ranura ya recorrida: como mínimo
+     * se coloca dos ticks por delante, así que puede vencer hasta {@code 2 * tickMs} tarde.
+     */
+    void programar(T elemento, long venceEnMs) {
+        long tick = Math.max((venceEnMs + tickMs - 1) / tickMs, tickActual + 2);
+        ranuras[(int) (tick & mascara)].add(new Programado<>(tick, elemento));
+    }
+
+    /**
+     * Avanza hasta {@code ahoraMs} y devuelve los elementos vencidos. Solo debe llamarlo un hilo.
+     */
+    List<T> avanzar(long ahoraMs) {
+        long objetivo = ahoraMs / tickMs;
+        List<T> vencidos = new ArrayList<>();
+        while (tickActual < objetivo) {
+            long tick = tickActual + 1;
+            Iterator<Programado<T>> iterador = ranuras[(int) (tick & mascara)].iterator();
+            while (iterador.hasNext()) {
+                Programado<T> programado = iterador.next();
+                if (programado.tick() <= tick) {
+                    vencidos.add(programado.elemento());
+                    iterador.remove();
+                }
+            }
+            tickActual = tick;
+        }
+        return vencidos;
+    }
+
+    int pendientes() {
+        int total = 0;
+        for (Queue<Programado<T>> ranura : ranuras) {
+            total += ranura.size();
+        }
+        return total;
+    }
+}
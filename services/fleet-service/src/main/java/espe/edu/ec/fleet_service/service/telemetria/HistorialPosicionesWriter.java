@@ -0,0 +1,113 @@
+package espe.edu.ec.fleet_service.service.telemetria;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persiste el historial de posiciones fuera del hilo de la petición.
+ *
+ * Las muestras se encolan en una cola acotada y un único escritor las vacía periódicamente con
+ * inserciones JDBC por lotes (el driver las reescribe como INSERT multi-fila). Si la cola se llena,
+ * las muestras nuevas se descartan y se cuentan: la posición actual en memoria no se ve afectada.
+ */
+@Component
+@Slf4j
+public class HistorialPosicionesWriter {
+
+    private static final String INSERT = "INSERT INTO posicion_historica "
+            + "(vehiculo_id, latitud, longitud, velocidad, registrado_en) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PosicionVehiculo> cola;
+    private final int tamanoLote;
+
+    private final LongAdder encoladas = new LongAdder();
+    private final LongAdder persistidas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+
+    public HistorialPosicionesWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${fleet.telemetria.historial.cola-capacidad:500000}") int capacidad,
+            @Value("${fleet.telemetria.historial.tamano-lote:5000}") int tamanoLote
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.tamanoLote = tamanoLote;
+    }
+
+    public void encolar(PosicionVehiculo posicion) {
+        if (cola.offer(posicion)) {
+            encoladas.increment();
+        } else {
+            descartadas.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fleet.telemetria.historial.escritura-ms:500}")
+    public void drenar() {
+        List<PosicionVehiculo> lote = new ArrayList<>(tamanoLote);
+        while (cola.drainTo(lote, tamanoLote) > 0) {
+            escribir(lote);
+            if (lote.size() < tamanoLote) {
+                return;
+            }
+            lote.clear();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        drenar();
+    }
+
+    public long encoladas() {
+        return encoladas.sum();
+    }
+
+    public long persistidas() {
+        return persistidas.sum();
+    }
+
+    public long descartadas() {
+        return descartadas.sum();
+    }
+
+    public long pendientes() {
+        return cola.size();
+    }
+
+    public long lotes() {
+        return lotes.sum();
+    }
+
+    private void escribir(List<PosicionVehiculo> lote) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT, lote, lote.size(), (ps, posicion) -> {
+                ps.setLong(1, posicion.vehiculoId());
+                ps.setDouble(2, posicion.lat());
+                ps.setDouble(3, posicion.lon());
+                ps.setDouble(4, posicion.velocidad());
+                ps.setObject(5, OffsetDateTime.ofInstant(Instant.ofEpochMilli(posicion.timestampMs()), ZoneOffset.UTC));
+            });
+            persistidas.add(lote.size());
+            lotes.increment();
+        } catch (RuntimeException e) {
+            descartadas.add(lote.size());
+            log.warn("No se pudo guardar un lote de {} posiciones: {}", lote.size(), e.getMessage());
+        }
+    }
+}
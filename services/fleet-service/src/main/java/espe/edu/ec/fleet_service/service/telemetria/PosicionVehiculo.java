@@ -0,0 +1,7 @@
+package espe.edu.ec.fleet_service.service.telemetria;
+
+/**
+ * Posición GPS ya validada de un vehículo; inmutable para poder publicarse sin candados.
+ */
+public record PosicionVehiculo(long vehiculoId, double lat, double lon, double velocidad, long timestampMs) {
+}
@@ -0,0 +1,261 @@
+package espe.edu.ec.fleet_service.service.telemetria;
+
+import espe.edu.ec.fleet_service.dto.PosicionActualResponse;
+import espe.edu.ec.fleet_service.dto.PosicionPing;
+import espe.edu.ec.fleet_service.dto.TelemetriaLoteResponse;
+import espe.edu.ec.fleet_service.dto.TelemetriaMetricasResponse;
+import espe.edu.ec.fleet_service.event.VehiculoCambiadoEvent;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import espe.edu.ec.fleet_service.service.geocerca.MotorGeocercas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingesta de telemetría GPS por lotes.
+ *
+ * Un lote se procesa completo en memoria: cada ping se valida, se resuelve su vehículo con un mapa
+ * placa/id precargado, actualiza la última posición y el índice espacial y se evalúa contra las
+ * geocercas. Solo una muestra por vehículo y intervalo pasa al historial, que se escribe de forma
+ * asíncrona; ningún ping abre una transacción JPA.
+ */
+@Service
+@Slf4j
+public class TelemetriaService {
+
+    private static final int MAX_ERRORES_REPORTADOS = 100;
+    private static final long TOLERANCIA_FUTURO_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final long TTL_DESCONOCIDO_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final double VELOCIDAD_MAXIMA = 400;
+
+    private final VehiculoRepository vehiculoRepository;
+    private final UltimasPosiciones ultimasPosiciones;
+    private final HistorialPosicionesWriter historialWriter;
+    private final IndiceVehiculosDisponibles indice;
+    private final MotorGeocercas motorGeocercas;
+    private final int maxLote;
+    private final long intervaloMuestreoMs;
+
+    private final Map<String, Long> idPorPlaca = new ConcurrentHashMap<>();
+    private final Map<Long, String> placaPorId = new ConcurrentHashMap<>();
+    private final Map<Object, Long> desconocidos = new ConcurrentHashMap<>();
+
+    private final LongAdder recibidos = new LongAdder();
+    private final LongAdder aceptados = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+
+    public TelemetriaService(
+            VehiculoRepository vehiculoRepository,
+            UltimasPosiciones ultimasPosiciones,
+            HistorialPosicionesWriter historialWriter,
+            IndiceVehiculosDisponibles indice,
+            MotorGeocercas motorGeocercas,
+            @Value("${fleet.telemetria.max-lote:10000}") int maxLote,
+            @Value("${fleet.telemetria.intervalo-muestreo-ms:10000}") long intervaloMuestreoMs
+    ) {
+        this.vehiculoRepository = vehiculoRepository;
+        this.ultimasPosiciones = ultimasPosiciones;
+        this.historialWriter = historialWriter;
+        this.indice = indice;
+        this.motorGeocercas = motorGeocercas;
+        this.maxLote = maxLote;
+        this.intervaloMuestreoMs = intervaloMuestreoMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarVehiculos() {
+        for (Object[] fila : vehiculoRepository.findIdsYPlacas()) {
+            recordar((Long) fila[0], (String) fila[1]);
+        }
+        log.info("Telemetría: {} vehículos cargados", placaPorId.size());
+    }
+
+    @TransactionalEventListener
+    public void onVehiculoCambiado(VehiculoCambiadoEvent event) {
+        recordar(event.id(), event.placa());
+        desconocidos.remove(event.placa());
+        desconocidos.remove(event.id());
+    }
+
+    public TelemetriaLoteResponse registrarLote(List<PosicionPing> pings) {
+        if (pings == null || pings.isEmpty()) {
+            throw new RuntimeException("El lote de telemetría está vacío");
+        }
+        if (pings.size() > maxLote) {
+            throw new RuntimeException("El lote de telemetría excede el máximo de " + maxLote + " posiciones");
+        }
+
+        long ahora = System.currentTimeMillis();
+        List<TelemetriaLoteResponse.ErrorPing> errores = new ArrayList<>();
+        int aceptadosLote = 0;
+        for (int i = 0; i < pings.size(); i++) {
+            PosicionPing ping = pings.get(i);
+            String motivo = validar(ping, ahora);
+            Long vehiculoId = motivo == null ? resolverVehiculo(ping) : null;
+            if (motivo == null && vehiculoId == null) {
+                motivo = "Vehículo no encontrado";
+            }
+            if (motivo != null) {
+                if (errores.size() < MAX_ERRORES_REPORTADOS) {
+                    errores.add(new TelemetriaLoteResponse.ErrorPing(i, motivo));
+                }
+                continue;
+            }
+            registrar(new PosicionVehiculo(
+                    vehiculoId,
+                    ping.getLat(),
+                    ping.getLon(),
+                    ping.getVelocidad() != null ? ping.getVelocidad() : 0,
+                    ping.getTimestamp().toEpochMilli()
+            ));
+            aceptadosLote++;
+        }
+
+        int rechazadosLote = pings.size() - aceptadosLote;
+        recibidos.add(pings.size());
+        aceptados.add(aceptadosLote);
+        rechazados.add(rechazadosLote);
+
+        return TelemetriaLoteResponse.builder()
+                .recibidos(pings.size())
+                .aceptados(aceptadosLote)
+                .rechazados(rechazadosLote)
+                .errores(errores)
+                .build();
+    }
+
+    public PosicionActualResponse obtenerPosicion(String placa) {
+        Long vehiculoId = resolverPlaca(placa);
+        if (vehiculoId == null) {
+            throw new RuntimeException("Vehículo no encontrado");
+        }
+        PosicionVehiculo posicion = ultimasPosiciones.obtener(vehiculoId)
+                .orElseThrow(() -> new RuntimeException("Sin posición registrada para el vehículo: " + placa));
+        return PosicionActualResponse.builder()
+                .vehiculoId(vehiculoId)
+                .placa(placa)
+                .lat(posicion.lat())
+                .lon(posicion.lon())
+                .velocidad(posicion.velocidad())
+                .timestamp(Instant.ofEpochMilli(posicion.timestampMs()))
+                .build();
+    }
+
+    public TelemetriaMetricasResponse metricas() {
+        return TelemetriaMetricasResponse.builder()
+                .pingsRecibidos(recibidos.sum())
+                .pingsAceptados(aceptados.sum())
+                .pingsRechazados(rechazados.sum())
+                .vehiculosConPosicion(ultimasPosiciones.vehiculos())
+                .historialEncolado(historialWriter.encoladas())
+                .historialPersistido(historialWriter.persistidas())
+                .historialDescartado(historialWriter.descartadas())
+                .historialPendiente(historialWriter.pendientes())
+                .lotesEscritos(historialWriter.lotes())
+                .build();
+    }
+
+    private void registrar(PosicionVehiculo posicion) {
+        UltimasPosiciones.Registro registro = ultimasPosiciones.registro(posicion.vehiculoId());
+        if (registro.actualizar(posicion)) {
+            indice.actualizarPosicion(posicion.vehiculoId(), posicion.lat(), posicion.lon());
+            motorGeocercas.evaluar(posicion.vehiculoId(), posicion.lat(), posicion.lon(), posicion.timestampMs());
+        }
+        if (registro.muestrear(posicion.timestampMs(), intervaloMuestreoMs)) {
+            historialWriter.encolar(posicion);
+        }
+    }
+
+    private static String validar(PosicionPing ping, long ahora) {
+        if (ping == null) {
+            return "Posición vacía";
+        }
+        if (ping.getPlaca() == null && ping.getVehiculoId() == null) {
+            return "Debe indicar placa o vehiculoId";
+        }
+        if (ping.getLat() == null || ping.getLat() < -90 || ping.getLat() > 90) {
+            return "Latitud fuera de rango";
+        }
+        if (ping.getLon() == null || ping.getLon() < -180 || ping.getLon() > 180) {
+            return "Longitud fuera de rango";
+        }
+        if (ping.getVelocidad() != null && (ping.getVelocidad() < 0 || ping.getVelocidad() > VELOCIDAD_MAXIMA)) {
+            return "Velocidad fuera de rango";
+        }
+        if (ping.getTimestamp() == null) {
+            return "El timestamp es obligatorio";
+        }
+        if (ping.getTimestamp().toEpochMilli() > ahora + TOLERANCIA_FUTURO_MS) {
+            return "El timestamp está en el futuro";
+        }
+        return null;
+    }
+
+    private Long resolverVehiculo(PosicionPing ping) {
+        if (ping.getVehiculoId() != null) {
+            return resolverId(ping.getVehiculoId());
+        }
+        return resolverPlaca(ping.getPlaca());
+    }
+
+    private Long resolverPlaca(String placa) {
+        Long id = idPorPlaca.get(placa);
+        if (id != null || esDesconocido(placa)) {
+            return id;
+        }
+        return vehiculoRepository.findIdByPlaca(placa)
+                .map(encontrado -> recordar(encontrado, placa))
+                .orElseGet(() -> marcarDesconocido(placa));
+    }
+
+    private Long resolverId(Long vehiculoId) {
+        if (placaPorId.containsKey(vehiculoId)) {
+            return vehiculoId;
+        }
+        if (esDesconocido(vehiculoId)) {
+            return null;
+        }
+        return vehiculoRepository.findPlacaById(vehiculoId)
+                .map(placa -> recordar(vehiculoId, placa))
+                .orElseGet(() -> marcarDesconocido(vehiculoId));
+    }
+
+    private Long recordar(Long id, String placa) {
+        idPorPlaca.put(placa, id);
+        placaPorId.put(id, placa);
+        return id;
+    }
+
+    /**
+     * Los identificadores desconocidos se recuerdan un tiempo para que un dispositivo mal configurado
+     * no genere una consulta por ping.
+     */
+    private Long marcarDesconocido(Object clave) {
+        desconocidos.put(clave, System.nanoTime() + TTL_DESCONOCIDO_NANOS);
+        return null;
+    }
+
+    private boolean esDesconocido(Object clave) {
+        Long expira = desconocidos.get(clave);
+        if (expira == null) {
+            return false;
+        }
+        if (expira - System.nanoTime() > 0) {
+            return true;
+        }
+        desconocidos.remove(clave, expira);
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package espe.edu.ec.fleet_service.service.telemetria;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Última posición conocida de cada vehículo.
+ *
+ * Cada vehículo tiene un registro con una {@link AtomicReference} que solo avanza con CAS si la lectura
+ * es más reciente que la guardada, así que los pings desordenados o concurrentes del mismo vehículo
+ * nunca retroceden la posición y las lecturas no toman candados.
+ */
+@Component
+public class UltimasPosiciones {
+
+    private final ConcurrentHashMap<Long, Registro> registros = new ConcurrentHashMap<>();
+
+    Registro registro(long vehiculoId) {
+        Registro registro = registros.get(vehiculoId);
+        return registro != null ? registro : registros.computeIfAbsent(vehiculoId, id -> new Registro());
+    }
+
+    public Optional<PosicionVehiculo> obtener(long vehiculoId) {
+        Registro registro = registros.get(vehiculoId);
+        return registro != null ? Optional.ofNullable(registro.ultima.get()) : Optional.empty();
+    }
+
+    public int vehiculos() {
+        return registros.size();
+    }
+
+    static final class Registro {
+        private final AtomicReference<PosicionVehiculo> ultima = new AtomicReference<>();
+        private final AtomicLong ultimaMuestraMs = new AtomicLong();
+
+        /**
+         * Publica la posición si es más reciente que la actual; devuelve si la reemplazó.
+         */
+        boolean actualizar(PosicionVehiculo posicion) {
+            while (true) {
+                PosicionVehiculo actual = ultima.get();
+                if (actual != null && actual.timestampMs() >= posicion.timestampMs()) {
+                    return false;
+                }
+                if (ultima.compareAndSet(actual, posicion)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Reserva la muestra del historial si pasó al menos {@code intervaloMs} desde la última guardada.
+         * Solo un hilo gana la reserva para un mismo intervalo.
+         */
+        boolean muestrear(long timestampMs, long intervaloMs) {
+            while (true) {
+                long anterior = ultimaMuestraMs.get();
+                if (timestampMs - anterior < intervaloMs) {
+                    return false;
+                }
+                if (ultimaMuestraMs.compareAndSet(anterior, timestampMs)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
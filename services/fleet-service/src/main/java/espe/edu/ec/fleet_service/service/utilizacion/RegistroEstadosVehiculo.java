@@ -0,0 +1,196 @@
+package espe.edu.ec.fleet_service.service.utilizacion;
+
+import espe.edu.ec.fleet_service.event.VehiculoCambiadoEvent;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.repository.EstadoVehiculoVigenteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registra cada cambio de estado de un vehículo y mantiene el tiempo por día y estado.
+ *
+ * Escucha {@link VehiculoCambiadoEvent} dentro de la transacción que lo publica y acumula las
+ * transiciones hasta justo antes del commit; entonces bloquea los estados vigentes de esos vehículos,
+ * cierra el intervalo de cada estado anterior sumándolo a {@code uso_diario_vehiculo} y añade el
+ * historial, todo con lotes JDBC. Así el historial y los agregados se confirman o se descartan junto
+ * con el cambio, y una reserva masiva cuesta unas pocas sentencias en lugar de varias por vehículo.
+ */
+@Component
+@Slf4j
+public class RegistroEstadosVehiculo {
+
+    private static final String BLOQUEAR_VIGENTES = "SELECT vehiculo_id, estado, desde FROM estado_vehiculo_vigente "
+            + "WHERE vehiculo_id = ANY (?) FOR UPDATE";
+
+    private static final String INSERTAR_HISTORIAL = "INSERT INTO historial_estado_vehiculo "
+            + "(vehiculo_id, estado_anterior, estado_nuevo, ocurrido_en) VALUES (?, ?, ?, ?)";
+
+    private static final String FIJAR_VIGENTE = "INSERT INTO estado_vehiculo_vigente (vehiculo_id, estado, desde) "
+            + "VALUES (?, ?, ?) ON CONFLICT (vehiculo_id) DO UPDATE SET estado = EXCLUDED.estado, desde = EXCLUDED.desde";
+
+    private static final String SUMAR_USO = "INSERT INTO uso_diario_vehiculo (vehiculo_id, dia, estado, milisegundos) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (vehiculo_id, dia, estado) "
+            + "DO UPDATE SET milisegundos = uso_diario_vehiculo.milisegundos + EXCLUDED.milisegundos";
+
+    private record Transicion(long vehiculoId, EstadoVehiculo estado, Instant ocurrida) {
+    }
+
+    private record Vigente(EstadoVehiculo estado, Instant desde) {
+    }
+
+    private record Cambio(long vehiculoId, EstadoVehiculo anterior, EstadoVehiculo nuevo, Instant ocurrido) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EstadoVehiculoVigenteRepository vigenteRepository;
+    private final ZoneId zona;
+
+    public RegistroEstadosVehiculo(
+            JdbcTemplate jdbcTemplate,
+            EstadoVehiculoVigenteRepository vigenteRepository,
+            @Value("${fleet.utilizacion.zona-horaria:America/Guayaquil}") ZoneId zona
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.vigenteRepository = vigenteRepository;
+        this.zona = zona;
+    }
+
+    @EventListener
+    public void onVehiculoCambiado(VehiculoCambiadoEvent event) {
+        if (event.id() == null || event.estado() == null) {
+            return;
+        }
+        Transicion transicion = new Transicion(event.id(), event.estado(), Instant.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registrar(List.of(transicion));
+            return;
+        }
+        Pendientes pendientes = (Pendientes) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new Pendientes();
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+            TransactionSynchronizationManager.registerSynchronization(pendientes);
+        }
+        pendientes.transiciones.add(transicion);
+    }
+
+    /**
+     * Los vehículos que ya existían antes del seguimiento empiezan a contabilizarse al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void sembrar() {
+        int sembrados = vigenteRepository.sembrar(Instant.now());
+        log.info("Utilización: {} vehículos empiezan a seguirse", sembrados);
+    }
+
+    private void registrar(List<Transicion> transiciones) {
+        Map<Long, Vigente> vigentes = bloquearVigentes(transiciones);
+
+        List<Cambio> cambios = new ArrayList<>();
+        Map<Long, Vigente> nuevosVigentes = new LinkedHashMap<>();
+        TiempoPorDia uso = new TiempoPorDia(zona);
+        for (Transicion transicion : transiciones) {
+            Vigente previo = vigentes.get(transicion.vehiculoId());
+            if (previo != null && previo.estado() == transicion.estado()) {
+                continue;
+            }
+            // Con relojes de transacciones concurrentes el instante nunca retrocede respecto al estado previo.
+            Instant ocurrida = previo != null && transicion.ocurrida().isBefore(previo.desde())
+                    ? previo.desde()
+                    : transicion.ocurrida();
+            if (previo != null) {
+                uso.sumar(transicion.vehiculoId(), previo.estado(), previo.desde(), ocurrida);
+            }
+            Vigente nuevo = new Vigente(transicion.estado(), ocurrida);
+            vigentes.put(transicion.vehiculoId(), nuevo);
+            nuevosVigentes.put(transicion.vehiculoId(), nuevo);
+            cambios.add(new Cambio(transicion.vehiculoId(), previo != null ? previo.estado() : null,
+                    transicion.estado(), ocurrida));
+        }
+        if (cambios.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERTAR_HISTORIAL, cambios, cambios.size(), (ps, cambio) -> {
+            ps.setLong(1, cambio.vehiculoId());
+            if (cambio.anterior() != null) {
+                ps.setString(2, cambio.anterior().name());
+            } else {
+                ps.setNull(2, Types.VARCHAR);
+            }
+            ps.setString(3, cambio.nuevo().name());
+            ps.setObject(4, utc(cambio.ocurrido()));
+        });
+        List<Map.Entry<Long, Vigente>> vigentesFijados = new ArrayList<>(nuevosVigentes.entrySet());
+        jdbcTemplate.batchUpdate(FIJAR_VIGENTE, vigentesFijados, vigentesFijados.size(), (ps, vigente) -> {
+            ps.setLong(1, vigente.getKey());
+            ps.setString(2, vigente.getValue().estado().name());
+            ps.setObject(3, utc(vigente.getValue().desde()));
+        });
+        List<Map.Entry<TiempoPorDia.Clave, Long>> sumas = new ArrayList<>(uso.milisegundos().entrySet());
+        if (!sumas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SUMAR_USO, sumas, sumas.size(), (ps, suma) -> {
+                ps.setLong(1, suma.getKey().vehiculoId());
+                ps.setObject(2, suma.getKey().dia());
+                ps.setString(3, suma.getKey().estado().name());
+                ps.setLong(4, suma.getValue());
+            });
+        }
+        log.debug("Utilización: {} transiciones registradas, {} filas de uso diario", cambios.size(), sumas.size());
+    }
+
+    /**
+     * Bloquea en una sola consulta los estados vigentes de los vehículos afectados, de modo que dos
+     * transacciones sobre el mismo vehículo cierran su intervalo una después de la otra.
+     */
+    private Map<Long, Vigente> bloquearVigentes(List<Transicion> transiciones) {
+        Long[] ids = transiciones.stream().map(Transicion::vehiculoId).distinct().toArray(Long[]::new);
+        Map<Long, Vigente> vigentes = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BLOQUEAR_VIGENTES);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, rs -> {
+            vigentes.put(rs.getLong(1), new Vigente(
+                    EstadoVehiculo.valueOf(rs.getString(2)),
+                    rs.getObject(3, OffsetDateTime.class).toInstant()));
+        });
+        return vigentes;
+    }
+
+    private static OffsetDateTime utc(Instant instante) {
+        return OffsetDateTime.ofInstant(instante, ZoneOffset.UTC);
+    }
+
+    private final class Pendientes implements TransactionSynchronization {
+        private final List<Transicion> transiciones = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            registrar(transiciones);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RegistroEstadosVehiculo.this);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package espe.edu.ec.fleet_service.service.utilizacion;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Acumula intervalos de estado repartidos por (vehículo, día, estado) en una zona horaria.
+ */
+public final class TiempoPorDia {
+
+    public record Clave(long vehiculoId, LocalDate dia, EstadoVehiculo estado) {
+    }
+
+    private final ZoneId zona;
+    private final Map<Clave, Long> milisegundos = new LinkedHashMap<>();
+
+    public TiempoPorDia(ZoneId zona) {
+        this.zona = zona;
+    }
+
+    /**
+     * Suma el intervalo [inicio, fin) cortándolo en la medianoche de cada día que abarca; un intervalo
+     * vacío o invertido no suma nada.
+     */
+    public void sumar(long vehiculoId, EstadoVehiculo estado, Instant inicio, Instant fin) {
+        Instant actual = inicio;
+        while (actual.isBefore(fin)) {
+            LocalDate dia = LocalDate.ofInstant(actual, zona);
+            Instant finDelDia = dia.plusDays(1).atStartOfDay(zona).toInstant();
+            Instant corte = finDelDia.isBefore(fin) ? finDelDia : fin;
+            milisegundos.merge(new Clave(vehiculoId, dia, estado), Duration.between(actual, corte).toMillis(), Long::sum);
+            actual = corte;
+        }
+    }
+
+    public Map<Clave, Long> milisegundos() {
+        return milisegundos;
+    }
+}
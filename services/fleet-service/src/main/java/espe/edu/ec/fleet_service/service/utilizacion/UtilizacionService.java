@@ -0,0 +1,178 @@
+package espe.edu.ec.fleet_service.service.utilizacion;
+
+import espe.edu.ec.fleet_service.dto.CursorPageResponse;
+import espe.edu.ec.fleet_service.dto.UtilizacionDiariaResponse;
+import espe.edu.ec.fleet_service.dto.UtilizacionVehiculoResponse;
+import espe.edu.ec.fleet_service.dto.VehiculoResumenResponse;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.model.EstadoVehiculoVigente;
+import espe.edu.ec.fleet_service.model.UsoDiarioVehiculo;
+import espe.edu.ec.fleet_service.repository.EstadoVehiculoVigenteRepository;
+import espe.edu.ec.fleet_service.repository.UsoDiarioVehiculoRepository;
+import espe.edu.ec.fleet_service.service.FleetService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reportes de utilización leídos de los agregados diarios; el intervalo aún abierto de cada vehículo
+ * (su estado vigente hasta ahora) se añade al vuelo.
+ */
+@Service
+public class UtilizacionService {
+
+    public static final int MAX_DIAS = 366;
+
+    private static final EstadoVehiculo[] ESTADOS = EstadoVehiculo.values();
+
+    private final FleetService fleetService;
+    private final UsoDiarioVehiculoRepository usoRepository;
+    private final EstadoVehiculoVigenteRepository vigenteRepository;
+    private final ZoneId zona;
+
+    public UtilizacionService(
+            FleetService fleetService,
+            UsoDiarioVehiculoRepository usoRepository,
+            EstadoVehiculoVigenteRepository vigenteRepository,
+            @Value("${fleet.utilizacion.zona-horaria:America/Guayaquil}") ZoneId zona
+    ) {
+        this.fleetService = fleetService;
+        this.usoRepository = usoRepository;
+        this.vigenteRepository = vigenteRepository;
+        this.zona = zona;
+    }
+
+    /**
+     * Utilización por vehículo en [desde, hasta], paginada con el mismo cursor que el listado resumido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UtilizacionVehiculoResponse> reporteFlota(
+            LocalDate desde, LocalDate hasta, String tipo, String cursor, int size) {
+        validarRango(desde, hasta);
+        CursorPageResponse<VehiculoResumenResponse> vehiculos = fleetService.listarVehiculosResumen(tipo, null, cursor, size);
+        List<Long> ids = vehiculos.getItems().stream().map(VehiculoResumenResponse::getId).toList();
+
+        Map<Long, long[]> porVehiculo = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] fila : usoRepository.sumarPorVehiculoYEstado(ids, desde, hasta)) {
+                celdas(porVehiculo, (Long) fila[0])[((EstadoVehiculo) fila[1]).ordinal()] += ((Number) fila[2]).longValue();
+            }
+            intervalosAbiertos(ids, desde, hasta).milisegundos().forEach((clave, milisegundos) ->
+                    celdas(porVehiculo, clave.vehiculoId())[clave.estado().ordinal()] += milisegundos);
+        }
+
+        List<UtilizacionVehiculoResponse> items = new ArrayList<>(ids.size());
+        for (VehiculoResumenResponse vehiculo : vehiculos.getItems()) {
+            long[] milisegundos = porVehiculo.getOrDefault(vehiculo.getId(), new long[ESTADOS.length]);
+            items.add(UtilizacionVehiculoResponse.builder()
+                    .vehiculoId(vehiculo.getId())
+                    .placa(vehiculo.getPlaca())
+                    .tipoVehiculo(vehiculo.getTipoVehiculo())
+                    .estado(vehiculo.getEstado())
+                    .milisegundosRegistrados(total(milisegundos))
+                    .milisegundosPorEstado(porEstado(milisegundos))
+                    .fraccionPorEstado(fracciones(milisegundos))
+                    .build());
+        }
+
+        return CursorPageResponse.<UtilizacionVehiculoResponse>builder()
+                .items(items)
+                .size(items.size())
+                .hasNext(vehiculos.isHasNext())
+                .nextCursor(vehiculos.getNextCursor())
+                .build();
+    }
+
+    /**
+     * Desglose día a día de un vehículo; los días sin registro aparecen con cero.
+     */
+    @Transactional(readOnly = true)
+    public List<UtilizacionDiariaResponse> reporteVehiculo(String placa, LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        Long vehiculoId = fleetService.buscarVehiculoPorPlaca(placa).getId();
+
+        Map<LocalDate, long[]> porDia = new HashMap<>();
+        for (UsoDiarioVehiculo uso : usoRepository.findByVehiculoIdAndDiaBetween(vehiculoId, desde, hasta)) {
+            celdas(porDia, uso.getDia())[uso.getEstado().ordinal()] += uso.getMilisegundos();
+        }
+        intervalosAbiertos(List.of(vehiculoId), desde, hasta).milisegundos().forEach((clave, milisegundos) ->
+                celdas(porDia, clave.dia())[clave.estado().ordinal()] += milisegundos);
+
+        List<UtilizacionDiariaResponse> dias = new ArrayList<>();
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            long[] milisegundos = porDia.getOrDefault(dia, new long[ESTADOS.length]);
+            dias.add(UtilizacionDiariaResponse.builder()
+                    .dia(dia)
+                    .milisegundosRegistrados(total(milisegundos))
+                    .milisegundosPorEstado(porEstado(milisegundos))
+                    .fraccionPorEstado(fracciones(milisegundos))
+                    .build());
+        }
+        return dias;
+    }
+
+    /**
+     * Tiempo del estado vigente de cada vehículo recortado al rango y al instante actual.
+     */
+    private TiempoPorDia intervalosAbiertos(List<Long> ids, LocalDate desde, LocalDate hasta) {
+        Instant inicioRango = desde.atStartOfDay(zona).toInstant();
+        Instant finRango = hasta.plusDays(1).atStartOfDay(zona).toInstant();
+        Instant ahora = Instant.now();
+        Instant fin = ahora.isBefore(finRango) ? ahora : finRango;
+
+        TiempoPorDia abiertos = new TiempoPorDia(zona);
+        for (EstadoVehiculoVigente vigente : vigenteRepository.findAllById(ids)) {
+            Instant inicio = vigente.getDesde().isAfter(inicioRango) ? vigente.getDesde() : inicioRango;
+            abiertos.sumar(vigente.getVehiculoId(), vigente.getEstado(), inicio, fin);
+        }
+        return abiertos;
+    }
+
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new RuntimeException("El rango de fechas es inválido");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS) {
+            throw new RuntimeException("El rango no puede superar " + MAX_DIAS + " días");
+        }
+    }
+
+    private static <K> long[] celdas(Map<K, long[]> mapa, K clave) {
+        return mapa.computeIfAbsent(clave, k -> new long[ESTADOS.length]);
+    }
+
+    private static long total(long[] milisegundos) {
+        long total = 0;
+        for (long valor : milisegundos) {
+            total += valor;
+        }
+        return total;
+    }
+
+    private static Map<EstadoVehiculo, Long> porEstado(long[] milisegundos) {
+        Map<EstadoVehiculo, Long> porEstado = new EnumMap<>(EstadoVehiculo.class);
+        for (EstadoVehiculo estado : ESTADOS) {
+            porEstado.put(estado, milisegundos[estado.ordinal()]);
+        }
+        return porEstado;
+    }
+
+    private static Map<EstadoVehiculo, Double> fracciones(long[] milisegundos) {
+        long total = total(milisegundos);
+        Map<EstadoVehiculo, Double> fracciones = new EnumMap<>(EstadoVehiculo.class);
+        for (EstadoVehiculo estado : ESTADOS) {
+            fracciones.put(estado, total > 0 ? (double) milisegundos[estado.ordinal()] / total : 0.0);
+        }
+        return fracciones;
+    }
+}
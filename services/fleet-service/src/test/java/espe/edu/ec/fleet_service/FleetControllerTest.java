@@ -46,7 +46,7 @@ public class FleetControllerTest {
         moto.setPlaca("ABC");
         rep.setVehiculo(moto);
 
-        when(fleetService.asignarVehiculo(1L, "ABC")).thenReturn(rep);
+        when(fleetService.asignarVehiculo(1L, "ABC", null)).thenReturn(rep);
 
         mockMvc.perform(put("/fleet/repartidores/1/asignar-vehiculo")
                         .param("placa", "ABC"))
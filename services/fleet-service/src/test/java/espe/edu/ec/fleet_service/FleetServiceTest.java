@@ -1,5 +1,9 @@
 package espe.edu.ec.fleet_service;
 
+import espe.edu.ec.fleet_service.dto.CursorPageResponse;
+import espe.edu.ec.fleet_service.dto.TransicionVehiculoResponse;
+import espe.edu.ec.fleet_service.dto.VehiculoResumenResponse;
+import espe.edu.ec.fleet_service.exception.ConflictoException;
 import espe.edu.ec.fleet_service.model.EstadoVehiculo;
 import espe.edu.ec.fleet_service.model.Moto;
 import espe.edu.ec.fleet_service.model.Repartidor;
@@ -7,15 +11,22 @@ import espe.edu.ec.fleet_service.model.Vehiculo;
 import espe.edu.ec.fleet_service.repository.RepartidorRepository;
 import espe.edu.ec.fleet_service.repository.VehiculoRepository;
 import espe.edu.ec.fleet_service.service.FleetService;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import espe.edu.ec.fleet_service.service.geocerca.MotorGeocercas;
+import espe.edu.ec.fleet_service.service.retencion.RetencionService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +41,18 @@ public class FleetServiceTest {
     @Mock
     private RepartidorRepository repartidorRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RetencionService retencionService;
+
+    @Mock
+    private IndiceVehiculosDisponibles indiceDisponibles;
+
+    @Mock
+    private MotorGeocercas motorGeocercas;
+
     @InjectMocks
     private FleetService fleetService;
 
@@ -73,15 +96,12 @@ public class FleetServiceTest {
         repartidor.setNombre("Juan");
 
         Moto vehiculo = new Moto();
+        vehiculo.setId(5L);
         vehiculo.setPlaca(placa);
 
         when(repartidorRepository.findById(repId)).thenReturn(Optional.of(repartidor));
         when(vehiculoRepository.findByPlaca(placa)).thenReturn(Optional.of(vehiculo));
-        when(repartidorRepository.save(any(Repartidor.class))).thenAnswer(i -> {
-            @SuppressWarnings("null")
-            var r = (Repartidor) i.getArguments()[0];
-            return r;
-        });
+        when(repartidorRepository.asignarVehiculoSiLibre(repId, 5L)).thenReturn(1);
 
         @SuppressWarnings("null")
         Repartidor resultado = fleetService.asignarVehiculo(repId, placa);
@@ -89,4 +109,131 @@ public class FleetServiceTest {
         Assertions.assertNotNull(resultado.getVehiculo());
         Assertions.assertEquals(placa, resultado.getVehiculo().getPlaca());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAsignarVehiculoYaAsignadoEsConflicto() {
+        Repartidor repartidor = new Repartidor();
+        repartidor.setId(2L);
+        Moto vehiculo = new Moto();
+        vehiculo.setId(5L);
+        vehiculo.setPlaca("ABC-123");
+
+        when(repartidorRepository.findById(2L)).thenReturn(Optional.of(repartidor));
+        when(vehiculoRepository.findByPlaca("ABC-123")).thenReturn(Optional.of(vehiculo));
+        when(repartidorRepository.asignarVehiculoSiLibre(2L, 5L)).thenReturn(0);
+
+        Assertions.assertThrows(ConflictoException.class, () -> fleetService.asignarVehiculo(2L, "ABC-123"));
+    }
+
+    @Test
+    public void testTransicionCondicional() {
+        when(vehiculoRepository.transicionar("ABC-123", "DISPONIBLE", "EN_RUTA"))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, "ABC-123", "CAMION", "EN_RUTA"}));
+
+        TransicionVehiculoResponse resultado = fleetService.transicionarEstado("ABC-123", EstadoVehiculo.DISPONIBLE, EstadoVehiculo.EN_RUTA);
+
+        Assertions.assertEquals(EstadoVehiculo.EN_RUTA, resultado.getEstado());
+        Assertions.assertEquals(EstadoVehiculo.DISPONIBLE, resultado.getEstadoAnterior());
+    }
+
+    @Test
+    public void testTransicionSobreEstadoCambiadoEsConflicto() {
+        when(vehiculoRepository.transicionar("ABC-123", "DISPONIBLE", "EN_RUTA")).thenReturn(List.of());
+        when(vehiculoRepository.findEstadoByPlaca("ABC-123")).thenReturn(Optional.of(EstadoVehiculo.EN_RUTA));
+
+        Assertions.assertThrows(ConflictoException.class,
+                () -> fleetService.transicionarEstado("ABC-123", EstadoVehiculo.DISPONIBLE, EstadoVehiculo.EN_RUTA));
+    }
+
+    @Test
+    public void testActualizarEstadoUsaTransicionCondicional() {
+        Moto moto = new Moto();
+        moto.setPlaca("ABC-123");
+        moto.setEstado(EstadoVehiculo.EN_RUTA);
+        when(vehiculoRepository.findEstadoByPlaca("ABC-123")).thenReturn(Optional.of(EstadoVehiculo.DISPONIBLE));
+        when(vehiculoRepository.transicionar("ABC-123", "DISPONIBLE", "EN_RUTA"))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, "ABC-123", "MOTO", "EN_RUTA"}));
+        when(vehiculoRepository.findByPlaca("ABC-123")).thenReturn(Optional.of(moto));
+
+        Vehiculo resultado = fleetService.actualizarEstadoVehiculo("ABC-123", EstadoVehiculo.EN_RUTA);
+
+        Assertions.assertEquals(EstadoVehiculo.EN_RUTA, resultado.getEstado());
+        verify(vehiculoRepository, never()).save(any());
+    }
+
+    @Test
+    public void testActualizarEstadoCambiadoEntretantoEsConflicto() {
+        when(vehiculoRepository.findEstadoByPlaca("ABC-123"))
+                .thenReturn(Optional.of(EstadoVehiculo.DISPONIBLE), Optional.of(EstadoVehiculo.MANTENIMIENTO));
+        when(vehiculoRepository.transicionar("ABC-123", "DISPONIBLE", "EN_RUTA")).thenReturn(List.of());
+
+        Assertions.assertThrows(ConflictoException.class,
+                () -> fleetService.actualizarEstadoVehiculo("ABC-123", EstadoVehiculo.EN_RUTA));
+        verify(vehiculoRepository, never()).save(any());
+    }
+
+    @Test
+    public void testActualizarEstadoConEstadoEsperadoDistintoEsConflicto() {
+        when(vehiculoRepository.transicionar("ABC-123", "MANTENIMIENTO", "DISPONIBLE")).thenReturn(List.of());
+        when(vehiculoRepository.findEstadoByPlaca("ABC-123")).thenReturn(Optional.of(EstadoVehiculo.EN_RUTA));
+
+        Assertions.assertThrows(ConflictoException.class, () -> fleetService.actualizarEstadoVehiculo(
+                "ABC-123", EstadoVehiculo.DISPONIBLE, EstadoVehiculo.MANTENIMIENTO));
+    }
+
+    @Test
+    public void testListarVehiculosResumenPaginaPorCursor() {
+        List<VehiculoResumenResponse> filas = List.of(
+                VehiculoResumenResponse.builder().id(11L).placa("CAM-0011").build(),
+                VehiculoResumenResponse.builder().id(12L).placa("CAM-0012").build(),
+                VehiculoResumenResponse.builder().id(13L).placa("CAM-0013").build());
+        when(vehiculoRepository.listarResumen(10L, "CAMION", null, Limit.of(3))).thenReturn(filas);
+
+        CursorPageResponse<VehiculoResumenResponse> pagina = fleetService.listarVehiculosResumen("camion", null, "10", 2);
+
+        Assertions.assertEquals(2, pagina.getSize());
+        Assertions.assertTrue(pagina.isHasNext());
+        Assertions.assertEquals("12", pagina.getNextCursor());
+    }
+
+    private static Moto moto(long id, EstadoVehiculo estado) {
+        Moto moto = new Moto();
+        moto.setId(id);
+        moto.setPlaca("M-" + id);
+        moto.setTipoVehiculo("MOTO");
+        moto.setEstado(estado);
+        return moto;
+    }
+
+    @Test
+    public void testDisponiblesPorTipoDesdeIndice() {
+        when(indiceDisponibles.ofrecibles("MOTO")).thenReturn(List.of(3L, 5L, 8L));
+        when(vehiculoRepository.findAllById(List.of(3L, 5L, 8L)))
+                .thenReturn(List.of(moto(8, EstadoVehiculo.DISPONIBLE), moto(3, EstadoVehiculo.DISPONIBLE), moto(5, EstadoVehiculo.EN_RUTA)));
+
+        List<Vehiculo> disponibles = fleetService.obtenerVehiculosDisponibles(null, "moto");
+
+        Assertions.assertEquals(List.of(3L, 8L), disponibles.stream().map(Vehiculo::getId).toList());
+        verify(vehiculoRepository, never()).findByEstado(any());
+    }
+
+    @Test
+    public void testDisponiblesFiltraPorZona() {
+        when(indiceDisponibles.ofrecibles(null)).thenReturn(List.of(3L, 5L));
+        when(motorGeocercas.estaEnZona(3L, "ZONA-NORTE")).thenReturn(false);
+        when(motorGeocercas.estaEnZona(5L, "ZONA-NORTE")).thenReturn(true);
+        when(vehiculoRepository.findAllById(List.of(5L))).thenReturn(List.of(moto(5, EstadoVehiculo.DISPONIBLE)));
+
+        List<Vehiculo> disponibles = fleetService.obtenerVehiculosDisponibles("ZONA-NORTE", null);
+
+        Assertions.assertEquals(List.of(5L), disponibles.stream().map(Vehiculo::getId).toList());
+    }
+
+    @Test
+    public void testDisponiblesSinCandidatosNoConsultaLaBase() {
+        when(indiceDisponibles.ofrecibles("CAMION")).thenReturn(List.of());
+
+        Assertions.assertTrue(fleetService.obtenerVehiculosDisponibles("", "CAMION").isEmpty());
+        verify(vehiculoRepository, never()).findAllById(any());
+    }
+}
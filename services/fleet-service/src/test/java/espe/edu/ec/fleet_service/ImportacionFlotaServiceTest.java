@@ -0,0 +1,113 @@
+package espe.edu.ec.fleet_service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import espe.edu.ec.fleet_service.dto.ImportacionFlotaResponse;
+import espe.edu.ec.fleet_service.model.Camion;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.model.Moto;
+import espe.edu.ec.fleet_service.model.Vehiculo;
+import espe.edu.ec.fleet_service.repository.RepartidorRepository;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import espe.edu.ec.fleet_service.service.importacion.ImportacionFlotaService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportacionFlotaServiceTest {
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Mock
+    private RepartidorRepository repartidorRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ImportacionFlotaService importacionService;
+
+    @BeforeEach
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        importacionService = new ImportacionFlotaService(vehiculoRepository, repartidorRepository, entityManager,
+                transactionTemplate, eventPublisher, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), 1000, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportaVehiculosCsvYReportaErroresPorLinea() {
+        doAnswer(i -> {
+            ((Consumer<TransactionStatus>) i.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(vehiculoRepository.findIdsPorPlacas(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"MOT-0001", 1L}));
+
+        String csv = """
+                tipoVehiculo,placa,marca,modelo,color,anioFabricacion,cilindraje,tipo,tieneCasco,capacidadCargaToneladas,numeroEjes,tieneRampaHidraulica
+                moto,ABC-123,Honda,CB190,"Rojo, mate",2020,190,NAKED,true,,,
+                CAMION,ABC-124,Hino,XZU,Blanco,2018,4000,,,12.5,3,false
+                CAMION,abc-125,Hino,XZU,Blanco,2018,4000,,,12.5,3,false
+
+                MOTO,ABC-123,Honda,CB190,Negro,2021,190,NAKED,true,,,
+                MOTO,MOT-0001,Honda,CB190,Negro,2021,190,NAKED,true,,,
+                BUS,ABC-126,Volvo,B7,Azul,2015,9000,,,,,
+                CAMION,ABC-127,Hino,XZU,Blanco,2018,4000,,,12.5,3
+                """;
+
+        ImportacionFlotaResponse respuesta = importacionService.importarVehiculos(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("text/csv"));
+
+        Assertions.assertEquals(7, respuesta.getRecibidos());
+        Assertions.assertEquals(2, respuesta.getImportados());
+        Assertions.assertEquals(List.of(4, 6, 7, 8, 9),
+                respuesta.getErrores().stream().map(ImportacionFlotaResponse.ErrorFila::getLinea).toList());
+        Assertions.assertEquals("La placa está repetida en la línea 2", respuesta.getErrores().get(1).getMotivo());
+        Assertions.assertEquals("Ya existe un vehículo con la placa: MOT-0001", respuesta.getErrores().get(2).getMotivo());
+
+        ArgumentCaptor<Vehiculo> persistidos = ArgumentCaptor.forClass(Vehiculo.class);
+        verify(entityManager, times(2)).persist(persistidos.capture());
+        Moto moto = (Moto) persistidos.getAllValues().get(0);
+        Assertions.assertEquals("Rojo, mate", moto.getColor());
+        Assertions.assertEquals(EstadoVehiculo.DISPONIBLE, moto.getEstado());
+        Assertions.assertInstanceOf(Camion.class, persistidos.getAllValues().get(1));
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    public void testRechazaFormatoNoSoportado() {
+        Assertions.assertThrows(RuntimeException.class, () -> importacionService.importarVehiculos(
+                new ByteArrayInputStream(new byte[0]), MediaType.APPLICATION_JSON));
+    }
+}
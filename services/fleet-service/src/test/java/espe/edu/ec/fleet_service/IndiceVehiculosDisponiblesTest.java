@@ -0,0 +1,110 @@
+package espe.edu.ec.fleet_service;
+
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class IndiceVehiculosDisponiblesTest {
+
+    private IndiceVehiculosDisponibles indice;
+
+    @BeforeEach
+    public void setUp() {
+        indice = new IndiceVehiculosDisponibles(null, 0.01);
+    }
+
+    private void registrar(long id, String tipo, EstadoVehiculo estado, double lat, double lon) {
+        indice.actualizarVehiculo(id, "PLA-" + id, tipo, estado);
+        indice.actualizarPosicion(id, lat, lon);
+    }
+
+    @Test
+    public void testDevuelveLosMasCercanosOrdenados() {
+        registrar(1, "CAMION", EstadoVehiculo.DISPONIBLE, -0.200, -78.500);
+        registrar(2, "CAMION", EstadoVehiculo.DISPONIBLE, -0.210, -78.500);
+        registrar(3, "CAMION", EstadoVehiculo.DISPONIBLE, -0.300, -78.500);
+        registrar(4, "MOTO", EstadoVehiculo.DISPONIBLE, -0.2001, -78.500);
+
+        List<IndiceVehiculosDisponibles.Cercano> cercanos = indice.cercanos("CAMION", -0.201, -78.500, 2, 50).resultados();
+
+        Assertions.assertEquals(List.of(1L, 2L), cercanos.stream().map(IndiceVehiculosDisponibles.Cercano::vehiculoId).toList());
+    }
+
+    @Test
+    public void testExcluyeNoDisponiblesYFueraDelRadio() {
+        registrar(1, "CAMION", EstadoVehiculo.EN_RUTA, -0.200, -78.500);
+        registrar(2, "CAMION", EstadoVehiculo.DISPONIBLE, -0.300, -78.500);
+
+        Assertions.assertTrue(indice.cercanos("CAMION", -0.200, -78.500, 5, 5).resultados().isEmpty());
+
+        indice.actualizarVehiculo(1, "PLA-1", "CAMION", EstadoVehiculo.DISPONIBLE);
+        Assertions.assertEquals(1, indice.cercanos("CAMION", -0.200, -78.500, 5, 5).resultados().size());
+    }
+
+    @Test
+    public void testMoverVehiculoActualizaSuCelda() {
+        registrar(1, "LIVIANO", EstadoVehiculo.DISPONIBLE, -0.200, -78.500);
+        indice.actualizarPosicion(1, -2.170, -79.900);
+
+        Assertions.assertTrue(indice.cercanos("LIVIANO", -0.200, -78.500, 1, 10).resultados().isEmpty());
+        Assertions.assertEquals(1, indice.cercanos("LIVIANO", -2.171, -79.901, 1, 10).resultados().size());
+        Assertions.assertEquals(1, indice.vehiculosIndexados("LIVIANO"));
+    }
+
+    @Test
+    public void testOfreciblesPorTipoSinExigirPosicion() {
+        registrar(3, "CAMION", EstadoVehiculo.DISPONIBLE, -0.200, -78.500);
+        indice.actualizarVehiculo(1, "PLA-1", "CAMION", EstadoVehiculo.DISPONIBLE);
+        indice.actualizarVehiculo(2, "PLA-2", "CAMION", EstadoVehiculo.EN_RUTA);
+        indice.actualizarVehiculo(4, "PLA-4", "MOTO", EstadoVehiculo.DISPONIBLE);
+        indice.actualizarVehiculo(5, "PLA-5", "CAMION", EstadoVehiculo.DISPONIBLE);
+        indice.actualizarRetencion(5, true);
+
+        Assertions.assertEquals(List.of(1L, 3L), indice.ofrecibles("CAMION"));
+        Assertions.assertEquals(List.of(1L, 3L, 4L), indice.ofrecibles(null));
+
+        indice.actualizarVehiculo(1, "PLA-1", "MOTO", EstadoVehiculo.DISPONIBLE);
+        indice.actualizarRetencion(5, false);
+        indice.actualizarVehiculo(3, "PLA-3", "CAMION", EstadoVehiculo.EN_RUTA);
+
+        Assertions.assertEquals(List.of(5L), indice.ofrecibles("CAMION"));
+        Assertions.assertEquals(List.of(1L, 4L), indice.ofrecibles("MOTO"));
+        Assertions.assertEquals(List.of(), indice.ofrecibles("LIVIANO"));
+    }
+
+    @Test
+    public void testCoincideConBusquedaExhaustiva() {
+        Random random = new Random(7);
+        double[][] posiciones = new double[10_000][];
+        for (int i = 0; i < posiciones.length; i++) {
+            posiciones[i] = new double[]{-0.5 + random.nextDouble(), -79 + random.nextDouble()};
+            registrar(i, "CAMION", EstadoVehiculo.DISPONIBLE, posiciones[i][0], posiciones[i][1]);
+        }
+
+        for (int consulta = 0; consulta < 50; consulta++) {
+            // Consultas locales (búsqueda por anillos) y lejanas con radio amplio (recorrido de celdas).
+            boolean lejana = consulta % 2 == 1;
+            double lat = lejana ? -4 + random.nextDouble() : -0.5 + random.nextDouble();
+            double lon = -79 + random.nextDouble();
+            double radioKm = lejana ? 500 : 3;
+            List<Long> esperados = java.util.stream.IntStream.range(0, posiciones.length)
+                    .boxed()
+                    .filter(i -> IndiceVehiculosDisponibles.distanciaKm(lat, lon, posiciones[i][0], posiciones[i][1]) <= radioKm)
+                    .sorted(Comparator.comparingDouble(i -> IndiceVehiculosDisponibles.distanciaKm(lat, lon, posiciones[i][0], posiciones[i][1])))
+                    .limit(5)
+                    .map(Integer::longValue)
+                    .toList();
+
+            List<Long> obtenidos = indice.cercanos("CAMION", lat, lon, 5, radioKm).resultados().stream()
+                    .map(IndiceVehiculosDisponibles.Cercano::vehiculoId)
+                    .toList();
+            Assertions.assertEquals(esperados, obtenidos);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package espe.edu.ec.fleet_service;
+
+import espe.edu.ec.fleet_service.event.GeocercaEvent;
+import espe.edu.ec.fleet_service.model.Coordenada;
+import espe.edu.ec.fleet_service.model.TipoEventoGeocerca;
+import espe.edu.ec.fleet_service.model.ZonaGeocerca;
+import espe.edu.ec.fleet_service.repository.ZonaGeocercaRepository;
+import espe.edu.ec.fleet_service.service.geocerca.MotorGeocercas;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MotorGeocercasTest {
+
+    @Mock
+    private ZonaGeocercaRepository zonaGeocercaRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MotorGeocercas motor;
+
+    private static ZonaGeocerca zona(long id, String zonaId, double... latLon) {
+        List<Coordenada> vertices = new ArrayList<>();
+        for (int i = 0; i < latLon.length; i += 2) {
+            vertices.add(new Coordenada(latLon[i], latLon[i + 1]));
+        }
+        ZonaGeocerca zona = ZonaGeocerca.builder().zonaId(zonaId).nombre(zonaId).vertices(vertices).activa(true).build();
+        zona.setId(id);
+        return zona;
+    }
+
+    // Cuadrado de 0.2° alrededor de (-0.2, -78.5) y una "L" cóncava que comparte la esquina inferior.
+    private final ZonaGeocerca norte = zona(1, "ZONA-NORTE", -0.3, -78.6, -0.3, -78.4, -0.1, -78.4, -0.1, -78.6);
+    private final ZonaGeocerca ele = zona(2, "ZONA-L", -0.3, -78.6, -0.3, -78.3, -0.25, -78.3, -0.25, -78.55, 0.0, -78.55, 0.0, -78.6);
+
+    @BeforeEach
+    public void setUp() {
+        motor = new MotorGeocercas(zonaGeocercaRepository, eventPublisher, 0.05, 100);
+        when(zonaGeocercaRepository.findActivasConVertices()).thenReturn(List.of(norte, ele));
+        motor.recargar();
+    }
+
+    private List<String> eventos() {
+        return motor.eventosRecientes(100).reversed().stream()
+                .map(e -> e.tipo() + ":" + e.zonaId())
+                .toList();
+    }
+
+    @Test
+    public void testEntradaYSalida() {
+        motor.evaluar(7, -0.5, -78.5, 1_000);
+        motor.evaluar(7, -0.2, -78.45, 2_000);
+        motor.evaluar(7, -0.2, -78.46, 3_000);
+        motor.evaluar(7, -0.5, -78.5, 4_000);
+
+        Assertions.assertEquals(List.of("ENTRADA:ZONA-NORTE", "SALIDA:ZONA-NORTE"), eventos());
+    }
+
+    @Test
+    public void testZonasSuperpuestasYPoligonoConcavo() {
+        // Dentro del cuadrado y del brazo horizontal de la L.
+        motor.evaluar(7, -0.28, -78.45, 1_000);
+        // Dentro del cuadrado pero en el hueco de la L.
+        motor.evaluar(7, -0.2, -78.45, 2_000);
+        // Solo en el brazo horizontal de la L, fuera del cuadrado.
+        motor.evaluar(7, -0.28, -78.35, 3_000);
+
+        Assertions.assertEquals(List.of("ENTRADA:ZONA-NORTE", "ENTRADA:ZONA-L", "SALIDA:ZONA-L", "SALIDA:ZONA-NORTE", "ENTRADA:ZONA-L"), eventos());
+    }
+
+    @Test
+    public void testEstaEnZonaSegunUltimaPosicion() {
+        Assertions.assertFalse(motor.estaEnZona(7, "ZONA-NORTE"));
+
+        motor.evaluar(7, -0.28, -78.45, 1_000);
+        Assertions.assertTrue(motor.estaEnZona(7, "ZONA-NORTE"));
+        Assertions.assertTrue(motor.estaEnZona(7, "ZONA-L"));
+
+        motor.evaluar(7, -0.2, -78.45, 2_000);
+        Assertions.assertTrue(motor.estaEnZona(7, "ZONA-NORTE"));
+        Assertions.assertFalse(motor.estaEnZona(7, "ZONA-L"));
+        Assertions.assertFalse(motor.estaEnZona(8, "ZONA-NORTE"));
+    }
+
+    @Test
+    public void testPosicionAtrasadaSeIgnora() {
+        motor.evaluar(7, -0.2, -78.45, 5_000);
+        motor.evaluar(7, -0.5, -78.5, 4_000);
+
+        Assertions.assertEquals(List.of("ENTRADA:ZONA-NORTE"), eventos());
+    }
+
+    @Test
+    public void testZonaDesactivadaEmiteSalida() {
+        motor.evaluar(7, -0.2, -78.45, 1_000);
+        when(zonaGeocercaRepository.findActivasConVertices()).thenReturn(List.of(ele));
+        motor.recargar();
+        motor.evaluar(7, -0.2, -78.45, 2_000);
+
+        List<GeocercaEvent> recientes = motor.eventosRecientes(10);
+        Assertions.assertEquals(TipoEventoGeocerca.SALIDA, recientes.get(0).tipo());
+        Assertions.assertEquals("ZONA-NORTE", recientes.get(0).zonaId());
+        Assertions.assertEquals(2, motor.metricas().getEvaluaciones());
+    }
+}
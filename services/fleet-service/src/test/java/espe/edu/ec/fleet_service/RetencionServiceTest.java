@@ -0,0 +1,112 @@
+package espe.edu.ec.fleet_service;
+
+import espe.edu.ec.fleet_service.dto.RetencionResponse;
+import espe.edu.ec.fleet_service.exception.ConflictoException;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.repository.RetencionVehiculoRepository;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import espe.edu.ec.fleet_service.service.retencion.RetencionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RetencionServiceTest {
+
+    @Mock
+    private RetencionVehiculoRepository retencionRepository;
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Mock
+    private IndiceVehiculosDisponibles indice;
+
+    private RetencionService retencionService;
+
+    @BeforeEach
+    public void setUp() {
+        retencionService = new RetencionService(retencionRepository, vehiculoRepository, indice, 30, 300, 10, 64);
+    }
+
+    @Test
+    public void testAdquirirExcluyeHastaQueVence() throws InterruptedException {
+        when(retencionRepository.adquirir(eq("MOT-1"), any(), eq("rep-1"), any(), any())).thenReturn(List.of(7L));
+
+        RetencionResponse retencion = retencionService.adquirir("MOT-1", "rep-1", 1L);
+
+        Assertions.assertEquals(7L, retencion.getVehiculoId());
+        Assertions.assertTrue(retencionService.estaRetenido(7L));
+        verify(indice).actualizarRetencion(7L, true);
+
+        long limite = System.currentTimeMillis() + 3000;
+        while (retencionService.metricas().getExpiradas() == 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            retencionService.vencer();
+        }
+
+        Assertions.assertFalse(retencionService.estaRetenido(7L));
+        Assertions.assertEquals(1, retencionService.metricas().getExpiradas());
+        Assertions.assertEquals(0, retencionService.metricas().getActivas());
+        verify(indice).actualizarRetencion(7L, false);
+        verify(retencionRepository).eliminarVencidas(any());
+    }
+
+    @Test
+    public void testRenovarNoExpiraConLaEntradaAnterior() throws InterruptedException {
+        when(retencionRepository.adquirir(anyString(), any(), any(), any(), any())).thenReturn(List.of(7L));
+        when(vehiculoRepository.findIdByPlaca("MOT-1")).thenReturn(Optional.of(7L));
+        when(retencionRepository.renovar(eq(7L), any(), any(), any())).thenReturn(List.of(7L));
+
+        RetencionResponse retencion = retencionService.adquirir("MOT-1", null, 1L);
+        retencionService.renovar("MOT-1", retencion.getToken(), 60L);
+
+        Thread.sleep(1100);
+        retencionService.vencer();
+
+        Assertions.assertTrue(retencionService.estaRetenido(7L));
+        Assertions.assertEquals(0, retencionService.metricas().getExpiradas());
+    }
+
+    @Test
+    public void testAdquirirVehiculoYaRetenidoEsConflicto() {
+        when(retencionRepository.adquirir(anyString(), any(), any(), any(), any())).thenReturn(List.of());
+        when(vehiculoRepository.findEstadoByPlaca("MOT-1")).thenReturn(Optional.of(EstadoVehiculo.DISPONIBLE));
+
+        Assertions.assertThrows(ConflictoException.class, () -> retencionService.adquirir("MOT-1", "rep-2", 30L));
+        Assertions.assertEquals(1, retencionService.metricas().getConflictos());
+    }
+
+    @Test
+    public void testAsignacionSinTokenDeVehiculoRetenidoEsConflicto() {
+        when(retencionRepository.existeVigente(eq(7L), any())).thenReturn(true);
+
+        Assertions.assertThrows(ConflictoException.class, () -> retencionService.validarAsignacion(7L, "MOT-1", null));
+    }
+
+    @Test
+    public void testAsignacionConTokenConsumeLaRetencion() {
+        UUID token = UUID.randomUUID();
+        when(retencionRepository.adquirir(anyString(), any(), any(), any(), any())).thenReturn(List.of(7L));
+        when(retencionRepository.liberar(eq(7L), any(), any())).thenReturn(1);
+        retencionService.adquirir("MOT-1", null, 30L);
+
+        retencionService.validarAsignacion(7L, "MOT-1", token);
+
+        Assertions.assertEquals(1, retencionService.metricas().getConsumidas());
+    }
+}
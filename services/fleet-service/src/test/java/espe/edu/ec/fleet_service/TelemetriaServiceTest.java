@@ -0,0 +1,114 @@
+package espe.edu.ec.fleet_service;
+
+import espe.edu.ec.fleet_service.dto.PosicionActualResponse;
+import espe.edu.ec.fleet_service.dto.PosicionPing;
+import espe.edu.ec.fleet_service.dto.TelemetriaLoteResponse;
+import espe.edu.ec.fleet_service.repository.VehiculoRepository;
+import espe.edu.ec.fleet_service.service.espacial.IndiceVehiculosDisponibles;
+import espe.edu.ec.fleet_service.service.geocerca.MotorGeocercas;
+import espe.edu.ec.fleet_service.service.telemetria.HistorialPosicionesWriter;
+import espe.edu.ec.fleet_service.service.telemetria.PosicionVehiculo;
+import espe.edu.ec.fleet_service.service.telemetria.TelemetriaService;
+import espe.edu.ec.fleet_service.service.telemetria.UltimasPosiciones;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TelemetriaServiceTest {
+
+    @Mock
+    private VehiculoRepository vehiculoRepository;
+
+    @Mock
+    private HistorialPosicionesWriter historialWriter;
+
+    @Mock
+    private MotorGeocercas motorGeocercas;
+
+    private TelemetriaService telemetriaService;
+
+    private final Instant base = Instant.now().minusSeconds(600);
+
+    @BeforeEach
+    public void setUp() {
+        telemetriaService = new TelemetriaService(vehiculoRepository, new UltimasPosiciones(), historialWriter,
+                new IndiceVehiculosDisponibles(vehiculoRepository, 0.01), motorGeocercas, 100, 10_000);
+        when(vehiculoRepository.findIdsYPlacas()).thenReturn(List.<Object[]>of(new Object[]{1L, "ABC-123"}));
+        telemetriaService.cargarVehiculos();
+    }
+
+    @Test
+    public void testRegistraPingsValidosYReportaInvalidos() {
+        when(vehiculoRepository.findIdByPlaca("ZZZ-999")).thenReturn(Optional.empty());
+
+        TelemetriaLoteResponse respuesta = telemetriaService.registrarLote(List.of(
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base),
+                new PosicionPing(null, 1L, -0.19, -78.49, 35.0, base.plusSeconds(1)),
+                new PosicionPing("ABC-123", null, 95.0, -78.48, 30.0, base),
+                new PosicionPing("ZZZ-999", null, -0.18, -78.48, 30.0, base)
+        ));
+
+        Assertions.assertEquals(4, respuesta.getRecibidos());
+        Assertions.assertEquals(2, respuesta.getAceptados());
+        Assertions.assertEquals(2, respuesta.getRechazados());
+        Assertions.assertEquals(2, respuesta.getErrores().get(0).getIndice());
+        Assertions.assertEquals(3, respuesta.getErrores().get(1).getIndice());
+    }
+
+    @Test
+    public void testPingAtrasadoNoRetrocedeLaPosicion() {
+        telemetriaService.registrarLote(List.of(
+                new PosicionPing("ABC-123", null, -0.20, -78.50, 40.0, base.plusSeconds(30)),
+                new PosicionPing("ABC-123", null, -0.10, -78.40, 10.0, base)
+        ));
+
+        PosicionActualResponse posicion = telemetriaService.obtenerPosicion("ABC-123");
+        Assertions.assertEquals(-0.20, posicion.getLat());
+        Assertions.assertEquals(base.plusSeconds(30).toEpochMilli(), posicion.getTimestamp().toEpochMilli());
+    }
+
+    @Test
+    public void testHistorialSubmuestreadoPorIntervalo() {
+        telemetriaService.registrarLote(List.of(
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base),
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base.plusSeconds(3)),
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base.plusSeconds(6)),
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base.plusSeconds(10)),
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base.plusSeconds(15))
+        ));
+
+        verify(historialWriter, times(2)).encolar(any(PosicionVehiculo.class));
+    }
+
+    @Test
+    public void testPlacaDesconocidaSeConsultaUnaVez() {
+        when(vehiculoRepository.findIdByPlaca("ZZZ-999")).thenReturn(Optional.empty());
+
+        telemetriaService.registrarLote(List.of(
+                new PosicionPing("ZZZ-999", null, -0.18, -78.48, 30.0, base),
+                new PosicionPing("ZZZ-999", null, -0.18, -78.48, 30.0, base.plusSeconds(1))
+        ));
+
+        verify(vehiculoRepository, times(1)).findIdByPlaca("ZZZ-999");
+    }
+
+    @Test
+    public void testLoteDemasiadoGrande() {
+        List<PosicionPing> pings = java.util.Collections.nCopies(101,
+                new PosicionPing("ABC-123", null, -0.18, -78.48, 30.0, base));
+        Assertions.assertThrows(RuntimeException.class, () -> telemetriaService.registrarLote(pings));
+    }
+}
@@ -0,0 +1,127 @@
+package espe.edu.ec.fleet_service;
+
+import espe.edu.ec.fleet_service.dto.CursorPageResponse;
+import espe.edu.ec.fleet_service.dto.UtilizacionDiariaResponse;
+import espe.edu.ec.fleet_service.dto.UtilizacionVehiculoResponse;
+import espe.edu.ec.fleet_service.dto.VehiculoResumenResponse;
+import espe.edu.ec.fleet_service.model.EstadoVehiculo;
+import espe.edu.ec.fleet_service.model.EstadoVehiculoVigente;
+import espe.edu.ec.fleet_service.model.Moto;
+import espe.edu.ec.fleet_service.model.UsoDiarioVehiculo;
+import espe.edu.ec.fleet_service.repository.EstadoVehiculoVigenteRepository;
+import espe.edu.ec.fleet_service.repository.UsoDiarioVehiculoRepository;
+import espe.edu.ec.fleet_service.service.FleetService;
+import espe.edu.ec.fleet_service.service.utilizacion.TiempoPorDia;
+import espe.edu.ec.fleet_service.service.utilizacion.UtilizacionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UtilizacionServiceTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Guayaquil");
+    private static final long HORA = 3_600_000L;
+
+    @Mock
+    private FleetService fleetService;
+
+    @Mock
+    private UsoDiarioVehiculoRepository usoRepository;
+
+    @Mock
+    private EstadoVehiculoVigenteRepository vigenteRepository;
+
+    private UtilizacionService utilizacionService;
+
+    @BeforeEach
+    void setUp() {
+        utilizacionService = new UtilizacionService(fleetService, usoRepository, vigenteRepository, ZONA);
+    }
+
+    @Test
+    void tiempoPorDia_cortaElIntervaloEnCadaMedianocheLocal() {
+        TiempoPorDia tiempo = new TiempoPorDia(ZONA);
+        // 2026-10-01 22:00 a 2026-10-03 02:00 en Guayaquil (UTC-5)
+        tiempo.sumar(7L, EstadoVehiculo.EN_RUTA,
+                Instant.parse("2026-10-02T03:00:00Z"), Instant.parse("2026-10-03T07:00:00Z"));
+        tiempo.sumar(7L, EstadoVehiculo.EN_RUTA,
+                Instant.parse("2026-10-03T07:00:00Z"), Instant.parse("2026-10-03T06:00:00Z"));
+
+        Assertions.assertEquals(3, tiempo.milisegundos().size());
+        Assertions.assertEquals(2 * HORA, tiempo.milisegundos().get(
+                new TiempoPorDia.Clave(7L, LocalDate.of(2026, 10, 1), EstadoVehiculo.EN_RUTA)));
+        Assertions.assertEquals(24 * HORA, tiempo.milisegundos().get(
+                new TiempoPorDia.Clave(7L, LocalDate.of(2026, 10, 2), EstadoVehiculo.EN_RUTA)));
+        Assertions.assertEquals(2 * HORA, tiempo.milisegundos().get(
+                new TiempoPorDia.Clave(7L, LocalDate.of(2026, 10, 3), EstadoVehiculo.EN_RUTA)));
+    }
+
+    @Test
+    void reporteFlota_sumaAgregadosYRecortaElIntervaloAbiertoAlRango() {
+        LocalDate desde = LocalDate.of(2026, 9, 1);
+        LocalDate hasta = LocalDate.of(2026, 9, 2);
+        VehiculoResumenResponse vehiculo = VehiculoResumenResponse.builder()
+                .id(5L).placa("MOT-0005").tipoVehiculo("MOTO").estado(EstadoVehiculo.MANTENIMIENTO).build();
+        when(fleetService.listarVehiculosResumen(null, null, null, 10)).thenReturn(
+                CursorPageResponse.<VehiculoResumenResponse>builder()
+                        .items(List.of(vehiculo)).size(1).hasNext(true).nextCursor("5").build());
+        when(usoRepository.sumarPorVehiculoYEstado(List.of(5L), desde, hasta)).thenReturn(List.<Object[]>of(
+                new Object[]{5L, EstadoVehiculo.DISPONIBLE, 18 * HORA},
+                new Object[]{5L, EstadoVehiculo.EN_RUTA, 6 * HORA}));
+        // En mantenimiento desde el 2 de septiembre a mediodía: cuentan 12 horas dentro del rango.
+        when(vigenteRepository.findAllById(List.of(5L))).thenReturn(List.of(
+                new EstadoVehiculoVigente(5L, EstadoVehiculo.MANTENIMIENTO, Instant.parse("2026-09-02T17:00:00Z"))));
+
+        CursorPageResponse<UtilizacionVehiculoResponse> pagina =
+                utilizacionService.reporteFlota(desde, hasta, null, null, 10);
+
+        UtilizacionVehiculoResponse uso = pagina.getItems().get(0);
+        Assertions.assertTrue(pagina.isHasNext());
+        Assertions.assertEquals("5", pagina.getNextCursor());
+        Assertions.assertEquals(36 * HORA, uso.getMilisegundosRegistrados());
+        Assertions.assertEquals(12 * HORA, uso.getMilisegundosPorEstado().get(EstadoVehiculo.MANTENIMIENTO));
+        Assertions.assertEquals(0.5, uso.getFraccionPorEstado().get(EstadoVehiculo.DISPONIBLE), 1e-9);
+        Assertions.assertEquals(1.0 / 6, uso.getFraccionPorEstado().get(EstadoVehiculo.EN_RUTA), 1e-9);
+    }
+
+    @Test
+    void reporteVehiculo_incluyeDiasSinRegistro() {
+        Moto moto = new Moto();
+        moto.setId(9L);
+        when(fleetService.buscarVehiculoPorPlaca("MOT-0009")).thenReturn(moto);
+        LocalDate desde = LocalDate.of(2026, 9, 1);
+        LocalDate hasta = LocalDate.of(2026, 9, 3);
+        when(usoRepository.findByVehiculoIdAndDiaBetween(9L, desde, hasta)).thenReturn(List.of(
+                new UsoDiarioVehiculo(9L, LocalDate.of(2026, 9, 2), EstadoVehiculo.EN_RUTA, 6 * HORA),
+                new UsoDiarioVehiculo(9L, LocalDate.of(2026, 9, 2), EstadoVehiculo.DISPONIBLE, 18 * HORA)));
+        when(vigenteRepository.findAllById(anyList())).thenReturn(List.of());
+
+        List<UtilizacionDiariaResponse> dias = utilizacionService.reporteVehiculo("MOT-0009", desde, hasta);
+
+        Assertions.assertEquals(3, dias.size());
+        Assertions.assertEquals(0, dias.get(0).getMilisegundosRegistrados());
+        Assertions.assertEquals(0.25, dias.get(1).getFraccionPorEstado().get(EstadoVehiculo.EN_RUTA), 1e-9);
+        Assertions.assertEquals(0.0, dias.get(2).getFraccionPorEstado().get(EstadoVehiculo.EN_RUTA));
+    }
+
+    @Test
+    void reporte_rechazaRangosInvalidos() {
+        LocalDate hoy = LocalDate.of(2026, 10, 18);
+        Assertions.assertThrows(RuntimeException.class,
+                () -> utilizacionService.reporteFlota(hoy, hoy.minusDays(1), null, null, 10));
+        Assertions.assertThrows(RuntimeException.class,
+                () -> utilizacionService.reporteVehiculo("MOT-0001", hoy.minusDays(UtilizacionService.MAX_DIAS), hoy));
+    }
+}
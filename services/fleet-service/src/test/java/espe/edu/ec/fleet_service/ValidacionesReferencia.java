@@ -0,0 +1,94 @@
+package espe.edu.ec.fleet_service;
+
+import java.util.regex.Pattern;
+
+/**
+ * Implementaciones previas (expresiones regulares, substring y parseInt) que sirven de oráculo para
+ * comprobar que {@link espe.edu.ec.fleet_service.model.validator.Validaciones} conserva la semántica.
+ */
+public final class ValidacionesReferencia {
+
+    private static final Pattern PLACA = Pattern.compile("^[A-Z]{3}-\\d{3,4}$");
+    private static final Pattern ANIO = Pattern.compile("^(19|20)\\d{2}$");
+
+    private ValidacionesReferencia() {
+    }
+
+    public static boolean esCedulaValida(String cedula) {
+        if (cedula == null || cedula.length() != 10 || !cedula.matches("\\d+")) {
+            return false;
+        }
+
+        try {
+            int provincia = Integer.parseInt(cedula.substring(0, 2));
+            if (provincia < 1 || provincia > 24) {
+                return false;
+            }
+
+            int tercerDigito = Integer.parseInt(cedula.substring(2, 3));
+            if (tercerDigito >= 6) {
+                return false;
+            }
+
+            int[] coeficientes = {2, 1, 2, 1, 2, 1, 2, 1, 2};
+            int suma = 0;
+            int digitoVerificador = Integer.parseInt(cedula.substring(9, 10));
+
+            for (int i = 0; i < 9; i++) {
+                int valor = Integer.parseInt(cedula.substring(i, i + 1)) * coeficientes[i];
+                if (valor >= 10) {
+                    valor -= 9;
+                }
+                suma += valor;
+            }
+
+            int residuo = suma % 10;
+            int resultado = (residuo == 0) ? 0 : 10 - residuo;
+
+            return resultado == digitoVerificador;
+
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public static boolean esRucValido(String ruc) {
+        if (ruc == null || ruc.length() != 13 || !ruc.matches("\\d+")) {
+            return false;
+        }
+        int provincia = Integer.parseInt(ruc.substring(0, 2));
+        if (provincia < 1 || provincia > 24) {
+            return false;
+        }
+        int tercerDigito = Integer.parseInt(ruc.substring(2, 3));
+        if (tercerDigito < 6) {
+            return esCedulaValida(ruc.substring(0, 10)) && !ruc.substring(10).equals("000");
+        }
+        if (tercerDigito == 6) {
+            return modulo11(ruc, new int[]{3, 2, 7, 6, 5, 4, 3, 2}) == Integer.parseInt(ruc.substring(8, 9))
+                    && !ruc.substring(9).equals("0000");
+        }
+        if (tercerDigito == 9) {
+            return modulo11(ruc, new int[]{4, 3, 2, 7, 6, 5, 4, 3, 2}) == Integer.parseInt(ruc.substring(9, 10))
+                    && !ruc.substring(10).equals("000");
+        }
+        return false;
+    }
+
+    public static boolean esPlacaValida(String placa) {
+        return PLACA.matcher(placa).matches();
+    }
+
+    public static boolean esAnioFabricacionValido(String anio) {
+        return ANIO.matcher(anio).matches();
+    }
+
+    private static int modulo11(String ruc, int[] coeficientes) {
+        int suma = 0;
+        for (int i = 0; i < coeficientes.length; i++) {
+            suma += Integer.parseInt(ruc.substring(i, i + 1)) * coeficientes[i];
+        }
+        int residuo = suma % 11;
+        return residuo == 0 ? 0 : 11 - residuo;
+    }
+}
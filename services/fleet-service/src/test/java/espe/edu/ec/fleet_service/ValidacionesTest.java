@@ -0,0 +1,153 @@
+package espe.edu.ec.fleet_service;
+
+import espe.edu.ec.fleet_service.model.validator.Validaciones;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Equivalencia por propiedades: sobre entradas generadas (válidas, mutadas y aleatorias) las
+ * validaciones sin expresiones regulares deben coincidir con {@link ValidacionesReferencia}.
+ */
+public class ValidacionesTest {
+
+    private static final int CASOS = 200_000;
+    private static final String ALFABETO = "0123456789012345678901234567890123456789ABCXYZaz- \n١１é";
+
+    private final Random random = new Random(20240611L);
+
+    @Test
+    public void testCedulaEquivalenteALaImplementacionAnterior() {
+        verificarEquivalencia(Validaciones::esCedulaValida, ValidacionesReferencia::esCedulaValida,
+                r -> cedulaValida(r), 10);
+    }
+
+    @Test
+    public void testRucEquivalenteALaImplementacionDeReferencia() {
+        verificarEquivalencia(Validaciones::esRucValido, ValidacionesReferencia::esRucValido,
+                r -> rucValido(r), 13);
+    }
+
+    @Test
+    public void testPlacaEquivalenteAlPattern() {
+        verificarEquivalencia(Validaciones::esPlacaValida, ValidacionesReferencia::esPlacaValida,
+                r -> placaValida(r), 8);
+    }
+
+    @Test
+    public void testAnioEquivalenteAlPattern() {
+        verificarEquivalencia(Validaciones::esAnioFabricacionValido, ValidacionesReferencia::esAnioFabricacionValido,
+                r -> (r.nextBoolean() ? "19" : "20") + r.nextInt(10) + r.nextInt(10), 4);
+    }
+
+    @Test
+    public void testRucPorTipoDeContribuyente() {
+        Assertions.assertTrue(Validaciones.esRucValido("1710034065001"));
+        Assertions.assertFalse(Validaciones.esRucValido("1710034065000"));
+        Assertions.assertTrue(Validaciones.esRucValido("1760001550001"));
+        Assertions.assertTrue(Validaciones.esRucValido("1790011674001"));
+        Assertions.assertFalse(Validaciones.esRucValido("1790011675001"));
+        Assertions.assertFalse(Validaciones.esRucValido("1780011674001"));
+        Assertions.assertFalse(Validaciones.esRucValido(null));
+    }
+
+    @Test
+    public void testNulosComoAntes() {
+        Assertions.assertFalse(Validaciones.esCedulaValida(null));
+        Assertions.assertFalse(ValidacionesReferencia.esCedulaValida(null));
+    }
+
+    private void verificarEquivalencia(Predicate<String> rapida, Predicate<String> referencia,
+                                       Function<Random, String> generadorValido, int longitudTipica) {
+        int validos = 0;
+        for (int i = 0; i < CASOS; i++) {
+            String entrada = switch (i % 4) {
+                case 0 -> generadorValido.apply(random);
+                case 1 -> mutar(generadorValido.apply(random));
+                case 2 -> aleatoria(longitudTipica - 1 + random.nextInt(3));
+                default -> aleatoria(random.nextInt(longitudTipica + 6));
+            };
+            boolean esperado = referencia.test(entrada);
+            Assertions.assertEquals(esperado, rapida.test(entrada), () -> "Difiere para \"" + entrada + "\"");
+            if (esperado) {
+                validos++;
+            }
+        }
+        Assertions.assertTrue(validos > CASOS / 8, "El generador produjo pocos casos válidos: " + validos);
+    }
+
+    private String mutar(String valor) {
+        StringBuilder sb = new StringBuilder(valor);
+        int posicion = random.nextInt(sb.length());
+        switch (random.nextInt(4)) {
+            case 0 -> sb.setCharAt(posicion, ALFABETO.charAt(random.nextInt(ALFABETO.length())));
+            case 1 -> sb.deleteCharAt(posicion);
+            case 2 -> sb.insert(posicion, ALFABETO.charAt(random.nextInt(ALFABETO.length())));
+            default -> {
+                int otra = random.nextInt(sb.length());
+                char c = sb.charAt(posicion);
+                sb.setCharAt(posicion, sb.charAt(otra));
+                sb.setCharAt(otra, c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private String aleatoria(int longitud) {
+        StringBuilder sb = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            sb.append(ALFABETO.charAt(random.nextInt(ALFABETO.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String cedulaValida(Random r) {
+        String base = String.format("%02d%d%06d", 1 + r.nextInt(24), r.nextInt(6), r.nextInt(1_000_000));
+        for (int verificador = 0; verificador < 10; verificador++) {
+            if (ValidacionesReferencia.esCedulaValida(base + verificador)) {
+                return base + verificador;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static String rucValido(Random r) {
+        String provincia = String.format("%02d", 1 + r.nextInt(24));
+        return switch (r.nextInt(3)) {
+            case 0 -> cedulaValida(r) + String.format("%03d", 1 + r.nextInt(999));
+            case 1 -> conVerificador(provincia + "6" + String.format("%05d", r.nextInt(100_000)),
+                    String.format("%04d", 1 + r.nextInt(9999)));
+            default -> conVerificador(provincia + "9" + String.format("%06d", r.nextInt(1_000_000)),
+                    String.format("%03d", 1 + r.nextInt(999)));
+        };
+    }
+
+    /**
+     * Busca el dígito verificador con la referencia; si ninguno sirve (verificador 10) el RUC sale inválido.
+     */
+    private static String conVerificador(String base, String establecimiento) {
+        for (int verificador = 0; verificador < 10; verificador++) {
+            String ruc = base + verificador + establecimiento;
+            if (ValidacionesReferencia.esRucValido(ruc)) {
+                return ruc;
+            }
+        }
+        return base + "0" + establecimiento;
+    }
+
+    private static String placaValida(Random r) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            sb.append((char) ('A' + r.nextInt(26)));
+        }
+        sb.append('-');
+        int digitos = r.nextBoolean() ? 3 : 4;
+        for (int i = 0; i < digitos; i++) {
+            sb.append((char) ('0' + r.nextInt(10)));
+        }
+        return sb.toString();
+    }
+}
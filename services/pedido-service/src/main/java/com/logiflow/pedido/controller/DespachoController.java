@@ -0,0 +1,89 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.dto.DespachoMetricasResponse;
+import com.logiflow.pedido.dto.DisponibilidadRepartidorRequest;
+import com.logiflow.pedido.dto.RepartidorDisponibleResponse;
+import com.logiflow.pedido.service.despacho.DespachoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/pedidos/despacho")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Despacho", description = "Asignación automática de pedidos a repartidores")
+public class DespachoController {
+
+    private final DespachoService despachoService;
+
+    @PutMapping("/repartidores/{repartidorId}")
+    @Operation(
+            summary = "Declarar repartidor disponible",
+            description = "Incorpora (o actualiza) al repartidor en el pool de su zona; el despacho le asigna pedidos "
+                    + "RECIBIDO compatibles con su tipo de flota hasta completar su capacidad"
+    )
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<RepartidorDisponibleResponse>> registrarDisponible(
+            @PathVariable UUID repartidorId,
+            @Valid @RequestBody DisponibilidadRepartidorRequest request
+    ) {
+        log.info("PUT /pedidos/despacho/repartidores/{} - Zona {}", repartidorId, request.getZonaId());
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                despachoService.registrarDisponible(repartidorId, request),
+                "Repartidor disponible para despacho"
+        ));
+    }
+
+    @DeleteMapping("/repartidores/{repartidorId}")
+    @Operation(
+            summary = "Retirar repartidor del despacho",
+            description = "El repartidor deja de recibir asignaciones automáticas; sus pedidos actuales no cambian"
+    )
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<Void>> retirarDisponible(
+            @PathVariable UUID repartidorId
+    ) {
+        log.info("DELETE /pedidos/despacho/repartidores/{}", repartidorId);
+        despachoService.retirarDisponible(repartidorId);
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                null,
+                "Repartidor retirado del despacho"
+        ));
+    }
+
+    @GetMapping("/repartidores")
+    @Operation(summary = "Repartidores disponibles", description = "Pool de repartidores disponibles con su carga actual")
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<List<RepartidorDisponibleResponse>>> listarDisponibles(
+            @RequestParam(required = false) String zonaId
+    ) {
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                despachoService.listarDisponibles(zonaId),
+                "Repartidores disponibles"
+        ));
+    }
+
+    @GetMapping("/metricas")
+    @Operation(
+            summary = "Métricas del despacho",
+            description = "Pedidos pendientes por zona, asignaciones, duración de los ciclos y espera media hasta la asignación"
+    )
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<DespachoMetricasResponse>> metricas() {
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                despachoService.metricas(),
+                "Métricas del despacho"
+        ));
+    }
+}
@@ -0,0 +1,32 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.dto.OutboxMetricasResponse;
+import com.logiflow.pedido.service.outbox.PedidoOutboxRelay;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/pedidos/outbox")
+@RequiredArgsConstructor
+@Tag(name = "Outbox", description = "Publicación de eventos de pedidos")
+public class OutboxController {
+
+    private final PedidoOutboxRelay outboxRelay;
+
+    @GetMapping("/metricas")
+    @Operation(
+            summary = "Métricas del outbox",
+            description = "Eventos pendientes, lag del evento más antiguo, publicados, fallos y estado de reintento del relay"
+    )
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<OutboxMetricasResponse>> metricas() {
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                outboxRelay.metricas(),
+                "Métricas del outbox"
+        ));
+    }
+}
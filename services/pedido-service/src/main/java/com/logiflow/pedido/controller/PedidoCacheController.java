@@ -0,0 +1,32 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.dto.PedidoCacheEstadisticasResponse;
+import com.logiflow.pedido.service.cache.PedidoCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/pedidos/cache")
+@RequiredArgsConstructor
+@Tag(name = "Caché", description = "Caché de lectura de pedidos")
+public class PedidoCacheController {
+
+    private final PedidoCache pedidoCache;
+
+    @GetMapping("/estadisticas")
+    @Operation(
+            summary = "Estadísticas de la caché de pedidos",
+            description = "Aciertos, fallos, tasa de aciertos, evicciones por tamaño, expiraciones por TTL e invalidaciones"
+    )
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<PedidoCacheEstadisticasResponse>> estadisticas() {
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                pedidoCache.estadisticas(),
+                "Estadísticas de la caché de pedidos"
+        ));
+    }
+}
@@ -0,0 +1,33 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.dto.ContadoresPedidosResponse;
+import com.logiflow.pedido.service.contadores.PedidoContadores;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/pedidos/contadores")
+@RequiredArgsConstructor
+@Tag(name = "Contadores", description = "Pedidos activos por zona y estado")
+public class PedidoContadoresController {
+
+    private final PedidoContadores pedidoContadores;
+
+    @GetMapping
+    @Operation(
+            summary = "Pedidos activos por zona y estado",
+            description = "Cantidad de pedidos RECIBIDO, ASIGNADO y EN_CAMINO por zona, servida desde contadores "
+                    + "en memoria reconciliados periódicamente con la base"
+    )
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<ContadoresPedidosResponse>> obtener() {
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                pedidoContadores.obtener(),
+                "Contadores de pedidos por zona"
+        ));
+    }
+}
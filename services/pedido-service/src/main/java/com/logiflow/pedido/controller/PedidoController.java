@@ -1,6 +1,8 @@
 package com.logiflow.pedido.controller;
 
 import com.logiflow.pedido.dto.*;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.service.PedidoImportService;
 import com.logiflow.pedido.service.PedidoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,10 +13,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -25,6 +33,7 @@ import java.util.UUID;
 public class PedidoController {
 
     private final PedidoService pedidoService;
+    private final PedidoImportService pedidoImportService;
 
     @PostMapping
     @Operation(
@@ -55,10 +64,171 @@ public class PedidoController {
                 ));
     }
 
+    @PostMapping("/lote")
+    @Operation(
+            summary = "Crear pedidos por lote",
+            description = "Valida cada pedido del arreglo de forma independiente e inserta los válidos en lotes JDBC. "
+                    + "Devuelve el resultado por posición: ID creado o error de validación"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote procesado (puede contener elementos rechazados)",
+                    content = @Content(schema = @Schema(implementation = LoteResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vacío o demasiado grande",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<LoteResponse>> crearPedidosLote(
+            @RequestBody List<CrearPedidoRequest> requests
+    ) {
+        log.info("POST /pedidos/lote - Creando lote de {} pedidos", requests.size());
+        LoteResponse response = pedidoService.crearPedidosLote(requests);
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                response,
+                "Lote procesado"
+        ));
+    }
+
+    @PostMapping("/importaciones/{importId}")
+    @Operation(
+            summary = "Importar pedidos desde NDJSON",
+            description = "Lee el cuerpo como NDJSON (un CrearPedidoRequest por línea) en streaming y lo carga con COPY "
+                    + "en bloques confirmados con checkpoint. Reenviar el mismo archivo con el mismo importId reanuda "
+                    + "desde la última línea confirmada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estado final de la importación (COMPLETADA o FALLIDA)",
+                    content = @Content(schema = @Schema(implementation = ImportacionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Identificador inválido o importación ya en curso",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<ImportacionResponse>> importarPedidos(
+            @PathVariable String importId,
+            InputStream ndjson
+    ) {
+        log.info("POST /pedidos/importaciones/{} - Importando pedidos", importId);
+        ImportacionResponse response = pedidoImportService.importar(importId, ndjson);
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                response,
+                "Importación " + response.getEstado()
+        ));
+    }
+
+    @GetMapping("/importaciones/{importId}")
+    @Operation(
+            summary = "Consultar importación",
+            description = "Devuelve el checkpoint y los contadores de una importación NDJSON"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importación encontrada",
+                    content = @Content(schema = @Schema(implementation = ImportacionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Importación no encontrada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<ImportacionResponse>> obtenerImportacion(
+            @PathVariable String importId
+    ) {
+        log.info("GET /pedidos/importaciones/{} - Consultando importación", importId);
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                pedidoImportService.obtenerImportacion(importId),
+                "Importación encontrada"
+        ));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Listar pedidos",
+            description = "Lista pedidos con filtros combinables (estado, zona, cliente, repartidor, rango de fecha de creación) "
+                    + "y paginación por cursor ordenada por fecha de creación descendente"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de pedidos",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Filtros, cursor o tamaño de página inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<CursorPageResponse<PedidoResponse>>> listarPedidos(
+            @RequestParam(required = false) EstadoPedido estado,
+            @RequestParam(required = false) String zonaId,
+            @RequestParam(required = false) UUID clienteId,
+            @RequestParam(required = false) UUID repartidorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaHasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.info("GET /pedidos - Listando pedidos");
+        PedidoFiltro filtro = PedidoFiltro.builder()
+                .estado(estado)
+                .zonaId(zonaId)
+                .clienteId(clienteId)
+                .repartidorId(repartidorId)
+                .fechaDesde(fechaDesde)
+                .fechaHasta(fechaHasta)
+                .build();
+        CursorPageResponse<PedidoResponse> response = pedidoService.listarPedidos(filtro, cursor, size);
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                response,
+                "Pedidos obtenidos"
+        ));
+    }
+
+    @GetMapping("/entregados")
+    @Operation(
+            summary = "Feed de pedidos entregados",
+            description = "Pedidos ENTREGADO en orden ascendente de entrega con paginación por cursor. "
+                    + "nextCursor se devuelve en toda página no vacía para reanudar el feed más adelante"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de entregas",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor o tamaño de página inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<CursorPageResponse<PedidoResponse>>> listarEntregados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int size
+    ) {
+        log.debug("GET /pedidos/entregados - Leyendo feed de entregas");
+        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
+                pedidoService.listarEntregados(cursor, size),
+                "Entregas obtenidas"
+        ));
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Obtener pedido por ID",
-            description = "Obtiene los detalles de un pedido específico"
+            description = "Obtiene los detalles de un pedido específico. La respuesta incluye un ETag con la "
+                    + "versión del pedido; con If-None-Match se responde 304 si no cambió"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -66,6 +236,10 @@ public class PedidoController {
                     description = "Pedido encontrado",
                     content = @Content(schema = @Schema(implementation = PedidoResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El pedido no cambió desde el ETag indicado"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Pedido no encontrado",
@@ -73,20 +247,35 @@ public class PedidoController {
             )
     })
     public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<PedidoResponse>> obtenerPedido(
-            @PathVariable UUID id
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         log.info("GET /pedidos/{} - Obteniendo pedido", id);
+        if (ifNoneMatch != null) {
+            long version = pedidoService.versionPedido(id);
+            if (PedidoEtag.coincideAlguna(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(PedidoEtag.de(version))
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+        }
+
         PedidoResponse response = pedidoService.obtenerPedido(id);
-        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
-                response,
-                "Pedido encontrado"
-        ));
+        return ResponseEntity.ok()
+                .eTag(PedidoEtag.de(response.getVersion()))
+                .cacheControl(CacheControl.noCache())
+                .body(com.logiflow.pedido.dto.ApiResponse.success(
+                        response,
+                        "Pedido encontrado"
+                ));
     }
 
     @PatchMapping("/{id}")
     @Operation(
             summary = "Actualizar pedido",
-            description = "Actualiza parcialmente los datos de un pedido (estado, dirección destino, repartidor, notas)"
+            description = "Actualiza parcialmente los datos de un pedido (estado, dirección destino, repartidor, notas). "
+                    + "El cambio de estado respeta la tabla de transiciones y se aplica de forma atómica"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -99,6 +288,16 @@ public class PedidoController {
                     description = "Datos inválidos o pedido no actualizable",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Transición de estado no permitida o versión desactualizada",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "El ETag de If-Match no corresponde a la versión actual",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Pedido no encontrado",
@@ -107,14 +306,17 @@ public class PedidoController {
     })
     public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<PedidoResponse>> actualizarPedido(
             @PathVariable UUID id,
-            @Valid @RequestBody ActualizarPedidoRequest request
+            @Valid @RequestBody ActualizarPedidoRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         log.info("PATCH /pedidos/{} - Actualizando pedido", id);
-        PedidoResponse response = pedidoService.actualizarPedido(id, request);
-        return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
-                response,
-                "Pedido actualizado exitosamente"
-        ));
+        PedidoResponse response = pedidoService.actualizarPedido(id, request, PedidoEtag.versionDeIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(PedidoEtag.de(response.getVersion()))
+                .body(com.logiflow.pedido.dto.ApiResponse.success(
+                        response,
+                        "Pedido actualizado exitosamente"
+                ));
     }
 
     @PatchMapping("/{id}/cancelar")
@@ -133,6 +335,11 @@ public class PedidoController {
                     description = "El pedido no puede ser cancelado en su estado actual",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "El ETag de If-Match no corresponde a la versión actual",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Pedido no encontrado",
@@ -141,13 +348,46 @@ public class PedidoController {
     })
     public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<PedidoResponse>> cancelarPedido(
             @PathVariable UUID id,
-            @Valid @RequestBody CancelarPedidoRequest request
+            @Valid @RequestBody CancelarPedidoRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
         log.info("PATCH /pedidos/{}/cancelar - Cancelando pedido", id);
-        PedidoResponse response = pedidoService.cancelarPedido(id, request.getMotivo());
+        PedidoResponse response = pedidoService.cancelarPedido(
+                id, request.getMotivo(), PedidoEtag.versionDeIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(PedidoEtag.de(response.getVersion()))
+                .body(com.logiflow.pedido.dto.ApiResponse.success(
+                        response,
+                        "Pedido cancelado exitosamente"
+                ));
+    }
+
+    @PostMapping("/cancelaciones")
+    @Operation(
+            summary = "Cancelación masiva de pedidos",
+            description = "Cancela todos los pedidos en estado RECIBIDO o ASIGNADO de una zona o de una lista de IDs. "
+                    + "Se confirma por bloques"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cancelación masiva completada",
+                    content = @Content(schema = @Schema(implementation = CancelacionMasivaResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Debe indicarse zonaId o ids",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<com.logiflow.pedido.dto.ApiResponse<CancelacionMasivaResponse>> cancelarPedidosMasivo(
+            @Valid @RequestBody CancelacionMasivaRequest request
+    ) {
+        log.info("POST /pedidos/cancelaciones - Cancelación masiva");
+        CancelacionMasivaResponse response = pedidoService.cancelarPedidosMasivo(request);
         return ResponseEntity.ok(com.logiflow.pedido.dto.ApiResponse.success(
                 response,
-                "Pedido cancelado exitosamente"
+                "Cancelación masiva completada"
         ));
     }
 }
@@ -0,0 +1,59 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.exception.PreconditionFailedException;
+
+/**
+ * ETag fuerte de un pedido derivado de su versión ({@code "3"}), que cambia en cada escritura.
+ */
+final class PedidoEtag {
+
+    private PedidoEtag() {
+    }
+
+    static String de(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Comparación débil de {@code If-None-Match}: basta con que alguna etiqueta coincida o sea {@code *}.
+     */
+    static boolean coincideAlguna(String ifNoneMatch, long version) {
+        String etag = de(version);
+        for (String etiqueta : ifNoneMatch.split(",")) {
+            String valor = etiqueta.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versión exigida por un {@code If-Match}; {@code null} si el encabezado falta o es {@code *}.
+     * Las etiquetas débiles nunca satisfacen la comparación fuerte que exige If-Match.
+     */
+    static Long versionDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match requiere un ETag fuerte");
+        }
+        if (valor.contains(",")) {
+            throw new BadRequestException("If-Match admite un único ETag");
+        }
+        if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new BadRequestException("ETag inválido en If-Match: " + valor);
+        }
+        try {
+            return Long.parseLong(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("El ETag " + valor + " no corresponde a este pedido");
+        }
+    }
+}
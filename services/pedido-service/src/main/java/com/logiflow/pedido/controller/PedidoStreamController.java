@@ -0,0 +1,54 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.service.stream.PedidoStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/pedidos")
+@RequiredArgsConstructor
+@Tag(name = "Eventos", description = "Stream SSE de cambios de estado de pedidos")
+public class PedidoStreamController {
+
+    private final PedidoStreamService streamService;
+
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream de cambios de los pedidos de un cliente",
+            description = "Emite un evento SSE (CREADO, ACTUALIZADO, CANCELADO) por cada cambio confirmado de los " +
+                    "pedidos del cliente. Al reconectar con Last-Event-ID se reenvían los eventos perdidos desde " +
+                    "memoria; si ya no están disponibles se emite un evento 'resync'"
+    )
+    public SseEmitter eventosCliente(
+            @RequestParam UUID clienteId,
+            @Parameter(description = "ID del último evento recibido")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return streamService.suscribirCliente(clienteId, lastEventId);
+    }
+
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream de cambios de un pedido",
+            description = "Igual que /pedidos/eventos pero limitado a un único pedido"
+    )
+    public SseEmitter eventosPedido(
+            @PathVariable UUID id,
+            @Parameter(description = "ID del último evento recibido")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return streamService.suscribirPedido(id, lastEventId);
+    }
+}
@@ -23,4 +23,9 @@ public class ActualizarPedidoRequest {
     private EstadoPedido estado;
 
     private UUID repartidorId;
+
+    /**
+     * Versión esperada del pedido; si se indica y no coincide con la actual se responde 409
+     */
+    private Long version;
 }
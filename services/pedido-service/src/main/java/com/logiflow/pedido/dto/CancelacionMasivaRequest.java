@@ -0,0 +1,30 @@
+package com.logiflow.pedido.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cancelación masiva: se debe indicar {@code zonaId} o {@code ids}, no ambos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CancelacionMasivaRequest {
+
+    @Size(max = 50)
+    private String zonaId;
+
+    private List<UUID> ids;
+
+    @NotBlank(message = "El motivo de cancelación es obligatorio")
+    @Size(max = 500)
+    private String motivo;
+}
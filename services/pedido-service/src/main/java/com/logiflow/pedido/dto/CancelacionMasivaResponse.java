@@ -0,0 +1,23 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CancelacionMasivaResponse {
+    private int cancelados;
+    private int bloques;
+    /**
+     * Por lista: IDs inexistentes o en estado no cancelable. Por zona: pedidos que estaban bloqueados
+     * por otra transacción y al liberarse ya no eran cancelables
+     */
+    private List<UUID> noCancelados;
+}
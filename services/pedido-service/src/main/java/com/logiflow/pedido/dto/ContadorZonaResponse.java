@@ -0,0 +1,19 @@
+package com.logiflow.pedido.dto;
+
+import com.logiflow.pedido.model.EstadoPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContadorZonaResponse {
+    private String zonaId;
+    private Map<EstadoPedido, Long> porEstado;
+    private long total;
+}
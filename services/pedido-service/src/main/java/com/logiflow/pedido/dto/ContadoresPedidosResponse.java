@@ -0,0 +1,22 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContadoresPedidosResponse {
+    private List<ContadorZonaResponse> zonas;
+    private LocalDateTime ultimaReconciliacion;
+    /**
+     * Suma de las diferencias absolutas corregidas en la última reconciliación
+     */
+    private long ultimaCorreccion;
+}
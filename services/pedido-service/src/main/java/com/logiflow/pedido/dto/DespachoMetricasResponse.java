@@ -0,0 +1,31 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DespachoMetricasResponse {
+    private boolean habilitado;
+    private long ciclos;
+    private long asignados;
+    /**
+     * Emparejamientos descartados porque el pedido ya no estaba RECIBIDO al asignarlo
+     */
+    private long descartados;
+    private long ultimoCicloMs;
+    private long maxCicloMs;
+    /**
+     * Tiempo medio desde la creación del pedido hasta su asignación automática
+     */
+    private long esperaPromedioMs;
+    private int repartidoresDisponibles;
+    private long pendientes;
+    private Map<String, Integer> pendientesPorZona;
+}
@@ -0,0 +1,33 @@
+package com.logiflow.pedido.dto;
+
+import com.logiflow.pedido.model.FleetType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DisponibilidadRepartidorRequest {
+
+    @NotBlank(message = "La zona es obligatoria")
+    @Size(max = 50)
+    private String zonaId;
+
+    @NotNull(message = "El tipo de flota es obligatorio")
+    private FleetType fleetType;
+
+    /**
+     * Pedidos activos (ASIGNADO o EN_CAMINO) que puede llevar a la vez; si se omite se usa el valor por defecto
+     */
+    @Min(1)
+    @Max(50)
+    private Integer capacidad;
+}
@@ -0,0 +1,24 @@
+package com.logiflow.pedido.dto;
+
+import com.logiflow.pedido.model.EstadoImportacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacionResponse {
+    private String importId;
+    private EstadoImportacion estado;
+    private long lineasConfirmadas;
+    private long filasInsertadas;
+    private long filasRechazadas;
+    private String ultimoError;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,31 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Resultado de un elemento dentro de una operación por lote.
+ * {@code index} es la posición del elemento en el arreglo recibido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoteItemResultado {
+    private int index;
+    private boolean success;
+    private UUID id;
+    private String error;
+
+    public static LoteItemResultado ok(int index, UUID id) {
+        return LoteItemResultado.builder().index(index).success(true).id(id).build();
+    }
+
+    public static LoteItemResultado fallo(int index, String error) {
+        return LoteItemResultado.builder().index(index).success(false).error(error).build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoteResponse {
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<LoteItemResultado> resultados;
+}
@@ -0,0 +1,27 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMetricasResponse {
+    private String sink;
+    private long pendientes;
+    /**
+     * Antigüedad en milisegundos del evento pendiente más antiguo
+     */
+    private long lagMs;
+    private long publicados;
+    private long lotesPublicados;
+    private long fallos;
+    private long ultimoLoteMs;
+    private String ultimoError;
+    private LocalDateTime reintentoDesde;
+}
@@ -0,0 +1,29 @@
+package com.logiflow.pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PedidoCacheEstadisticasResponse {
+    private boolean habilitada;
+    private long entradas;
+    private long maxEntradas;
+    private long ttlSegundos;
+    private long aciertos;
+    private long fallos;
+    /**
+     * Proporción de lecturas servidas desde la caché (0 a 1)
+     */
+    private double tasaAciertos;
+    /**
+     * Entradas descartadas por superar el tamaño máximo
+     */
+    private long evicciones;
+    private long expiraciones;
+    private long invalidaciones;
+}
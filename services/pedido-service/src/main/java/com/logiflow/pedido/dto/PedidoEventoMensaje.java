@@ -0,0 +1,45 @@
+package com.logiflow.pedido.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.PedidoEvento;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de pedido tal como se entrega a los consumidores externos.
+ * {@code pedido} es el {@link PedidoResponse} serializado al momento del cambio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PedidoEventoMensaje {
+    private Long id;
+    private UUID pedidoId;
+    private TipoEventoPedido tipo;
+    private EstadoPedido estado;
+    private Long versionPedido;
+    private LocalDateTime fechaCreacion;
+
+    @JsonRawValue
+    private String pedido;
+
+    public static PedidoEventoMensaje from(PedidoEvento evento) {
+        return PedidoEventoMensaje.builder()
+                .id(evento.getId())
+                .pedidoId(evento.getPedidoId())
+                .tipo(evento.getTipo())
+                .estado(evento.getEstado())
+                .versionPedido(evento.getVersionPedido())
+                .fechaCreacion(evento.getFechaCreacion())
+                .pedido(evento.getPayload())
+                .build();
+    }
+}
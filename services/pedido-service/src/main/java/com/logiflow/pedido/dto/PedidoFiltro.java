@@ -0,0 +1,26 @@
+package com.logiflow.pedido.dto;
+
+import com.logiflow.pedido.model.EstadoPedido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filtros combinables para el listado de pedidos. Los campos nulos no filtran.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PedidoFiltro {
+    private EstadoPedido estado;
+    private String zonaId;
+    private UUID clienteId;
+    private UUID repartidorId;
+    private LocalDateTime fechaDesde;
+    private LocalDateTime fechaHasta;
+}
@@ -27,6 +27,7 @@ public class PedidoResponse {
     private String notas;
     private EstadoPedido estado;
     private UUID repartidorId;
+    private Long version;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
     private LocalDateTime fechaCancelacion;
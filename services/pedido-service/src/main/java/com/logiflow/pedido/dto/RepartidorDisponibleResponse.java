@@ -0,0 +1,24 @@
+package com.logiflow.pedido.dto;
+
+import com.logiflow.pedido.model.FleetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RepartidorDisponibleResponse {
+    private UUID repartidorId;
+    private String zonaId;
+    private FleetType fleetType;
+    private int capacidad;
+    /**
+     * Pedidos ASIGNADO o EN_CAMINO que lleva actualmente
+     */
+    private int carga;
+}
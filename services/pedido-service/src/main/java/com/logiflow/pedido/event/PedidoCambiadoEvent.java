@@ -0,0 +1,12 @@
+package com.logiflow.pedido.event;
+
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEventoPedido;
+
+/**
+ * Evento de aplicación publicado por {@code PedidoService} dentro de la transacción de cada
+ * escritura, con el estado del pedido ya modificado. {@code estadoAnterior} es nulo en las altas.
+ */
+public record PedidoCambiadoEvent(TipoEventoPedido tipo, EstadoPedido estadoAnterior, PedidoResponse pedido) {
+}
@@ -0,0 +1,7 @@
+package com.logiflow.pedido.model;
+
+public enum EstadoImportacion {
+    EN_PROCESO,
+    COMPLETADA,
+    FALLIDA
+}
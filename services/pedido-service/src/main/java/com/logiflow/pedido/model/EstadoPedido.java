@@ -1,9 +1,45 @@
 package com.logiflow.pedido.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum EstadoPedido {
     RECIBIDO,
     ASIGNADO,
     EN_CAMINO,
     ENTREGADO,
-    CANCELADO
+    CANCELADO;
+
+    /**
+     * Tabla de transiciones permitidas: estado destino -> estados de origen válidos.
+     * Los estados no terminales admiten la transición a sí mismos (edición sin cambio de estado).
+     */
+    private static final Map<EstadoPedido, Set<EstadoPedido>> ORIGENES = new EnumMap<>(EstadoPedido.class);
+
+    static {
+        ORIGENES.put(RECIBIDO, EnumSet.of(RECIBIDO, ASIGNADO));
+        ORIGENES.put(ASIGNADO, EnumSet.of(RECIBIDO, ASIGNADO));
+        ORIGENES.put(EN_CAMINO, EnumSet.of(ASIGNADO, EN_CAMINO));
+        ORIGENES.put(ENTREGADO, EnumSet.of(EN_CAMINO));
+        ORIGENES.put(CANCELADO, EnumSet.of(RECIBIDO, ASIGNADO));
+        ORIGENES.replaceAll((destino, origenes) -> Collections.unmodifiableSet(origenes));
+    }
+
+    /**
+     * Estados desde los que se puede llegar a este estado
+     */
+    public Set<EstadoPedido> origenesPermitidos() {
+        return ORIGENES.get(this);
+    }
+
+    public boolean puedeTransicionarA(EstadoPedido destino) {
+        return destino.origenesPermitidos().contains(this);
+    }
+
+    public boolean esTerminal() {
+        return this == ENTREGADO || this == CANCELADO;
+    }
 }
@@ -0,0 +1,10 @@
+package com.logiflow.pedido.model;
+
+/**
+ * Tipo de flota del repartidor (mismos valores que en el servicio de autenticación)
+ */
+public enum FleetType {
+    MOTORIZADO,
+    VEHICULO_LIVIANO,
+    CAMION
+}
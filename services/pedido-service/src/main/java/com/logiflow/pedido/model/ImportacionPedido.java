@@ -0,0 +1,48 @@
+package com.logiflow.pedido.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint de una importación NDJSON. {@code lineasConfirmadas} es el número de líneas
+ * del archivo cuyo efecto ya está confirmado en la base; al reanudar se omiten.
+ */
+@Entity
+@Table(name = "pedido_importaciones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacionPedido {
+
+    @Id
+    @Column(name = "id", length = 100)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 30)
+    private EstadoImportacion estado;
+
+    @Column(name = "lineas_confirmadas", nullable = false)
+    private long lineasConfirmadas;
+
+    @Column(name = "filas_insertadas", nullable = false)
+    private long filasInsertadas;
+
+    @Column(name = "filas_rechazadas", nullable = false)
+    private long filasRechazadas;
+
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
@@ -16,9 +17,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "pedidos", indexes = {
-        @Index(name = "idx_estado", columnList = "estado"),
-        @Index(name = "idx_cliente_id", columnList = "cliente_id"),
-        @Index(name = "idx_zona_id", columnList = "zona_id")
+        // Índices compuestos alineados con el keyset (fecha_creacion, id) del listado paginado
+        @Index(name = "idx_pedidos_fecha_id", columnList = "fecha_creacion, id"),
+        @Index(name = "idx_pedidos_estado_fecha_id", columnList = "estado, fecha_creacion, id"),
+        @Index(name = "idx_pedidos_cliente_fecha_id", columnList = "cliente_id, fecha_creacion, id"),
+        @Index(name = "idx_pedidos_zona_fecha_id", columnList = "zona_id, fecha_creacion, id"),
+        @Index(name = "idx_pedidos_zona_estado_fecha_id", columnList = "zona_id, estado, fecha_creacion, id"),
+        @Index(name = "idx_pedidos_repartidor_fecha_id", columnList = "repartidor_id, fecha_creacion, id"),
+        // Feed de entregas ordenado por (fecha_actualizacion, id)
+        @Index(name = "idx_pedidos_estado_actualizacion_id", columnList = "estado, fecha_actualizacion, id")
 })
 @Data
 @NoArgsConstructor
@@ -68,9 +75,21 @@ public class Pedido {
     @Builder.Default
     private EstadoPedido estado = EstadoPedido.RECIBIDO;
 
+    /**
+     * Estado previo a la última transición; lo fija la misma sentencia UPDATE que cambia el estado
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_anterior", length = 30)
+    private EstadoPedido estadoAnterior;
+
     @Column(name = "repartidor_id")
     private UUID repartidorId;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "fecha_creacion", nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
 
@@ -102,6 +121,7 @@ public class Pedido {
      * Cancela el pedido con un motivo
      */
     public void cancelar(String motivo) {
+        this.estadoAnterior = this.estado;
         this.estado = EstadoPedido.CANCELADO;
         this.fechaCancelacion = LocalDateTime.now();
         this.motivoCancelacion = motivo;
@@ -111,6 +131,6 @@ public class Pedido {
      * Verifica si el pedido puede ser cancelado
      */
     public boolean puedeCancelarse() {
-        return this.estado == EstadoPedido.RECIBIDO || this.estado == EstadoPedido.ASIGNADO;
+        return this.estado.puedeTransicionarA(EstadoPedido.CANCELADO);
     }
 }
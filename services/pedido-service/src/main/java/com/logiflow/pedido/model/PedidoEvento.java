@@ -0,0 +1,54 @@
+package com.logiflow.pedido.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Fila del outbox transaccional de pedidos. Se inserta en la misma transacción que el cambio
+ * del pedido y el relay la marca como publicada tras entregarla al sink configurado.
+ * El ID usa una secuencia con asignación por bloques para que los inserts se agrupen en lotes JDBC.
+ */
+@Entity
+@Table(name = "pedido_outbox", indexes = {
+        @Index(name = "idx_outbox_publicacion_fecha_id", columnList = "fecha_publicacion, fecha_creacion, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PedidoEvento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_outbox_seq")
+    @SequenceGenerator(name = "pedido_outbox_seq", sequenceName = "pedido_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private UUID pedidoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoEventoPedido tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 30)
+    private EstadoPedido estado;
+
+    @Column(name = "version_pedido", nullable = false)
+    private Long versionPedido;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_publicacion")
+    private LocalDateTime fechaPublicacion;
+}
@@ -3,5 +3,16 @@ package com.logiflow.pedido.model;
 public enum TipoEntrega {
     URBANA,
     INTERMUNICIPAL,
-    NACIONAL
+    NACIONAL;
+
+    /**
+     * Tipo de flota que puede realizar este tipo de entrega
+     */
+    public FleetType flotaRequerida() {
+        return switch (this) {
+            case URBANA -> FleetType.MOTORIZADO;
+            case INTERMUNICIPAL -> FleetType.VEHICULO_LIVIANO;
+            case NACIONAL -> FleetType.CAMION;
+        };
+    }
 }
@@ -0,0 +1,7 @@
+package com.logiflow.pedido.model;
+
+public enum TipoEventoPedido {
+    CREADO,
+    ACTUALIZADO,
+    CANCELADO
+}
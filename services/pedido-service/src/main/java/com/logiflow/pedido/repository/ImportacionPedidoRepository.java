@@ -0,0 +1,9 @@
+package com.logiflow.pedido.repository;
+
+import com.logiflow.pedido.model.ImportacionPedido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportacionPedidoRepository extends JpaRepository<ImportacionPedido, String> {
+}
@@ -0,0 +1,42 @@
+package com.logiflow.pedido.repository;
+
+import com.logiflow.pedido.model.PedidoEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PedidoEventoRepository extends JpaRepository<PedidoEvento, Long> {
+
+    /**
+     * Siguiente lote pendiente en orden de creación. Se ordena por fecha y no solo por ID porque los
+     * IDs se reservan por bloques (Hibernate y COPY toman rangos distintos de la secuencia) y no
+     * reflejan el orden de los cambios. SKIP LOCKED permite varias instancias del relay sin entregar
+     * dos veces el mismo lote de forma concurrente.
+     */
+    @Query(value = "SELECT * FROM pedido_outbox WHERE fecha_publicacion IS NULL "
+            + "ORDER BY fecha_creacion, id LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PedidoEvento> bloquearPendientes(@Param("limite") int limite);
+
+    @Modifying
+    @Query("UPDATE PedidoEvento e SET e.fechaPublicacion = :ahora WHERE e.id IN :ids")
+    int marcarPublicados(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Query(value = "SELECT MIN(fecha_creacion) FROM pedido_outbox WHERE fecha_publicacion IS NULL", nativeQuery = true)
+    Optional<LocalDateTime> fechaPendienteMasAntigua();
+
+    @Query(value = "SELECT COUNT(*) FROM pedido_outbox WHERE fecha_publicacion IS NULL", nativeQuery = true)
+    long contarPendientes();
+
+    @Modifying
+    @Query(value = "DELETE FROM pedido_outbox WHERE id IN (SELECT id FROM pedido_outbox "
+            + "WHERE fecha_publicacion < :limite LIMIT :maximo)", nativeQuery = true)
+    int eliminarPublicadosAntesDe(@Param("limite") LocalDateTime limite, @Param("maximo") int maximo);
+}
@@ -2,14 +2,21 @@ package com.logiflow.pedido.repository;
 
 import com.logiflow.pedido.model.EstadoPedido;
 import com.logiflow.pedido.model.Pedido;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, UUID> {
+public interface PedidoRepository extends JpaRepository<Pedido, UUID>, JpaSpecificationExecutor<Pedido> {
     
     List<Pedido> findByClienteId(UUID clienteId);
     
@@ -18,4 +25,136 @@ public interface PedidoRepository extends JpaRepository<Pedido, UUID> {
     List<Pedido> findByZonaId(String zonaId);
     
     List<Pedido> findByRepartidorId(UUID repartidorId);
+
+    /**
+     * Transición atómica en una sola sentencia: solo se aplica si el estado actual está entre
+     * {@code origenes} y, cuando {@code version} no es nulo, si la versión coincide. Al volver a
+     * RECIBIDO se quita el repartidor para que el pedido regrese al despacho automático.
+     * Devuelve la fila resultante o vacío si la condición no se cumplió.
+     */
+    @Query(value = "UPDATE pedidos SET estado_anterior = estado, estado = :nuevoEstado, "
+            + "direccion_destino = COALESCE(:direccionDestino, direccion_destino), "
+            + "notas = COALESCE(:notas, notas), "
+            + "repartidor_id = CASE WHEN CAST(:nuevoEstado AS varchar) = 'RECIBIDO' THEN NULL "
+            + "ELSE COALESCE(CAST(:repartidorId AS uuid), repartidor_id) END, "
+            + "fecha_actualizacion = :ahora, version = version + 1 "
+            + "WHERE id = :id AND estado IN (:origenes) "
+            + "AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint)) "
+            + "RETURNING *", nativeQuery = true)
+    Optional<Pedido> transicionar(
+            @Param("id") UUID id,
+            @Param("origenes") Collection<String> origenes,
+            @Param("nuevoEstado") String nuevoEstado,
+            @Param("direccionDestino") String direccionDestino,
+            @Param("notas") String notas,
+            @Param("repartidorId") String repartidorId,
+            @Param("version") Long version,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Cancelación atómica de un pedido si su estado está entre {@code origenes} y, cuando
+     * {@code version} no es nulo, si la versión coincide
+     */
+    @Query(value = "UPDATE pedidos SET estado_anterior = estado, estado = 'CANCELADO', motivo_cancelacion = :motivo, "
+            + "fecha_cancelacion = :ahora, fecha_actualizacion = :ahora, version = version + 1 "
+            + "WHERE id = :id AND estado IN (:origenes) "
+            + "AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint)) "
+            + "RETURNING *", nativeQuery = true)
+    Optional<Pedido> cancelar(
+            @Param("id") UUID id,
+            @Param("origenes") Collection<String> origenes,
+            @Param("motivo") String motivo,
+            @Param("version") Long version,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Pedidos por zona y estado (filas: zonaId, estado, total) para sembrar y reconciliar los contadores
+     */
+    @Query("SELECT p.zonaId, p.estado, COUNT(p) FROM Pedido p WHERE p.estado IN :estados GROUP BY p.zonaId, p.estado")
+    List<Object[]> contarPorZonaYEstado(@Param("estados") Collection<EstadoPedido> estados);
+
+    /**
+     * Pedidos RECIBIDO sin repartidor, del más antiguo al más reciente (filas: id, zonaId, tipoEntrega,
+     * fechaCreacion), para cargar las colas del despacho automático
+     */
+    @Query("SELECT p.id, p.zonaId, p.tipoEntrega, p.fechaCreacion FROM Pedido p "
+            + "WHERE p.estado = :estado AND p.repartidorId IS NULL ORDER BY p.fechaCreacion, p.id")
+    List<Object[]> findPendientesDeAsignacion(@Param("estado") EstadoPedido estado, Limit limit);
+
+    /**
+     * Pedidos por repartidor en los estados indicados (filas: repartidorId, total)
+     */
+    @Query("SELECT p.repartidorId, COUNT(p) FROM Pedido p "
+            + "WHERE p.repartidorId IN :repartidores AND p.estado IN :estados GROUP BY p.repartidorId")
+    List<Object[]> contarPorRepartidor(
+            @Param("repartidores") Collection<UUID> repartidores,
+            @Param("estados") Collection<EstadoPedido> estados
+    );
+
+    /**
+     * Versión actual del pedido sin cargar la entidad (validación de ETag)
+     */
+    @Query("SELECT p.version FROM Pedido p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Pedidos ENTREGADO posteriores a (fecha, id) en orden de (fecha_actualizacion, id), entregados
+     * hasta {@code hasta}. ENTREGADO es terminal: la fecha de actualización es la de entrega y ya no cambia.
+     */
+    @Query("SELECT p FROM Pedido p WHERE p.estado = com.logiflow.pedido.model.EstadoPedido.ENTREGADO "
+            + "AND p.fechaActualizacion <= :hasta "
+            + "AND (p.fechaActualizacion > :fecha OR (p.fechaActualizacion = :fecha AND p.id > :id)) "
+            + "ORDER BY p.fechaActualizacion, p.id")
+    List<Pedido> findEntregadosDespuesDe(
+            @Param("fecha") LocalDateTime fecha,
+            @Param("id") UUID id,
+            @Param("hasta") LocalDateTime hasta,
+            Limit limite
+    );
+
+    /**
+     * Cancela en una sentencia los pedidos cancelables de la lista; los no cancelables se ignoran.
+     * Las filas se bloquean en orden de id para que dos cancelaciones con pedidos en común no se
+     * bloqueen mutuamente.
+     */
+    @Query(value = "UPDATE pedidos SET estado_anterior = estado, estado = 'CANCELADO', motivo_cancelacion = :motivo, "
+            + "fecha_cancelacion = :ahora, fecha_actualizacion = :ahora, version = version + 1 "
+            + "WHERE estado IN (:origenes) AND id IN ("
+            + "SELECT id FROM pedidos WHERE id IN (:ids) AND estado IN (:origenes) ORDER BY id FOR UPDATE) "
+            + "RETURNING *", nativeQuery = true)
+    List<Pedido> cancelarPorIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("origenes") Collection<String> origenes,
+            @Param("motivo") String motivo,
+            @Param("ahora") LocalDateTime ahora
+    );
+
+    /**
+     * Cancela un bloque de hasta {@code limite} pedidos cancelables de la zona. Las filas bloqueadas
+     * por otra transacción se omiten (SKIP LOCKED), así que un bloque puede quedar corto aunque
+     * queden pedidos cancelables; esos se buscan con {@link #findIdsCancelablesPorZona} al terminar.
+     */
+    @Query(value = "UPDATE pedidos SET estado_anterior = estado, estado = 'CANCELADO', motivo_cancelacion = :motivo, "
+            + "fecha_cancelacion = :ahora, fecha_actualizacion = :ahora, version = version + 1 "
+            + "WHERE id IN (SELECT id FROM pedidos WHERE zona_id = :zonaId AND estado IN (:origenes) "
+            + "LIMIT :limite FOR UPDATE SKIP LOCKED) "
+            + "RETURNING *", nativeQuery = true)
+    List<Pedido> cancelarBloquePorZona(
+            @Param("zonaId") String zonaId,
+            @Param("origenes") Collection<String> origenes,
+            @Param("motivo") String motivo,
+            @Param("ahora") LocalDateTime ahora,
+            @Param("limite") int limite
+    );
+
+    /**
+     * IDs de los pedidos de la zona que siguen en un estado cancelable.
+     */
+    @Query(value = "SELECT id FROM pedidos WHERE zona_id = :zonaId AND estado IN (:origenes)", nativeQuery = true)
+    List<UUID> findIdsCancelablesPorZona(
+            @Param("zonaId") String zonaId,
+            @Param("origenes") Collection<String> origenes
+    );
 }
@@ -0,0 +1,72 @@
+package com.logiflow.pedido.repository;
+
+import com.logiflow.pedido.dto.PedidoFiltro;
+import com.logiflow.pedido.model.Pedido;
+import com.logiflow.pedido.service.PedidoCursor;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Especificaciones JPA para el listado filtrado de pedidos
+ */
+public final class PedidoSpecifications {
+
+    /**
+     * Orden del keyset; coincide con la cola (fecha_creacion, id) de los índices compuestos de {@link Pedido}
+     */
+    public static final Sort ORDEN_KEYSET = Sort.by(
+            Sort.Order.desc("fechaCreacion"),
+            Sort.Order.desc("id")
+    );
+
+    private PedidoSpecifications() {
+    }
+
+    public static Specification<Pedido> conFiltro(PedidoFiltro filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filtro.getEstado() != null) {
+                predicates.add(cb.equal(root.get("estado"), filtro.getEstado()));
+            }
+            if (filtro.getZonaId() != null) {
+                predicates.add(cb.equal(root.get("zonaId"), filtro.getZonaId()));
+            }
+            if (filtro.getClienteId() != null) {
+                predicates.add(cb.equal(root.get("clienteId"), filtro.getClienteId()));
+            }
+            if (filtro.getRepartidorId() != null) {
+                predicates.add(cb.equal(root.get("repartidorId"), filtro.getRepartidorId()));
+            }
+            if (filtro.getFechaDesde() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("fechaCreacion"), filtro.getFechaDesde()));
+            }
+            if (filtro.getFechaHasta() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("fechaCreacion"), filtro.getFechaHasta()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Filas estrictamente posteriores al cursor en orden descendente:
+     * {@code fecha <= :f AND (fecha < :f OR id < :id)}. La primera condición acota el
+     * rango del índice; la segunda descarta el empate ya entregado.
+     */
+    public static Specification<Pedido> despuesDe(PedidoCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.<LocalDateTime>get("fechaCreacion"), cursor.fechaCreacion()),
+                cb.or(
+                        cb.lessThan(root.<LocalDateTime>get("fechaCreacion"), cursor.fechaCreacion()),
+                        cb.lessThan(root.<UUID>get("id"), cursor.id())
+                )
+        );
+    }
+}
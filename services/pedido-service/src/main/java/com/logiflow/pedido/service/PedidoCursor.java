@@ -0,0 +1,49 @@
+package com.logiflow.pedido.service;
+
+import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.model.Pedido;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición del keyset (fecha_creacion, id) codificada como cursor opaco en Base64 URL-safe.
+ * El feed de entregas usa el mismo formato con la fecha de actualización.
+ */
+public record PedidoCursor(LocalDateTime fechaCreacion, UUID id) {
+
+    private static final char SEPARADOR = '|';
+
+    public static PedidoCursor of(Pedido pedido) {
+        return new PedidoCursor(pedido.getFechaCreacion(), pedido.getId());
+    }
+
+    public static PedidoCursor deEntrega(Pedido pedido) {
+        return new PedidoCursor(pedido.getFechaActualizacion(), pedido.getId());
+    }
+
+    public String encode() {
+        String raw = fechaCreacion.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PedidoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARADOR);
+            if (sep < 0) {
+                throw new BadRequestException("Cursor inválido");
+            }
+            return new PedidoCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.logiflow.pedido.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.logiflow.pedido.dto.CrearPedidoRequest;
+import com.logiflow.pedido.dto.ImportacionResponse;
+import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.exception.ResourceNotFoundException;
+import com.logiflow.pedido.model.EstadoImportacion;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.ImportacionPedido;
+import com.logiflow.pedido.repository.ImportacionPedidoRepository;
+import com.logiflow.pedido.service.contadores.PedidoContadores;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Importación de pedidos desde NDJSON usando COPY de PostgreSQL.
+ *
+ * El archivo se lee línea a línea y cada fila válida se escribe directamente al COPY abierto,
+ * sin acumular el archivo ni los pedidos en memoria. Cada bloque de {@code chunkSize} líneas
+ * se confirma en la misma transacción que su checkpoint, de modo que una importación fallida
+ * se reanuda enviando el mismo archivo con el mismo {@code importId}: las líneas ya confirmadas
+ * se omiten sin parsearlas.
+ */
+@Service
+@Slf4j
+public class PedidoImportService {
+
+    private static final String COPY_SQL = "COPY pedidos (id, cliente_id, direccion_origen, direccion_destino, "
+            + "tipo_entrega, zona_id, distancia_km, notas, estado, version, fecha_creacion, fecha_actualizacion) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String CHECKPOINT_SQL = "INSERT INTO pedido_importaciones "
+            + "(id, estado, lineas_confirmadas, filas_insertadas, filas_rechazadas, ultimo_error, fecha_inicio, fecha_actualizacion) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (id) DO UPDATE SET estado = EXCLUDED.estado, "
+            + "lineas_confirmadas = EXCLUDED.lineas_confirmadas, filas_insertadas = EXCLUDED.filas_insertadas, "
+            + "filas_rechazadas = EXCLUDED.filas_rechazadas, ultimo_error = EXCLUDED.ultimo_error, "
+            + "fecha_actualizacion = EXCLUDED.fecha_actualizacion";
+
+    /**
+     * Eventos CREADO del bloque importado, en una sola sentencia. El payload reproduce las claves
+     * de PedidoResponse.
+     */
+    private static final String OUTBOX_SQL = "INSERT INTO pedido_outbox "
+            + "(id, pedido_id, tipo, estado, version_pedido, payload, fecha_creacion) "
+            + "SELECT nextval('pedido_outbox_seq'), p.id, 'CREADO', p.estado, p.version, "
+            + "json_build_object('id', p.id, 'clienteId', p.cliente_id, 'direccionOrigen', p.direccion_origen, "
+            + "'direccionDestino', p.direccion_destino, 'tipoEntrega', p.tipo_entrega, 'zonaId', p.zona_id, "
+            + "'distanciaKm', p.distancia_km, 'notas', p.notas, 'estado', p.estado, 'repartidorId', p.repartidor_id, "
+            + "'version', p.version, 'fechaCreacion', p.fecha_creacion, 'fechaActualizacion', p.fecha_actualizacion, "
+            + "'fechaCancelacion', p.fecha_cancelacion, 'motivoCancelacion', p.motivo_cancelacion)::text, ? "
+            + "FROM pedidos p WHERE p.id = ANY(?)";
+
+    private static final String BLOQUEO_SQL = "SELECT pg_try_advisory_lock(hashtextextended(?, 0))";
+    private static final String DESBLOQUEO_SQL = "SELECT pg_advisory_unlock(hashtextextended(?, 0))";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final DataSource dataSource;
+    private final ImportacionPedidoRepository importacionRepository;
+    private final Validator validator;
+    private final PedidoContadores pedidoContadores;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+
+    public PedidoImportService(
+            DataSource dataSource,
+            ImportacionPedidoRepository importacionRepository,
+            Validator validator,
+            PedidoContadores pedidoContadores,
+            ObjectMapper objectMapper,
+            @Value("${pedido.importacion.chunk-size:10000}") int chunkSize
+    ) {
+        this.dataSource = dataSource;
+        this.importacionRepository = importacionRepository;
+        this.validator = validator;
+        this.pedidoContadores = pedidoContadores;
+        this.requestReader = objectMapper.readerFor(CrearPedidoRequest.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportacionResponse importar(String importId, InputStream ndjson) {
+        if (importId == null || importId.isBlank() || importId.length() > 100) {
+            throw new BadRequestException("El identificador de importación es obligatorio (máx. 100 caracteres)");
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            if (!bloquear(conn, importId)) {
+                throw new BadRequestException("La importación " + importId + " ya está en curso");
+            }
+            try {
+                ImportacionPedido checkpoint = importacionRepository.findById(importId)
+                        .orElseGet(() -> nuevoCheckpoint(importId));
+
+                if (checkpoint.getEstado() == EstadoImportacion.COMPLETADA) {
+                    log.info("Importación {} ya completada, no se reprocesa", importId);
+                    return mapToResponse(checkpoint);
+                }
+
+                log.info("Iniciando importación {} desde la línea {}", importId, checkpoint.getLineasConfirmadas());
+                return ejecutar(conn, checkpoint, ndjson);
+            } finally {
+                desbloquear(conn, importId);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo iniciar la importación " + importId + ": " + e.getMessage(), e);
+        }
+    }
+
+    public ImportacionResponse obtenerImportacion(String importId) {
+        return importacionRepository.findById(importId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Importación no encontrada: " + importId));
+    }
+
+    private ImportacionResponse ejecutar(Connection conn, ImportacionPedido checkpoint, InputStream ndjson) {
+        Progreso progreso = new Progreso(checkpoint);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8), 1 << 16)) {
+            conn.setAutoCommit(false);
+            PGConnection pg = conn.unwrap(PGConnection.class);
+
+            long linea = 0;
+            String texto;
+            while (linea < progreso.lineasConfirmadas && reader.readLine() != null) {
+                linea++;
+            }
+
+            StringBuilder fila = new StringBuilder(512);
+            List<UUID> idsBloque = new ArrayList<>();
+            Map<String, Integer> altasPorZona = new HashMap<>();
+            CopyIn copy = null;
+            int lineasEnBloque = 0;
+            LocalDateTime ahora = LocalDateTime.now();
+
+            try {
+                while ((texto = reader.readLine()) != null) {
+                    linea++;
+                    lineasEnBloque++;
+
+                    CrearPedidoRequest request = parsear(texto, linea, progreso);
+                    if (request != null) {
+                        if (copy == null) {
+                            copy = pg.getCopyAPI().copyIn(COPY_SQL);
+                        }
+                        UUID id = UUID.randomUUID();
+                        idsBloque.add(id);
+                        altasPorZona.merge(request.getZonaId(), 1, Integer::sum);
+                        fila.setLength(0);
+                        escribirFila(fila, id, request, ahora);
+                        byte[] bytes = fila.toString().getBytes(StandardCharsets.UTF_8);
+                        copy.writeToCopy(bytes, 0, bytes.length);
+                        progreso.insertadasEnBloque++;
+                    }
+
+                    if (lineasEnBloque == chunkSize) {
+                        confirmarBloque(conn, copy, idsBloque, altasPorZona, progreso, linea, EstadoImportacion.EN_PROCESO);
+                        copy = null;
+                        lineasEnBloque = 0;
+                        ahora = LocalDateTime.now();
+                    }
+                }
+
+                confirmarBloque(conn, copy, idsBloque, altasPorZona, progreso, linea, EstadoImportacion.COMPLETADA);
+            } catch (IOException | SQLException | RuntimeException e) {
+                // Cualquier fallo deja el COPY cancelado y el bloque sin confirmar antes de devolver la conexión
+                progreso.descartarBloque();
+                idsBloque.clear();
+                altasPorZona.clear();
+                if (copy != null && copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                conn.rollback();
+                throw e;
+            }
+
+            log.info("Importación {} completada: {} líneas, {} insertadas, {} rechazadas",
+                    checkpoint.getId(), linea, progreso.filasInsertadas, progreso.filasRechazadas);
+        } catch (IOException | SQLException | RuntimeException e) {
+            log.error("Importación {} fallida tras la línea {}: {}",
+                    checkpoint.getId(), progreso.lineasConfirmadas, e.getMessage(), e);
+            progreso.ultimoError = truncar("Error en importación: " + e.getMessage());
+            marcarFallida(progreso);
+        }
+
+        return mapToResponse(progreso.toCheckpoint());
+    }
+
+    /**
+     * Bloqueo consultivo de sesión por {@code importId}, tomado en la conexión de la importación: lo
+     * ve cualquier instancia del servicio y PostgreSQL lo libera solo si la conexión se pierde. El
+     * checkpoint se lee después de tomarlo para no reanudar desde uno que otra instancia ya avanzó.
+     */
+    private boolean bloquear(Connection conn, String importId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(BLOQUEO_SQL)) {
+            ps.setString(1, importId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void desbloquear(Connection conn, String importId) {
+        try (PreparedStatement ps = conn.prepareStatement(DESBLOQUEO_SQL)) {
+            conn.setAutoCommit(true);
+            ps.setString(1, importId);
+            ps.execute();
+        } catch (SQLException e) {
+            log.error("No se pudo liberar el bloqueo de la importación {}: {}", importId, e.getMessage());
+        }
+    }
+
+    private CrearPedidoRequest parsear(String texto, long linea, Progreso progreso) {
+        if (texto.isBlank()) {
+            return null;
+        }
+        try {
+            CrearPedidoRequest request = requestReader.readValue(texto);
+            Set<ConstraintViolation<CrearPedidoRequest>> violaciones = validator.validate(request);
+            if (violaciones.isEmpty()) {
+                return request;
+            }
+            progreso.rechazar(linea, violaciones.iterator().next().getMessage());
+        } catch (JsonProcessingException e) {
+            progreso.rechazar(linea, "JSON inválido");
+        }
+        return null;
+    }
+
+    private void confirmarBloque(Connection conn, CopyIn copy, List<UUID> ids, Map<String, Integer> altasPorZona,
+                                 Progreso progreso, long linea, EstadoImportacion estado) throws SQLException {
+        if (copy != null) {
+            copy.endCopy();
+            registrarEventos(conn, ids);
+        }
+        guardarCheckpoint(conn, progreso.siguienteCheckpoint(linea, estado));
+        conn.commit();
+        progreso.avanzar(linea, estado);
+        try {
+            pedidoContadores.registrarAltas(altasPorZona);
+        } catch (RuntimeException e) {
+            // El bloque ya está confirmado; la reconciliación periódica corrige los contadores
+            log.warn("Importación {}: no se pudieron actualizar los contadores: {}", progreso.id, e.getMessage());
+        }
+        ids.clear();
+        altasPorZona.clear();
+        log.debug("Importación {}: checkpoint en línea {} ({} insertadas)",
+                progreso.id, linea, progreso.filasInsertadas);
+    }
+
+    private void registrarEventos(Connection conn, List<UUID> ids) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(OUTBOX_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(2, conn.createArrayOf("uuid", ids.toArray()));
+            ps.executeUpdate();
+        }
+    }
+
+    private void marcarFallida(Progreso progreso) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(true);
+            ImportacionPedido checkpoint = progreso.toCheckpoint();
+            checkpoint.setEstado(EstadoImportacion.FALLIDA);
+            guardarCheckpoint(conn, checkpoint);
+            progreso.estado = EstadoImportacion.FALLIDA;
+        } catch (SQLException e) {
+            log.error("No se pudo registrar el fallo de la importación {}: {}", progreso.id, e.getMessage());
+        }
+    }
+
+    private void guardarCheckpoint(Connection conn, ImportacionPedido checkpoint) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(CHECKPOINT_SQL)) {
+            ps.setString(1, checkpoint.getId());
+            ps.setString(2, checkpoint.getEstado().name());
+            ps.setLong(3, checkpoint.getLineasConfirmadas());
+            ps.setLong(4, checkpoint.getFilasInsertadas());
+            ps.setLong(5, checkpoint.getFilasRechazadas());
+            ps.setString(6, checkpoint.getUltimoError());
+            ps.setTimestamp(7, Timestamp.valueOf(checkpoint.getFechaInicio()));
+            ps.setTimestamp(8, Timestamp.valueOf(checkpoint.getFechaActualizacion()));
+            ps.executeUpdate();
+        }
+    }
+
+    private void escribirFila(StringBuilder sb, UUID id, CrearPedidoRequest r, LocalDateTime ahora) {
+        sb.append(id).append(',')
+                .append(r.getClienteId()).append(',');
+        csv(sb, r.getDireccionOrigen()).append(',');
+        csv(sb, r.getDireccionDestino()).append(',');
+        sb.append(r.getTipoEntrega().name()).append(',');
+        csv(sb, r.getZonaId()).append(',');
+        sb.append(r.getDistanciaKm().toPlainString()).append(',');
+        csv(sb, r.getNotas()).append(',');
+        sb.append(EstadoPedido.RECIBIDO.name()).append(",0,")
+                .append(ahora).append(',')
+                .append(ahora).append('\n');
+    }
+
+    /**
+     * Campo CSV entre comillas; un valor nulo se deja vacío y sin comillas para que COPY lo lea como NULL.
+     */
+    private static StringBuilder csv(StringBuilder sb, String valor) {
+        if (valor == null) {
+            return sb;
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    private ImportacionPedido nuevoCheckpoint(String importId) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return ImportacionPedido.builder()
+                .id(importId)
+                .estado(EstadoImportacion.EN_PROCESO)
+                .fechaInicio(ahora)
+                .fechaActualizacion(ahora)
+                .build();
+    }
+
+    private static String truncar(String mensaje) {
+        return mensaje.length() <= MAX_ERROR_LENGTH ? mensaje : mensaje.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private ImportacionResponse mapToResponse(ImportacionPedido importacion) {
+        return ImportacionResponse.builder()
+                .importId(importacion.getId())
+                .estado(importacion.getEstado())
+                .lineasConfirmadas(importacion.getLineasConfirmadas())
+                .filasInsertadas(importacion.getFilasInsertadas())
+                .filasRechazadas(importacion.getFilasRechazadas())
+                .ultimoError(importacion.getUltimoError())
+                .fechaInicio(importacion.getFechaInicio())
+                .fechaActualizacion(importacion.getFechaActualizacion())
+                .build();
+    }
+
+    /**
+     * Contadores de la importación en curso; los valores "EnBloque" se descartan si el bloque no confirma.
+     */
+    private static final class Progreso {
+        private final String id;
+        private final LocalDateTime fechaInicio;
+        private EstadoImportacion estado;
+        private long lineasConfirmadas;
+        private long filasInsertadas;
+        private long filasRechazadas;
+        private long insertadasEnBloque;
+        private long rechazadasEnBloque;
+        private String ultimoError;
+        private String ultimoErrorConfirmado;
+
+        /**
+         * Al reanudar una importación fallida se descarta el error que la detuvo; el de una línea
+         * rechazada en un bloque ya confirmado se conserva.
+         */
+        private Progreso(ImportacionPedido checkpoint) {
+            this.id = checkpoint.getId();
+            this.fechaInicio = checkpoint.getFechaInicio();
+            this.estado = EstadoImportacion.EN_PROCESO;
+            this.lineasConfirmadas = checkpoint.getLineasConfirmadas();
+            this.filasInsertadas = checkpoint.getFilasInsertadas();
+            this.filasRechazadas = checkpoint.getFilasRechazadas();
+            this.ultimoError = checkpoint.getEstado() == EstadoImportacion.FALLIDA ? null : checkpoint.getUltimoError();
+            this.ultimoErrorConfirmado = ultimoError;
+        }
+
+        private void rechazar(long linea, String motivo) {
+            rechazadasEnBloque++;
+            ultimoError = truncar("Línea " + linea + ": " + motivo);
+        }
+
+        private void avanzar(long linea, EstadoImportacion nuevoEstado) {
+            lineasConfirmadas = linea;
+            filasInsertadas += insertadasEnBloque;
+            filasRechazadas += rechazadasEnBloque;
+            insertadasEnBloque = 0;
+            rechazadasEnBloque = 0;
+            ultimoErrorConfirmado = ultimoError;
+            estado = nuevoEstado;
+        }
+
+        private void descartarBloque() {
+            insertadasEnBloque = 0;
+            rechazadasEnBloque = 0;
+            ultimoError = ultimoErrorConfirmado;
+        }
+
+        private ImportacionPedido siguienteCheckpoint(long linea, EstadoImportacion nuevoEstado) {
+            ImportacionPedido checkpoint = toCheckpoint();
+            checkpoint.setEstado(nuevoEstado);
+            checkpoint.setLineasConfirmadas(linea);
+            checkpoint.setFilasInsertadas(filasInsertadas + insertadasEnBloque);
+            checkpoint.setFilasRechazadas(filasRechazadas + rechazadasEnBloque);
+            return checkpoint;
+        }
+
+        private ImportacionPedido toCheckpoint() {
+            return ImportacionPedido.builder()
+                    .id(id)
+                    .estado(estado)
+                    .lineasConfirmadas(lineasConfirmadas)
+                    .filasInsertadas(filasInsertadas)
+                    .filasRechazadas(filasRechazadas)
+                    .ultimoError(ultimoError)
+                    .fechaInicio(fechaInicio)
+                    .fechaActualizacion(LocalDateTime.now())
+                    .build();
+        }
+    }
+}
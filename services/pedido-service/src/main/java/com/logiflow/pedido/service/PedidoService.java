@@ -1,117 +1,502 @@
 package com.logiflow.pedido.service;
 
 import com.logiflow.pedido.dto.ActualizarPedidoRequest;
+import com.logiflow.pedido.dto.CancelacionMasivaRequest;
+import com.logiflow.pedido.dto.CancelacionMasivaResponse;
 import com.logiflow.pedido.dto.CrearPedidoRequest;
+import com.logiflow.pedido.dto.CursorPageResponse;
+import com.logiflow.pedido.dto.LoteItemResultado;
+import com.logiflow.pedido.dto.LoteResponse;
+import com.logiflow.pedido.dto.PedidoFiltro;
 import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
 import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.exception.ConflictException;
+import com.logiflow.pedido.exception.PreconditionFailedException;
 import com.logiflow.pedido.exception.ResourceNotFoundException;
 import com.logiflow.pedido.model.EstadoPedido;
 import com.logiflow.pedido.model.Pedido;
+import com.logiflow.pedido.model.TipoEventoPedido;
 import com.logiflow.pedido.repository.PedidoRepository;
+import com.logiflow.pedido.repository.PedidoSpecifications;
+import com.logiflow.pedido.service.cache.PedidoCache;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PedidoService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_LOTE_SIZE = 5000;
+    public static final int MAX_ENTREGAS_PAGE_SIZE = 1000;
+
+    private static final PedidoCursor INICIO_ENTREGAS = new PedidoCursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0));
+
+    private static final List<String> ORIGENES_CANCELACION =
+            EstadoPedido.CANCELADO.origenesPermitidos().stream().map(Enum::name).toList();
+
+    private static final List<String> ORIGENES_ASIGNACION_AUTOMATICA = List.of(EstadoPedido.RECIBIDO.name());
+
     private final PedidoRepository pedidoRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PedidoCache pedidoCache;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Value("${pedido.cancelacion.chunk-size:500}")
+    private int cancelacionChunkSize;
+
+    @Value("${pedido.entregas.margen-ms:5000}")
+    private long margenEntregasMs;
 
     @Transactional
     public PedidoResponse crearPedido(CrearPedidoRequest request) {
         log.info("Creando pedido para cliente: {}", request.getClienteId());
 
-        Pedido pedido = Pedido.builder()
-                .clienteId(request.getClienteId())
-                .direccionOrigen(request.getDireccionOrigen())
-                .direccionDestino(request.getDireccionDestino())
-                .tipoEntrega(request.getTipoEntrega())
-                .zonaId(request.getZonaId())
-                .distanciaKm(request.getDistanciaKm())
-                .notas(request.getNotas())
-                .estado(EstadoPedido.RECIBIDO)
-                .build();
+        Pedido pedido = toEntity(request);
 
         @SuppressWarnings("null")
         Pedido savedPedido = pedidoRepository.save(pedido);
         log.info("Pedido creado exitosamente con ID: {}", savedPedido.getId());
 
-        return mapToResponse(savedPedido);
+        return publicarCambio(TipoEventoPedido.CREADO, savedPedido);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Crea un lote de pedidos en una sola transacción. Cada elemento se valida de forma
+     * independiente; los válidos se insertan en lotes JDBC (hibernate.jdbc.batch_size)
+     * vaciando el contexto de persistencia tras cada bloque para mantener la memoria acotada.
+     */
+    @Transactional
+    public LoteResponse crearPedidosLote(List<CrearPedidoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("El lote de pedidos no puede estar vacío");
+        }
+        if (requests.size() > MAX_LOTE_SIZE) {
+            throw new BadRequestException("El lote no puede exceder " + MAX_LOTE_SIZE + " pedidos");
+        }
+
+        List<LoteItemResultado> resultados = new ArrayList<>(requests.size());
+        List<Pedido> pendientes = new ArrayList<>(batchSize);
+        List<Integer> indicesPendientes = new ArrayList<>(batchSize);
+        int exitosos = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            CrearPedidoRequest request = requests.get(i);
+            String error = validar(request);
+            if (error != null) {
+                resultados.add(LoteItemResultado.fallo(i, error));
+                continue;
+            }
+
+            Pedido pedido = toEntity(request);
+            entityManager.persist(pedido);
+            publicarCambio(TipoEventoPedido.CREADO, pedido);
+            pendientes.add(pedido);
+            indicesPendientes.add(i);
+
+            if (pendientes.size() == batchSize) {
+                exitosos += flushLote(pendientes, indicesPendientes, resultados);
+            }
+        }
+        exitosos += flushLote(pendientes, indicesPendientes, resultados);
+
+        resultados.sort(Comparator.comparingInt(LoteItemResultado::getIndex));
+        log.info("Lote de pedidos procesado: {} recibidos, {} creados, {} rechazados",
+                requests.size(), exitosos, requests.size() - exitosos);
+
+        return LoteResponse.builder()
+                .total(requests.size())
+                .exitosos(exitosos)
+                .fallidos(requests.size() - exitosos)
+                .resultados(resultados)
+                .build();
+    }
+
+    /**
+     * Lectura por ID servida desde {@link PedidoCache}; solo en un fallo se consulta la base
+     * (findById abre su propia transacción de solo lectura).
+     */
     public PedidoResponse obtenerPedido(UUID id) {
         log.info("Obteniendo pedido con ID: {}", id);
-        
-        @SuppressWarnings("null")
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con ID: " + id));
 
-        return mapToResponse(pedido);
+        return pedidoCache.obtener(id, () -> {
+            @SuppressWarnings("null")
+            Pedido pedido = pedidoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con ID: " + id));
+            return mapToResponse(pedido);
+        });
     }
 
-    @Transactional
-    public PedidoResponse actualizarPedido(UUID id, ActualizarPedidoRequest request) {
-        log.info("Actualizando pedido con ID: {}", id);
-
-        @SuppressWarnings("null")
-        Pedido pedido = pedidoRepository.findById(id)
+    /**
+     * Versión actual del pedido para validar ETags; evita cargar la entidad si está en caché.
+     */
+    public long versionPedido(UUID id) {
+        return pedidoCache.buscar(id)
+                .map(PedidoResponse::getVersion)
+                .or(() -> pedidoRepository.findVersionById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con ID: " + id));
+    }
 
-        if (pedido.getEstado() == EstadoPedido.CANCELADO) {
-            throw new BadRequestException("No se puede actualizar un pedido cancelado");
+    /**
+     * Lista pedidos filtrados con paginación por cursor sobre (fecha_creacion, id) descendente.
+     * Se consulta un elemento extra para saber si existe una página siguiente sin usar COUNT.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PedidoResponse> listarPedidos(PedidoFiltro filtro, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
         }
-
-        if (pedido.getEstado() == EstadoPedido.ENTREGADO) {
-            throw new BadRequestException("No se puede actualizar un pedido ya entregado");
+        if (filtro.getFechaDesde() != null && filtro.getFechaHasta() != null
+                && !filtro.getFechaDesde().isBefore(filtro.getFechaHasta())) {
+            throw new BadRequestException("fechaDesde debe ser anterior a fechaHasta");
         }
 
-        if (request.getDireccionDestino() != null) {
-            pedido.setDireccionDestino(request.getDireccionDestino());
+        Specification<Pedido> spec = PedidoSpecifications.conFiltro(filtro);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(PedidoSpecifications.despuesDe(PedidoCursor.decode(cursor)));
         }
 
-        if (request.getNotas() != null) {
-            pedido.setNotas(request.getNotas());
+        List<Pedido> pedidos = pedidoRepository.findBy(spec, q -> q
+                .sortBy(PedidoSpecifications.ORDEN_KEYSET)
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = pedidos.size() > size;
+        List<Pedido> pagina = hasNext ? pedidos.subList(0, size) : pedidos;
+        String nextCursor = hasNext ? PedidoCursor.of(pagina.get(size - 1)).encode() : null;
+
+        return CursorPageResponse.<PedidoResponse>builder()
+                .items(pagina.stream().map(this::mapToResponse).toList())
+                .size(pagina.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Feed de pedidos entregados en orden ascendente de entrega, para consumidores que guardan el
+     * cursor y reanudan desde él (facturación). Solo se sirven entregas con más de
+     * {@code pedido.entregas.margen-ms} de antigüedad: una transacción que confirma tarde con una fecha
+     * anterior al cursor ya no se saltaría. A diferencia del listado, {@code nextCursor} se devuelve en
+     * toda página no vacía para poder continuar cuando lleguen nuevas entregas.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<PedidoResponse> listarEntregados(String cursor, int size) {
+        if (size < 1 || size > MAX_ENTREGAS_PAGE_SIZE) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + MAX_ENTREGAS_PAGE_SIZE);
         }
+        PedidoCursor desde = cursor != null && !cursor.isBlank() ? PedidoCursor.decode(cursor) : INICIO_ENTREGAS;
+        LocalDateTime hasta = LocalDateTime.now().minusNanos(margenEntregasMs * 1_000_000);
+
+        List<Pedido> pedidos = pedidoRepository.findEntregadosDespuesDe(
+                desde.fechaCreacion(), desde.id(), hasta, Limit.of(size + 1));
+
+        boolean hasNext = pedidos.size() > size;
+        List<Pedido> pagina = hasNext ? pedidos.subList(0, size) : pedidos;
+        String nextCursor = pagina.isEmpty() ? cursor : PedidoCursor.deEntrega(pagina.get(pagina.size() - 1)).encode();
+
+        return CursorPageResponse.<PedidoResponse>builder()
+                .items(pagina.stream().map(this::mapToResponse).toList())
+                .size(pagina.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Actualiza el pedido con una única sentencia UPDATE ... RETURNING condicionada a la tabla de
+     * transiciones de {@link EstadoPedido} y, opcionalmente, a la versión esperada. Solo si la
+     * sentencia no afecta filas se consulta el pedido para distinguir 404 de 409.
+     */
+    @Transactional
+    public PedidoResponse actualizarPedido(UUID id, ActualizarPedidoRequest request) {
+        return actualizarPedido(id, request, null);
+    }
+
+    /**
+     * Igual que {@link #actualizarPedido(UUID, ActualizarPedidoRequest)} con la versión exigida por
+     * un {@code If-Match}; si no coincide con la del pedido se responde 412 en lugar de 409.
+     */
+    @Transactional
+    public PedidoResponse actualizarPedido(UUID id, ActualizarPedidoRequest request, Long versionPrecondicion) {
+        log.info("Actualizando pedido con ID: {}", id);
 
-        if (request.getEstado() != null) {
-            pedido.setEstado(request.getEstado());
+        if (versionPrecondicion != null && request.getVersion() != null
+                && !versionPrecondicion.equals(request.getVersion())) {
+            throw new BadRequestException("La versión del cuerpo no coincide con el encabezado If-Match");
         }
+        Long versionEsperada = versionPrecondicion != null ? versionPrecondicion : request.getVersion();
 
-        if (request.getRepartidorId() != null) {
-            pedido.setRepartidorId(request.getRepartidorId());
+        EstadoPedido destino = request.getEstado();
+        if (destino == EstadoPedido.CANCELADO) {
+            throw new BadRequestException("Para cancelar un pedido use el endpoint de cancelación");
         }
 
-        Pedido updatedPedido = pedidoRepository.save(pedido);
+        List<String> origenes = destino.origenesPermitidos().stream().map(Enum::name).toList();
+        String repartidorId = request.getRepartidorId() != null ? request.getRepartidorId().toString() : null;
+
+        Pedido updatedPedido = pedidoRepository.transicionar(
+                id,
+                origenes,
+                destino.name(),
+                request.getDireccionDestino(),
+                request.getNotas(),
+                repartidorId,
+                versionEsperada,
+                LocalDateTime.now()
+        ).orElseThrow(() -> conflictoDeActualizacion(id, destino, versionEsperada, versionPrecondicion != null));
+
         log.info("Pedido actualizado exitosamente: {}", updatedPedido.getId());
 
-        return mapToResponse(updatedPedido);
+        return publicarCambio(TipoEventoPedido.ACTUALIZADO, updatedPedido);
+    }
+
+    /**
+     * Asignación del despacho automático: solo se aplica si el pedido sigue RECIBIDO, para no pisar
+     * una asignación manual. Devuelve vacío si el pedido ya no estaba disponible.
+     */
+    @Transactional
+    public Optional<PedidoResponse> asignarRepartidor(UUID id, UUID repartidorId) {
+        return pedidoRepository.transicionar(
+                id,
+                ORIGENES_ASIGNACION_AUTOMATICA,
+                EstadoPedido.ASIGNADO.name(),
+                null,
+                null,
+                repartidorId.toString(),
+                null,
+                LocalDateTime.now()
+        ).map(pedido -> publicarCambio(TipoEventoPedido.ACTUALIZADO, pedido));
     }
 
+    /**
+     * Cancela con un único UPDATE condicional ... RETURNING; solo si no se aplica se consulta
+     * el pedido para informar si no existe o no es cancelable.
+     */
     @Transactional
     public PedidoResponse cancelarPedido(UUID id, String motivo) {
+        return cancelarPedido(id, motivo, null);
+    }
+
+    /**
+     * Cancela solo si la versión del pedido coincide con la del {@code If-Match} (412 en caso contrario).
+     */
+    @Transactional
+    public PedidoResponse cancelarPedido(UUID id, String motivo, Long versionPrecondicion) {
         log.info("Cancelando pedido con ID: {}", id);
 
-        @SuppressWarnings("null")
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido canceledPedido = pedidoRepository.cancelar(
+                        id, ORIGENES_CANCELACION, motivo, versionPrecondicion, LocalDateTime.now())
+                .orElseThrow(() -> {
+                    Pedido actual = pedidoRepository.findById(id)
+                            .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con ID: " + id));
+                    if (versionPrecondicion != null && !versionPrecondicion.equals(actual.getVersion())) {
+                        return versionDesactualizada(actual, versionPrecondicion, true);
+                    }
+                    return new BadRequestException(
+                            "No se puede cancelar un pedido en estado: " + actual.getEstado()
+                    );
+                });
+        log.info("Pedido cancelado exitosamente: {}", canceledPedido.getId());
+
+        return publicarCambio(TipoEventoPedido.CANCELADO, canceledPedido);
+    }
+
+    /**
+     * Cancela todos los pedidos cancelables de una zona o de una lista de IDs. Cada bloque de
+     * {@code cancelacionChunkSize} pedidos se confirma en su propia transacción, de modo que
+     * una cancelación masiva no mantiene bloqueos largos ni se pierde completa ante un fallo.
+     */
+    public CancelacionMasivaResponse cancelarPedidosMasivo(CancelacionMasivaRequest request) {
+        boolean porZona = request.getZonaId() != null && !request.getZonaId().isBlank();
+        boolean porIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (porZona == porIds) {
+            throw new BadRequestException("Debe indicar zonaId o ids, no ambos");
+        }
+
+        return porZona
+                ? cancelarPorZona(request.getZonaId(), request.getMotivo())
+                : cancelarPorIds(request.getIds(), request.getMotivo());
+    }
+
+    /**
+     * Cancela por bloques con SKIP LOCKED hasta que un bloque no cancela nada. Los pedidos que estaban
+     * bloqueados por otra transacción se reintentan después esperando el bloqueo: si al liberarse
+     * siguen siendo cancelables se cancelan, y si no se informan en {@code noCancelados}.
+     */
+    private CancelacionMasivaResponse cancelarPorZona(String zonaId, String motivo) {
+        log.info("Cancelación masiva de pedidos en zona: {}", zonaId);
+        int cancelados = 0;
+        int bloques = 0;
+        List<Pedido> bloque;
+
+        do {
+            bloque = transactionTemplate.execute(status -> publicarCancelaciones(
+                    pedidoRepository.cancelarBloquePorZona(
+                            zonaId, ORIGENES_CANCELACION, motivo, LocalDateTime.now(), cancelacionChunkSize)));
+            if (!bloque.isEmpty()) {
+                cancelados += bloque.size();
+                bloques++;
+                log.info("Zona {}: bloque {} confirmado, {} pedidos cancelados en total", zonaId, bloques, cancelados);
+            }
+        } while (!bloque.isEmpty());
+
+        List<UUID> pendientes = pedidoRepository.findIdsCancelablesPorZona(zonaId, ORIGENES_CANCELACION);
+        if (pendientes.isEmpty()) {
+            return CancelacionMasivaResponse.builder()
+                    .cancelados(cancelados)
+                    .bloques(bloques)
+                    .noCancelados(List.of())
+                    .build();
+        }
+
+        log.info("Zona {}: reintentando {} pedidos que estaban bloqueados", zonaId, pendientes.size());
+        Set<UUID> reintentados = new HashSet<>(pendientes.size());
+        bloques += cancelarEnBloques(pendientes, motivo, reintentados);
+
+        return CancelacionMasivaResponse.builder()
+                .cancelados(cancelados + reintentados.size())
+                .bloques(bloques)
+                .noCancelados(pendientes.stream().filter(id -> !reintentados.contains(id)).toList())
+                .build();
+    }
+
+    private CancelacionMasivaResponse cancelarPorIds(List<UUID> ids, String motivo) {
+        List<UUID> distintos = ids.stream().distinct().toList();
+        log.info("Cancelación masiva de {} pedidos por ID", distintos.size());
+        Set<UUID> cancelados = new HashSet<>(distintos.size());
+        int bloques = cancelarEnBloques(distintos, motivo, cancelados);
+
+        return CancelacionMasivaResponse.builder()
+                .cancelados(cancelados.size())
+                .bloques(bloques)
+                .noCancelados(distintos.stream().filter(id -> !cancelados.contains(id)).toList())
+                .build();
+    }
+
+    /**
+     * Cancela la lista en bloques confirmados por separado, agrega a {@code cancelados} los que se
+     * cancelaron y devuelve el número de bloques.
+     */
+    private int cancelarEnBloques(List<UUID> ids, String motivo, Set<UUID> cancelados) {
+        int bloques = 0;
+        for (int desde = 0; desde < ids.size(); desde += cancelacionChunkSize) {
+            List<UUID> parte = ids.subList(desde, Math.min(desde + cancelacionChunkSize, ids.size()));
+            List<Pedido> bloque = transactionTemplate.execute(status -> publicarCancelaciones(
+                    pedidoRepository.cancelarPorIds(parte, ORIGENES_CANCELACION, motivo, LocalDateTime.now())));
+            bloque.forEach(p -> cancelados.add(p.getId()));
+            bloques++;
+            log.info("Bloque {} confirmado: {}/{} pedidos procesados, {} cancelados",
+                    bloques, desde + parte.size(), ids.size(), cancelados.size());
+        }
+        return bloques;
+    }
+
+    /**
+     * Publica el cambio dentro de la transacción en curso; los listeners síncronos
+     * (p. ej. el outbox) participan de la misma transacción.
+     */
+    private PedidoResponse publicarCambio(TipoEventoPedido tipo, Pedido pedido) {
+        PedidoResponse response = mapToResponse(pedido);
+        EstadoPedido estadoAnterior = tipo == TipoEventoPedido.CREADO ? null : pedido.getEstadoAnterior();
+        eventPublisher.publishEvent(new PedidoCambiadoEvent(tipo, estadoAnterior, response));
+        return response;
+    }
+
+    private List<Pedido> publicarCancelaciones(List<Pedido> cancelados) {
+        cancelados.forEach(pedido -> publicarCambio(TipoEventoPedido.CANCELADO, pedido));
+        return cancelados;
+    }
+
+    private RuntimeException conflictoDeActualizacion(
+            UUID id, EstadoPedido destino, Long versionEsperada, boolean porPrecondicion) {
+        Pedido actual = pedidoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con ID: " + id));
 
-        if (!pedido.puedeCancelarse()) {
-            throw new BadRequestException(
-                "No se puede cancelar un pedido en estado: " + pedido.getEstado()
+        if (!actual.getEstado().puedeTransicionarA(destino)) {
+            return new ConflictException(
+                    "Transición no permitida de " + actual.getEstado() + " a " + destino
             );
         }
+        if (versionEsperada != null && !versionEsperada.equals(actual.getVersion())) {
+            return versionDesactualizada(actual, versionEsperada, porPrecondicion);
+        }
+        return new ConflictException("El pedido fue modificado por otra operación, vuelva a intentarlo");
+    }
 
-        pedido.cancelar(motivo);
-        Pedido canceledPedido = pedidoRepository.save(pedido);
-        log.info("Pedido cancelado exitosamente: {}", canceledPedido.getId());
+    private RuntimeException versionDesactualizada(Pedido actual, Long versionEsperada, boolean porPrecondicion) {
+        String mensaje = "Versión del pedido desactualizada (actual " + actual.getVersion()
+                + ", esperada " + versionEsperada + ")";
+        return porPrecondicion ? new PreconditionFailedException(mensaje) : new ConflictException(mensaje);
+    }
+
+    private int flushLote(List<Pedido> pendientes, List<Integer> indices, List<LoteItemResultado> resultados) {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        for (int j = 0; j < pendientes.size(); j++) {
+            resultados.add(LoteItemResultado.ok(indices.get(j), pendientes.get(j).getId()));
+        }
+        int creados = pendientes.size();
+        entityManager.clear();
+        pendientes.clear();
+        indices.clear();
+        return creados;
+    }
 
-        return mapToResponse(canceledPedido);
+    private String validar(CrearPedidoRequest request) {
+        if (request == null) {
+            return "El pedido no puede ser nulo";
+        }
+        Set<ConstraintViolation<CrearPedidoRequest>> violaciones = validator.validate(request);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Pedido toEntity(CrearPedidoRequest request) {
+        return Pedido.builder()
+                .clienteId(request.getClienteId())
+                .direccionOrigen(request.getDireccionOrigen())
+                .direccionDestino(request.getDireccionDestino())
+                .tipoEntrega(request.getTipoEntrega())
+                .zonaId(request.getZonaId())
+                .distanciaKm(request.getDistanciaKm())
+                .notas(request.getNotas())
+                .estado(EstadoPedido.RECIBIDO)
+                .build();
     }
 
     private PedidoResponse mapToResponse(Pedido pedido) {
@@ -126,6 +511,7 @@ public class PedidoService {
                 .notas(pedido.getNotas())
                 .estado(pedido.getEstado())
                 .repartidorId(pedido.getRepartidorId())
+                .version(pedido.getVersion())
                 .fechaCreacion(pedido.getFechaCreacion())
                 .fechaActualizacion(pedido.getFechaActualizacion())
                 .fechaCancelacion(pedido.getFechaCancelacion())
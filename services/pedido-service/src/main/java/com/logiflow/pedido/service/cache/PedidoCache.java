@@ -0,0 +1,204 @@
+package com.logiflow.pedido.service.cache;
+
+import com.logiflow.pedido.dto.PedidoCacheEstadisticasResponse;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caché en proceso de {@link PedidoResponse} ya mapeados, acotada por tamaño (LRU) y por TTL.
+ *
+ * Está dividida en segmentos con su propio candado para que las lecturas concurrentes de pedidos
+ * distintos no compitan. Toda escritura de pedidos publica un {@link PedidoCambiadoEvent}:
+ * la entrada se invalida de forma síncrona dentro de la transacción y, tras el commit, se reemplaza
+ * por la versión confirmada. Una carga concurrente que leyó la fila antes del commit nunca pisa
+ * una versión más reciente, porque solo se guarda si su versión es mayor o igual a la existente.
+ */
+@Component
+public class PedidoCache {
+
+    private static final int SEGMENTOS = 16;
+
+    private final boolean habilitada;
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder evicciones = new LongAdder();
+    private final LongAdder expiraciones = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    public PedidoCache(
+            @Value("${pedido.cache.habilitada:true}") boolean habilitada,
+            @Value("${pedido.cache.max-entradas:50000}") int maxEntradas,
+            @Value("${pedido.cache.ttl-segundos:300}") long ttlSegundos
+    ) {
+        this.habilitada = habilitada;
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttlSegundos * 1_000_000_000L;
+        int maxPorSegmento = Math.max(1, maxEntradas / SEGMENTOS);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(maxPorSegmento);
+        }
+    }
+
+    /**
+     * Devuelve el pedido desde la caché o lo carga con {@code cargador} (fuera de cualquier candado).
+     */
+    public PedidoResponse obtener(UUID id, Supplier<PedidoResponse> cargador) {
+        if (!habilitada) {
+            return cargador.get();
+        }
+
+        Segmento segmento = segmento(id);
+        synchronized (segmento) {
+            Entrada entrada = segmento.get(id);
+            if (entrada != null) {
+                if (entrada.expiraEn() - System.nanoTime() > 0) {
+                    aciertos.increment();
+                    return entrada.pedido();
+                }
+                segmento.remove(id);
+                expiraciones.increment();
+            }
+        }
+
+        fallos.increment();
+        PedidoResponse pedido = cargador.get();
+        colocarSiMasReciente(pedido);
+        return pedido;
+    }
+
+    /**
+     * Consulta la caché sin cargar el pedido si no está.
+     */
+    public Optional<PedidoResponse> buscar(UUID id) {
+        if (!habilitada) {
+            return Optional.empty();
+        }
+        Segmento segmento = segmento(id);
+        synchronized (segmento) {
+            Entrada entrada = segmento.get(id);
+            if (entrada != null && entrada.expiraEn() - System.nanoTime() > 0) {
+                return Optional.of(entrada.pedido());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void invalidar(UUID id) {
+        if (!habilitada) {
+            return;
+        }
+        Segmento segmento = segmento(id);
+        synchronized (segmento) {
+            if (segmento.remove(id) != null) {
+                invalidaciones.increment();
+            }
+        }
+    }
+
+    public void limpiar() {
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                segmento.clear();
+            }
+        }
+    }
+
+    /**
+     * Se ejecuta dentro de la transacción de escritura, antes del commit.
+     */
+    @EventListener
+    public void onPedidoCambiado(PedidoCambiadoEvent event) {
+        invalidar(event.pedido().getId());
+    }
+
+    /**
+     * Tras el commit se guarda la versión confirmada para que una carga anterior al commit no la pise.
+     * Los pedidos recién creados no se cachean hasta que alguien los lee.
+     */
+    @TransactionalEventListener
+    public void onPedidoConfirmado(PedidoCambiadoEvent event) {
+        if (habilitada && event.tipo() != TipoEventoPedido.CREADO) {
+            colocarSiMasReciente(event.pedido());
+        }
+    }
+
+    public PedidoCacheEstadisticasResponse estadisticas() {
+        long entradas = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                entradas += segmento.size();
+            }
+        }
+        long totalAciertos = aciertos.sum();
+        long totalLecturas = totalAciertos + fallos.sum();
+
+        return PedidoCacheEstadisticasResponse.builder()
+                .habilitada(habilitada)
+                .entradas(entradas)
+                .maxEntradas(maxEntradas)
+                .ttlSegundos(ttlNanos / 1_000_000_000L)
+                .aciertos(totalAciertos)
+                .fallos(fallos.sum())
+                .tasaAciertos(totalLecturas == 0 ? 0 : (double) totalAciertos / totalLecturas)
+                .evicciones(evicciones.sum())
+                .expiraciones(expiraciones.sum())
+                .invalidaciones(invalidaciones.sum())
+                .build();
+    }
+
+    private void colocarSiMasReciente(PedidoResponse pedido) {
+        Segmento segmento = segmento(pedido.getId());
+        synchronized (segmento) {
+            Entrada actual = segmento.get(pedido.getId());
+            if (actual != null && version(actual.pedido()) > version(pedido)) {
+                return;
+            }
+            segmento.put(pedido.getId(), new Entrada(pedido, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    private Segmento segmento(UUID id) {
+        return segmentos[(id.hashCode() & 0x7fffffff) % SEGMENTOS];
+    }
+
+    private static long version(PedidoResponse pedido) {
+        return pedido.getVersion() != null ? pedido.getVersion() : -1;
+    }
+
+    private record Entrada(PedidoResponse pedido, long expiraEn) {
+    }
+
+    private final class Segmento extends LinkedHashMap<UUID, Entrada> {
+        private final int maxEntradas;
+
+        private Segmento(int maxEntradas) {
+            super(16, 0.75f, true);
+            this.maxEntradas = maxEntradas;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entrada> mayor) {
+            if (size() > maxEntradas) {
+                evicciones.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
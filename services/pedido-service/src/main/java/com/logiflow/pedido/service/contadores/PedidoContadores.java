@@ -0,0 +1,201 @@
+package com.logiflow.pedido.service.contadores;
+
+import com.logiflow.pedido.dto.ContadorZonaResponse;
+import com.logiflow.pedido.dto.ContadoresPedidosResponse;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.repository.PedidoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores en memoria de pedidos activos (no terminales) por zona y estado.
+ *
+ * Cada celda es un {@link LongAdder}, así que las escrituras concurrentes no compiten. Se actualizan
+ * tras el commit de cada cambio con el par (estado anterior, estado nuevo) del evento; las altas por
+ * COPY se suman al confirmar cada bloque. Se siembran con un GROUP BY al arrancar y se reconcilian
+ * periódicamente contra la base; la corrección solo se aplica si ningún cambio llegó mientras corría
+ * la consulta, para no contar dos veces uno que ya está en la base y también llega por evento.
+ */
+@Component
+@Slf4j
+public class PedidoContadores {
+
+    private static final int INTENTOS_RECONCILIACION = 3;
+
+    private static final List<EstadoPedido> ESTADOS_ACTIVOS = Arrays.stream(EstadoPedido.values())
+            .filter(estado -> !estado.esTerminal())
+            .toList();
+
+    private final PedidoRepository pedidoRepository;
+    private final Map<String, LongAdder[]> porZona = new ConcurrentHashMap<>();
+    private final AtomicLong cambiosAplicados = new AtomicLong();
+    private volatile LocalDateTime ultimaReconciliacion;
+    private volatile long ultimaCorreccion;
+
+    public PedidoContadores(PedidoRepository pedidoRepository) {
+        this.pedidoRepository = pedidoRepository;
+    }
+
+    @TransactionalEventListener
+    public void onPedidoCambiado(PedidoCambiadoEvent event) {
+        PedidoResponse pedido = event.pedido();
+        if (event.tipo() == TipoEventoPedido.CREADO) {
+            sumar(pedido.getZonaId(), pedido.getEstado(), 1);
+            return;
+        }
+        if (event.estadoAnterior() == null || event.estadoAnterior() == pedido.getEstado()) {
+            return;
+        }
+        sumar(pedido.getZonaId(), event.estadoAnterior(), -1);
+        sumar(pedido.getZonaId(), pedido.getEstado(), 1);
+    }
+
+    /**
+     * Altas en estado RECIBIDO confirmadas fuera de {@code PedidoService} (importación por COPY).
+     */
+    public void registrarAltas(Map<String, Integer> altasPorZona) {
+        altasPorZona.forEach((zonaId, total) -> sumar(zonaId, EstadoPedido.RECIBIDO, total));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sembrar() {
+        reconciliar();
+        log.info("Contadores de pedidos sembrados: {} zonas", porZona.size());
+    }
+
+    /**
+     * Lee las celdas, consulta la base y le suma a cada celda (base - lectura) solo si el número de
+     * cambios aplicados no varió entre la lectura y el fin de la consulta; si varió, cualquiera de esos
+     * cambios podría estar ya en el GROUP BY, así que se reintenta y, tras {@value #INTENTOS_RECONCILIACION}
+     * intentos con actividad, se omite la corrección hasta la próxima ronda.
+     *
+     * Un cambio confirmado justo antes de la consulta cuyo evento aún no se aplicó al releer el contador
+     * puede quedar contado dos veces; la ronda siguiente lo corrige.
+     */
+    @Scheduled(
+            initialDelayString = "${pedido.contadores.reconciliacion-ms:60000}",
+            fixedDelayString = "${pedido.contadores.reconciliacion-ms:60000}"
+    )
+    public void reconciliar() {
+        for (int intento = 1; intento <= INTENTOS_RECONCILIACION; intento++) {
+            if (intentarReconciliar()) {
+                return;
+            }
+        }
+        log.debug("Contadores de pedidos: reconciliación omitida, hubo cambios durante {} consultas seguidas",
+                INTENTOS_RECONCILIACION);
+    }
+
+    /**
+     * @return {@code false} si llegaron cambios mientras corría la consulta y no se aplicó nada
+     */
+    private boolean intentarReconciliar() {
+        long generacion = cambiosAplicados.get();
+        Map<String, long[]> leidos = new HashMap<>();
+        porZona.forEach((zonaId, celdas) -> leidos.put(zonaId, leer(celdas)));
+
+        Map<String, long[]> enBase = new HashMap<>();
+        for (Object[] fila : pedidoRepository.contarPorZonaYEstado(ESTADOS_ACTIVOS)) {
+            long[] totales = enBase.computeIfAbsent((String) fila[0], z -> new long[EstadoPedido.values().length]);
+            totales[((EstadoPedido) fila[1]).ordinal()] = (Long) fila[2];
+        }
+        if (cambiosAplicados.get() != generacion) {
+            return false;
+        }
+
+        Set<String> zonas = new HashSet<>(leidos.keySet());
+        zonas.addAll(enBase.keySet());
+
+        long correccion = 0;
+        for (String zonaId : zonas) {
+            long[] leido = leidos.getOrDefault(zonaId, new long[EstadoPedido.values().length]);
+            long[] base = enBase.getOrDefault(zonaId, new long[EstadoPedido.values().length]);
+            LongAdder[] celdas = celdas(zonaId);
+            for (EstadoPedido estado : ESTADOS_ACTIVOS) {
+                long diferencia = base[estado.ordinal()] - leido[estado.ordinal()];
+                if (diferencia != 0) {
+                    celdas[estado.ordinal()].add(diferencia);
+                    correccion += Math.abs(diferencia);
+                }
+            }
+        }
+
+        ultimaCorreccion = correccion;
+        ultimaReconciliacion = LocalDateTime.now();
+        if (correccion > 0) {
+            log.debug("Contadores de pedidos reconciliados, corrección total {}", correccion);
+        }
+        return true;
+    }
+
+    public ContadoresPedidosResponse obtener() {
+        List<ContadorZonaResponse> zonas = new ArrayList<>(porZona.size());
+        porZona.forEach((zonaId, celdas) -> {
+            Map<EstadoPedido, Long> porEstado = new EnumMap<>(EstadoPedido.class);
+            long total = 0;
+            for (EstadoPedido estado : ESTADOS_ACTIVOS) {
+                long valor = celdas[estado.ordinal()].sum();
+                porEstado.put(estado, valor);
+                total += valor;
+            }
+            if (total > 0) {
+                zonas.add(ContadorZonaResponse.builder().zonaId(zonaId).porEstado(porEstado).total(total).build());
+            }
+        });
+        zonas.sort(Comparator.comparing(ContadorZonaResponse::getZonaId));
+
+        return ContadoresPedidosResponse.builder()
+                .zonas(zonas)
+                .ultimaReconciliacion(ultimaReconciliacion)
+                .ultimaCorreccion(ultimaCorreccion)
+                .build();
+    }
+
+    private void sumar(String zonaId, EstadoPedido estado, long delta) {
+        if (zonaId == null || estado == null || estado.esTerminal()) {
+            return;
+        }
+        celdas(zonaId)[estado.ordinal()].add(delta);
+        // Después de sumar: así una reconciliación que ya leyó las celdas siempre nota este cambio
+        cambiosAplicados.incrementAndGet();
+    }
+
+    private LongAdder[] celdas(String zonaId) {
+        return porZona.computeIfAbsent(zonaId, z -> {
+            LongAdder[] celdas = new LongAdder[EstadoPedido.values().length];
+            for (int i = 0; i < celdas.length; i++) {
+                celdas[i] = new LongAdder();
+            }
+            return celdas;
+        });
+    }
+
+    private static long[] leer(LongAdder[] celdas) {
+        long[] valores = new long[celdas.length];
+        for (int i = 0; i < celdas.length; i++) {
+            valores[i] = celdas[i].sum();
+        }
+        return valores;
+    }
+}
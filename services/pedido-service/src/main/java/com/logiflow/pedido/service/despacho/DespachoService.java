@@ -0,0 +1,318 @@
+package com.logiflow.pedido.service.despacho;
+
+import com.logiflow.pedido.dto.DespachoMetricasResponse;
+import com.logiflow.pedido.dto.DisponibilidadRepartidorRequest;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.dto.RepartidorDisponibleResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.exception.ResourceNotFoundException;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEntrega;
+import com.logiflow.pedido.repository.PedidoRepository;
+import com.logiflow.pedido.service.PedidoService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Despacho automático de pedidos RECIBIDO a repartidores disponibles.
+ *
+ * Cada zona mantiene su cola FIFO de pedidos y su conjunto de repartidores disponibles
+ * ({@link ZonaDespacho}). Cada {@code intervalo-ms} se emparejan en micro-lotes todas las zonas con
+ * trabajo, en paralelo y una tarea por zona: cada pedido va al repartidor menos cargado de la flota
+ * que exige su {@link TipoEntrega}. Las asignaciones de una zona se confirman en una transacción con
+ * un UPDATE condicional por pedido (solo si sigue RECIBIDO), que publica el evento normal de cambio.
+ *
+ * Los repartidores se declaran disponibles por API; su carga se siembra desde la base al registrarse,
+ * se actualiza con los eventos de pedidos y se recalcula junto con las colas en cada recarga.
+ */
+@Service
+@Slf4j
+public class DespachoService {
+
+    private static final List<EstadoPedido> ESTADOS_CON_CARGA = List.of(EstadoPedido.ASIGNADO, EstadoPedido.EN_CAMINO);
+
+    private final PedidoService pedidoService;
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int capacidadPorDefecto;
+    private final int maxPorZonaYCiclo;
+    private final int maxPendientesRecarga;
+    private final ExecutorService trabajadores;
+
+    private final Map<String, ZonaDespacho> zonas = new ConcurrentHashMap<>();
+    private final Map<UUID, ZonaDespacho> zonaDeRepartidor = new ConcurrentHashMap<>();
+
+    private final AtomicLong ciclos = new AtomicLong();
+    private final LongAdder asignados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder esperaTotalMs = new LongAdder();
+    private final AtomicLong ultimoCicloMs = new AtomicLong();
+    private final AtomicLong maxCicloMs = new AtomicLong();
+
+    public DespachoService(
+            PedidoService pedidoService,
+            PedidoRepository pedidoRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${pedido.despacho.habilitado:true}") boolean habilitado,
+            @Value("${pedido.despacho.capacidad-por-defecto:3}") int capacidadPorDefecto,
+            @Value("${pedido.despacho.max-por-zona-y-ciclo:200}") int maxPorZonaYCiclo,
+            @Value("${pedido.despacho.max-pendientes-recarga:50000}") int maxPendientesRecarga,
+            @Value("${pedido.despacho.hilos:4}") int hilos
+    ) {
+        this.pedidoService = pedidoService;
+        this.pedidoRepository = pedidoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.capacidadPorDefecto = capacidadPorDefecto;
+        this.maxPorZonaYCiclo = maxPorZonaYCiclo;
+        this.maxPendientesRecarga = maxPendientesRecarga;
+        this.trabajadores = Executors.newFixedThreadPool(hilos);
+    }
+
+    public RepartidorDisponibleResponse registrarDisponible(UUID repartidorId, DisponibilidadRepartidorRequest request) {
+        int capacidad = request.getCapacidad() != null ? request.getCapacidad() : capacidadPorDefecto;
+        int carga = (int) pedidoRepository.contarPorRepartidor(List.of(repartidorId), ESTADOS_CON_CARGA).stream()
+                .mapToLong(fila -> (Long) fila[1])
+                .sum();
+
+        ZonaDespacho zona = zona(request.getZonaId());
+        ZonaDespacho.Repartidor repartidor =
+                new ZonaDespacho.Repartidor(repartidorId, request.getFleetType(), capacidad, carga);
+
+        ZonaDespacho anterior = zonaDeRepartidor.put(repartidorId, zona);
+        if (anterior != null && anterior != zona) {
+            anterior.repartidores().remove(repartidorId);
+        }
+        zona.repartidores().put(repartidorId, repartidor);
+
+        log.info("Repartidor {} disponible en zona {} ({}, capacidad {}, carga {})",
+                repartidorId, zona.zonaId(), request.getFleetType(), capacidad, carga);
+        return mapToResponse(zona, repartidor);
+    }
+
+    public void retirarDisponible(UUID repartidorId) {
+        ZonaDespacho zona = zonaDeRepartidor.remove(repartidorId);
+        if (zona == null) {
+            throw new ResourceNotFoundException("Repartidor no disponible: " + repartidorId);
+        }
+        zona.repartidores().remove(repartidorId);
+        log.info("Repartidor {} retirado del despacho de la zona {}", repartidorId, zona.zonaId());
+    }
+
+    public List<RepartidorDisponibleResponse> listarDisponibles(String zonaId) {
+        List<RepartidorDisponibleResponse> disponibles = new ArrayList<>();
+        zonas.values().stream()
+                .filter(zona -> zonaId == null || zona.zonaId().equals(zonaId))
+                .forEach(zona -> zona.repartidores().values()
+                        .forEach(repartidor -> disponibles.add(mapToResponse(zona, repartidor))));
+        return disponibles;
+    }
+
+    @TransactionalEventListener
+    public void onPedidoCambiado(PedidoCambiadoEvent event) {
+        PedidoResponse pedido = event.pedido();
+        EstadoPedido anterior = event.estadoAnterior();
+        EstadoPedido actual = pedido.getEstado();
+
+        if (actual == EstadoPedido.RECIBIDO) {
+            // Altas y pedidos devueltos a RECIBIDO (la transición quita el repartidor); encolar ignora duplicados
+            if (pedido.getRepartidorId() == null) {
+                zona(pedido.getZonaId()).encolar(new ZonaDespacho.PedidoPendiente(
+                        pedido.getId(), pedido.getTipoEntrega(), pedido.getFechaCreacion()));
+            }
+        } else {
+            ZonaDespacho zonaPedido = zonas.get(pedido.getZonaId());
+            if (zonaPedido != null) {
+                zonaPedido.retirar(pedido.getId());
+            }
+        }
+
+        // Un pedido devuelto a RECIBIDO ya no trae su repartidor: esa carga se corrige en la próxima recarga
+        boolean cargaba = anterior != null && ESTADOS_CON_CARGA.contains(anterior);
+        boolean carga = ESTADOS_CON_CARGA.contains(actual);
+        if (pedido.getRepartidorId() != null && anterior != null && cargaba != carga) {
+            ajustarCarga(pedido.getRepartidorId(), carga ? 1 : -1);
+        }
+    }
+
+    /**
+     * Un ciclo de emparejamiento: una tarea por zona con pedidos pendientes y repartidores disponibles.
+     */
+    @Scheduled(fixedDelayString = "${pedido.despacho.intervalo-ms:250}")
+    public void despachar() {
+        if (!habilitado) {
+            return;
+        }
+        List<Callable<Void>> tareas = zonas.values().stream()
+                .filter(ZonaDespacho::tieneTrabajo)
+                .<Callable<Void>>map(zona -> () -> {
+                    despacharZona(zona);
+                    return null;
+                })
+                .toList();
+        if (tareas.isEmpty()) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            trabajadores.invokeAll(tareas);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        ultimoCicloMs.set(duracionMs);
+        maxCicloMs.accumulateAndGet(duracionMs, Math::max);
+        ciclos.incrementAndGet();
+    }
+
+    /**
+     * Recupera pedidos que no llegaron por eventos (importaciones COPY, reinicios) y recalcula la carga
+     * de los repartidores disponibles.
+     */
+    @Scheduled(
+            initialDelayString = "${pedido.despacho.recarga-ms:30000}",
+            fixedDelayString = "${pedido.despacho.recarga-ms:30000}"
+    )
+    public void recargar() {
+        if (!habilitado) {
+            return;
+        }
+        List<Object[]> pendientes = pedidoRepository.findPendientesDeAsignacion(
+                EstadoPedido.RECIBIDO, Limit.of(maxPendientesRecarga));
+        for (Object[] fila : pendientes) {
+            zona((String) fila[1]).encolar(new ZonaDespacho.PedidoPendiente(
+                    (UUID) fila[0], (TipoEntrega) fila[2], (LocalDateTime) fila[3]));
+        }
+
+        if (!zonaDeRepartidor.isEmpty()) {
+            Map<UUID, Integer> cargas = new HashMap<>();
+            pedidoRepository.contarPorRepartidor(zonaDeRepartidor.keySet(), ESTADOS_CON_CARGA)
+                    .forEach(fila -> cargas.put((UUID) fila[0], ((Long) fila[1]).intValue()));
+            zonaDeRepartidor.forEach((repartidorId, zona) -> {
+                ZonaDespacho.Repartidor repartidor = zona.repartidores().get(repartidorId);
+                if (repartidor != null) {
+                    repartidor.fijarCarga(cargas.getOrDefault(repartidorId, 0));
+                }
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        recargar();
+        log.info("Despacho automático {}: {} pedidos pendientes en {} zonas",
+                habilitado ? "habilitado" : "deshabilitado",
+                zonas.values().stream().mapToInt(ZonaDespacho::pendientes).sum(), zonas.size());
+    }
+
+    public DespachoMetricasResponse metricas() {
+        Map<String, Integer> porZona = new TreeMap<>();
+        int repartidores = 0;
+        for (ZonaDespacho zona : zonas.values()) {
+            repartidores += zona.repartidores().size();
+            if (zona.pendientes() > 0) {
+                porZona.put(zona.zonaId(), zona.pendientes());
+            }
+        }
+        long totalAsignados = asignados.sum();
+
+        return DespachoMetricasResponse.builder()
+                .habilitado(habilitado)
+                .ciclos(ciclos.get())
+                .asignados(totalAsignados)
+                .descartados(descartados.sum())
+                .ultimoCicloMs(ultimoCicloMs.get())
+                .maxCicloMs(maxCicloMs.get())
+                .esperaPromedioMs(totalAsignados == 0 ? 0 : esperaTotalMs.sum() / totalAsignados)
+                .repartidoresDisponibles(repartidores)
+                .pendientes(porZona.values().stream().mapToLong(Integer::longValue).sum())
+                .pendientesPorZona(porZona)
+                .build();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        trabajadores.shutdownNow();
+    }
+
+    private void despacharZona(ZonaDespacho zona) {
+        List<ZonaDespacho.Asignacion> asignaciones = zona.emparejar(maxPorZonaYCiclo);
+        if (asignaciones.isEmpty()) {
+            return;
+        }
+
+        List<ZonaDespacho.PedidoPendiente> aplicados = new ArrayList<>(asignaciones.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                aplicados.clear();
+                for (ZonaDespacho.Asignacion asignacion : asignaciones) {
+                    ZonaDespacho.PedidoPendiente pedido = asignacion.pedido();
+                    if (pedidoService.asignarRepartidor(pedido.id(), asignacion.repartidor().id()).isPresent()) {
+                        aplicados.add(pedido);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Despacho de la zona {} fallido, {} pedidos vuelven a la cola: {}",
+                    zona.zonaId(), asignaciones.size(), e.getMessage());
+            zona.devolver(asignaciones.stream().map(ZonaDespacho.Asignacion::pedido).toList());
+            return;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        for (ZonaDespacho.PedidoPendiente pedido : aplicados) {
+            esperaTotalMs.add(Math.max(0, Duration.between(pedido.fechaCreacion(), ahora).toMillis()));
+        }
+        asignados.add(aplicados.size());
+        descartados.add(asignaciones.size() - aplicados.size());
+        asignaciones.forEach(asignacion -> zona.retirar(asignacion.pedido().id()));
+    }
+
+    private void ajustarCarga(UUID repartidorId, int delta) {
+        ZonaDespacho zona = zonaDeRepartidor.get(repartidorId);
+        ZonaDespacho.Repartidor repartidor = zona != null ? zona.repartidores().get(repartidorId) : null;
+        if (repartidor != null) {
+            repartidor.ajustarCarga(delta);
+        }
+    }
+
+    private ZonaDespacho zona(String zonaId) {
+        return zonas.computeIfAbsent(zonaId, ZonaDespacho::new);
+    }
+
+    private RepartidorDisponibleResponse mapToResponse(ZonaDespacho zona, ZonaDespacho.Repartidor repartidor) {
+        return RepartidorDisponibleResponse.builder()
+                .repartidorId(repartidor.id())
+                .zonaId(zona.zonaId())
+                .fleetType(repartidor.fleetType())
+                .capacidad(repartidor.capacidad())
+                .carga(repartidor.carga())
+                .build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.logiflow.pedido.service.despacho;
+
+import com.logiflow.pedido.model.FleetType;
+import com.logiflow.pedido.model.TipoEntrega;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cola FIFO de pedidos RECIBIDO y repartidores disponibles de una zona.
+ *
+ * Las colas se alimentan desde los eventos de pedidos y desde la recarga periódica; el emparejamiento
+ * de una zona lo ejecuta un único hilo por ciclo, así que las zonas se procesan en paralelo sin
+ * compartir estado entre ellas.
+ */
+final class ZonaDespacho {
+
+    record PedidoPendiente(UUID id, TipoEntrega tipoEntrega, LocalDateTime fechaCreacion) {
+    }
+
+    record Asignacion(PedidoPendiente pedido, Repartidor repartidor) {
+    }
+
+    static final class Repartidor {
+        private final UUID id;
+        private final FleetType fleetType;
+        private final int capacidad;
+        private final AtomicInteger carga;
+
+        Repartidor(UUID id, FleetType fleetType, int capacidad, int carga) {
+            this.id = id;
+            this.fleetType = fleetType;
+            this.capacidad = capacidad;
+            this.carga = new AtomicInteger(carga);
+        }
+
+        UUID id() {
+            return id;
+        }
+
+        FleetType fleetType() {
+            return fleetType;
+        }
+
+        int capacidad() {
+            return capacidad;
+        }
+
+        int carga() {
+            return carga.get();
+        }
+
+        void ajustarCarga(int delta) {
+            carga.updateAndGet(actual -> Math.max(0, actual + delta));
+        }
+
+        void fijarCarga(int valor) {
+            carga.set(valor);
+        }
+    }
+
+    private final String zonaId;
+    private final ArrayDeque<PedidoPendiente> cola = new ArrayDeque<>();
+    private final Set<UUID> encolados = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Repartidor> repartidores = new ConcurrentHashMap<>();
+
+    ZonaDespacho(String zonaId) {
+        this.zonaId = zonaId;
+    }
+
+    String zonaId() {
+        return zonaId;
+    }
+
+    void encolar(PedidoPendiente pedido) {
+        if (encolados.add(pedido.id())) {
+            synchronized (cola) {
+                cola.addLast(pedido);
+            }
+        }
+    }
+
+    /**
+     * Marca el pedido como no pendiente; su entrada en la cola se descarta al llegar a ella.
+     */
+    void retirar(UUID pedidoId) {
+        encolados.remove(pedidoId);
+    }
+
+    int pendientes() {
+        return encolados.size();
+    }
+
+    boolean tieneTrabajo() {
+        return !encolados.isEmpty() && !repartidores.isEmpty();
+    }
+
+    Map<UUID, Repartidor> repartidores() {
+        return repartidores;
+    }
+
+    /**
+     * Empareja hasta {@code maximo} pedidos en orden de llegada con el repartidor menos cargado de la
+     * flota requerida. Los pedidos sin repartidor libre vuelven al frente de la cola en su orden.
+     */
+    List<Asignacion> emparejar(int maximo) {
+        Map<FleetType, PriorityQueue<Candidato>> libres = candidatosLibres();
+        if (libres.isEmpty()) {
+            return List.of();
+        }
+
+        List<PedidoPendiente> tomados = new ArrayList<>();
+        synchronized (cola) {
+            while (tomados.size() < maximo && !cola.isEmpty()) {
+                PedidoPendiente pedido = cola.pollFirst();
+                if (encolados.contains(pedido.id())) {
+                    tomados.add(pedido);
+                }
+            }
+        }
+
+        List<Asignacion> asignaciones = new ArrayList<>();
+        List<PedidoPendiente> sinRepartidor = new ArrayList<>();
+        for (PedidoPendiente pedido : tomados) {
+            PriorityQueue<Candidato> candidatos = libres.get(pedido.tipoEntrega().flotaRequerida());
+            Candidato candidato = candidatos != null ? candidatos.poll() : null;
+            if (candidato == null) {
+                sinRepartidor.add(pedido);
+                continue;
+            }
+            asignaciones.add(new Asignacion(pedido, candidato.repartidor));
+            candidato.carga++;
+            if (candidato.carga < candidato.repartidor.capacidad()) {
+                candidatos.add(candidato);
+            }
+        }
+
+        devolver(sinRepartidor);
+        return asignaciones;
+    }
+
+    /**
+     * Devuelve pedidos al frente de la cola conservando su orden relativo.
+     */
+    void devolver(List<PedidoPendiente> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        synchronized (cola) {
+            for (int i = pedidos.size() - 1; i >= 0; i--) {
+                if (encolados.contains(pedidos.get(i).id())) {
+                    cola.addFirst(pedidos.get(i));
+                }
+            }
+        }
+    }
+
+    private Map<FleetType, PriorityQueue<Candidato>> candidatosLibres() {
+        Map<FleetType, PriorityQueue<Candidato>> libres = new EnumMap<>(FleetType.class);
+        for (Repartidor repartidor : repartidores.values()) {
+            int carga = repartidor.carga();
+            if (carga < repartidor.capacidad()) {
+                libres.computeIfAbsent(repartidor.fleetType(), f -> new PriorityQueue<>(Candidato.MENOS_CARGADO))
+                        .add(new Candidato(repartidor, carga));
+            }
+        }
+        return libres;
+    }
+
+    /**
+     * Carga del repartidor dentro del ciclo en curso; la carga real se actualiza con el evento del commit.
+     */
+    private static final class Candidato {
+        private static final Comparator<Candidato> MENOS_CARGADO = Comparator
+                .comparingInt((Candidato c) -> c.carga)
+                .thenComparing(c -> c.repartidor.id());
+
+        private final Repartidor repartidor;
+        private int carga;
+
+        private Candidato(Repartidor repartidor, int carga) {
+            this.repartidor = repartidor;
+            this.carga = carga;
+        }
+    }
+}
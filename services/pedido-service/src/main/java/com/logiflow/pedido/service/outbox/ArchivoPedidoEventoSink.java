@@ -0,0 +1,56 @@
+package com.logiflow.pedido.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logiflow.pedido.dto.PedidoEventoMensaje;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Agrega cada evento como una línea NDJSON al archivo configurado y fuerza el lote a disco
+ * antes de confirmarlo.
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.outbox.sink", havingValue = "archivo")
+public class ArchivoPedidoEventoSink implements PedidoEventoSink {
+
+    private static final byte[] NUEVA_LINEA = {'\n'};
+
+    private final ObjectMapper objectMapper;
+    private final Path archivo;
+
+    public ArchivoPedidoEventoSink(
+            ObjectMapper objectMapper,
+            @Value("${pedido.outbox.archivo.path:pedido-eventos.ndjson}") String archivo
+    ) {
+        this.objectMapper = objectMapper;
+        this.archivo = Path.of(archivo);
+    }
+
+    @Override
+    public String nombre() {
+        return "archivo";
+    }
+
+    @Override
+    public synchronized void publicar(List<PedidoEventoMensaje> eventos) throws IOException {
+        try (FileChannel channel = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            for (PedidoEventoMensaje evento : eventos) {
+                out.write(objectMapper.writeValueAsBytes(evento));
+                out.write(NUEVA_LINEA);
+            }
+            out.flush();
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.logiflow.pedido.service.outbox;
+
+import com.logiflow.pedido.dto.PedidoEventoMensaje;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sink por defecto: publica cada lote como {@link PedidoEventosPublicados} para los
+ * {@code @EventListener} del mismo proceso. Si un listener lanza una excepción el lote se reintenta.
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.outbox.sink", havingValue = "local", matchIfMissing = true)
+public class LocalPedidoEventoSink implements PedidoEventoSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LocalPedidoEventoSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String nombre() {
+        return "local";
+    }
+
+    @Override
+    public void publicar(List<PedidoEventoMensaje> eventos) {
+        eventPublisher.publishEvent(new PedidoEventosPublicados(eventos));
+    }
+
+    public record PedidoEventosPublicados(List<PedidoEventoMensaje> eventos) {
+    }
+}
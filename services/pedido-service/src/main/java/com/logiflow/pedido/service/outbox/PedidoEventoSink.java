@@ -0,0 +1,17 @@
+package com.logiflow.pedido.service.outbox;
+
+import com.logiflow.pedido.dto.PedidoEventoMensaje;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox. Una excepción indica que el lote no fue entregado y se
+ * reintentará completo (entrega al-menos-una-vez), por lo que los consumidores deben ser idempotentes
+ * usando {@code id} o {@code pedidoId} + {@code versionPedido}.
+ */
+public interface PedidoEventoSink {
+
+    String nombre();
+
+    void publicar(List<PedidoEventoMensaje> eventos) throws Exception;
+}
@@ -0,0 +1,161 @@
+package com.logiflow.pedido.service.outbox;
+
+import com.logiflow.pedido.dto.OutboxMetricasResponse;
+import com.logiflow.pedido.dto.PedidoEventoMensaje;
+import com.logiflow.pedido.model.PedidoEvento;
+import com.logiflow.pedido.repository.PedidoEventoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena el outbox de pedidos hacia el {@link PedidoEventoSink} configurado, en orden de creación.
+ *
+ * Cada lote se bloquea, se entrega y se marca como publicado dentro de una misma transacción:
+ * si la entrega o el commit fallan, las filas siguen pendientes y se reintentan (al-menos-una-vez).
+ * La contrapresión viene de entregar un solo lote a la vez, de un máximo de lotes por ciclo y de un
+ * retroceso exponencial mientras el sink falla.
+ */
+@Component
+@Slf4j
+public class PedidoOutboxRelay {
+
+    private final PedidoEventoRepository eventoRepository;
+    private final PedidoEventoSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final int maxLotesPorCiclo;
+    private final long retrocesoBaseMs;
+    private final long retrocesoMaxMs;
+    private final Duration retencion;
+
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong lotesPublicados = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong ultimoLoteMs = new AtomicLong();
+    private volatile String ultimoError;
+    private volatile LocalDateTime reintentoDesde;
+    private int fallosConsecutivos;
+
+    public PedidoOutboxRelay(
+            PedidoEventoRepository eventoRepository,
+            PedidoEventoSink sink,
+            TransactionTemplate transactionTemplate,
+            @Value("${pedido.outbox.relay.tamanio-lote:200}") int tamanioLote,
+            @Value("${pedido.outbox.relay.max-lotes-por-ciclo:20}") int maxLotesPorCiclo,
+            @Value("${pedido.outbox.relay.retroceso-base-ms:1000}") long retrocesoBaseMs,
+            @Value("${pedido.outbox.relay.retroceso-max-ms:60000}") long retrocesoMaxMs,
+            @Value("${pedido.outbox.retencion-horas:24}") long retencionHoras
+    ) {
+        this.eventoRepository = eventoRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanioLote = tamanioLote;
+        this.maxLotesPorCiclo = maxLotesPorCiclo;
+        this.retrocesoBaseMs = retrocesoBaseMs;
+        this.retrocesoMaxMs = retrocesoMaxMs;
+        this.retencion = Duration.ofHours(retencionHoras);
+    }
+
+    @Scheduled(fixedDelayString = "${pedido.outbox.relay.intervalo-ms:500}")
+    public void drenar() {
+        if (reintentoDesde != null && LocalDateTime.now().isBefore(reintentoDesde)) {
+            return;
+        }
+
+        for (int i = 0; i < maxLotesPorCiclo; i++) {
+            int entregados;
+            long inicio = System.nanoTime();
+            try {
+                entregados = transactionTemplate.execute(status -> publicarLote());
+            } catch (Exception e) {
+                registrarFallo(e);
+                return;
+            }
+
+            if (entregados > 0) {
+                ultimoLoteMs.set((System.nanoTime() - inicio) / 1_000_000);
+                publicados.addAndGet(entregados);
+                lotesPublicados.incrementAndGet();
+            }
+            fallosConsecutivos = 0;
+            reintentoDesde = null;
+
+            if (entregados < tamanioLote) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pedido.outbox.limpieza.intervalo-ms:3600000}")
+    public void limpiarPublicados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        int eliminados;
+        int total = 0;
+        do {
+            eliminados = transactionTemplate.execute(status ->
+                    eventoRepository.eliminarPublicadosAntesDe(limite, 10_000));
+            total += eliminados;
+        } while (eliminados == 10_000);
+
+        if (total > 0) {
+            log.info("Outbox: {} eventos publicados eliminados (anteriores a {})", total, limite);
+        }
+    }
+
+    public OutboxMetricasResponse metricas() {
+        long lagMs = eventoRepository.fechaPendienteMasAntigua()
+                .map(fecha -> Math.max(0, Duration.between(fecha, LocalDateTime.now()).toMillis()))
+                .orElse(0L);
+
+        return OutboxMetricasResponse.builder()
+                .sink(sink.nombre())
+                .pendientes(eventoRepository.contarPendientes())
+                .lagMs(lagMs)
+                .publicados(publicados.get())
+                .lotesPublicados(lotesPublicados.get())
+                .fallos(fallos.get())
+                .ultimoLoteMs(ultimoLoteMs.get())
+                .ultimoError(ultimoError)
+                .reintentoDesde(reintentoDesde)
+                .build();
+    }
+
+    private int publicarLote() {
+        List<PedidoEvento> pendientes = eventoRepository.bloquearPendientes(tamanioLote);
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            sink.publicar(pendientes.stream().map(PedidoEventoMensaje::from).toList());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        eventoRepository.marcarPublicados(
+                pendientes.stream().map(PedidoEvento::getId).toList(),
+                LocalDateTime.now()
+        );
+        return pendientes.size();
+    }
+
+    private void registrarFallo(Exception e) {
+        fallos.incrementAndGet();
+        fallosConsecutivos++;
+        long espera = Math.min(retrocesoMaxMs, retrocesoBaseMs << Math.min(fallosConsecutivos - 1, 16));
+        reintentoDesde = LocalDateTime.now().plusNanos(espera * 1_000_000);
+        ultimoError = e.getMessage();
+        log.warn("Outbox: fallo al publicar en sink {} (intento {}), reintento en {} ms: {}",
+                sink.nombre(), fallosConsecutivos, espera, e.getMessage());
+    }
+}
@@ -0,0 +1,47 @@
+package com.logiflow.pedido.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.PedidoEvento;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Escribe la fila del outbox para cada {@link PedidoCambiadoEvent}. El listener es síncrono,
+ * así que el INSERT ocurre en la misma transacción que el cambio del pedido y se agrupa en
+ * el mismo lote JDBC cuando la escritura es masiva.
+ */
+@Component
+@RequiredArgsConstructor
+public class PedidoOutboxWriter {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void registrar(PedidoCambiadoEvent event) {
+        PedidoResponse pedido = event.pedido();
+        entityManager.persist(PedidoEvento.builder()
+                .pedidoId(pedido.getId())
+                .tipo(event.tipo())
+                .estado(pedido.getEstado())
+                .versionPedido(pedido.getVersion() != null ? pedido.getVersion() : 0L)
+                .payload(serializar(pedido))
+                .fechaCreacion(LocalDateTime.now())
+                .build());
+    }
+
+    private String serializar(PedidoResponse pedido) {
+        try {
+            return objectMapper.writeValueAsString(pedido);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento del pedido " + pedido.getId(), e);
+        }
+    }
+}
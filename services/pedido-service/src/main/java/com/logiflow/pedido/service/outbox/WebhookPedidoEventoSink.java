@@ -0,0 +1,47 @@
+package com.logiflow.pedido.service.outbox;
+
+import com.logiflow.pedido.dto.PedidoEventoMensaje;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * Entrega cada lote como un arreglo JSON en un POST al webhook configurado.
+ * Cualquier respuesta distinta de 2xx se considera fallo y el lote se reintenta.
+ */
+@Component
+@ConditionalOnProperty(name = "pedido.outbox.sink", havingValue = "webhook")
+public class WebhookPedidoEventoSink implements PedidoEventoSink {
+
+    private final RestClient restClient;
+
+    public WebhookPedidoEventoSink(
+            RestClient.Builder builder,
+            @Value("${pedido.outbox.webhook.url}") String url,
+            @Value("${pedido.outbox.webhook.timeout-ms:5000}") int timeoutMs
+    ) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.restClient = builder.baseUrl(url).requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public String nombre() {
+        return "webhook";
+    }
+
+    @Override
+    public void publicar(List<PedidoEventoMensaje> eventos) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(eventos)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
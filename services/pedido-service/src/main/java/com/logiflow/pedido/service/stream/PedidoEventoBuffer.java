@@ -0,0 +1,67 @@
+package com.logiflow.pedido.service.stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Buffer circular acotado con los últimos cambios de pedidos ya confirmados.
+ *
+ * Las escrituras se serializan (una por commit, sin E/S) y las lecturas no toman bloqueos:
+ * cada ranura guarda su número de secuencia, así que un lector detecta si la entrada que buscaba
+ * ya fue sobrescrita. Permite que un cliente SSE reconectado se ponga al día sin consultar la base.
+ */
+@Component
+public class PedidoEventoBuffer {
+
+    public record Entrada(long secuencia, UUID pedidoId, UUID clienteId, String tipo, String json) {
+    }
+
+    private final AtomicReferenceArray<Entrada> ranuras;
+    private final int mascara;
+    private volatile long ultima;
+
+    public PedidoEventoBuffer(@Value("${pedido.stream.buffer-capacidad:65536}") int capacidad) {
+        int potencia = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.ranuras = new AtomicReferenceArray<>(potencia);
+        this.mascara = potencia - 1;
+    }
+
+    public synchronized Entrada agregar(UUID pedidoId, UUID clienteId, String tipo, String json) {
+        long secuencia = ultima + 1;
+        Entrada entrada = new Entrada(secuencia, pedidoId, clienteId, tipo, json);
+        ranuras.set((int) (secuencia & mascara), entrada);
+        ultima = secuencia;
+        return entrada;
+    }
+
+    public long ultimaSecuencia() {
+        return ultima;
+    }
+
+    /**
+     * Entrega en orden las entradas con secuencia en ({@code desde}, {@code hasta}] que cumplan el filtro.
+     *
+     * @return {@code false} si parte del rango ya no está en el buffer (el cliente debe resincronizar)
+     */
+    public boolean leer(long desde, long hasta, Predicate<Entrada> filtro, Consumer<Entrada> consumidor) {
+        long primera = Math.max(desde + 1, hasta - ranuras.length() + 1);
+        boolean completo = primera == desde + 1;
+
+        for (long secuencia = primera; secuencia <= hasta; secuencia++) {
+            Entrada entrada = ranuras.get((int) (secuencia & mascara));
+            if (entrada == null || entrada.secuencia() != secuencia) {
+                completo = false;
+                continue;
+            }
+            if (filtro.test(entrada)) {
+                consumidor.accept(entrada);
+            }
+        }
+        return completo;
+    }
+}
@@ -0,0 +1,260 @@
+package com.logiflow.pedido.service.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream SSE de cambios de pedidos por cliente o por pedido.
+ *
+ * Los cambios confirmados se agregan al {@link PedidoEventoBuffer} y se encolan solo en las
+ * suscripciones cuyo cliente o pedido coincide; ambas cosas ocurren bajo un mismo candado (sin E/S),
+ * así que cada cola recibe los eventos en orden de secuencia. Cada suscripción tiene una cola
+ * acotada y un hilo virtual que la drena, de modo que miles de conexiones inactivas solo cuestan un
+ * hilo virtual estacionado y un cliente lento no frena al resto: si su cola se llena se cierra la
+ * conexión y el cliente se recupera reconectando con {@code Last-Event-ID}.
+ *
+ * Los IDs de evento tienen la forma {@code <epoca>-<secuencia>}; la época cambia en cada arranque
+ * para que un ID de una instancia anterior provoque una resincronización en lugar de saltar eventos.
+ */
+@Service
+@Slf4j
+public class PedidoStreamService {
+
+    public static final String EVENTO_RESYNC = "resync";
+
+    private final PedidoEventoBuffer buffer;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final long heartbeatMs;
+    private final int capacidadCola;
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Object publicacion = new Object();
+    private final Map<UUID, Set<Suscripcion>> porCliente = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Suscripcion>> porPedido = new ConcurrentHashMap<>();
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong activas = new AtomicLong();
+    private final AtomicLong descartadasPorLentitud = new AtomicLong();
+
+    public PedidoStreamService(
+            PedidoEventoBuffer buffer,
+            ObjectMapper objectMapper,
+            @Value("${pedido.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${pedido.stream.heartbeat-ms:25000}") long heartbeatMs,
+            @Value("${pedido.stream.cola-por-suscripcion:256}") int capacidadCola
+    ) {
+        this.buffer = buffer;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatMs = heartbeatMs;
+        this.capacidadCola = capacidadCola;
+    }
+
+    public SseEmitter suscribirCliente(UUID clienteId, String lastEventId) {
+        return suscribir(porCliente, clienteId, lastEventId);
+    }
+
+    public SseEmitter suscribirPedido(UUID pedidoId, String lastEventId) {
+        return suscribir(porPedido, pedidoId, lastEventId);
+    }
+
+    public long suscripcionesActivas() {
+        return activas.get();
+    }
+
+    public long suscripcionesDescartadas() {
+        return descartadasPorLentitud.get();
+    }
+
+    /**
+     * Solo se publican cambios confirmados; los rollbacks nunca llegan a los clientes.
+     */
+    @TransactionalEventListener
+    public void onPedidoCambiado(PedidoCambiadoEvent event) {
+        PedidoResponse pedido = event.pedido();
+        String json = serializar(pedido);
+        List<Suscripcion> llenas = new ArrayList<>();
+
+        // La secuencia se asigna y se encola bajo el mismo candado: si dos commits terminan a la vez,
+        // ninguna suscripción puede recibir N+1 antes que N (y descartar N por ya superado)
+        synchronized (publicacion) {
+            PedidoEventoBuffer.Entrada entrada = buffer.agregar(
+                    pedido.getId(), pedido.getClienteId(), event.tipo().name(), json);
+            encolar(porCliente.get(pedido.getClienteId()), entrada, llenas);
+            encolar(porPedido.get(pedido.getId()), entrada, llenas);
+        }
+
+        for (Suscripcion suscripcion : llenas) {
+            descartadasPorLentitud.incrementAndGet();
+            log.debug("Stream: cola llena para {}, se cierra la suscripción", suscripcion.clave);
+            suscripcion.emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilos.shutdownNow();
+    }
+
+    private SseEmitter suscribir(Map<UUID, Set<Suscripcion>> indice, UUID clave, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscripcion suscripcion = new Suscripcion(emitter, indice, clave);
+
+        // Se registra antes de leer el buffer para no perder eventos entre la reposición y el modo en vivo.
+        // Altas y bajas pasan por compute para que una baja no desenganche el conjunto al que entra una alta
+        indice.compute(clave, (k, suscripciones) -> {
+            Set<Suscripcion> conjunto = suscripciones != null ? suscripciones : ConcurrentHashMap.newKeySet();
+            conjunto.add(suscripcion);
+            return conjunto;
+        });
+        activas.incrementAndGet();
+        long hasta = buffer.ultimaSecuencia();
+
+        emitter.onCompletion(suscripcion::cerrar);
+        emitter.onTimeout(suscripcion::cerrar);
+        emitter.onError(e -> suscripcion.cerrar());
+
+        hilos.execute(() -> suscripcion.ejecutar(lastEventId, hasta));
+        return emitter;
+    }
+
+    private void encolar(Set<Suscripcion> suscripciones, PedidoEventoBuffer.Entrada entrada, List<Suscripcion> llenas) {
+        if (suscripciones == null) {
+            return;
+        }
+        for (Suscripcion suscripcion : suscripciones) {
+            if (!suscripcion.cola.offer(entrada)) {
+                // Se da de baja aquí mismo para que no reciba eventos posteriores al que perdió
+                suscripcion.cerrar();
+                llenas.add(suscripcion);
+            }
+        }
+    }
+
+    private String serializar(PedidoResponse pedido) {
+        try {
+            return objectMapper.writeValueAsString(pedido);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el pedido " + pedido.getId(), e);
+        }
+    }
+
+    private final class Suscripcion {
+        private final SseEmitter emitter;
+        private final Map<UUID, Set<Suscripcion>> indice;
+        private final UUID clave;
+        private final BlockingQueue<PedidoEventoBuffer.Entrada> cola = new ArrayBlockingQueue<>(capacidadCola);
+        private final AtomicBoolean activa = new AtomicBoolean(true);
+        private long ultimaEnviada;
+
+        private Suscripcion(SseEmitter emitter, Map<UUID, Set<Suscripcion>> indice, UUID clave) {
+            this.emitter = emitter;
+            this.indice = indice;
+            this.clave = clave;
+        }
+
+        private void ejecutar(String lastEventId, long hasta) {
+            try {
+                reponer(lastEventId, hasta);
+                while (activa.get()) {
+                    PedidoEventoBuffer.Entrada entrada = cola.poll(heartbeatMs, TimeUnit.MILLISECONDS);
+                    if (entrada == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else if (entrada.secuencia() > ultimaEnviada) {
+                        enviar(entrada);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                cerrar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cerrar();
+            }
+        }
+
+        private void reponer(String lastEventId, long hasta) throws IOException {
+            ultimaEnviada = hasta;
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return;
+            }
+
+            long desde = secuenciaDe(lastEventId);
+            boolean completo = desde >= 0 && buffer.leer(desde, hasta, this::coincide, entrada -> {
+                try {
+                    enviar(entrada);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            if (!completo) {
+                emitter.send(SseEmitter.event()
+                        .id(epoca + "-" + hasta)
+                        .name(EVENTO_RESYNC)
+                        .data("{\"motivo\":\"Eventos fuera del buffer, consulte el estado actual\"}",
+                                MediaType.APPLICATION_JSON));
+            }
+            ultimaEnviada = hasta;
+        }
+
+        private long secuenciaDe(String lastEventId) {
+            int separador = lastEventId.lastIndexOf('-');
+            if (separador < 0 || !epoca.equals(lastEventId.substring(0, separador))) {
+                return -1;
+            }
+            try {
+                long secuencia = Long.parseLong(lastEventId.substring(separador + 1));
+                return secuencia <= buffer.ultimaSecuencia() ? secuencia : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private boolean coincide(PedidoEventoBuffer.Entrada entrada) {
+            return indice == porCliente ? clave.equals(entrada.clienteId()) : clave.equals(entrada.pedidoId());
+        }
+
+        private void enviar(PedidoEventoBuffer.Entrada entrada) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(epoca + "-" + entrada.secuencia())
+                    .name(entrada.tipo())
+                    .data(entrada.json(), MediaType.APPLICATION_JSON));
+            ultimaEnviada = entrada.secuencia();
+        }
+
+        private void cerrar() {
+            if (!activa.compareAndSet(true, false)) {
+                return;
+            }
+            indice.computeIfPresent(clave, (k, suscripciones) -> {
+                suscripciones.remove(this);
+                return suscripciones.isEmpty() ? null : suscripciones;
+            });
+            activas.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEntrega;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.repository.PedidoRepository;
+import com.logiflow.pedido.service.PedidoService;
+import com.logiflow.pedido.service.despacho.DespachoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+
+public class DespachoServiceTest {
+
+    private static final String ZONA = "ZONA-NORTE";
+
+    private DespachoService despachoService;
+
+    @BeforeEach
+    public void setUp() {
+        despachoService = new DespachoService(mock(PedidoService.class), mock(PedidoRepository.class),
+                mock(TransactionTemplate.class), true, 3, 200, 50_000, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        despachoService.cerrar();
+    }
+
+    private static PedidoResponse pedido(UUID id, EstadoPedido estado, UUID repartidorId) {
+        return PedidoResponse.builder()
+                .id(id)
+                .zonaId(ZONA)
+                .tipoEntrega(TipoEntrega.URBANA)
+                .estado(estado)
+                .repartidorId(repartidorId)
+                .fechaCreacion(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    public void testPedidoDevueltoARecibidoVuelveALaCola() {
+        UUID id = UUID.randomUUID();
+        despachoService.onPedidoCambiado(new PedidoCambiadoEvent(
+                TipoEventoPedido.CREADO, null, pedido(id, EstadoPedido.RECIBIDO, null)));
+        despachoService.onPedidoCambiado(new PedidoCambiadoEvent(
+                TipoEventoPedido.ACTUALIZADO, EstadoPedido.RECIBIDO, pedido(id, EstadoPedido.ASIGNADO, UUID.randomUUID())));
+        Assertions.assertEquals(0, despachoService.metricas().getPendientes());
+
+        despachoService.onPedidoCambiado(new PedidoCambiadoEvent(
+                TipoEventoPedido.ACTUALIZADO, EstadoPedido.ASIGNADO, pedido(id, EstadoPedido.RECIBIDO, null)));
+
+        Assertions.assertEquals(1, despachoService.metricas().getPendientes());
+    }
+
+    @Test
+    public void testEdicionDePedidoPendienteNoLoDuplica() {
+        UUID id = UUID.randomUUID();
+        despachoService.onPedidoCambiado(new PedidoCambiadoEvent(
+                TipoEventoPedido.CREADO, null, pedido(id, EstadoPedido.RECIBIDO, null)));
+        despachoService.onPedidoCambiado(new PedidoCambiadoEvent(
+                TipoEventoPedido.ACTUALIZADO, EstadoPedido.RECIBIDO, pedido(id, EstadoPedido.RECIBIDO, null)));
+
+        Assertions.assertEquals(1, despachoService.metricas().getPendientes());
+    }
+}
@@ -0,0 +1,84 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.model.EstadoPedido;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.logiflow.pedido.model.EstadoPedido.ASIGNADO;
+import static com.logiflow.pedido.model.EstadoPedido.CANCELADO;
+import static com.logiflow.pedido.model.EstadoPedido.EN_CAMINO;
+import static com.logiflow.pedido.model.EstadoPedido.ENTREGADO;
+import static com.logiflow.pedido.model.EstadoPedido.RECIBIDO;
+
+public class EstadoPedidoTest {
+
+    /**
+     * origen, destino, permitido; cubre las 25 combinaciones
+     */
+    private static final Object[][] TRANSICIONES = {
+            {RECIBIDO, RECIBIDO, true},
+            {RECIBIDO, ASIGNADO, true},
+            {RECIBIDO, EN_CAMINO, false},
+            {RECIBIDO, ENTREGADO, false},
+            {RECIBIDO, CANCELADO, true},
+            {ASIGNADO, RECIBIDO, true},
+            {ASIGNADO, ASIGNADO, true},
+            {ASIGNADO, EN_CAMINO, true},
+            {ASIGNADO, ENTREGADO, false},
+            {ASIGNADO, CANCELADO, true},
+            {EN_CAMINO, RECIBIDO, false},
+            {EN_CAMINO, ASIGNADO, false},
+            {EN_CAMINO, EN_CAMINO, true},
+            {EN_CAMINO, ENTREGADO, true},
+            {EN_CAMINO, CANCELADO, false},
+            {ENTREGADO, RECIBIDO, false},
+            {ENTREGADO, ASIGNADO, false},
+            {ENTREGADO, EN_CAMINO, false},
+            {ENTREGADO, ENTREGADO, false},
+            {ENTREGADO, CANCELADO, false},
+            {CANCELADO, RECIBIDO, false},
+            {CANCELADO, ASIGNADO, false},
+            {CANCELADO, EN_CAMINO, false},
+            {CANCELADO, ENTREGADO, false},
+            {CANCELADO, CANCELADO, false},
+    };
+
+    @Test
+    public void testTablaDeTransiciones() {
+        Assertions.assertEquals(EstadoPedido.values().length * EstadoPedido.values().length, TRANSICIONES.length);
+        for (Object[] caso : TRANSICIONES) {
+            EstadoPedido origen = (EstadoPedido) caso[0];
+            EstadoPedido destino = (EstadoPedido) caso[1];
+            Assertions.assertEquals(caso[2], origen.puedeTransicionarA(destino), () -> origen + " -> " + destino);
+            Assertions.assertEquals(caso[2], destino.origenesPermitidos().contains(origen), () -> origen + " -> " + destino);
+        }
+    }
+
+    @Test
+    public void testNoTerminalesAdmitenEditarseSinCambiarDeEstado() {
+        for (EstadoPedido estado : EstadoPedido.values()) {
+            Assertions.assertEquals(!estado.esTerminal(), estado.puedeTransicionarA(estado), estado::name);
+        }
+    }
+
+    @Test
+    public void testTerminalesNoTienenSalida() {
+        Assertions.assertEquals(EnumSet.of(ENTREGADO, CANCELADO),
+                EnumSet.copyOf(EnumSet.allOf(EstadoPedido.class).stream().filter(EstadoPedido::esTerminal).toList()));
+        for (EstadoPedido terminal : EnumSet.of(ENTREGADO, CANCELADO)) {
+            for (EstadoPedido destino : EstadoPedido.values()) {
+                Assertions.assertFalse(terminal.puedeTransicionarA(destino), terminal + " -> " + destino);
+            }
+        }
+    }
+
+    @Test
+    public void testOrigenesNoSeModifican() {
+        Set<EstadoPedido> origenes = ENTREGADO.origenesPermitidos();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> origenes.add(RECIBIDO));
+        Assertions.assertEquals(Set.of(EN_CAMINO), ENTREGADO.origenesPermitidos());
+    }
+}
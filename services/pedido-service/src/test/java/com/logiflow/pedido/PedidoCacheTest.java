@@ -0,0 +1,147 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.dto.PedidoCacheEstadisticasResponse;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.service.cache.PedidoCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class PedidoCacheTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private static PedidoResponse pedido(UUID id, long version) {
+        return PedidoResponse.builder()
+                .id(id)
+                .estado(EstadoPedido.ASIGNADO)
+                .version(version)
+                .build();
+    }
+
+    private static PedidoCambiadoEvent actualizado(PedidoResponse pedido) {
+        return new PedidoCambiadoEvent(TipoEventoPedido.ACTUALIZADO, EstadoPedido.RECIBIDO, pedido);
+    }
+
+    private static Supplier<PedidoResponse> contando(AtomicInteger cargas, PedidoResponse pedido) {
+        return () -> {
+            cargas.incrementAndGet();
+            return pedido;
+        };
+    }
+
+    @Test
+    public void testCargaTardiaNoPisaUnaVersionMasReciente() {
+        PedidoCache cache = new PedidoCache(true, 1000, 300);
+        PedidoResponse confirmado = pedido(ID, 3);
+
+        // La carga leyó la versión 2 y termina después de que la escritura de la 3 hizo commit
+        PedidoResponse leido = cache.obtener(ID, () -> {
+            cache.onPedidoCambiado(actualizado(confirmado));
+            cache.onPedidoConfirmado(actualizado(confirmado));
+            return pedido(ID, 2);
+        });
+
+        Assertions.assertEquals(2L, leido.getVersion());
+        Assertions.assertSame(confirmado, cache.buscar(ID).orElseThrow());
+    }
+
+    @Test
+    public void testVersionIgualOMayorReemplazaLaEntrada() {
+        PedidoCache cache = new PedidoCache(true, 1000, 300);
+        cache.onPedidoConfirmado(actualizado(pedido(ID, 3)));
+        PedidoResponse mismaVersion = pedido(ID, 3);
+
+        cache.onPedidoConfirmado(actualizado(mismaVersion));
+        Assertions.assertSame(mismaVersion, cache.buscar(ID).orElseThrow());
+
+        cache.onPedidoConfirmado(actualizado(pedido(ID, 4)));
+        Assertions.assertEquals(4L, cache.buscar(ID).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void testCambioInvalidaDeFormaSincrona() {
+        PedidoCache cache = new PedidoCache(true, 1000, 300);
+        AtomicInteger cargas = new AtomicInteger();
+        cache.obtener(ID, contando(cargas, pedido(ID, 1)));
+        cache.obtener(ID, contando(cargas, pedido(ID, 1)));
+        Assertions.assertEquals(1, cargas.get());
+
+        // Dentro de la transacción, antes del commit
+        cache.onPedidoCambiado(actualizado(pedido(ID, 2)));
+
+        Assertions.assertTrue(cache.buscar(ID).isEmpty());
+        cache.obtener(ID, contando(cargas, pedido(ID, 2)));
+        Assertions.assertEquals(2, cargas.get());
+        PedidoCacheEstadisticasResponse estadisticas = cache.estadisticas();
+        Assertions.assertEquals(1, estadisticas.getInvalidaciones());
+        Assertions.assertEquals(1, estadisticas.getAciertos());
+        Assertions.assertEquals(2, estadisticas.getFallos());
+    }
+
+    @Test
+    public void testAltasNoSeCacheanHastaLeerlas() {
+        PedidoCache cache = new PedidoCache(true, 1000, 300);
+
+        cache.onPedidoConfirmado(new PedidoCambiadoEvent(TipoEventoPedido.CREADO, null, pedido(ID, 0)));
+
+        Assertions.assertTrue(cache.buscar(ID).isEmpty());
+    }
+
+    @Test
+    public void testEntradaVencidaSeRecargaYCuentaExpiracion() {
+        PedidoCache cache = new PedidoCache(true, 1000, 0);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(ID, contando(cargas, pedido(ID, 1)));
+        cache.obtener(ID, contando(cargas, pedido(ID, 1)));
+
+        Assertions.assertEquals(2, cargas.get());
+        Assertions.assertEquals(1, cache.estadisticas().getExpiraciones());
+        Assertions.assertEquals(0, cache.estadisticas().getAciertos());
+    }
+
+    @Test
+    public void testDesalojaElMenosUsadoDelSegmento() {
+        // 32 entradas en 16 segmentos: dos por segmento. new UUID(0, n).hashCode() es n,
+        // así que 1, 17 y 33 caen en el mismo segmento.
+        PedidoCache cache = new PedidoCache(true, 32, 300);
+        UUID primero = new UUID(0, 1);
+        UUID segundo = new UUID(0, 17);
+        UUID tercero = new UUID(0, 33);
+        cache.obtener(primero, () -> pedido(primero, 1));
+        cache.obtener(segundo, () -> pedido(segundo, 1));
+        cache.obtener(primero, () -> pedido(primero, 1));
+
+        cache.obtener(tercero, () -> pedido(tercero, 1));
+
+        Assertions.assertTrue(cache.buscar(primero).isPresent());
+        Assertions.assertTrue(cache.buscar(segundo).isEmpty());
+        Assertions.assertTrue(cache.buscar(tercero).isPresent());
+        Assertions.assertEquals(1, cache.estadisticas().getEvicciones());
+        Assertions.assertEquals(2, cache.estadisticas().getEntradas());
+    }
+
+    @Test
+    public void testDeshabilitadaSiempreCarga() {
+        PedidoCache cache = new PedidoCache(false, 1000, 300);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(ID, contando(cargas, pedido(ID, 1)));
+        cache.obtener(ID, contando(cargas, pedido(ID, 1)));
+        cache.onPedidoConfirmado(actualizado(pedido(ID, 2)));
+
+        Assertions.assertEquals(2, cargas.get());
+        Assertions.assertTrue(cache.buscar(ID).isEmpty());
+        PedidoCacheEstadisticasResponse estadisticas = cache.estadisticas();
+        Assertions.assertFalse(estadisticas.isHabilitada());
+        Assertions.assertEquals(0, estadisticas.getEntradas());
+        Assertions.assertEquals(0, estadisticas.getFallos());
+    }
+}
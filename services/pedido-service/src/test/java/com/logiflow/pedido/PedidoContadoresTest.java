@@ -0,0 +1,106 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.dto.ContadorZonaResponse;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.repository.PedidoRepository;
+import com.logiflow.pedido.service.contadores.PedidoContadores;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PedidoContadoresTest {
+
+    private static final String ZONA = "ZONA-NORTE";
+
+    private PedidoRepository pedidoRepository;
+    private PedidoContadores contadores;
+
+    @BeforeEach
+    public void setUp() {
+        pedidoRepository = mock(PedidoRepository.class);
+        contadores = new PedidoContadores(pedidoRepository);
+    }
+
+    private static List<Object[]> filas(long recibidos) {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{ZONA, EstadoPedido.RECIBIDO, recibidos});
+        return filas;
+    }
+
+    private PedidoCambiadoEvent alta() {
+        PedidoResponse pedido = PedidoResponse.builder()
+                .id(UUID.randomUUID())
+                .zonaId(ZONA)
+                .estado(EstadoPedido.RECIBIDO)
+                .build();
+        return new PedidoCambiadoEvent(TipoEventoPedido.CREADO, null, pedido);
+    }
+
+    private long recibidos() {
+        return contadores.obtener().getZonas().stream()
+                .filter(z -> ZONA.equals(z.getZonaId()))
+                .map(ContadorZonaResponse::getPorEstado)
+                .mapToLong(porEstado -> porEstado.get(EstadoPedido.RECIBIDO))
+                .sum();
+    }
+
+    @Test
+    public void testReconciliarCorrigeContraLaBase() {
+        contadores.registrarAltas(Map.of(ZONA, 3));
+        when(pedidoRepository.contarPorZonaYEstado(any())).thenReturn(filas(5));
+
+        contadores.reconciliar();
+
+        Assertions.assertEquals(5, recibidos());
+        Assertions.assertEquals(2, contadores.obtener().getUltimaCorreccion());
+    }
+
+    @Test
+    public void testCambioDuranteLaConsultaNoSeCuentaDosVeces() {
+        contadores.registrarAltas(Map.of(ZONA, 3));
+        AtomicInteger consultas = new AtomicInteger();
+        // La primera consulta ya ve el alta que el evento aplica mientras corre
+        when(pedidoRepository.contarPorZonaYEstado(any())).thenAnswer(invocacion -> {
+            if (consultas.incrementAndGet() == 1) {
+                contadores.onPedidoCambiado(alta());
+            }
+            return filas(4);
+        });
+
+        contadores.reconciliar();
+
+        Assertions.assertEquals(4, recibidos());
+        verify(pedidoRepository, times(2)).contarPorZonaYEstado(any());
+    }
+
+    @Test
+    public void testConCambiosEnCadaConsultaSeOmiteLaCorreccion() {
+        contadores.registrarAltas(Map.of(ZONA, 3));
+        AtomicInteger enBase = new AtomicInteger(3);
+        when(pedidoRepository.contarPorZonaYEstado(any())).thenAnswer(invocacion -> {
+            contadores.onPedidoCambiado(alta());
+            return filas(enBase.incrementAndGet());
+        });
+
+        contadores.reconciliar();
+
+        Assertions.assertEquals(6, recibidos());
+        Assertions.assertNull(contadores.obtener().getUltimaReconciliacion());
+        verify(pedidoRepository, times(3)).contarPorZonaYEstado(any());
+    }
+}
@@ -0,0 +1,84 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.model.Pedido;
+import com.logiflow.pedido.service.PedidoCursor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+public class PedidoCursorTest {
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIdaYVueltaConservaFechaEId() {
+        LocalDateTime[] fechas = {
+                LocalDateTime.of(2024, 5, 1, 10, 0),
+                LocalDateTime.of(2024, 5, 1, 10, 0, 59),
+                LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123_456_789),
+        };
+        UUID[] ids = {new UUID(0, 0), UUID.randomUUID(), new UUID(-1, -1)};
+        for (LocalDateTime fecha : fechas) {
+            for (UUID id : ids) {
+                PedidoCursor cursor = new PedidoCursor(fecha, id);
+                Assertions.assertEquals(cursor, PedidoCursor.decode(cursor.encode()));
+            }
+        }
+    }
+
+    @Test
+    public void testEmpateDeFechaSeDistinguePorId() {
+        LocalDateTime fecha = LocalDateTime.of(2024, 5, 1, 10, 0);
+        UUID primero = UUID.randomUUID();
+        UUID segundo = UUID.randomUUID();
+
+        String a = new PedidoCursor(fecha, primero).encode();
+        String b = new PedidoCursor(fecha, segundo).encode();
+
+        Assertions.assertNotEquals(a, b);
+        Assertions.assertEquals(primero, PedidoCursor.decode(a).id());
+        Assertions.assertEquals(segundo, PedidoCursor.decode(b).id());
+    }
+
+    @Test
+    public void testCursorEsSeguroEnUrl() {
+        String cursor = new PedidoCursor(LocalDateTime.of(2024, 5, 1, 10, 0, 0, 999_999_999), UUID.randomUUID()).encode();
+        Assertions.assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    public void testDesdePedidoYDesdeEntrega() {
+        LocalDateTime creado = LocalDateTime.of(2024, 5, 1, 10, 0);
+        LocalDateTime entregado = LocalDateTime.of(2024, 5, 2, 18, 30);
+        Pedido pedido = Pedido.builder()
+                .id(UUID.randomUUID())
+                .fechaCreacion(creado)
+                .fechaActualizacion(entregado)
+                .build();
+
+        Assertions.assertEquals(new PedidoCursor(creado, pedido.getId()), PedidoCursor.of(pedido));
+        Assertions.assertEquals(new PedidoCursor(entregado, pedido.getId()), PedidoCursor.deEntrega(pedido));
+    }
+
+    @Test
+    public void testCursorInvalidoEsBadRequest() {
+        String[] invalidos = {
+                "%%%",
+                base64("sin-separador"),
+                base64("no-es-fecha|" + UUID.randomUUID()),
+                base64("2024-05-01T10:00|no-es-uuid"),
+                base64("2024-05-01T10:00|"),
+                base64("|" + UUID.randomUUID()),
+        };
+        for (String cursor : invalidos) {
+            Assertions.assertThrows(BadRequestException.class, () -> PedidoCursor.decode(cursor), cursor);
+        }
+    }
+}
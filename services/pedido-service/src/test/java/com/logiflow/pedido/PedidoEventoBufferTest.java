@@ -0,0 +1,73 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.service.stream.PedidoEventoBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class PedidoEventoBufferTest {
+
+    private static final UUID CLIENTE_A = UUID.randomUUID();
+    private static final UUID CLIENTE_B = UUID.randomUUID();
+
+    private static List<Long> leer(PedidoEventoBuffer buffer, long desde, long hasta, UUID clienteId, boolean[] completo) {
+        List<Long> secuencias = new ArrayList<>();
+        completo[0] = buffer.leer(desde, hasta, e -> clienteId == null || clienteId.equals(e.clienteId()),
+                e -> secuencias.add(e.secuencia()));
+        return secuencias;
+    }
+
+    @Test
+    public void testCapacidadSeRedondeaAPotenciaDeDos() {
+        PedidoEventoBuffer buffer = new PedidoEventoBuffer(5);
+        for (int i = 0; i < 8; i++) {
+            buffer.agregar(UUID.randomUUID(), CLIENTE_A, "CREADO", "{}");
+        }
+        boolean[] completo = new boolean[1];
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), leer(buffer, 0, 8, null, completo));
+        Assertions.assertTrue(completo[0]);
+    }
+
+    @Test
+    public void testSecuenciasConsecutivasDesdeUno() {
+        PedidoEventoBuffer buffer = new PedidoEventoBuffer(16);
+        Assertions.assertEquals(0, buffer.ultimaSecuencia());
+
+        Assertions.assertEquals(1, buffer.agregar(UUID.randomUUID(), CLIENTE_A, "CREADO", "{}").secuencia());
+        Assertions.assertEquals(2, buffer.agregar(UUID.randomUUID(), CLIENTE_A, "CREADO", "{}").secuencia());
+        Assertions.assertEquals(2, buffer.ultimaSecuencia());
+    }
+
+    @Test
+    public void testLeeSoloElRangoYFiltra() {
+        PedidoEventoBuffer buffer = new PedidoEventoBuffer(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.agregar(UUID.randomUUID(), i % 2 == 0 ? CLIENTE_A : CLIENTE_B, "CREADO", "{}");
+        }
+        boolean[] completo = new boolean[1];
+
+        Assertions.assertEquals(List.of(5L, 7L, 9L), leer(buffer, 4, 9, CLIENTE_A, completo));
+        Assertions.assertTrue(completo[0]);
+        Assertions.assertTrue(leer(buffer, 10, 10, null, completo).isEmpty());
+        Assertions.assertTrue(completo[0]);
+    }
+
+    @Test
+    public void testRangoSobrescritoPideResincronizar() {
+        PedidoEventoBuffer buffer = new PedidoEventoBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            buffer.agregar(UUID.randomUUID(), CLIENTE_A, "CREADO", "{}");
+        }
+        boolean[] completo = new boolean[1];
+
+        Assertions.assertEquals(List.of(7L, 8L, 9L, 10L), leer(buffer, 2, 10, null, completo));
+        Assertions.assertFalse(completo[0]);
+
+        Assertions.assertEquals(List.of(8L, 9L, 10L), leer(buffer, 7, 10, null, completo));
+        Assertions.assertTrue(completo[0]);
+    }
+}
@@ -0,0 +1,200 @@
+package com.logiflow.pedido;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logiflow.pedido.dto.ImportacionResponse;
+import com.logiflow.pedido.model.EstadoImportacion;
+import com.logiflow.pedido.model.ImportacionPedido;
+import com.logiflow.pedido.repository.ImportacionPedidoRepository;
+import com.logiflow.pedido.service.PedidoImportService;
+import com.logiflow.pedido.service.contadores.PedidoContadores;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PedidoImportServiceTest {
+
+    private static final String IMPORT_ID = "imp-1";
+
+    private ImportacionPedidoRepository importacionRepository;
+    private PedidoContadores pedidoContadores;
+    private Connection conexion;
+    private PreparedStatement checkpoint;
+    private CopyManager copyManager;
+    private CopyIn copy;
+    private PedidoImportService service;
+    private final List<String> filasCopiadas = new ArrayList<>();
+    private final List<String> estadosGuardados = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        importacionRepository = mock(ImportacionPedidoRepository.class);
+        pedidoContadores = mock(PedidoContadores.class);
+        DataSource dataSource = mock(DataSource.class);
+        conexion = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(conexion);
+
+        // El bloqueo consultivo siempre se obtiene
+        PreparedStatement sentencia = mock(PreparedStatement.class);
+        ResultSet bloqueo = mock(ResultSet.class);
+        when(bloqueo.next()).thenReturn(true);
+        when(bloqueo.getBoolean(1)).thenReturn(true);
+        when(sentencia.executeQuery()).thenReturn(bloqueo);
+        when(conexion.prepareStatement(anyString())).thenReturn(sentencia);
+
+        checkpoint = mock(PreparedStatement.class);
+        when(conexion.prepareStatement(startsWith("INSERT INTO pedido_importaciones"))).thenReturn(checkpoint);
+        doAnswer(invocacion -> {
+            if (invocacion.<Integer>getArgument(0) == 2) {
+                estadosGuardados.add(invocacion.getArgument(1));
+            }
+            return null;
+        }).when(checkpoint).setString(anyInt(), any());
+
+        PGConnection pg = mock(PGConnection.class);
+        copyManager = mock(CopyManager.class);
+        copy = mock(CopyIn.class);
+        when(conexion.unwrap(PGConnection.class)).thenReturn(pg);
+        when(pg.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copy);
+        when(copy.isActive()).thenReturn(true);
+        doAnswer(invocacion -> {
+            byte[] bytes = invocacion.getArgument(0);
+            filasCopiadas.add(new String(bytes, invocacion.<Integer>getArgument(1), invocacion.<Integer>getArgument(2),
+                    StandardCharsets.UTF_8));
+            return null;
+        }).when(copy).writeToCopy(any(byte[].class), anyInt(), anyInt());
+
+        service = new PedidoImportService(dataSource, importacionRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), pedidoContadores, new ObjectMapper(), 2);
+    }
+
+    private static String linea(String destino) {
+        return "{\"clienteId\":\"00000000-0000-0000-0000-000000000001\",\"direccionOrigen\":\"Origen\","
+                + "\"direccionDestino\":\"" + destino + "\",\"tipoEntrega\":\"URBANA\",\"zonaId\":\"ZONA-NORTE\","
+                + "\"distanciaKm\":5}";
+    }
+
+    private static InputStream archivo(String... lineas) {
+        return new ByteArrayInputStream(String.join("\n", lineas).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void checkpointPrevio(EstadoImportacion estado, long lineas, long insertadas, String ultimoError) {
+        when(importacionRepository.findById(IMPORT_ID)).thenReturn(Optional.of(ImportacionPedido.builder()
+                .id(IMPORT_ID)
+                .estado(estado)
+                .lineasConfirmadas(lineas)
+                .filasInsertadas(insertadas)
+                .ultimoError(ultimoError)
+                .fechaInicio(LocalDateTime.now())
+                .fechaActualizacion(LocalDateTime.now())
+                .build()));
+    }
+
+    @Test
+    public void testRechazaLineasInvalidasYConfirmaLasDemas() throws Exception {
+        when(importacionRepository.findById(IMPORT_ID)).thenReturn(Optional.empty());
+
+        ImportacionResponse respuesta = service.importar(IMPORT_ID, archivo(
+                linea("Destino 1"),
+                "{no es json",
+                linea(""),
+                "",
+                linea("Destino 5")));
+
+        Assertions.assertEquals(EstadoImportacion.COMPLETADA, respuesta.getEstado());
+        Assertions.assertEquals(5, respuesta.getLineasConfirmadas());
+        Assertions.assertEquals(2, respuesta.getFilasInsertadas());
+        Assertions.assertEquals(2, respuesta.getFilasRechazadas());
+        Assertions.assertEquals("Línea 3: La dirección de destino es obligatoria", respuesta.getUltimoError());
+        Assertions.assertEquals(2, filasCopiadas.size());
+        Assertions.assertTrue(filasCopiadas.get(1).contains("\"Destino 5\""));
+        // Bloques de 2 líneas: [1, 2], [3, 4] y [5]
+        verify(conexion, times(3)).commit();
+        Assertions.assertEquals(List.of("EN_PROCESO", "EN_PROCESO", "COMPLETADA"), estadosGuardados);
+    }
+
+    @Test
+    public void testReanudaDesdeElCheckpoint() throws Exception {
+        checkpointPrevio(EstadoImportacion.FALLIDA, 2, 2, "Error en importación: conexión perdida");
+
+        ImportacionResponse respuesta = service.importar(IMPORT_ID, archivo(
+                linea("Destino 1"), linea("Destino 2"), linea("Destino 3"), linea("Destino 4")));
+
+        Assertions.assertEquals(EstadoImportacion.COMPLETADA, respuesta.getEstado());
+        Assertions.assertEquals(4, respuesta.getLineasConfirmadas());
+        Assertions.assertEquals(4, respuesta.getFilasInsertadas());
+        Assertions.assertNull(respuesta.getUltimoError());
+        Assertions.assertEquals(2, filasCopiadas.size());
+        Assertions.assertTrue(filasCopiadas.get(0).contains("\"Destino 3\""));
+        Assertions.assertTrue(filasCopiadas.get(1).contains("\"Destino 4\""));
+    }
+
+    @Test
+    public void testImportacionCompletadaNoSeReprocesa() throws Exception {
+        checkpointPrevio(EstadoImportacion.COMPLETADA, 2, 2, null);
+
+        ImportacionResponse respuesta = service.importar(IMPORT_ID, archivo(linea("Destino 1"), linea("Destino 2")));
+
+        Assertions.assertEquals(EstadoImportacion.COMPLETADA, respuesta.getEstado());
+        verify(copyManager, never()).copyIn(anyString());
+        verify(conexion, never()).commit();
+    }
+
+    @Test
+    public void testErrorInesperadoCancelaElCopyYMarcaFallida() throws Exception {
+        when(importacionRepository.findById(IMPORT_ID)).thenReturn(Optional.empty());
+        doThrow(new IllegalStateException("fila rota")).when(copy).writeToCopy(any(byte[].class), anyInt(), anyInt());
+
+        ImportacionResponse respuesta = service.importar(IMPORT_ID, archivo(linea("Destino 1")));
+
+        verify(copy).cancelCopy();
+        verify(conexion).rollback();
+        verify(conexion, never()).commit();
+        Assertions.assertEquals(EstadoImportacion.FALLIDA, respuesta.getEstado());
+        Assertions.assertEquals(0, respuesta.getLineasConfirmadas());
+        Assertions.assertEquals("Error en importación: fila rota", respuesta.getUltimoError());
+        Assertions.assertEquals(List.of("FALLIDA"), estadosGuardados);
+    }
+
+    @Test
+    public void testFalloDeContadoresNoDetieneUnBloqueConfirmado() throws Exception {
+        when(importacionRepository.findById(IMPORT_ID)).thenReturn(Optional.empty());
+        doThrow(new IllegalStateException("contadores")).when(pedidoContadores).registrarAltas(anyMap());
+
+        ImportacionResponse respuesta = service.importar(IMPORT_ID, archivo(
+                linea("Destino 1"), linea("Destino 2"), linea("Destino 3")));
+
+        Assertions.assertEquals(EstadoImportacion.COMPLETADA, respuesta.getEstado());
+        Assertions.assertEquals(3, respuesta.getFilasInsertadas());
+        verify(conexion, never()).rollback();
+    }
+}
@@ -0,0 +1,180 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.dto.OutboxMetricasResponse;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.PedidoEvento;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.repository.PedidoEventoRepository;
+import com.logiflow.pedido.service.outbox.PedidoEventoSink;
+import com.logiflow.pedido.service.outbox.PedidoOutboxRelay;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PedidoOutboxRelayTest {
+
+    private static final long RETROCESO_BASE_MS = 10;
+    private static final long RETROCESO_MAX_MS = 40;
+
+    private PedidoEventoRepository eventoRepository;
+    private PedidoEventoSink sink;
+    private TransactionTemplate transactionTemplate;
+    private PedidoOutboxRelay relay;
+    private long ids;
+
+    @BeforeEach
+    public void setUp() {
+        eventoRepository = mock(PedidoEventoRepository.class);
+        sink = mock(PedidoEventoSink.class);
+        when(sink.nombre()).thenReturn("prueba");
+        when(eventoRepository.fechaPendienteMasAntigua()).thenReturn(Optional.empty());
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion ->
+                invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+
+        relay = new PedidoOutboxRelay(eventoRepository, sink, transactionTemplate,
+                2, 3, RETROCESO_BASE_MS, RETROCESO_MAX_MS, 24);
+    }
+
+    private List<PedidoEvento> eventos(int cantidad) {
+        List<PedidoEvento> eventos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            eventos.add(PedidoEvento.builder()
+                    .id(++ids)
+                    .pedidoId(UUID.randomUUID())
+                    .tipo(TipoEventoPedido.ACTUALIZADO)
+                    .estado(EstadoPedido.ASIGNADO)
+                    .versionPedido(1L)
+                    .payload("{}")
+                    .fechaCreacion(LocalDateTime.now())
+                    .build());
+        }
+        return eventos;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMarcaPublicadosSoloDespuesDelSink() throws Exception {
+        when(eventoRepository.bloquearPendientes(2)).thenReturn(eventos(2), eventos(1));
+
+        relay.drenar();
+
+        InOrder orden = inOrder(sink, eventoRepository);
+        orden.verify(sink).publicar(anyList());
+        orden.verify(eventoRepository).marcarPublicados(eq(List.of(1L, 2L)), any());
+        orden.verify(sink).publicar(anyList());
+        orden.verify(eventoRepository).marcarPublicados(eq(List.of(3L)), any());
+        OutboxMetricasResponse metricas = relay.metricas();
+        Assertions.assertEquals(3, metricas.getPublicados());
+        Assertions.assertEquals(2, metricas.getLotesPublicados());
+        Assertions.assertEquals(0, metricas.getFallos());
+    }
+
+    @Test
+    public void testLotesLlenosSeAcotanPorCiclo() {
+        when(eventoRepository.bloquearPendientes(2)).thenAnswer(invocacion -> eventos(2));
+
+        relay.drenar();
+
+        verify(eventoRepository, times(3)).bloquearPendientes(2);
+        Assertions.assertEquals(6, relay.metricas().getPublicados());
+    }
+
+    @Test
+    public void testFalloDelSinkNoMarcaNadaYRetrocede() throws Exception {
+        // Un retroceso largo para que el segundo ciclo caiga siempre dentro de él
+        relay = new PedidoOutboxRelay(eventoRepository, sink, transactionTemplate, 2, 3, 60_000, 60_000, 24);
+        when(eventoRepository.bloquearPendientes(anyInt())).thenAnswer(invocacion -> eventos(2));
+        doThrow(new IOException("sink caído")).when(sink).publicar(anyList());
+
+        LocalDateTime antes = LocalDateTime.now();
+        relay.drenar();
+        LocalDateTime despues = LocalDateTime.now();
+
+        verify(eventoRepository, never()).marcarPublicados(anyCollection(), any());
+        OutboxMetricasResponse metricas = relay.metricas();
+        Assertions.assertEquals(1, metricas.getFallos());
+        Assertions.assertEquals("sink caído", metricas.getUltimoError());
+        Assertions.assertEquals(0, metricas.getPublicados());
+        Assertions.assertFalse(metricas.getReintentoDesde().isBefore(antes.plusSeconds(60)));
+        Assertions.assertFalse(metricas.getReintentoDesde().isAfter(despues.plusSeconds(60)));
+
+        // Durante el retroceso ni siquiera se bloquean filas
+        relay.drenar();
+        verify(eventoRepository, times(1)).bloquearPendientes(anyInt());
+    }
+
+    @Test
+    public void testRetrocesoExponencialHastaElMaximoYSeReiniciaConUnExito() throws Exception {
+        when(eventoRepository.bloquearPendientes(anyInt())).thenAnswer(invocacion -> eventos(1));
+        doThrow(new IOException("sink caído")).when(sink).publicar(anyList());
+
+        for (long esperado : new long[]{10, 20, 40, 40}) {
+            assertEspera(esperado);
+        }
+        Assertions.assertEquals(4, relay.metricas().getFallos());
+
+        esperarReintento();
+        doNothing().when(sink).publicar(anyList());
+        relay.drenar();
+        Assertions.assertNull(relay.metricas().getReintentoDesde());
+        Assertions.assertEquals(1, relay.metricas().getPublicados());
+
+        doThrow(new IOException("sink caído")).when(sink).publicar(anyList());
+        assertEspera(RETROCESO_BASE_MS);
+    }
+
+    private void assertEspera(long esperadoMs) throws InterruptedException {
+        esperarReintento();
+        LocalDateTime antes = LocalDateTime.now();
+        relay.drenar();
+        LocalDateTime despues = LocalDateTime.now();
+        LocalDateTime reintento = relay.metricas().getReintentoDesde();
+        Duration espera = Duration.ofMillis(esperadoMs);
+        Assertions.assertFalse(reintento.isBefore(antes.plus(espera)), "retroceso menor a " + esperadoMs + " ms");
+        Assertions.assertFalse(reintento.isAfter(despues.plus(espera)), "retroceso mayor a " + esperadoMs + " ms");
+    }
+
+    private void esperarReintento() throws InterruptedException {
+        LocalDateTime reintento = relay.metricas().getReintentoDesde();
+        while (reintento != null && !LocalDateTime.now().isAfter(reintento)) {
+            Thread.sleep(2);
+        }
+    }
+
+    @Test
+    public void testSinPendientesNoLlamaAlSink() throws Exception {
+        when(eventoRepository.bloquearPendientes(anyInt())).thenReturn(List.of());
+
+        relay.drenar();
+
+        verify(sink, never()).publicar(anyList());
+        Assertions.assertEquals(0, relay.metricas().getLotesPublicados());
+    }
+}
@@ -0,0 +1,116 @@
+package com.logiflow.pedido;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.PedidoEvento;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.service.outbox.PedidoOutboxWriter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class PedidoOutboxWriterTest {
+
+    private final List<PedidoEvento> persistidos = new ArrayList<>();
+    private final List<Boolean> enTransaccion = new ArrayList<>();
+    private AnnotationConfigApplicationContext contexto;
+
+    /**
+     * Gestor sin recursos: solo abre y cierra el contexto transaccional de Spring.
+     */
+    private static final class TransaccionesEnMemoria extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        doAnswer(invocacion -> {
+            persistidos.add(invocacion.getArgument(0));
+            enTransaccion.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        }).when(entityManager).persist(any());
+
+        contexto = new AnnotationConfigApplicationContext();
+        contexto.registerBean(EntityManager.class, () -> entityManager);
+        contexto.registerBean(ObjectMapper.class, () -> new ObjectMapper().findAndRegisterModules());
+        contexto.register(PedidoOutboxWriter.class);
+        contexto.refresh();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private static PedidoResponse pedido(Long version) {
+        return PedidoResponse.builder()
+                .id(UUID.randomUUID())
+                .zonaId("ZONA-NORTE")
+                .estado(EstadoPedido.ASIGNADO)
+                .version(version)
+                .fechaCreacion(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .build();
+    }
+
+    @Test
+    public void testPersisteElEventoDentroDeLaTransaccionQueLoPublica() {
+        PedidoResponse pedido = pedido(4L);
+
+        new TransactionTemplate(new TransaccionesEnMemoria()).executeWithoutResult(status ->
+                contexto.publishEvent(new PedidoCambiadoEvent(TipoEventoPedido.ACTUALIZADO, EstadoPedido.RECIBIDO, pedido)));
+
+        Assertions.assertEquals(List.of(true), enTransaccion);
+        PedidoEvento evento = persistidos.get(0);
+        Assertions.assertEquals(pedido.getId(), evento.getPedidoId());
+        Assertions.assertEquals(TipoEventoPedido.ACTUALIZADO, evento.getTipo());
+        Assertions.assertEquals(EstadoPedido.ASIGNADO, evento.getEstado());
+        Assertions.assertEquals(4L, evento.getVersionPedido());
+        Assertions.assertNotNull(evento.getFechaCreacion());
+        Assertions.assertNull(evento.getFechaPublicacion());
+        Assertions.assertTrue(evento.getPayload().contains("\"id\":\"" + pedido.getId() + "\""));
+        Assertions.assertTrue(evento.getPayload().contains("\"zonaId\":\"ZONA-NORTE\""));
+    }
+
+    @Test
+    public void testVersionNulaSeGuardaComoCero() {
+        new TransactionTemplate(new TransaccionesEnMemoria()).executeWithoutResult(status ->
+                contexto.publishEvent(new PedidoCambiadoEvent(TipoEventoPedido.CREADO, null, pedido(null))));
+
+        Assertions.assertEquals(0L, persistidos.get(0).getVersionPedido());
+    }
+}
@@ -0,0 +1,297 @@
+package com.logiflow.pedido;
+
+import com.logiflow.pedido.dto.CancelacionMasivaRequest;
+import com.logiflow.pedido.dto.CancelacionMasivaResponse;
+import com.logiflow.pedido.dto.CrearPedidoRequest;
+import com.logiflow.pedido.dto.CursorPageResponse;
+import com.logiflow.pedido.dto.LoteItemResultado;
+import com.logiflow.pedido.dto.LoteResponse;
+import com.logiflow.pedido.dto.PedidoFiltro;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.Pedido;
+import com.logiflow.pedido.model.TipoEntrega;
+import com.logiflow.pedido.repository.PedidoRepository;
+import com.logiflow.pedido.repository.PedidoSpecifications;
+import com.logiflow.pedido.service.PedidoCursor;
+import com.logiflow.pedido.service.PedidoService;
+import com.logiflow.pedido.service.cache.PedidoCache;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PedidoServiceTest {
+
+    private static final String ZONA = "ZONA-NORTE";
+
+    private PedidoRepository pedidoRepository;
+    private EntityManager entityManager;
+    private ApplicationEventPublisher eventPublisher;
+    private PedidoService pedidoService;
+
+    @BeforeEach
+    public void setUp() {
+        pedidoRepository = mock(PedidoRepository.class);
+        entityManager = mock(EntityManager.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion ->
+                invocacion.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+
+        pedidoService = new PedidoService(pedidoRepository, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate, eventPublisher,
+                new PedidoCache(false, 0, 0));
+        ReflectionTestUtils.setField(pedidoService, "batchSize", 2);
+        ReflectionTestUtils.setField(pedidoService, "cancelacionChunkSize", 2);
+    }
+
+    private static Pedido cancelado(UUID id) {
+        return Pedido.builder()
+                .id(id)
+                .zonaId(ZONA)
+                .estado(EstadoPedido.CANCELADO)
+                .estadoAnterior(EstadoPedido.RECIBIDO)
+                .build();
+    }
+
+    private static CancelacionMasivaRequest porZona() {
+        return CancelacionMasivaRequest.builder().zonaId(ZONA).motivo("Cierre de zona").build();
+    }
+
+    private static CancelacionMasivaRequest porIds(List<UUID> ids) {
+        return CancelacionMasivaRequest.builder().ids(ids).motivo("Cliente desistió").build();
+    }
+
+    @Test
+    public void testZonaTerminaCuandoUnBloqueNoCancelaNada() {
+        when(pedidoRepository.cancelarBloquePorZona(eq(ZONA), anyCollection(), anyString(), any(), eq(2)))
+                .thenReturn(List.of(cancelado(UUID.randomUUID()), cancelado(UUID.randomUUID())),
+                        List.of(cancelado(UUID.randomUUID())),
+                        List.of());
+        when(pedidoRepository.findIdsCancelablesPorZona(eq(ZONA), anyCollection())).thenReturn(List.of());
+
+        CancelacionMasivaResponse respuesta = pedidoService.cancelarPedidosMasivo(porZona());
+
+        Assertions.assertEquals(3, respuesta.getCancelados());
+        Assertions.assertEquals(2, respuesta.getBloques());
+        Assertions.assertEquals(List.of(), respuesta.getNoCancelados());
+        verify(pedidoRepository, times(3)).cancelarBloquePorZona(eq(ZONA), anyCollection(), anyString(), any(), anyInt());
+        verify(pedidoRepository, never()).cancelarPorIds(anyCollection(), anyCollection(), anyString(), any());
+        verify(eventPublisher, times(3)).publishEvent(any(PedidoCambiadoEvent.class));
+    }
+
+    @Test
+    public void testZonaReintentaLosPedidosQueEstabanBloqueados() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(pedidoRepository.cancelarBloquePorZona(eq(ZONA), anyCollection(), anyString(), any(), eq(2)))
+                .thenReturn(List.of(cancelado(UUID.randomUUID()), cancelado(UUID.randomUUID())), List.of());
+        // SKIP LOCKED omitió a, b y c; b ya no era cancelable cuando se liberó
+        when(pedidoRepository.findIdsCancelablesPorZona(eq(ZONA), anyCollection())).thenReturn(List.of(a, b, c));
+        when(pedidoRepository.cancelarPorIds(eq(List.of(a, b)), anyCollection(), anyString(), any()))
+                .thenReturn(List.of(cancelado(a)));
+        when(pedidoRepository.cancelarPorIds(eq(List.of(c)), anyCollection(), anyString(), any()))
+                .thenReturn(List.of(cancelado(c)));
+
+        CancelacionMasivaResponse respuesta = pedidoService.cancelarPedidosMasivo(porZona());
+
+        Assertions.assertEquals(4, respuesta.getCancelados());
+        Assertions.assertEquals(3, respuesta.getBloques());
+        Assertions.assertEquals(List.of(b), respuesta.getNoCancelados());
+    }
+
+    @Test
+    public void testIdsEnBloquesSinRepetidos() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(pedidoRepository.cancelarPorIds(eq(List.of(a, b)), anyCollection(), anyString(), any()))
+                .thenReturn(List.of(cancelado(a)));
+        when(pedidoRepository.cancelarPorIds(eq(List.of(c)), anyCollection(), anyString(), any()))
+                .thenReturn(List.of());
+
+        CancelacionMasivaResponse respuesta = pedidoService.cancelarPedidosMasivo(porIds(List.of(a, b, a, c)));
+
+        Assertions.assertEquals(1, respuesta.getCancelados());
+        Assertions.assertEquals(2, respuesta.getBloques());
+        Assertions.assertEquals(List.of(b, c), respuesta.getNoCancelados());
+        verify(eventPublisher, times(1)).publishEvent(any(PedidoCambiadoEvent.class));
+    }
+
+    @Test
+    public void testZonaEIdsSonExcluyentes() {
+        CancelacionMasivaRequest ambos = porIds(List.of(UUID.randomUUID()));
+        ambos.setZonaId(ZONA);
+
+        Assertions.assertThrows(BadRequestException.class, () -> pedidoService.cancelarPedidosMasivo(ambos));
+        Assertions.assertThrows(BadRequestException.class,
+                () -> pedidoService.cancelarPedidosMasivo(porIds(List.of())));
+    }
+
+    private static CrearPedidoRequest alta(String destino) {
+        return CrearPedidoRequest.builder()
+                .clienteId(UUID.randomUUID())
+                .direccionOrigen("Origen")
+                .direccionDestino(destino)
+                .tipoEntrega(TipoEntrega.URBANA)
+                .zonaId(ZONA)
+                .distanciaKm(new BigDecimal("5.0"))
+                .build();
+    }
+
+    @Test
+    public void testLoteValidaCadaElementoYCreaLosValidos() {
+        List<UUID> asignados = new ArrayList<>();
+        doAnswer(invocacion -> {
+            UUID id = UUID.randomUUID();
+            invocacion.<Pedido>getArgument(0).setId(id);
+            asignados.add(id);
+            return null;
+        }).when(entityManager).persist(any());
+        CrearPedidoRequest sinDestino = alta("");
+        CrearPedidoRequest lejano = alta("Destino 3");
+        lejano.setDistanciaKm(new BigDecimal("9000"));
+
+        LoteResponse respuesta = pedidoService.crearPedidosLote(Arrays.asList(
+                alta("Destino 0"), null, sinDestino, lejano, alta("Destino 4")));
+
+        Assertions.assertEquals(5, respuesta.getTotal());
+        Assertions.assertEquals(2, respuesta.getExitosos());
+        Assertions.assertEquals(3, respuesta.getFallidos());
+        List<LoteItemResultado> resultados = respuesta.getResultados();
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4), resultados.stream().map(LoteItemResultado::getIndex).toList());
+        Assertions.assertEquals(List.of(true, false, false, false, true),
+                resultados.stream().map(LoteItemResultado::isSuccess).toList());
+        Assertions.assertEquals("El pedido no puede ser nulo", resultados.get(1).getError());
+        Assertions.assertEquals("La dirección de destino es obligatoria", resultados.get(2).getError());
+        Assertions.assertEquals("La distancia no puede exceder 5000 km", resultados.get(3).getError());
+        Assertions.assertEquals(asignados.get(0), resultados.get(0).getId());
+        Assertions.assertEquals(asignados.get(1), resultados.get(4).getId());
+        verify(eventPublisher, times(2)).publishEvent(any(PedidoCambiadoEvent.class));
+    }
+
+    @Test
+    public void testLoteVaciaElContextoCadaBatchSize() {
+        List<CrearPedidoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(alta("Destino " + i));
+        }
+
+        pedidoService.crearPedidosLote(requests);
+
+        // batch_size 2: flush y clear tras el 2.º y el 4.º, y uno más por el último
+        InOrder orden = inOrder(entityManager);
+        for (int bloque = 0; bloque < 2; bloque++) {
+            orden.verify(entityManager, times(2)).persist(any(Pedido.class));
+            orden.verify(entityManager).flush();
+            orden.verify(entityManager).clear();
+        }
+        orden.verify(entityManager).persist(any(Pedido.class));
+        orden.verify(entityManager).flush();
+        orden.verify(entityManager).clear();
+        orden.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testLoteVacioOExcesivoSeRechaza() {
+        Assertions.assertThrows(BadRequestException.class, () -> pedidoService.crearPedidosLote(null));
+        Assertions.assertThrows(BadRequestException.class, () -> pedidoService.crearPedidosLote(List.of()));
+        Assertions.assertThrows(BadRequestException.class, () -> pedidoService.crearPedidosLote(
+                Collections.nCopies(PedidoService.MAX_LOTE_SIZE + 1, alta("Destino"))));
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    public void testOrdenKeysetDesempataPorId() {
+        Assertions.assertEquals(List.of(Sort.Order.desc("fechaCreacion"), Sort.Order.desc("id")),
+                PedidoSpecifications.ORDEN_KEYSET.toList());
+    }
+
+    @Test
+    public void testListadoRecorreEmpatesSinRepetirNiSaltar() {
+        // Pedidos creados en lote comparten fecha_creacion; el id es el único desempate del keyset
+        LocalDateTime creacion = LocalDateTime.of(2024, 5, 1, 10, 0);
+        List<Pedido> todos = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            todos.add(Pedido.builder()
+                    .id(UUID.randomUUID())
+                    .fechaCreacion(i < 7 ? creacion : creacion.plusNanos(1_000))
+                    .build());
+        }
+        // Mismo orden que PostgreSQL aplica a uuid: bytes sin signo, igual que su texto en hexadecimal
+        Comparator<Pedido> orden = Comparator.comparing(Pedido::getFechaCreacion)
+                .thenComparing(p -> p.getId().toString());
+        todos.sort(orden.reversed());
+        String[] cursor = {null};
+        int size = 3;
+        // Mismo predicado que PedidoSpecifications.despuesDe: fecha < f OR (fecha = f AND id < id)
+        doAnswer(invocacion -> {
+            PedidoCursor desde = cursor[0] != null ? PedidoCursor.decode(cursor[0]) : null;
+            return todos.stream()
+                    .filter(p -> desde == null || p.getFechaCreacion().isBefore(desde.fechaCreacion())
+                            || (p.getFechaCreacion().equals(desde.fechaCreacion())
+                            && p.getId().toString().compareTo(desde.id().toString()) < 0))
+                    .limit(size + 1)
+                    .toList();
+        }).when(pedidoRepository).findBy(ArgumentMatchers.<Specification<Pedido>>any(), any());
+
+        List<UUID> vistos = new ArrayList<>();
+        CursorPageResponse<PedidoResponse> pagina;
+        do {
+            pagina = pedidoService.listarPedidos(new PedidoFiltro(), cursor[0], size);
+            pagina.getItems().forEach(p -> vistos.add(p.getId()));
+            cursor[0] = pagina.getNextCursor();
+        } while (pagina.isHasNext());
+
+        Assertions.assertEquals(todos.stream().map(Pedido::getId).toList(), vistos);
+        Assertions.assertNull(pagina.getNextCursor());
+        Assertions.assertEquals(2, pagina.getSize());
+    }
+
+    @Test
+    public void testListadoRechazaParametrosInvalidos() {
+        Assertions.assertThrows(BadRequestException.class,
+                () -> pedidoService.listarPedidos(new PedidoFiltro(), null, 0));
+        Assertions.assertThrows(BadRequestException.class,
+                () -> pedidoService.listarPedidos(new PedidoFiltro(), null, PedidoService.MAX_PAGE_SIZE + 1));
+        Assertions.assertThrows(BadRequestException.class,
+                () -> pedidoService.listarPedidos(new PedidoFiltro(), "%%%", 10));
+        verify(pedidoRepository, never()).findBy(ArgumentMatchers.<Specification<Pedido>>any(), any());
+    }
+}
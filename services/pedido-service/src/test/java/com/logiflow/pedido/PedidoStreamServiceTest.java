@@ -0,0 +1,186 @@
+package com.logiflow.pedido;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logiflow.pedido.controller.PedidoStreamController;
+import com.logiflow.pedido.dto.PedidoResponse;
+import com.logiflow.pedido.event.PedidoCambiadoEvent;
+import com.logiflow.pedido.model.EstadoPedido;
+import com.logiflow.pedido.model.TipoEventoPedido;
+import com.logiflow.pedido.service.stream.PedidoEventoBuffer;
+import com.logiflow.pedido.service.stream.PedidoStreamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+public class PedidoStreamServiceTest {
+
+    private static final Pattern ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+    private static final Pattern NOMBRE = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+
+    private PedidoStreamService streamService;
+    private MockMvc mockMvc;
+    private final UUID clienteId = UUID.randomUUID();
+
+    @BeforeEach
+    public void setUp() {
+        streamService = new PedidoStreamService(
+                new PedidoEventoBuffer(8), new ObjectMapper().findAndRegisterModules(), 60_000, 60_000, 16);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PedidoStreamController(streamService)).build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        streamService.cerrar();
+    }
+
+    private MockHttpServletResponse suscribir(String lastEventId) throws Exception {
+        var request = get("/pedidos/eventos").param("clienteId", clienteId.toString());
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private void publicar(UUID cliente, TipoEventoPedido tipo) {
+        PedidoResponse pedido = PedidoResponse.builder()
+                .id(UUID.randomUUID())
+                .clienteId(cliente)
+                .estado(EstadoPedido.RECIBIDO)
+                .version(0L)
+                .build();
+        streamService.onPedidoCambiado(new PedidoCambiadoEvent(tipo, null, pedido));
+    }
+
+    private static List<String> grupos(Pattern patron, String texto) {
+        List<String> valores = new ArrayList<>();
+        Matcher m = patron.matcher(texto);
+        while (m.find()) {
+            valores.add(m.group(1));
+        }
+        return valores;
+    }
+
+    private static String esperar(MockHttpServletResponse response, Predicate<String> condicion) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            String contenido = response.getContentAsString();
+            if (condicion.test(contenido)) {
+                return contenido;
+            }
+            Thread.sleep(10);
+        }
+        Assertions.fail("El stream no recibió lo esperado: " + response.getContentAsString());
+        return null;
+    }
+
+    @Test
+    public void testEnvioEnVivoSoloDelCliente() throws Exception {
+        MockHttpServletResponse response = suscribir(null);
+        publicar(clienteId, TipoEventoPedido.CREADO);
+        publicar(UUID.randomUUID(), TipoEventoPedido.CREADO);
+        publicar(clienteId, TipoEventoPedido.CANCELADO);
+
+        String contenido = esperar(response, c -> grupos(ID, c).size() == 2);
+        Assertions.assertEquals(List.of("CREADO", "CANCELADO"), grupos(NOMBRE, contenido));
+        Assertions.assertEquals(1, streamService.suscripcionesActivas());
+    }
+
+    @Test
+    public void testReanudaDesdeLastEventId() throws Exception {
+        MockHttpServletResponse primera = suscribir(null);
+        publicar(clienteId, TipoEventoPedido.CREADO);
+        String ultimoId = grupos(ID, esperar(primera, c -> grupos(ID, c).size() == 1)).get(0);
+
+        publicar(clienteId, TipoEventoPedido.ACTUALIZADO);
+        publicar(UUID.randomUUID(), TipoEventoPedido.CREADO);
+        publicar(clienteId, TipoEventoPedido.CANCELADO);
+
+        MockHttpServletResponse segunda = suscribir(ultimoId);
+        String contenido = esperar(segunda, c -> grupos(ID, c).size() == 2);
+
+        Assertions.assertEquals(List.of("ACTUALIZADO", "CANCELADO"), grupos(NOMBRE, contenido));
+        Assertions.assertFalse(grupos(ID, contenido).contains(ultimoId));
+    }
+
+    @Test
+    public void testLastEventIdFueraDelBufferPideResincronizar() throws Exception {
+        MockHttpServletResponse primera = suscribir(null);
+        publicar(clienteId, TipoEventoPedido.CREADO);
+        String ultimoId = grupos(ID, esperar(primera, c -> grupos(ID, c).size() == 1)).get(0);
+        for (int i = 0; i < 10; i++) {
+            publicar(UUID.randomUUID(), TipoEventoPedido.CREADO);
+        }
+
+        String contenido = esperar(suscribir(ultimoId), c -> c.contains("event:" + PedidoStreamService.EVENTO_RESYNC));
+        Assertions.assertEquals(List.of(PedidoStreamService.EVENTO_RESYNC), grupos(NOMBRE, contenido));
+    }
+
+    @Test
+    public void testLastEventIdDeOtraEpocaPideResincronizar() throws Exception {
+        String contenido = esperar(suscribir("otra-1"), c -> c.contains("event:" + PedidoStreamService.EVENTO_RESYNC));
+        Assertions.assertEquals(List.of(PedidoStreamService.EVENTO_RESYNC), grupos(NOMBRE, contenido));
+    }
+
+    @Test
+    public void testPublicacionConcurrenteNoSaltaSecuencias() throws Exception {
+        int hilos = 8;
+        int porHilo = 250;
+        PedidoStreamService concurrente = new PedidoStreamService(
+                new PedidoEventoBuffer(4096), new ObjectMapper().findAndRegisterModules(), 60_000, 60_000, 4096);
+        try {
+            MockMvc mvc = MockMvcBuilders.standaloneSetup(new PedidoStreamController(concurrente)).build();
+            MockHttpServletResponse response = mvc.perform(get("/pedidos/eventos")
+                    .param("clienteId", clienteId.toString())).andReturn().getResponse();
+
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Thread> publicadores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                publicadores.add(Thread.ofPlatform().start(() -> {
+                    try {
+                        salida.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < porHilo; i++) {
+                        PedidoResponse pedido = PedidoResponse.builder()
+                                .id(UUID.randomUUID())
+                                .clienteId(clienteId)
+                                .estado(EstadoPedido.RECIBIDO)
+                                .version(0L)
+                                .build();
+                        concurrente.onPedidoCambiado(new PedidoCambiadoEvent(TipoEventoPedido.CREADO, null, pedido));
+                    }
+                }));
+            }
+            salida.countDown();
+            for (Thread publicador : publicadores) {
+                publicador.join();
+            }
+
+            int total = hilos * porHilo;
+            String contenido = esperar(response, c -> grupos(ID, c).size() == total);
+            List<String> ids = grupos(ID, contenido);
+            for (int i = 0; i < total; i++) {
+                String id = ids.get(i);
+                Assertions.assertEquals(i + 1, Long.parseLong(id.substring(id.lastIndexOf('-') + 1)));
+            }
+            Assertions.assertEquals(0, concurrente.suscripcionesDescartadas());
+        } finally {
+            concurrente.cerrar();
+        }
+    }
+}
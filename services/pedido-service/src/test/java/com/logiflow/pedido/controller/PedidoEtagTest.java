@@ -0,0 +1,68 @@
+package com.logiflow.pedido.controller;
+
+import com.logiflow.pedido.exception.BadRequestException;
+import com.logiflow.pedido.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * En el mismo paquete que {@link PedidoEtag}, que es interno a los controladores.
+ */
+public class PedidoEtagTest {
+
+    @Test
+    public void testEtagFuerteDeLaVersion() {
+        Assertions.assertEquals("\"0\"", PedidoEtag.de(0L));
+        Assertions.assertEquals("\"42\"", PedidoEtag.de(42L));
+    }
+
+    @Test
+    public void testIfMatchFuerteDevuelveLaVersion() {
+        Assertions.assertEquals(Long.valueOf(3), PedidoEtag.versionDeIfMatch("\"3\""));
+        Assertions.assertEquals(Long.valueOf(3), PedidoEtag.versionDeIfMatch("  \"3\" "));
+        Assertions.assertEquals(Long.valueOf(Long.MAX_VALUE), PedidoEtag.versionDeIfMatch(PedidoEtag.de(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testIfMatchAusenteOComodinNoExigeVersion() {
+        Assertions.assertNull(PedidoEtag.versionDeIfMatch(null));
+        Assertions.assertNull(PedidoEtag.versionDeIfMatch(""));
+        Assertions.assertNull(PedidoEtag.versionDeIfMatch("   "));
+        Assertions.assertNull(PedidoEtag.versionDeIfMatch("*"));
+        Assertions.assertNull(PedidoEtag.versionDeIfMatch(" * "));
+    }
+
+    @Test
+    public void testIfMatchDebilEsPreconditionFailed() {
+        Assertions.assertThrows(PreconditionFailedException.class, () -> PedidoEtag.versionDeIfMatch("W/\"3\""));
+        Assertions.assertThrows(PreconditionFailedException.class, () -> PedidoEtag.versionDeIfMatch(" W/\"3\""));
+    }
+
+    @Test
+    public void testIfMatchDeOtroRecursoEsPreconditionFailed() {
+        // Bien formado pero no es una versión de pedido
+        Assertions.assertThrows(PreconditionFailedException.class, () -> PedidoEtag.versionDeIfMatch("\"abc\""));
+        Assertions.assertThrows(PreconditionFailedException.class, () -> PedidoEtag.versionDeIfMatch("\"\""));
+    }
+
+    @Test
+    public void testIfMatchMalFormadoEsBadRequest() {
+        Assertions.assertThrows(BadRequestException.class, () -> PedidoEtag.versionDeIfMatch("\"3\", \"4\""));
+        Assertions.assertThrows(BadRequestException.class, () -> PedidoEtag.versionDeIfMatch("\"3\",*"));
+        Assertions.assertThrows(BadRequestException.class, () -> PedidoEtag.versionDeIfMatch("3"));
+        Assertions.assertThrows(BadRequestException.class, () -> PedidoEtag.versionDeIfMatch("\"3"));
+        Assertions.assertThrows(BadRequestException.class, () -> PedidoEtag.versionDeIfMatch("\""));
+    }
+
+    @Test
+    public void testIfNoneMatchComparacionDebil() {
+        Assertions.assertTrue(PedidoEtag.coincideAlguna("\"3\"", 3));
+        Assertions.assertTrue(PedidoEtag.coincideAlguna("W/\"3\"", 3));
+        Assertions.assertTrue(PedidoEtag.coincideAlguna("\"1\", W/\"3\"", 3));
+        Assertions.assertTrue(PedidoEtag.coincideAlguna("\"1\",\"3\"", 3));
+        Assertions.assertTrue(PedidoEtag.coincideAlguna("*", 3));
+        Assertions.assertFalse(PedidoEtag.coincideAlguna("\"1\", \"2\"", 3));
+        Assertions.assertFalse(PedidoEtag.coincideAlguna("\"33\"", 3));
+        Assertions.assertFalse(PedidoEtag.coincideAlguna("3", 3));
+    }
+}
@@ -0,0 +1,138 @@
+package com.logiflow.pedido.service.despacho;
+
+import com.logiflow.pedido.model.FleetType;
+import com.logiflow.pedido.model.TipoEntrega;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * En el mismo paquete que {@link ZonaDespacho}, que es interno al despacho.
+ */
+public class ZonaDespachoTest {
+
+    private static final UUID REPARTIDOR_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID REPARTIDOR_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    private ZonaDespacho zona;
+
+    @BeforeEach
+    public void setUp() {
+        zona = new ZonaDespacho("ZONA-NORTE");
+    }
+
+    private void disponible(UUID id, FleetType flota, int capacidad, int carga) {
+        zona.repartidores().put(id, new ZonaDespacho.Repartidor(id, flota, capacidad, carga));
+    }
+
+    private ZonaDespacho.PedidoPendiente encolar(TipoEntrega tipo) {
+        ZonaDespacho.PedidoPendiente pedido =
+                new ZonaDespacho.PedidoPendiente(UUID.randomUUID(), tipo, LocalDateTime.now());
+        zona.encolar(pedido);
+        return pedido;
+    }
+
+    private static List<UUID> repartidores(List<ZonaDespacho.Asignacion> asignaciones) {
+        return asignaciones.stream().map(a -> a.repartidor().id()).toList();
+    }
+
+    private static List<UUID> pedidos(List<ZonaDespacho.Asignacion> asignaciones) {
+        return asignaciones.stream().map(a -> a.pedido().id()).toList();
+    }
+
+    @Test
+    public void testAsignaAlMenosCargado() {
+        disponible(REPARTIDOR_A, FleetType.MOTORIZADO, 5, 2);
+        disponible(REPARTIDOR_B, FleetType.MOTORIZADO, 5, 0);
+        for (int i = 0; i < 4; i++) {
+            encolar(TipoEntrega.URBANA);
+        }
+
+        List<ZonaDespacho.Asignacion> asignaciones = zona.emparejar(10);
+
+        // B sube a 2 antes de empatar con A; en el empate decide el id y después se alternan
+        Assertions.assertEquals(List.of(REPARTIDOR_B, REPARTIDOR_B, REPARTIDOR_A, REPARTIDOR_B),
+                repartidores(asignaciones));
+    }
+
+    @Test
+    public void testRespetaCapacidadYDevuelveElRestoAlFrente() {
+        disponible(REPARTIDOR_A, FleetType.MOTORIZADO, 2, 1);
+        ZonaDespacho.PedidoPendiente primero = encolar(TipoEntrega.URBANA);
+        ZonaDespacho.PedidoPendiente segundo = encolar(TipoEntrega.URBANA);
+        ZonaDespacho.PedidoPendiente tercero = encolar(TipoEntrega.URBANA);
+
+        Assertions.assertEquals(List.of(primero.id()), pedidos(zona.emparejar(10)));
+        zona.retirar(primero.id());
+        Assertions.assertEquals(2, zona.pendientes());
+
+        // Con capacidad libre otra vez, el orden de llegada se conserva
+        zona.repartidores().get(REPARTIDOR_A).fijarCarga(0);
+        Assertions.assertEquals(List.of(segundo.id(), tercero.id()), pedidos(zona.emparejar(10)));
+    }
+
+    @Test
+    public void testSoloEmparejaConLaFlotaRequerida() {
+        disponible(REPARTIDOR_A, FleetType.MOTORIZADO, 3, 0);
+        disponible(REPARTIDOR_B, FleetType.CAMION, 3, 0);
+        ZonaDespacho.PedidoPendiente intermunicipal = encolar(TipoEntrega.INTERMUNICIPAL);
+        ZonaDespacho.PedidoPendiente nacional = encolar(TipoEntrega.NACIONAL);
+        ZonaDespacho.PedidoPendiente urbana = encolar(TipoEntrega.URBANA);
+
+        Map<UUID, UUID> asignado = zona.emparejar(10).stream()
+                .collect(Collectors.toMap(a -> a.pedido().id(), a -> a.repartidor().id()));
+
+        Assertions.assertEquals(Map.of(nacional.id(), REPARTIDOR_B, urbana.id(), REPARTIDOR_A), asignado);
+        asignado.keySet().forEach(zona::retirar);
+        Assertions.assertEquals(1, zona.pendientes());
+
+        disponible(UUID.randomUUID(), FleetType.VEHICULO_LIVIANO, 1, 0);
+        Assertions.assertEquals(List.of(intermunicipal.id()), pedidos(zona.emparejar(10)));
+    }
+
+    @Test
+    public void testRepartidorSinCapacidadNoEsCandidato() {
+        disponible(REPARTIDOR_A, FleetType.MOTORIZADO, 2, 2);
+        encolar(TipoEntrega.URBANA);
+
+        Assertions.assertTrue(zona.emparejar(10).isEmpty());
+        Assertions.assertEquals(1, zona.pendientes());
+    }
+
+    @Test
+    public void testOmitePedidosRetiradosYRespetaElMaximo() {
+        disponible(REPARTIDOR_A, FleetType.MOTORIZADO, 10, 0);
+        ZonaDespacho.PedidoPendiente retirado = encolar(TipoEntrega.URBANA);
+        ZonaDespacho.PedidoPendiente primero = encolar(TipoEntrega.URBANA);
+        ZonaDespacho.PedidoPendiente segundo = encolar(TipoEntrega.URBANA);
+        ZonaDespacho.PedidoPendiente tercero = encolar(TipoEntrega.URBANA);
+        zona.retirar(retirado.id());
+
+        Assertions.assertEquals(List.of(primero.id(), segundo.id()), pedidos(zona.emparejar(2)));
+        Assertions.assertEquals(List.of(tercero.id()), pedidos(zona.emparejar(2)));
+    }
+
+    @Test
+    public void testEncolarIgnoraDuplicadosYDevolverConservaElOrden() {
+        disponible(REPARTIDOR_A, FleetType.MOTORIZADO, 10, 0);
+        ZonaDespacho.PedidoPendiente primero = encolar(TipoEntrega.URBANA);
+        ZonaDespacho.PedidoPendiente segundo = encolar(TipoEntrega.URBANA);
+        zona.encolar(primero);
+        Assertions.assertEquals(2, zona.pendientes());
+
+        List<ZonaDespacho.Asignacion> asignaciones = zona.emparejar(10);
+        Assertions.assertEquals(List.of(primero.id(), segundo.id()), pedidos(asignaciones));
+
+        // Una transacción fallida devuelve los pedidos al frente de la cola en su orden
+        zona.devolver(asignaciones.stream().map(ZonaDespacho.Asignacion::pedido).toList());
+        ZonaDespacho.PedidoPendiente tercero = encolar(TipoEntrega.URBANA);
+
+        Assertions.assertEquals(List.of(primero.id(), segundo.id(), tercero.id()), pedidos(zona.emparejar(10)));
+    }
+}